@@ -0,0 +1,163 @@
+package com.example.demo.error;
+
+import com.example.demo.model.ErrorResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Measures throw-and-handle cost of AppException with and without stack capture.
+ *
+ * <pre>
+ * Usage:
+ * 1) ./gradlew jmh -PjmhIncludes=AppExceptionBenchmark
+ * 2) Compare avgt and gc.alloc.rate.norm of legacy, stackful, stackless, and cached per depth.
+ * 3) depth is the number of frames between throw and catch, standing in for the controller,
+ *    interceptor, and filter frames of a real request.
+ * 4) legacy copies the former always-stackful exception; stackful uses a code outside the
+ *    stackless set; stackless uses the default NOT_FOUND; cached reuses one shared instance.
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AppExceptionBenchmark {
+    /** Fixed error message. */
+    private static final String MESSAGE = "Item not found";
+
+    /** Frames between throw and catch. */
+    @Param({"16", "64"})
+    private int depth;
+
+    /** Handler under test. */
+    private GlobalExceptionHandler handler;
+
+    /** Request passed to the handler. */
+    private MockHttpServletRequest request;
+
+    /** Builds the handler and request. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        handler = new GlobalExceptionHandler();
+        request = new MockHttpServletRequest("GET", "/api/items/42");
+        request.addHeader("X-Request-Id", "bench-trace");
+    }
+
+    /**
+     * Throws and handles the former always-stackful exception.
+     *
+     * @return error response
+     */
+    @Benchmark
+    public ResponseEntity<ErrorResponse> legacy() {
+        ResponseEntity<ErrorResponse> response;
+        try {
+            response = descend(depth, 0);
+        } catch (final LegacyAppException ex) {
+            response = ErrorResponseFactory.buildResponse(ex.status, ex.code.name(),
+                    ex.getMessage(), null, request);
+        }
+        return response;
+    }
+
+    /**
+     * Throws and handles an AppException whose code keeps stack capture.
+     *
+     * @return error response
+     */
+    @Benchmark
+    public ResponseEntity<ErrorResponse> stackful() {
+        return throwAndHandle(1);
+    }
+
+    /**
+     * Throws and handles a new stackless AppException.
+     *
+     * @return error response
+     */
+    @Benchmark
+    public ResponseEntity<ErrorResponse> stackless() {
+        return throwAndHandle(2);
+    }
+
+    /**
+     * Throws and handles a cached shared AppException.
+     *
+     * @return error response
+     */
+    @Benchmark
+    public ResponseEntity<ErrorResponse> cached() {
+        return throwAndHandle(3);
+    }
+
+    /**
+     * Throws an AppException from depth frames down and handles it like the advice does.
+     *
+     * @param kind 1 stackful, 2 stackless, 3 cached
+     * @return error response
+     */
+    private ResponseEntity<ErrorResponse> throwAndHandle(final int kind) {
+        ResponseEntity<ErrorResponse> response;
+        try {
+            response = descend(depth, kind);
+        } catch (final AppException ex) {
+            response = handler.handleAppException(ex, request);
+        }
+        return response;
+    }
+
+    /**
+     * Recurses to the requested depth and throws.
+     *
+     * @param remaining frames left before throwing
+     * @param kind 0 legacy, 1 stackful, 2 stackless, 3 cached
+     * @return never returns normally
+     */
+    private static ResponseEntity<ErrorResponse> descend(final int remaining, final int kind) {
+        if (remaining > 0) {
+            return descend(remaining - 1, kind);
+        }
+        throw switch (kind) {
+            case 0 -> new LegacyAppException(ErrorCode.NOT_FOUND, MESSAGE, HttpStatus.NOT_FOUND);
+            case 1 -> new AppException(ErrorCode.DEPENDENCY_ERROR, MESSAGE,
+                    HttpStatus.BAD_GATEWAY);
+            case 2 -> new AppException(ErrorCode.NOT_FOUND, MESSAGE, HttpStatus.NOT_FOUND);
+            default -> AppException.cached(ErrorCode.NOT_FOUND, MESSAGE, HttpStatus.NOT_FOUND);
+        };
+    }
+
+    /** Copy of AppException before stack capture became configurable. */
+    private static final class LegacyAppException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        /** Error code for the response. */
+        private final ErrorCode code;
+
+        /** HTTP status for the response. */
+        private final HttpStatus status;
+
+        /**
+         * Creates the exception with a full stack trace.
+         *
+         * @param code error code
+         * @param message error message
+         * @param status HTTP status
+         */
+        private LegacyAppException(final ErrorCode code, final String message,
+                final HttpStatus status) {
+            super(message);
+            this.code = code;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.error;
+
+import com.example.demo.model.ErrorResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Measures the cost of producing a serialized not-found body.
+ *
+ * <pre>
+ * Usage:
+ * 1) ./gradlew jmh -PjmhIncludes=ErrorResponseTemplateBenchmark
+ * 2) Compare avgt and gc.alloc.rate.norm of factory and template.
+ * 3) factory builds an ErrorResponse and serializes it with Jackson, as the converter would;
+ *    template renders the pre-encoded body used by the fixed handlers.
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ErrorResponseTemplateBenchmark {
+    /** Mapper standing in for the message converter. */
+    private static final JsonMapper MAPPER = JsonMapper.shared();
+
+    /** Template under test. */
+    private static final ErrorResponseTemplate TEMPLATE =
+            new ErrorResponseTemplate(HttpStatus.NOT_FOUND, ErrorCode.NOT_FOUND, "Not found");
+
+    /** Request passed to both variants. */
+    private MockHttpServletRequest request;
+
+    /** Builds the request. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/wp-login.php");
+        request.addHeader("X-Request-Id", "bench-trace");
+    }
+
+    /**
+     * Builds and serializes an ErrorResponse.
+     *
+     * @return serialized body
+     */
+    @Benchmark
+    public byte[] factory() {
+        final ErrorResponse body = ErrorResponseFactory.buildResponse(HttpStatus.NOT_FOUND,
+                ErrorCode.NOT_FOUND.name(), "Not found", null, request).getBody();
+        return MAPPER.writeValueAsBytes(body);
+    }
+
+    /**
+     * Renders the pre-encoded body.
+     *
+     * @return serialized body
+     */
+    @Benchmark
+    public byte[] template() {
+        return TEMPLATE.render(request).getBody();
+    }
+}
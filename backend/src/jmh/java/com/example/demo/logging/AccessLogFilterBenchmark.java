@@ -0,0 +1,120 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Measures per-request cost of AccessLogFilter with and without body capture.
+ *
+ * <pre>
+ * Usage:
+ * 1) ./gradlew jmh -PjmhIncludes=AccessLogFilterBenchmark
+ * 2) Compare avgt (latency) and gc.alloc.rate.norm (bytes per request) across capture values.
+ * 3) The access logger runs at INFO with the production LogstashEncoder writing to a null
+ *    stream, so snapshot, capture, body decoding, masking, query sanitizing, and client-IP
+ *    resolution are measured, but log I/O is not.
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccessLogFilterBenchmark {
+    /** Response payload written by the simulated handler. */
+    private static final byte[] PAYLOAD =
+            "{\"message\":\"Hello from Spring Boot\"}".getBytes(StandardCharsets.UTF_8);
+
+    /** Handler that writes a small JSON response. */
+    private static final FilterChain CHAIN = (req, res) -> {
+        res.setContentType("application/json");
+        res.setContentLength(PAYLOAD.length);
+        res.getOutputStream().write(PAYLOAD);
+    };
+
+    /** Whether request and response body capture are enabled. */
+    @Param({"true", "false"})
+    private boolean capture;
+
+    /** Filter under test. */
+    private AccessLogFilter filter;
+
+    /** Access logger, writing only to the null-stream appender during the run. */
+    private Logger accessLogger;
+
+    /** Appender encoding access events into a null stream. */
+    private OutputStreamAppender<ILoggingEvent> appender;
+
+    /** Access logger level before the run. */
+    private ch.qos.logback.classic.Level previousLevel;
+
+    /** Access logger additivity before the run. */
+    private boolean previousAdditive;
+
+    /** Configures the filter and routes the access logger to a null-stream JSON appender. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        filter = new AccessLogFilter();
+        filter.setCaptureRequestBody(capture);
+        filter.setCaptureResponseBody(capture);
+        accessLogger = (Logger) LoggerFactory.getLogger("ACCESS_LOG");
+        previousLevel = accessLogger.getLevel();
+        previousAdditive = accessLogger.isAdditive();
+        accessLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+        accessLogger.setAdditive(false);
+        final LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(accessLogger.getLoggerContext());
+        encoder.addIncludeMdcKeyName("traceId");
+        encoder.start();
+        appender = new OutputStreamAppender<>();
+        appender.setName("NULL_JSON");
+        appender.setContext(accessLogger.getLoggerContext());
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        accessLogger.addAppender(appender);
+    }
+
+    /** Detaches the appender and restores the access logger level and additivity. */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        accessLogger.detachAppender(appender);
+        appender.stop();
+        accessLogger.setLevel(previousLevel);
+        accessLogger.setAdditive(previousAdditive);
+    }
+
+    /**
+     * Runs one request through the filter.
+     *
+     * @return response, returned so the JIT cannot discard the work
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
+     */
+    @Benchmark
+    public MockHttpServletResponse filterRequest() throws IOException, ServletException {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/hello");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilterInternal(request, response, CHAIN);
+        return response;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.logging;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the right-to-left forwarding-header resolver with the previous leftmost-hop resolver.
+ *
+ * <pre>
+ * Usage:
+ * 1) ./gradlew jmh -PjmhIncludes=ClientIpResolverBenchmark
+ * 2) Compare avgt and gc.alloc.rate.norm of current vs legacy per header shape.
+ * 3) legacy reproduces the former exact-string allowlist with InetAddress fallback and
+ *    substring of the first hop; its untrusted-remote path includes the name-service call.
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ClientIpResolverBenchmark {
+    /** Trusted proxies as configured by default. */
+    private static final String TRUSTED = "127.0.0.1,::1,10.0.0.0/8";
+
+    /** Exact-string allowlist used by the legacy resolver (CIDR entries never matched). */
+    private static final Set<String> LEGACY_TRUSTED = Set.of("127.0.0.1", "::1", "10.0.0.1");
+
+    /** Header shape under test. */
+    @Param({"single", "chain", "forwarded", "untrustedRemote"})
+    private String shape;
+
+    /** Trusted-proxy matcher used by the current resolver. */
+    private TrustedProxyMatcher matcher;
+
+    /** Remote address for the scenario. */
+    private String remoteAddr;
+
+    /** X-Forwarded-For value for the scenario. */
+    private String forwardedFor;
+
+    /** Forwarded value for the scenario. */
+    private String forwarded;
+
+    /** Builds the scenario inputs. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        matcher = TrustedProxyMatcher.parse(TRUSTED);
+        remoteAddr = "10.0.0.1";
+        forwardedFor = "203.0.113.9";
+        forwarded = null;
+        switch (shape) {
+            case "chain" -> forwardedFor = "198.51.100.4, 203.0.113.9, 10.0.0.7, 10.0.0.8";
+            case "forwarded" -> {
+                forwardedFor = null;
+                forwarded = "for=198.51.100.4, for=\"[2001:db8:cafe::17]:4711\";proto=https, "
+                        + "for=10.0.0.7;by=10.0.0.1";
+            }
+            case "untrustedRemote" -> remoteAddr = "198.51.100.200";
+            default -> {
+                // single hop
+            }
+        }
+    }
+
+    /**
+     * Resolves the client IP with the trie matcher and right-to-left parser.
+     *
+     * @return client IP
+     */
+    @Benchmark
+    public String current() {
+        return forwarded == null
+                ? AccessLogClientIpResolver.resolveClientIp(remoteAddr, forwardedFor,
+                        ForwardingHeader.X_FORWARDED_FOR, matcher)
+                : AccessLogClientIpResolver.resolveClientIp(remoteAddr, forwarded,
+                        ForwardingHeader.FORWARDED, matcher);
+    }
+
+    /**
+     * Resolves the client IP the way the resolver did before the right-to-left parser.
+     *
+     * @return client IP
+     */
+    @Benchmark
+    public String legacy() {
+        String clientIp = remoteAddr;
+        if (forwardedFor != null && !forwardedFor.isBlank() && legacyTrusted(remoteAddr)) {
+            final int commaIndex = forwardedFor.indexOf(',');
+            clientIp = commaIndex > 0 ? forwardedFor.substring(0, commaIndex).trim()
+                    : forwardedFor.trim();
+        }
+        return clientIp;
+    }
+
+    /**
+     * Former trust check: exact lowercase match, then InetAddress canonicalization.
+     *
+     * @param address remote address
+     * @return true when trusted
+     */
+    private static boolean legacyTrusted(final String address) {
+        boolean trusted = LEGACY_TRUSTED.contains(address.trim().toLowerCase(Locale.ROOT));
+        if (!trusted) {
+            try {
+                trusted = LEGACY_TRUSTED.contains(InetAddress.getByName(address).getHostAddress()
+                        .trim().toLowerCase(Locale.ROOT));
+            } catch (final UnknownHostException ex) {
+                trusted = false;
+            }
+        }
+        return trusted;
+    }
+}
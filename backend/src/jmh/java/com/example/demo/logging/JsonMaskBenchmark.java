@@ -0,0 +1,82 @@
+package com.example.demo.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the streaming JSON masker with the regex sanitizer it replaced.
+ *
+ * <pre>
+ * Usage:
+ * 1) ./gradlew jmh -PjmhIncludes=JsonMaskBenchmark
+ * 2) Compare avgt and gc.alloc.rate.norm of streaming vs regex per body size.
+ * 3) regex reproduces the former flow: decode everything, mask everything, then cut to
+ *    MAX_BODY_BYTES characters; streaming stops at MAX_BODY_BYTES output bytes.
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonMaskBenchmark {
+    /** Former JSON field matcher for sensitive keys. */
+    private static final Pattern JSON_MASK = Pattern
+            .compile("(?i)(\\\"(?:password|passwd|pwd|secret|token|access_token|refresh_token"
+                    + "|authorization|auth|apiKey|cardNumber|creditCard|ssn|idCard)"
+                    + "\\\"\\s*:\\s*\\\")([^\\\"]*)(\\\")");
+
+    /** Body size in bytes. */
+    @Param({"1024", "65536", "10485760"})
+    private int size;
+
+    /** JSON body with a sensitive field every few entries. */
+    private byte[] body;
+
+    /** Builds a JSON array of small objects of roughly the requested size. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        final StringBuilder json = new StringBuilder(size + 128).append('[');
+        for (int index = 0; json.length() < size; index++) {
+            if (index > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(index).append(",\"name\":\"user-").append(index)
+                    .append("\",\"password\":\"p").append(index).append("\"}");
+        }
+        body = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Masks with the streaming masker under the capture budget.
+     *
+     * @return masked body
+     */
+    @Benchmark
+    public String streaming() {
+        return new JsonBodyMasker(body, AccessLogSupport.MAX_BODY_BYTES).run()
+                .toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Masks the way the regex sanitizer did before the streaming masker.
+     *
+     * @return masked body
+     */
+    @Benchmark
+    public String regex() {
+        final String masked = JSON_MASK.matcher(new String(body, StandardCharsets.UTF_8))
+                .replaceAll("$1****$3");
+        return masked.length() > AccessLogSupport.MAX_BODY_BYTES
+                ? masked.substring(0, AccessLogSupport.MAX_BODY_BYTES)
+                : masked;
+    }
+}
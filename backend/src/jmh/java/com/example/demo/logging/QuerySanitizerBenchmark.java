@@ -0,0 +1,117 @@
+package com.example.demo.logging;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the single-pass query sanitizer with the split-and-decode sanitizer it replaced.
+ *
+ * <pre>
+ * Usage:
+ * 1) ./gradlew jmh -PjmhIncludes=QuerySanitizerBenchmark
+ * 2) Compare avgt and gc.alloc.rate.norm of current vs legacy per query shape.
+ * 3) analytics has no sensitive key (current returns the input instance); secret masks one
+ *    key near the end; encoded percent-encodes every key.
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QuerySanitizerBenchmark {
+    /** Former sensitive keys in normalized lowercase alphanumeric form. */
+    private static final Set<String> LEGACY_KEYS =
+            Set.of("password", "passwd", "pwd", "secret", "token", "accesstoken", "refreshtoken",
+                    "authorization", "auth", "apikey", "cardnumber", "creditcard", "ssn", "idcard");
+
+    /** Query shape under test. */
+    @Param({"analytics", "secret", "encoded"})
+    private String shape;
+
+    /** Query string for the scenario. */
+    private String query;
+
+    /** Builds a long analytics-style query of about 1 KB. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        final StringBuilder builder = new StringBuilder(1024);
+        for (int index = 0; builder.length() < 1000; index++) {
+            if (index > 0) {
+                builder.append('&');
+            }
+            final String key = "utm_param_" + index;
+            builder.append("encoded".equals(shape) ? key.replace("_", "%5F") : key)
+                    .append("=value+").append(index);
+        }
+        if ("secret".equals(shape)) {
+            builder.append("&access_token=abc");
+        }
+        query = builder.toString();
+    }
+
+    /**
+     * Sanitizes with the single-pass scanner.
+     *
+     * @return sanitized query
+     */
+    @Benchmark
+    public String current() {
+        return LogSanitizer.sanitizeQuery(query);
+    }
+
+    /**
+     * Sanitizes the way the sanitizer did before the single-pass scanner.
+     *
+     * @return sanitized query
+     */
+    @Benchmark
+    public String legacy() {
+        final String[] parts = query.split("&", -1);
+        final StringBuilder builder = new StringBuilder(query.length());
+        for (int index = 0; index < parts.length; index++) {
+            if (index > 0) {
+                builder.append('&');
+            }
+            final String part = parts[index];
+            final int equalsIndex = part.indexOf('=');
+            final String key = equalsIndex >= 0 ? part.substring(0, equalsIndex) : part;
+            builder.append(equalsIndex >= 0 && legacySensitive(key) ? key + "=****" : part);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Former key check: decode, lowercase, strip to alphanumerics, then set lookup.
+     *
+     * @param key raw key
+     * @return true when sensitive
+     */
+    private static boolean legacySensitive(final String key) {
+        String decoded;
+        try {
+            decoded = URLDecoder.decode(key, StandardCharsets.UTF_8);
+        } catch (final IllegalArgumentException ex) {
+            decoded = key;
+        }
+        final String lower = decoded.toLowerCase(Locale.ROOT);
+        final StringBuilder normalized = new StringBuilder(lower.length());
+        for (int index = 0; index < lower.length(); index++) {
+            final char current = lower.charAt(index);
+            if (current >= 'a' && current <= 'z' || current >= '0' && current <= '9') {
+                normalized.append(current);
+            }
+        }
+        return LEGACY_KEYS.contains(normalized.toString());
+    }
+}
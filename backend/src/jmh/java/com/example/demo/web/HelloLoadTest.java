@@ -0,0 +1,146 @@
+package com.example.demo.web;
+
+import com.example.demo.DemoApplication;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load test comparing the entity and pre-encoded modes of GET /api/hello end to end.
+ *
+ * <pre>
+ * Usage:
+ * 1) ./gradlew helloLoadTest [-PloadSeconds=10] [-PloadClients=32]
+ * 2) For each mode the application starts on a random port, clients issue GET /api/hello in a
+ *    closed loop for a warm-up and a measured period, and the application stops.
+ * 3) Compare req/s and cpu/req: cpu/req is the CPU time of Tomcat request threads divided by
+ *    completed requests, so client and background threads are excluded.
+ * 4) entity returns a ResponseEntity serialized by the message converter per request;
+ *    pre-encoded writes the cached bytes with Content-Length.
+ * </pre>
+ */
+public final class HelloLoadTest {
+    /** Default measured seconds per mode. */
+    private static final int DEFAULT_SECONDS = 10;
+
+    /** Default number of concurrent clients. */
+    private static final int DEFAULT_CLIENTS = 32;
+
+    /** Name fragment of Tomcat request worker threads. */
+    private static final String WORKER_THREAD = "-exec-";
+
+    /** Prevents instantiation. */
+    private HelloLoadTest() {
+    }
+
+    /**
+     * Runs both modes and prints one result line per mode.
+     *
+     * @param args optional measured seconds and client count
+     * @throws InterruptedException when interrupted
+     */
+    public static void main(final String[] args) throws InterruptedException {
+        final int seconds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SECONDS;
+        final int clients = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CLIENTS;
+        for (final boolean preEncoded : new boolean[] {false, true}) {
+            final String mode = preEncoded ? "pre-encoded" : "entity";
+            try (ConfigurableApplicationContext context = DemoApplication.run("--server.port=0",
+                    "--app.http.hello.pre-encoded=" + preEncoded)) {
+                final URI uri = URI.create("http://localhost:"
+                        + context.getEnvironment().getProperty("local.server.port")
+                        + "/api/hello");
+                run(uri, clients, Math.max(1, seconds / 2));
+                final Map<Long, Long> before = workerCpuNanos();
+                final long[] counts = run(uri, clients, seconds);
+                final long cpuNanos = cpuSince(before);
+                System.out.printf(Locale.ROOT,
+                        "%-12s requests=%d errors=%d req/s=%.0f cpu/req=%.1fus%n", mode,
+                        counts[0], counts[1], counts[0] / (double) seconds,
+                        cpuNanos / 1000.0 / Math.max(1, counts[0]));
+            }
+        }
+    }
+
+    /**
+     * Issues requests from closed-loop clients for a fixed time.
+     *
+     * @param uri hello URI
+     * @param clients concurrent clients
+     * @param seconds duration in seconds
+     * @return completed 200 responses and failed requests
+     * @throws InterruptedException when interrupted
+     */
+    private static long[] run(final URI uri, final int clients, final int seconds)
+            throws InterruptedException {
+        final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5)).build();
+        final HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        final LongAdder ok = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        final List<Thread> workers = new ArrayList<>();
+        for (int index = 0; index < clients; index++) {
+            workers.add(Thread.ofPlatform().name("load-" + index).start(() -> {
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    try {
+                        final int status = client.send(request,
+                                HttpResponse.BodyHandlers.discarding()).statusCode();
+                        (status == 200 ? ok : errors).increment();
+                    } catch (IOException ex) {
+                        errors.increment();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }));
+        }
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+        return new long[] {ok.sum(), errors.sum()};
+    }
+
+    /**
+     * Returns the CPU time of each Tomcat request thread.
+     *
+     * @return CPU nanoseconds by thread id
+     */
+    private static Map<Long, Long> workerCpuNanos() {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        final Map<Long, Long> cpu = new HashMap<>();
+        for (final ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info != null && info.getThreadName().contains(WORKER_THREAD)) {
+                cpu.put(info.getThreadId(), threads.getThreadCpuTime(info.getThreadId()));
+            }
+        }
+        return cpu;
+    }
+
+    /**
+     * Returns the CPU time Tomcat request threads used since a snapshot.
+     *
+     * @param before earlier snapshot; threads started since count from zero
+     * @return CPU nanoseconds
+     */
+    private static long cpuSince(final Map<Long, Long> before) {
+        long total = 0;
+        for (final Map.Entry<Long, Long> entry : workerCpuNanos().entrySet()) {
+            total += entry.getValue() - before.getOrDefault(entry.getKey(), 0L);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.demo.web;
+
+import com.example.demo.DemoApplication;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Load test comparing platform-thread and virtual-thread request execution with slow requests.
+ *
+ * <pre>
+ * Usage:
+ * 1) ./gradlew virtualThreadLoadTest [-PloadSeconds=20] [-PloadClients=10000]
+ *    [-PloadDelayMs=100]
+ * 2) For each mode the application starts on a random port with
+ *    spring.threads.virtual.enabled set accordingly, plus a GET /bench/slow endpoint that
+ *    blocks for loadDelayMs as a stand-in for a downstream call.
+ * 3) loadClients virtual-thread clients each keep one request in flight for a warm-up and a
+ *    measured period; Tomcat accepts up to 20000 connections in both modes so only the
+ *    request executor differs.
+ * 4) Compare req/s and mean latency with the Little's-law bound clients * 1000 / delayMs, and
+ *    the peak heap and peak platform-thread count of the JVM.
+ * </pre>
+ *
+ * <pre>
+ * Data contract:
+ * - Clients and server share the JVM, so memory includes the client side; it is the same in
+ *   both modes, so the difference is the server's.
+ * - 10k connections need about 20k file descriptors; raise ulimit -n first.
+ * - /bench is excluded from access logging so the console does not dominate the run.
+ * </pre>
+ */
+public final class VirtualThreadLoadTest {
+    /** Default measured seconds per mode. */
+    private static final int DEFAULT_SECONDS = 20;
+
+    /** Default number of concurrent clients. */
+    private static final int DEFAULT_CLIENTS = 10_000;
+
+    /** Default server-side delay per request in milliseconds. */
+    private static final long DEFAULT_DELAY_MS = 100;
+
+    /** Interval between memory and thread samples. */
+    private static final long SAMPLE_MILLIS = 100;
+
+    /** Prevents instantiation. */
+    private VirtualThreadLoadTest() {
+    }
+
+    /**
+     * Runs both modes and prints one result line per mode.
+     *
+     * @param args optional measured seconds, client count, and delay in milliseconds
+     * @throws InterruptedException when interrupted
+     */
+    public static void main(final String[] args) throws InterruptedException {
+        final int seconds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SECONDS;
+        final int clients = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CLIENTS;
+        final long delayMs = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_DELAY_MS;
+        System.out.printf(Locale.ROOT, "bound req/s=%.0f (clients * 1000 / delayMs)%n",
+                clients * 1000.0 / delayMs);
+        for (final boolean virtual : new boolean[] {false, true}) {
+            final String mode = virtual ? "virtual" : "platform";
+            try (ConfigurableApplicationContext context =
+                    new SpringApplicationBuilder(DemoApplication.class, SlowController.class)
+                            .run("--server.port=0", "--spring.threads.virtual.enabled=" + virtual,
+                                    "--server.tomcat.max-connections=20000",
+                                    "--server.tomcat.accept-count=10000",
+                                    "--app.logging.access.policies=/actuator=skip,/bench=skip")) {
+                final URI uri = URI.create("http://localhost:"
+                        + context.getEnvironment().getProperty("local.server.port")
+                        + "/bench/slow?delayMs=" + delayMs);
+                run(uri, clients, Math.max(1, seconds / 4));
+                System.gc();
+                final Result result = run(uri, clients, seconds);
+                System.out.printf(Locale.ROOT,
+                        "%-9s requests=%d errors=%d req/s=%.0f mean=%.1fms max=%dms "
+                                + "peakHeap=%dMiB peakPlatformThreads=%d%n",
+                        mode, result.ok, result.errors, result.ok / (double) seconds,
+                        result.latencyNanos / 1e6 / Math.max(1, result.ok),
+                        TimeUnit.NANOSECONDS.toMillis(result.maxNanos),
+                        result.peakHeapBytes >> 20, result.peakPlatformThreads);
+            }
+        }
+    }
+
+    /**
+     * Issues requests from closed-loop clients for a fixed time while sampling memory.
+     *
+     * @param uri slow endpoint URI
+     * @param clients concurrent clients
+     * @param seconds duration in seconds
+     * @return counts, latency, and peak resource usage
+     * @throws InterruptedException when interrupted
+     */
+    private static Result run(final URI uri, final int clients, final int seconds)
+            throws InterruptedException {
+        final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30)).build();
+        final HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60))
+                .GET().build();
+        final LongAdder ok = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder latency = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, 0);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        final AtomicBoolean sampling = new AtomicBoolean(true);
+        final long[] peaks = new long[2];
+        final Thread sampler = Thread.ofPlatform().name("load-sampler").start(() -> {
+            final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            while (sampling.get()) {
+                peaks[0] = Math.max(peaks[0], memory.getHeapMemoryUsage().getUsed());
+                try {
+                    Thread.sleep(SAMPLE_MILLIS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    sampling.set(false);
+                }
+            }
+            peaks[1] = threads.getPeakThreadCount();
+        });
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int index = 0; index < clients; index++) {
+                executor.execute(() -> {
+                    while (System.nanoTime() < deadline
+                            && !Thread.currentThread().isInterrupted()) {
+                        final long start = System.nanoTime();
+                        try {
+                            final int status = client.send(request,
+                                    HttpResponse.BodyHandlers.discarding()).statusCode();
+                            final long elapsed = System.nanoTime() - start;
+                            if (status == 200) {
+                                ok.increment();
+                                latency.add(elapsed);
+                                max.accumulate(elapsed);
+                            } else {
+                                errors.increment();
+                            }
+                        } catch (IOException ex) {
+                            errors.increment();
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+            }
+        }
+        sampling.set(false);
+        sampler.join();
+        return new Result(ok.sum(), errors.sum(), latency.sum(), max.get(), peaks[0], peaks[1]);
+    }
+
+    /**
+     * Outcome of one measured run.
+     *
+     * @param ok completed 200 responses
+     * @param errors failed requests
+     * @param latencyNanos summed latency of completed requests
+     * @param maxNanos maximum latency of completed requests
+     * @param peakHeapBytes peak sampled heap usage
+     * @param peakPlatformThreads peak JVM thread count; virtual threads are not counted
+     */
+    private record Result(long ok, long errors, long latencyNanos, long maxNanos,
+            long peakHeapBytes, long peakPlatformThreads) {
+    }
+
+    /** Endpoint that blocks like a request waiting on a slow downstream call. */
+    @RestController
+    public static class SlowController {
+        /**
+         * Sleeps for the requested time and answers with a short body.
+         *
+         * @param delayMs delay in milliseconds
+         * @return short body
+         * @throws InterruptedException when interrupted while sleeping
+         */
+        @GetMapping("/bench/slow")
+        public String slow(@RequestParam final long delayMs) throws InterruptedException {
+            Thread.sleep(delayMs);
+            return "ok";
+        }
+    }
+}
@@ -2,8 +2,16 @@ package com.example.demo;
 
 import com.example.demo.api.HelloApi;
 import com.example.demo.model.HelloResponse;
+import com.example.demo.web.CacheableResponse;
+import com.example.demo.web.PreEncodedResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 /**
  * Implements the OpenAPI-generated interface.
@@ -13,6 +21,9 @@ import org.springframework.web.bind.annotation.RestController;
  * 1) Bind the generated API contract to a Spring REST controller.
  * 2) Build HelloResponse payloads with a deterministic default greeting.
  * 3) Return HTTP 200 responses for successful hello requests.
+ * 4) Tag responses with a strong ETag and Cache-Control so clients revalidate with a 304.
+ * 5) Write the greeting as JSON bytes encoded once, optionally pre-gzipped, since it depends
+ *    only on configuration.
  * </pre>
  */
 @RestController
@@ -20,23 +31,100 @@ public class HelloController implements HelloApi {
     /** Default greeting returned by the API. */
     private final String message;
 
+    /** Greeting payload with its ETag and Cache-Control policy. */
+    private CacheableResponse<HelloResponse> hello;
+
+    /** Greeting bytes written directly to the response. */
+    private PreEncodedResponse encoded;
+
+    /** Whether getHello() writes the pre-encoded bytes instead of returning an entity. */
+    private boolean preEncoded = true;
+
+    /** Whether a gzip variant of the greeting is kept. */
+    private boolean gzip = true;
+
+    /** Configured max-age in seconds. */
+    private long maxAgeSeconds;
+
     /**
      * Returns a hello message.
      * 
      * <pre>
      * Algorithm:
-     * 1) Create a new HelloResponse instance.
-     * 2) Populate the message field from the configured default value.
-     * 3) Wrap the payload with ResponseEntity.ok(...).
+     * 1) In pre-encoded mode, write the cached greeting bytes, or an empty 304, straight to
+     *    the servlet response and return null so Spring MVC treats the request as handled.
+     * 2) Otherwise wrap the shared HelloResponse in an OK entity with its ETag and
+     *    Cache-Control headers; Spring MVC serializes it or answers a matching If-None-Match
+     *    with an empty 304.
      * </pre>
      *
-     * @return the hello response payload
+     * @return the hello response entity, or null when the response was already written
      */
     @Override
     public ResponseEntity<HelloResponse> getHello() {
+        ResponseEntity<HelloResponse> entity = null;
+        if (preEncoded) {
+            final ServletRequestAttributes attributes =
+                    (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+            try {
+                encoded.write(attributes.getRequest(), attributes.getResponse());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        } else {
+            entity = hello.toResponseEntity();
+        }
+        return entity;
+    }
+
+    /**
+     * Configures how long clients may reuse the greeting without revalidating.
+     *
+     * @param maxAgeSeconds max-age in seconds; 0 sends no-cache
+     */
+    @Value("${app.http.hello.max-age-seconds:0}")
+    /* default */ void setMaxAgeSeconds(final long maxAgeSeconds) {
+        this.maxAgeSeconds = maxAgeSeconds;
+        rebuild();
+    }
+
+    /**
+     * Configures whether the greeting is written from pre-encoded bytes.
+     *
+     * @param preEncoded true to write cached bytes; false to return a serialized entity
+     */
+    @Value("${app.http.hello.pre-encoded:true}")
+    /* default */ void setPreEncoded(final boolean preEncoded) {
+        this.preEncoded = preEncoded;
+    }
+
+    /**
+     * Configures whether a gzip variant of the greeting is kept.
+     *
+     * @param gzip true to serve gzip when clients accept it and it is smaller
+     */
+    @Value("${app.http.hello.gzip:true}")
+    /* default */ void setGzip(final boolean gzip) {
+        this.gzip = gzip;
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the cached greeting representations from the current configuration.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Create the HelloResponse once.
+     * 2) Use the message as the representation version of the strong ETag.
+     * 3) Encode the same HelloResponse to JSON and, when enabled, gzip once.
+     * </pre>
+     */
+    private void rebuild() {
         final HelloResponse response = new HelloResponse();
         response.setMessage(message);
-        return ResponseEntity.ok(response);
+        final CacheControl cacheControl = CacheableResponse.cacheControl(maxAgeSeconds);
+        hello = CacheableResponse.of(response, message, cacheControl);
+        encoded = PreEncodedResponse.json(response, message, cacheControl, gzip);
     }
 
     /**
@@ -45,10 +133,11 @@ public class HelloController implements HelloApi {
      * <pre>
      * Initialization:
      * 1) Assign the fixed default greeting used by getHello().
-     * 2) Keep state immutable after controller creation.
+     * 2) Build its cached responses with no-cache until configuration is bound.
      * </pre>
      */
     public HelloController() {
         this.message = "Hello from Spring Boot";
+        rebuild();
     }
 }
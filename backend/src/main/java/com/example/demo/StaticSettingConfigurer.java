@@ -0,0 +1,42 @@
+package com.example.demo;
+
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Base for configurers that install a setting into static state.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Let a subclass install its setting from a Spring injection point at startup.
+ * 2) Restore the compiled-in default when the application context closes.
+ * </pre>
+ *
+ * <pre>
+ * Design note:
+ * 1) The settings are read from code that Spring does not create, such as exceptions thrown
+ *    with new and static helpers on the logging and error paths, so they cannot be injected
+ *    and live in static fields.
+ * 2) Static fields outlive the context that wrote them. Restoring the default on close keeps
+ *    one context's configuration from leaking into the next context or into plain unit tests
+ *    started in the same JVM.
+ * </pre>
+ */
+public abstract class StaticSettingConfigurer implements DisposableBean {
+    /**
+     * Restores the default when the application context closes.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Delegate to restoreDefault().
+     * </pre>
+     */
+    @Override
+    public final void destroy() {
+        restoreDefault();
+    }
+
+    /**
+     * Puts the static setting back to its compiled-in default.
+     */
+    protected abstract void restoreDefault();
+}
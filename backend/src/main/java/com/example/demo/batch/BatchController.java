@@ -0,0 +1,152 @@
+package com.example.demo.batch;
+
+import com.example.demo.api.BatchApi;
+import com.example.demo.error.AppException;
+import com.example.demo.error.ErrorCode;
+import com.example.demo.model.BatchRequest;
+import com.example.demo.model.BatchResponse;
+import com.example.demo.model.BatchSubRequest;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Implements the OpenAPI-generated batch interface.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Validate the batch: at least one and at most app.http.batch.max-requests GET
+ *    sub-requests, each with an id and a path under /api/ other than /api/batch.
+ * 2) Hand the sub-requests to BatchDispatcher and return the results in request order.
+ * 3) Report invalid batches as 400 Bad Request without running any sub-request.
+ * </pre>
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BatchController implements BatchApi {
+    /** Prefix every sub-request path must start with. */
+    private static final String API_PREFIX = "/api/";
+
+    /** Path of this endpoint, which sub-requests must not target. */
+    private static final String BATCH_PATH = "/api/batch";
+
+    /** Dispatcher running the sub-requests. */
+    private final BatchDispatcher dispatcher;
+
+    /** Maximum number of sub-requests per batch. */
+    private int maxRequests = 20;
+
+    /**
+     * Creates the controller.
+     *
+     * @param dispatcher dispatcher running the sub-requests
+     */
+    public BatchController(final BatchDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Runs a batch of GET sub-requests.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Validate the batch and every sub-request before running any of them.
+     * 2) Dispatch the sub-requests in parallel with the current request as the batch request.
+     * 3) Return HTTP 200 with one result per sub-request; failed sub-requests carry their own
+     *    error status and ErrorResponse body.
+     * </pre>
+     *
+     * @param batchRequest sub-requests
+     * @return batch results
+     */
+    @Override
+    public ResponseEntity<BatchResponse> executeBatch(final BatchRequest batchRequest) {
+        final List<BatchSubRequest> requests = validate(batchRequest);
+        final ServletRequestAttributes attributes =
+                (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        final BatchResponse response = new BatchResponse();
+        response.setResponses(dispatcher.dispatch(attributes.getRequest(),
+                attributes.getResponse(), requests));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Validates a batch.
+     *
+     * @param batchRequest batch request body
+     * @return sub-requests
+     * @throws AppException when the batch or a sub-request is invalid
+     */
+    private List<BatchSubRequest> validate(final BatchRequest batchRequest) {
+        final List<BatchSubRequest> requests = batchRequest.getRequests();
+        if (requests == null || requests.isEmpty()) {
+            throw badRequest("requests must not be empty");
+        }
+        if (requests.size() > maxRequests) {
+            throw badRequest("requests must not contain more than " + maxRequests + " entries");
+        }
+        for (final BatchSubRequest request : requests) {
+            validate(request);
+        }
+        return requests;
+    }
+
+    /**
+     * Validates a sub-request.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Require an id and a path.
+     * 2) Require the path portion to start with /api/ and to contain no dot-segments, so it
+     *    cannot escape the API prefix once normalized.
+     * 3) Reject nested batches.
+     * </pre>
+     *
+     * @param request sub-request
+     * @throws AppException when the sub-request is invalid
+     */
+    private static void validate(final BatchSubRequest request) {
+        if (request == null || request.getId() == null || request.getPath() == null) {
+            throw badRequest("each request must have an id and a path");
+        }
+        final String target = request.getPath();
+        final int query = target.indexOf('?');
+        final String path = query < 0 ? target : target.substring(0, query);
+        if (!path.startsWith(API_PREFIX) || path.contains("..")) {
+            throw badRequest("path must be under " + API_PREFIX + " without dot-segments: "
+                    + request.getId());
+        }
+        if (BATCH_PATH.equals(path) || path.startsWith(BATCH_PATH + "/")) {
+            throw badRequest("path must not target " + BATCH_PATH + ": " + request.getId());
+        }
+    }
+
+    /**
+     * Builds a 400 Bad Request exception.
+     *
+     * @param message error message
+     * @return exception to throw
+     */
+    private static AppException badRequest(final String message) {
+        return new AppException(ErrorCode.BAD_REQUEST, message, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Configures the maximum number of sub-requests per batch.
+     *
+     * @param maxRequests maximum, at least 1
+     * @throws IllegalArgumentException when maxRequests is below 1
+     */
+    @Value("${app.http.batch.max-requests:20}")
+    /* default */ void setMaxRequests(final int maxRequests) {
+        if (maxRequests < 1) {
+            throw new IllegalArgumentException("app.http.batch.max-requests must be at least 1");
+        }
+        this.maxRequests = maxRequests;
+    }
+}
@@ -0,0 +1,403 @@
+package com.example.demo.batch;
+
+import com.example.demo.error.ErrorResponseFactory;
+import com.example.demo.error.GlobalExceptionHandler;
+import com.example.demo.logging.AccessLogFilter;
+import com.example.demo.model.BatchSubRequest;
+import com.example.demo.model.BatchSubResponse;
+import com.example.demo.model.ErrorResponse;
+import com.example.demo.trace.TraceIdResolver;
+import com.example.demo.trace.TraceParent;
+import jakarta.servlet.Filter;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Runs batch sub-requests through the access-log filter and Spring MVC in parallel.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Build one GET sub-request per entry with headers inherited from the batch request and a
+ *    trace id derived from the batch trace id.
+ * 2) Run each sub-request on its own virtual thread through AccessLogFilter and a
+ *    DispatcherServlet sharing the application context, so it is logged, measured, and
+ *    mapped to errors like a direct request.
+ * 3) Map failures that escape the chain through GlobalExceptionHandler.handleUnhandled.
+ * 4) Render errors committed without a body, such as sendError(405), through
+ *    ErrorResponseFactory, since there is no container error page for sub-requests.
+ * 5) Convert buffered responses into BatchSubResponse entries in request order.
+ * </pre>
+ *
+ * <pre>
+ * Design note:
+ * 1) The dispatcher servlet is private because the container-managed one is initialized only
+ *    by the container, and MockMvc uses its own.
+ * 2) Header values are copied on the batch thread; the batch request is not touched
+ *    concurrently except for read-only connection details.
+ * </pre>
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class BatchDispatcher implements SmartInitializingSingleton {
+    /** Servlet name of the batch dispatcher. */
+    /* default */ static final String SERVLET_NAME = "batchDispatcher";
+
+    /** Prefix of sub-request worker thread names. */
+    private static final String THREAD_PREFIX = "batch-";
+
+    /** Headers describing the batch body, its encoding, or its trace; never inherited. */
+    private static final Set<String> NOT_INHERITED = caseInsensitive(HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_ENCODING, HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.ACCEPT_ENCODING, HttpHeaders.EXPECT, HttpHeaders.IF_NONE_MATCH,
+            HttpHeaders.IF_MODIFIED_SINCE, TraceIdResolver.TRACE_ID_HEADER, TraceParent.HEADER);
+
+    /**
+     * Headers a sub-request cannot set: encoding headers, since sub-responses are re-encoded as
+     * JSON, and forwarding headers, since the batch remote address is inherited and a trusted
+     * proxy would otherwise vouch for a client-chosen address.
+     */
+    private static final Set<String> NOT_OVERRIDABLE = caseInsensitive(
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_ENCODING,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.ACCEPT_ENCODING, "X-Forwarded-For",
+            "Forwarded", "X-Real-IP");
+
+    /** Filter applied to every sub-request. */
+    private final Filter filter;
+
+    /** Servlet that handles every sub-request. */
+    private final Servlet servlet;
+
+    /** Servlet context the servlet is initialized with. */
+    private final ServletContext servletContext;
+
+    /** Handler for failures that escape the filter chain. */
+    private final GlobalExceptionHandler exceptionHandler;
+
+    /**
+     * Creates the dispatcher used by the application.
+     *
+     * @param filter access-log filter
+     * @param context web application context shared with the batch dispatcher servlet
+     * @param exceptionHandler global exception handler
+     */
+    @Autowired
+    public BatchDispatcher(final AccessLogFilter filter, final WebApplicationContext context,
+            final GlobalExceptionHandler exceptionHandler) {
+        this(filter, dispatcherServlet(context), context.getServletContext(), exceptionHandler);
+    }
+
+    /**
+     * Creates a dispatcher.
+     *
+     * @param filter filter applied to every sub-request
+     * @param servlet servlet that handles every sub-request
+     * @param servletContext servlet context for initialization
+     * @param exceptionHandler handler for failures that escape the chain
+     */
+    /* default */ BatchDispatcher(final Filter filter, final Servlet servlet,
+            final ServletContext servletContext, final GlobalExceptionHandler exceptionHandler) {
+        this.filter = filter;
+        this.servlet = servlet;
+        this.servletContext = servletContext;
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    /**
+     * Creates a DispatcherServlet over an existing application context.
+     *
+     * @param context application context; already refreshing, so it is not refreshed again
+     * @return dispatcher servlet
+     */
+    private static DispatcherServlet dispatcherServlet(final WebApplicationContext context) {
+        final DispatcherServlet dispatcher = new DispatcherServlet(context);
+        dispatcher.setPublishContext(false);
+        return dispatcher;
+    }
+
+    /**
+     * Builds a case-insensitive set of header names.
+     *
+     * @param names header names
+     * @return unmodifiable set
+     */
+    private static Set<String> caseInsensitive(final String... names) {
+        final Map<String, Boolean> set = new LinkedCaseInsensitiveMap<>();
+        for (final String name : names) {
+            set.put(name, Boolean.TRUE);
+        }
+        return Collections.unmodifiableSet(set.keySet());
+    }
+
+    /**
+     * Initializes the servlet once all singletons, including handler mappings, exist.
+     *
+     * @throws IllegalStateException when initialization fails
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            servlet.init(servletConfig(servletContext));
+        } catch (ServletException ex) {
+            throw new IllegalStateException("Cannot initialize " + SERVLET_NAME, ex);
+        }
+    }
+
+    /**
+     * Builds the servlet configuration.
+     *
+     * @param servletContext servlet context
+     * @return configuration without init parameters
+     */
+    private static ServletConfig servletConfig(final ServletContext servletContext) {
+        return new ServletConfig() {
+            @Override
+            public String getServletName() {
+                return SERVLET_NAME;
+            }
+
+            @Override
+            public ServletContext getServletContext() {
+                return servletContext;
+            }
+
+            @Override
+            public String getInitParameter(final String name) {
+                return null;
+            }
+
+            @Override
+            public Enumeration<String> getInitParameterNames() {
+                return Collections.emptyEnumeration();
+            }
+        };
+    }
+
+    /**
+     * Runs sub-requests in parallel and returns their results in request order.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Copy the inheritable batch headers once.
+     * 2) Build each sub-request with those headers, its own headers, and the trace id
+     *    batchTraceId-N unless it sets X-Request-Id itself.
+     * 3) Start one virtual thread per sub-request and wait for all of them.
+     * 4) Convert each buffered response, echoing the sub-request id.
+     * </pre>
+     *
+     * @param batch batch request
+     * @param batchResponse batch response, used only for read-only delegation
+     * @param requests validated sub-requests
+     * @return one result per sub-request
+     */
+    public List<BatchSubResponse> dispatch(final HttpServletRequest batch,
+            final HttpServletResponse batchResponse, final List<BatchSubRequest> requests) {
+        final String traceId = TraceIdResolver.resolve(batch);
+        final Map<String, List<String>> inherited = inheritedHeaders(batch);
+        final List<CompletableFuture<BatchServletResponse>> futures =
+                new ArrayList<>(requests.size());
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name(THREAD_PREFIX, 0).factory())) {
+            for (int index = 0; index < requests.size(); index++) {
+                final BatchSubRequest request = requests.get(index);
+                final BatchServletRequest subRequest = new BatchServletRequest(batch,
+                        request.getPath(), headers(inherited, request.getHeaders(),
+                                traceId + '-' + (index + 1)));
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> execute(subRequest, batchResponse), executor));
+            }
+        }
+        final List<BatchSubResponse> results = new ArrayList<>(requests.size());
+        for (int index = 0; index < requests.size(); index++) {
+            results.add(toSubResponse(requests.get(index).getId(), futures.get(index).join()));
+        }
+        return results;
+    }
+
+    /**
+     * Copies the batch headers that sub-requests inherit.
+     *
+     * @param batch batch request
+     * @return case-insensitive header values
+     */
+    private static Map<String, List<String>> inheritedHeaders(final HttpServletRequest batch) {
+        final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+        for (final String name : Collections.list(batch.getHeaderNames())) {
+            if (!NOT_INHERITED.contains(name)) {
+                headers.put(name, Collections.list(batch.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Builds the headers of one sub-request.
+     *
+     * @param inherited headers inherited from the batch request
+     * @param own headers set by the sub-request, or null
+     * @param traceId default X-Request-Id
+     * @return case-insensitive header values
+     */
+    private static Map<String, List<String>> headers(final Map<String, List<String>> inherited,
+            final Map<String, String> own, final String traceId) {
+        final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+        headers.putAll(inherited);
+        headers.put(TraceIdResolver.TRACE_ID_HEADER, List.of(traceId));
+        if (own != null) {
+            own.forEach((name, value) -> {
+                if (!NOT_OVERRIDABLE.contains(name)) {
+                    headers.put(name, List.of(value));
+                }
+            });
+        }
+        return headers;
+    }
+
+    /**
+     * Runs one sub-request through the filter and the servlet.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Run the filter with the servlet as the rest of the chain.
+     * 2) When a failure escapes, discard partial output and render it with
+     *    GlobalExceptionHandler.handleUnhandled, as the error handling of a direct request would.
+     * 3) When an error status was committed without a body, render the standard error body.
+     * </pre>
+     *
+     * @param request sub-request
+     * @param batchResponse batch response, used only for read-only delegation
+     * @return buffered response
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    /* default */ BatchServletResponse execute(final BatchServletRequest request,
+            final HttpServletResponse batchResponse) {
+        final BatchServletResponse response = new BatchServletResponse(batchResponse);
+        try {
+            filter.doFilter(request, response, servlet::service);
+        } catch (final IOException | ServletException | RuntimeException ex) {
+            final ResponseEntity<byte[]> error = exceptionHandler.handleUnhandled(ex, request);
+            response.reset();
+            response.setStatus(error.getStatusCode().value());
+            error.getHeaders().forEach((name, values) -> values
+                    .forEach(value -> response.addHeader(name, value)));
+            response.writeBody(error.getBody());
+        }
+        if (response.isBodilessError()) {
+            renderError(request, response);
+        }
+        return response;
+    }
+
+    /**
+     * Writes the standard error body for an error committed without one.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Resolve the status; unknown codes keep their empty body.
+     * 2) Map it to an error code and use the sendError message or the reason phrase.
+     * 3) Build the payload with ErrorResponseFactory and write it as JSON.
+     * </pre>
+     *
+     * @param request sub-request
+     * @param response buffered response with an error status and no body
+     */
+    private static void renderError(final BatchServletRequest request,
+            final BatchServletResponse response) {
+        final HttpStatus status = HttpStatus.resolve(response.getStatus());
+        if (status != null) {
+            final String message = response.getErrorMessage() == null
+                    ? status.getReasonPhrase() : response.getErrorMessage();
+            final ResponseEntity<ErrorResponse> error = ErrorResponseFactory.buildResponse(status,
+                    ErrorResponseFactory.mapStatusToCode(status).name(), message, null, request);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.writeBody(JsonMapper.shared().writeValueAsBytes(error.getBody()));
+        }
+    }
+
+    /**
+     * Converts a buffered response into a batch result.
+     *
+     * @param id sub-request id
+     * @param response buffered response
+     * @return batch result
+     */
+    /* default */ static BatchSubResponse toSubResponse(final String id,
+            final BatchServletResponse response) {
+        final BatchSubResponse result = new BatchSubResponse();
+        result.setId(id);
+        result.setStatus(response.getStatus());
+        result.setHeaders(response.getHeaderMap());
+        final byte[] bytes = response.getContentAsByteArray();
+        if (bytes.length > 0) {
+            result.setBody(body(bytes, response));
+        }
+        return result;
+    }
+
+    /**
+     * Decodes a response body.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Decode the bytes as text with the response charset.
+     * 2) For JSON content types, return the parsed tree so it is embedded as JSON; keep the
+     *    text when the body does not parse.
+     * </pre>
+     *
+     * @param bytes body bytes
+     * @param response buffered response
+     * @return parsed JSON tree or text
+     */
+    private static Object body(final byte[] bytes, final BatchServletResponse response) {
+        final String text = new String(bytes, Charset.forName(response.getCharacterEncoding()));
+        final String type = response.getContentType();
+        Object body = text;
+        if (type != null && isJson(MediaType.parseMediaType(type))) {
+            try {
+                body = JsonMapper.shared().readTree(bytes);
+            } catch (JacksonException ex) {
+                body = text;
+            }
+        }
+        return body;
+    }
+
+    /**
+     * Returns whether a media type is JSON.
+     *
+     * @param type media type
+     * @return true for application/json and +json types
+     */
+    private static boolean isJson(final MediaType type) {
+        return MediaType.APPLICATION_JSON.isCompatibleWith(type)
+                || type.getSubtype().endsWith("+json");
+    }
+}
@@ -0,0 +1,530 @@
+package com.example.demo.batch;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * GET sub-request of a batch, served by the batch request's connection.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Present the sub-request path, query parameters, and headers as a plain GET request.
+ * 2) Keep attributes, body, and dispatch state private, so filters and the DispatcherServlet
+ *    treat it as a fresh request and sub-requests can run in parallel.
+ * 3) Delegate read-only connection details, such as remote address and session, to the
+ *    batch request.
+ * </pre>
+ *
+ * <pre>
+ * Data contract:
+ * - Headers and locales are copied on the batch thread before the sub-request is dispatched.
+ * - The body is always empty; asynchronous processing is not supported.
+ * </pre>
+ */
+final class BatchServletRequest extends HttpServletRequestWrapper {
+    /** HTTP method of every sub-request. */
+    /* default */ static final String METHOD = "GET";
+
+    /** Empty request body. */
+    private static final ServletInputStream EMPTY_BODY = new ServletInputStream() {
+        @Override
+        public boolean isFinished() {
+            return true;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(final ReadListener listener) {
+            // Nothing to read; the listener is never called.
+        }
+
+        @Override
+        public int read() {
+            return -1;
+        }
+    };
+
+    /** Request URI including the context path, without the query string. */
+    private final String requestUri;
+
+    /** Path within the application. */
+    private final String servletPath;
+
+    /** Raw query string, or null. */
+    private final String queryString;
+
+    /** Case-insensitive header values. */
+    private final Map<String, List<String>> headers;
+
+    /** Decoded query parameters in order of appearance. */
+    private final Map<String, String[]> parameters;
+
+    /** Request attributes, separate from the batch request. */
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    /** Preferred locales copied from the batch request. */
+    private final List<Locale> locales;
+
+    /**
+     * Creates a sub-request.
+     *
+     * @param batch batch request
+     * @param target path within the application, with an optional query string
+     * @param headers case-insensitive header values; not copied
+     */
+    /* default */ BatchServletRequest(final HttpServletRequest batch, final String target,
+            final Map<String, List<String>> headers) {
+        super(batch);
+        final int query = target.indexOf('?');
+        final String rawQuery = query < 0 ? null : target.substring(query + 1);
+        this.servletPath = query < 0 ? target : target.substring(0, query);
+        this.queryString = rawQuery;
+        this.requestUri = batch.getContextPath() + servletPath;
+        this.headers = headers;
+        this.parameters = parseQuery(rawQuery);
+        this.locales = Collections.list(batch.getLocales());
+    }
+
+    /**
+     * Parses a query string into decoded parameters.
+     *
+     * @param queryString raw query string, or null
+     * @return parameters in order of appearance
+     */
+    private static Map<String, String[]> parseQuery(final String queryString) {
+        final Map<String, List<String>> values = new LinkedHashMap<>();
+        if (queryString != null) {
+            for (final String pair : queryString.split("&")) {
+                if (!pair.isEmpty()) {
+                    final int equals = pair.indexOf('=');
+                    final String name = equals < 0 ? pair : pair.substring(0, equals);
+                    final String value = equals < 0 ? "" : pair.substring(equals + 1);
+                    values.computeIfAbsent(decode(name), key -> new ArrayList<>())
+                            .add(decode(value));
+                }
+            }
+        }
+        final Map<String, String[]> parameters = new LinkedHashMap<>();
+        values.forEach((name, list) -> parameters.put(name, list.toArray(new String[0])));
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    /**
+     * Decodes a query component as UTF-8, treating + as a space like the container does.
+     *
+     * @param component encoded component
+     * @return decoded component
+     */
+    private static String decode(final String component) {
+        return URLDecoder.decode(component, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns GET; batches carry only GET sub-requests.
+     *
+     * @return GET
+     */
+    @Override
+    public String getMethod() {
+        return METHOD;
+    }
+
+    /**
+     * Returns the sub-request URI including the context path.
+     *
+     * @return request URI
+     */
+    @Override
+    public String getRequestURI() {
+        return requestUri;
+    }
+
+    /**
+     * Rebuilds the URL from the batch connection and the sub-request URI.
+     *
+     * @return request URL
+     */
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer(getScheme()).append("://").append(getServerName()).append(':')
+                .append(getServerPort()).append(requestUri);
+    }
+
+    /**
+     * Returns the path within the application, as for a default servlet mapping.
+     *
+     * @return servlet path
+     */
+    @Override
+    public String getServletPath() {
+        return servletPath;
+    }
+
+    /**
+     * Returns null, as for a default servlet mapping.
+     *
+     * @return null
+     */
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    /**
+     * Returns null; there is no path info.
+     *
+     * @return null
+     */
+    @Override
+    public String getPathTranslated() {
+        return null;
+    }
+
+    /**
+     * Returns the raw sub-request query string.
+     *
+     * @return query string, or null
+     */
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    /**
+     * Returns the first value of a query parameter.
+     *
+     * @param name parameter name
+     * @return first value, or null
+     */
+    @Override
+    public String getParameter(final String name) {
+        final String[] values = parameters.get(name);
+        return values == null ? null : values[0];
+    }
+
+    /**
+     * Returns the decoded query parameters.
+     *
+     * @return unmodifiable parameter map
+     */
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return parameters;
+    }
+
+    /**
+     * Returns the query parameter names.
+     *
+     * @return parameter names
+     */
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    /**
+     * Returns all values of a query parameter.
+     *
+     * @param name parameter name
+     * @return copy of the values, or null
+     */
+    @Override
+    @SuppressWarnings("PMD.ReturnEmptyCollectionRatherThanNull")
+    public String[] getParameterValues(final String name) {
+        final String[] values = parameters.get(name);
+        return values == null ? null : values.clone();
+    }
+
+    /**
+     * Returns the first value of a header.
+     *
+     * @param name header name, case-insensitive
+     * @return first value, or null
+     */
+    @Override
+    public String getHeader(final String name) {
+        final List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Returns all values of a header.
+     *
+     * @param name header name, case-insensitive
+     * @return header values
+     */
+    @Override
+    public Enumeration<String> getHeaders(final String name) {
+        return Collections.enumeration(headers.getOrDefault(name, List.of()));
+    }
+
+    /**
+     * Returns the header names.
+     *
+     * @return header names
+     */
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    /**
+     * Returns an integer header.
+     *
+     * @param name header name
+     * @return value, or -1 when absent
+     */
+    @Override
+    public int getIntHeader(final String name) {
+        final String value = getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+
+    /**
+     * Returns a date header in epoch milliseconds.
+     *
+     * @param name header name
+     * @return epoch milliseconds, or -1 when absent
+     * @throws IllegalArgumentException when the value is not an RFC 1123 date
+     */
+    @Override
+    public long getDateHeader(final String name) {
+        final String value = getHeader(name);
+        long millis = -1;
+        if (value != null) {
+            try {
+                millis = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME)
+                        .toInstant().toEpochMilli();
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid date header " + name, ex);
+            }
+        }
+        return millis;
+    }
+
+    /**
+     * Returns null; sub-requests have no body.
+     *
+     * @return null
+     */
+    @Override
+    public String getContentType() {
+        return null;
+    }
+
+    /**
+     * Returns -1; sub-requests have no body.
+     *
+     * @return -1
+     */
+    @Override
+    public int getContentLength() {
+        return -1;
+    }
+
+    /**
+     * Returns -1; sub-requests have no body.
+     *
+     * @return -1
+     */
+    @Override
+    public long getContentLengthLong() {
+        return -1;
+    }
+
+    /**
+     * Returns null; sub-requests have no body.
+     *
+     * @return null
+     */
+    @Override
+    public String getCharacterEncoding() {
+        return null;
+    }
+
+    /**
+     * Ignores the encoding instead of changing the batch request.
+     *
+     * @param encoding ignored
+     */
+    @Override
+    public void setCharacterEncoding(final String encoding) {
+        // There is no body to decode.
+    }
+
+    /**
+     * Returns an empty body.
+     *
+     * @return empty input stream
+     */
+    @Override
+    public ServletInputStream getInputStream() {
+        return EMPTY_BODY;
+    }
+
+    /**
+     * Returns a reader over the empty body.
+     *
+     * @return empty reader
+     */
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(Reader.nullReader());
+    }
+
+    /**
+     * Returns a sub-request attribute.
+     *
+     * @param name attribute name
+     * @return value, or null
+     */
+    @Override
+    public Object getAttribute(final String name) {
+        return attributes.get(name);
+    }
+
+    /**
+     * Returns the sub-request attribute names.
+     *
+     * @return attribute names
+     */
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    /**
+     * Sets a sub-request attribute; null removes it.
+     *
+     * @param name attribute name
+     * @param value value, or null
+     */
+    @Override
+    public void setAttribute(final String name, final Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    /**
+     * Removes a sub-request attribute.
+     *
+     * @param name attribute name
+     */
+    @Override
+    public void removeAttribute(final String name) {
+        attributes.remove(name);
+    }
+
+    /**
+     * Returns the preferred locale of the batch request.
+     *
+     * @return locale
+     */
+    @Override
+    public Locale getLocale() {
+        return locales.get(0);
+    }
+
+    /**
+     * Returns the preferred locales of the batch request.
+     *
+     * @return locales
+     */
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(locales);
+    }
+
+    /**
+     * Returns REQUEST so filters treat the sub-request as a new request.
+     *
+     * @return REQUEST
+     */
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    /**
+     * Returns false; async processing is not supported.
+     *
+     * @return false
+     */
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    /**
+     * Returns false; async processing is not supported.
+     *
+     * @return false
+     */
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    /**
+     * Rejects async processing.
+     *
+     * @return never
+     * @throws IllegalStateException always
+     */
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Batch sub-requests do not support async processing");
+    }
+
+    /**
+     * Rejects async processing.
+     *
+     * @param request ignored
+     * @param response ignored
+     * @return never
+     * @throws IllegalStateException always
+     */
+    @Override
+    public AsyncContext startAsync(final ServletRequest request, final ServletResponse response) {
+        return startAsync();
+    }
+
+    /**
+     * Rejects async processing.
+     *
+     * @return never
+     * @throws IllegalStateException always
+     */
+    @Override
+    public AsyncContext getAsyncContext() {
+        return startAsync();
+    }
+}
@@ -0,0 +1,519 @@
+package com.example.demo.batch;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+/**
+ * Buffered response of a batch sub-request.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Keep status, headers, and body in memory instead of writing to the batch connection.
+ * 2) Expose them once the sub-request completes, for the combined batch response.
+ * </pre>
+ *
+ * <pre>
+ * Data contract:
+ * - Nothing written here reaches the wrapped batch response; it is only kept for read-only
+ *   calls such as URL encoding.
+ * - Content-Type is stored as a header; the writer defaults to UTF-8 instead of ISO-8859-1.
+ * - Content-Length is ignored because the body is re-encoded into the batch response.
+ * - Set-Cookie is left out of the header map: cookie values may contain commas, so they
+ *   cannot be joined into one value, and the batch result is not a cookie carrier.
+ * </pre>
+ */
+final class BatchServletResponse extends HttpServletResponseWrapper {
+    /** Date header format. */
+    private static final DateTimeFormatter HTTP_DATE =
+            DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    /** Buffered body. */
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+    /** Case-insensitive header values in insertion order. */
+    private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+
+    /** Output stream over the buffered body. */
+    private final ServletOutputStream outputStream = new ServletOutputStream() {
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(final WriteListener listener) {
+            // Writes never block; the listener is never called.
+        }
+
+        @Override
+        public void write(final int value) {
+            content.write(value);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) {
+            content.write(bytes, offset, length);
+        }
+    };
+
+    /** HTTP status. */
+    private int status = SC_OK;
+
+    /** Explicit character encoding, or null. */
+    private String characterEncoding;
+
+    /** Response locale. */
+    private Locale locale = Locale.getDefault();
+
+    /** Writer over the buffered body, created on first use. */
+    private PrintWriter writer;
+
+    /** Whether the response was flushed or sent as an error or redirect. */
+    private boolean committed;
+
+    /** Message passed to sendError, or null. */
+    private String errorMessage;
+
+    /**
+     * Creates a buffered response.
+     *
+     * @param batch batch response, used only for read-only delegation
+     */
+    /* default */ BatchServletResponse(final HttpServletResponse batch) {
+        super(batch);
+    }
+
+    /**
+     * Returns the buffered body.
+     *
+     * @return body bytes written so far
+     */
+    /* default */ byte[] getContentAsByteArray() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return content.toByteArray();
+    }
+
+    /**
+     * Appends bytes to the buffered body.
+     *
+     * @param bytes body bytes; null writes nothing
+     */
+    /* default */ void writeBody(final byte[] bytes) {
+        if (bytes != null) {
+            content.writeBytes(bytes);
+        }
+    }
+
+    /**
+     * Returns the headers with multiple values joined by commas.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Join the values of each header with ", " in insertion order.
+     * 2) Skip Set-Cookie, whose values cannot be joined without corrupting them.
+     * </pre>
+     *
+     * @return header values by name, in insertion order
+     */
+    /* default */ Map<String, String> getHeaderMap() {
+        final Map<String, String> joined = new LinkedHashMap<>();
+        headers.forEach((name, values) -> {
+            if (!HttpHeaders.SET_COOKIE.equalsIgnoreCase(name)) {
+                joined.put(name, String.join(", ", values));
+            }
+        });
+        return joined;
+    }
+
+    /**
+     * Returns whether an error status was committed without a body.
+     *
+     * @return true after sendError, or a flushed 4xx or 5xx status, with nothing written
+     */
+    /* default */ boolean isBodilessError() {
+        return committed && status >= SC_BAD_REQUEST && getContentAsByteArray().length == 0;
+    }
+
+    /**
+     * Returns the message passed to sendError.
+     *
+     * @return error message, or null
+     */
+    /* default */ String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Sets the status.
+     *
+     * @param status HTTP status
+     */
+    @Override
+    public void setStatus(final int status) {
+        this.status = status;
+    }
+
+    /**
+     * Returns the status.
+     *
+     * @return HTTP status
+     */
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Records an error status without a body and commits the response.
+     *
+     * @param status HTTP status
+     */
+    @Override
+    public void sendError(final int status) {
+        sendError(status, null);
+    }
+
+    /**
+     * Records an error status and message without a body and commits the response.
+     *
+     * @param status HTTP status
+     * @param message error message for the rendered error body, or null
+     */
+    @Override
+    public void sendError(final int status, final String message) {
+        this.status = status;
+        errorMessage = message;
+        committed = true;
+    }
+
+    /**
+     * Records a 302 redirect and commits the response.
+     *
+     * @param location redirect location
+     */
+    @Override
+    public void sendRedirect(final String location) {
+        setHeader(HttpHeaders.LOCATION, location);
+        sendError(SC_FOUND);
+    }
+
+    /**
+     * Replaces a header.
+     *
+     * @param name header name
+     * @param value header value; null removes the header
+     */
+    @Override
+    public void setHeader(final String name, final String value) {
+        if (value == null) {
+            headers.remove(name);
+        } else {
+            final List<String> values = new ArrayList<>(1);
+            values.add(value);
+            headers.put(name, values);
+        }
+    }
+
+    /**
+     * Adds a header value.
+     *
+     * @param name header name
+     * @param value header value; null is ignored
+     */
+    @Override
+    public void addHeader(final String name, final String value) {
+        if (value != null) {
+            headers.computeIfAbsent(name, key -> new ArrayList<>(1)).add(value);
+        }
+    }
+
+    /**
+     * Replaces an integer header.
+     *
+     * @param name header name
+     * @param value header value
+     */
+    @Override
+    public void setIntHeader(final String name, final int value) {
+        setHeader(name, Integer.toString(value));
+    }
+
+    /**
+     * Adds an integer header value.
+     *
+     * @param name header name
+     * @param value header value
+     */
+    @Override
+    public void addIntHeader(final String name, final int value) {
+        addHeader(name, Integer.toString(value));
+    }
+
+    /**
+     * Replaces a date header.
+     *
+     * @param name header name
+     * @param date epoch milliseconds
+     */
+    @Override
+    public void setDateHeader(final String name, final long date) {
+        setHeader(name, HTTP_DATE.format(Instant.ofEpochMilli(date)));
+    }
+
+    /**
+     * Adds a date header value.
+     *
+     * @param name header name
+     * @param date epoch milliseconds
+     */
+    @Override
+    public void addDateHeader(final String name, final long date) {
+        addHeader(name, HTTP_DATE.format(Instant.ofEpochMilli(date)));
+    }
+
+    /**
+     * Adds a Set-Cookie header for a cookie.
+     *
+     * @param cookie cookie
+     */
+    @Override
+    public void addCookie(final Cookie cookie) {
+        addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(cookie.getName(), cookie.getValue())
+                .path(cookie.getPath()).domain(cookie.getDomain()).maxAge(cookie.getMaxAge())
+                .secure(cookie.getSecure()).httpOnly(cookie.isHttpOnly()).build().toString());
+    }
+
+    /**
+     * Returns whether a header is set.
+     *
+     * @param name header name
+     * @return true when set
+     */
+    @Override
+    public boolean containsHeader(final String name) {
+        return headers.containsKey(name);
+    }
+
+    /**
+     * Returns the first value of a header.
+     *
+     * @param name header name
+     * @return first value, or null
+     */
+    @Override
+    public String getHeader(final String name) {
+        final List<String> values = headers.get(name);
+        return values == null ? null : values.get(0);
+    }
+
+    /**
+     * Returns all values of a header.
+     *
+     * @param name header name
+     * @return header values
+     */
+    @Override
+    public Collection<String> getHeaders(final String name) {
+        return List.copyOf(headers.getOrDefault(name, List.of()));
+    }
+
+    /**
+     * Returns the header names.
+     *
+     * @return header names
+     */
+    @Override
+    public Collection<String> getHeaderNames() {
+        return List.copyOf(headers.keySet());
+    }
+
+    /**
+     * Stores the Content-Type header.
+     *
+     * @param type content type; null removes it
+     */
+    @Override
+    public void setContentType(final String type) {
+        setHeader(HttpHeaders.CONTENT_TYPE, type);
+    }
+
+    /**
+     * Returns the Content-Type header.
+     *
+     * @return content type, or null
+     */
+    @Override
+    public String getContentType() {
+        return getHeader(HttpHeaders.CONTENT_TYPE);
+    }
+
+    /**
+     * Stores the character encoding used by the writer.
+     *
+     * @param encoding charset name
+     */
+    @Override
+    public void setCharacterEncoding(final String encoding) {
+        characterEncoding = encoding;
+    }
+
+    /**
+     * Returns the explicit encoding, the Content-Type charset, or UTF-8.
+     *
+     * @return charset name
+     */
+    @Override
+    public String getCharacterEncoding() {
+        String encoding = StandardCharsets.UTF_8.name();
+        final String type = getContentType();
+        if (characterEncoding != null) {
+            encoding = characterEncoding;
+        } else if (type != null) {
+            final Charset charset = MediaType.parseMediaType(type).getCharset();
+            if (charset != null) {
+                encoding = charset.name();
+            }
+        }
+        return encoding;
+    }
+
+    /**
+     * Ignores the length; the body is re-encoded into the batch response.
+     *
+     * @param length ignored
+     */
+    @Override
+    public void setContentLength(final int length) {
+        // The batch response has its own length.
+    }
+
+    /**
+     * Ignores the length; the body is re-encoded into the batch response.
+     *
+     * @param length ignored
+     */
+    @Override
+    public void setContentLengthLong(final long length) {
+        // The batch response has its own length.
+    }
+
+    /**
+     * Stores the locale.
+     *
+     * @param locale response locale
+     */
+    @Override
+    public void setLocale(final Locale locale) {
+        this.locale = locale;
+    }
+
+    /**
+     * Returns the locale.
+     *
+     * @return response locale
+     */
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Returns the output stream over the buffered body.
+     *
+     * @return output stream
+     */
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    /**
+     * Returns a writer over the buffered body.
+     *
+     * @return writer using getCharacterEncoding()
+     */
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(outputStream,
+                    Charset.forName(getCharacterEncoding())), false);
+        }
+        return writer;
+    }
+
+    /**
+     * Ignores the size; the body is fully buffered.
+     *
+     * @param size ignored
+     */
+    @Override
+    public void setBufferSize(final int size) {
+        // The body is fully buffered.
+    }
+
+    /**
+     * Flushes the writer and marks the response committed.
+     */
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+        committed = true;
+    }
+
+    /**
+     * Returns whether the response was committed.
+     *
+     * @return true after flushBuffer, sendError, or sendRedirect
+     */
+    @Override
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    /**
+     * Discards the buffered body.
+     */
+    @Override
+    public void resetBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+        content.reset();
+    }
+
+    /**
+     * Discards the body, headers, and status.
+     */
+    @Override
+    public void reset() {
+        resetBuffer();
+        headers.clear();
+        status = SC_OK;
+        errorMessage = null;
+    }
+}
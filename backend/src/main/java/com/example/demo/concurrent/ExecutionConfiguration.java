@@ -0,0 +1,29 @@
+package com.example.demo.concurrent;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Async and @Scheduled on the auto-configured executor and scheduler.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Route @Async methods to Spring Boot's applicationTaskExecutor.
+ * 2) Route @Scheduled methods to Spring Boot's taskScheduler.
+ * 3) Let spring.threads.virtual.enabled switch both, together with the Tomcat request
+ *    executor, from platform thread pools to virtual threads.
+ * </pre>
+ *
+ * <pre>
+ * Design note:
+ * 1) No executor is declared here, so Spring Boot keeps choosing the implementation from
+ *    spring.threads.virtual.enabled and spring.task.* properties.
+ * 2) MdcTaskDecorator is applied to both by Spring Boot.
+ * </pre>
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableAsync
+@EnableScheduling
+public class ExecutionConfiguration {
+}
@@ -0,0 +1,68 @@
+package com.example.demo.concurrent;
+
+import java.util.Map;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carries the submitting thread's MDC into @Async and scheduled tasks.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Capture the MDC, including the request trace id, when a task is submitted.
+ * 2) Bind it on the worker thread for the duration of the task.
+ * 3) Restore the worker's previous MDC afterwards, so pooled platform threads never leak one
+ *    request's trace id into the next task.
+ * </pre>
+ *
+ * <pre>
+ * Design note:
+ * 1) Spring Boot applies a single TaskDecorator bean to the auto-configured task executor and
+ *    task scheduler, in both the platform-thread and the virtual-thread mode.
+ * 2) Virtual threads start with an empty MDC, so without this decorator @Async work started
+ *    from a request would log without its trace id.
+ * </pre>
+ */
+@Component
+public class MdcTaskDecorator implements TaskDecorator {
+    /**
+     * Wraps a task so it runs with the submitter's MDC.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Copy the MDC on the submitting thread.
+     * 2) On the worker, save its MDC, bind the copy, and run the task.
+     * 3) Restore or clear the worker's MDC in a finally block.
+     * </pre>
+     *
+     * @param runnable task to run
+     * @return task bound to the submitter's MDC
+     */
+    @Override
+    public Runnable decorate(final Runnable runnable) {
+        final Map<String, String> submitted = MDC.getCopyOfContextMap();
+        return () -> {
+            final Map<String, String> prior = MDC.getCopyOfContextMap();
+            bind(submitted);
+            try {
+                runnable.run();
+            } finally {
+                bind(prior);
+            }
+        };
+    }
+
+    /**
+     * Replaces the MDC of the current thread.
+     *
+     * @param context MDC values, or null to clear
+     */
+    private static void bind(final Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
@@ -2,7 +2,10 @@ package com.example.demo.error;
 
 import com.example.demo.model.ErrorDetails;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.Getter;
 import org.springframework.http.HttpStatus;
 
@@ -14,12 +17,28 @@ import org.springframework.http.HttpStatus;
  * 1) Store API-facing error code and HTTP status together with the message.
  * 2) Optionally carry structured ErrorDetails for clients.
  * 3) Protect internal state by copying mutable detail data.
+ * 4) Skip stack capture for configured (expected, client-side) error codes; the handler
+ *    never reads the trace, so fillInStackTrace is pure overhead for them.
+ * 5) Share stackless, immutable instances for fixed messages via cached(...).
  * </pre>
  */
 @Getter
 public class AppException extends RuntimeException {
     private static final long serialVersionUID = 1L;
 
+    /** Error codes thrown without a stack trace unless configured otherwise. */
+    public static final String DEFAULT_STACKLESS_CODES =
+            "BAD_REQUEST,UNAUTHORIZED,FORBIDDEN,NOT_FOUND,CONFLICT,VALIDATION_ERROR";
+
+    /** Upper bound on cached shared instances; further messages get a fresh instance. */
+    /* default */ static final int MAX_CACHED = 256;
+
+    /** Error codes whose exceptions skip stack capture. */
+    private static volatile Set<ErrorCode> stacklessCodes = parseCodes(DEFAULT_STACKLESS_CODES);
+
+    /** Process-wide cache of shared stackless instances. */
+    private static final SharedCache CACHED = new SharedCache(MAX_CACHED);
+
     /** Error code for the response. */
     private final ErrorCode code;
     /** HTTP status for the response. */
@@ -61,12 +80,103 @@ public class AppException extends RuntimeException {
      */
     public AppException(final ErrorCode code, final String message, final HttpStatus status,
             final ErrorDetails details) {
-        super(message);
+        this(code, message, status, details, null);
+    }
+
+    /**
+     * Creates a domain exception with optional details and cause.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Store the message and cause in RuntimeException.
+     * 2) Capture the stack trace only when the code is not configured as stackless.
+     * 3) Save code and status exactly as provided.
+     * 4) Copy details defensively to avoid external mutation.
+     * </pre>
+     *
+     * @param code error code
+     * @param message error message
+     * @param status HTTP status
+     * @param details structured error details
+     * @param cause underlying failure, or null
+     */
+    public AppException(final ErrorCode code, final String message, final HttpStatus status,
+            final ErrorDetails details, final Throwable cause) {
+        this(code, message, status, details, cause, false);
+    }
+
+    /**
+     * Creates a domain exception.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Shared instances disable stack capture and suppression so no thread can mutate them;
+     *    their cause is fixed, so initCause(...) is rejected.
+     * 2) Other instances capture the stack unless the code is configured as stackless.
+     * 3) Copy details defensively.
+     * </pre>
+     *
+     * @param code error code
+     * @param message error message
+     * @param status HTTP status
+     * @param details structured error details
+     * @param cause underlying failure, or null
+     * @param shared whether the instance is shared across threads
+     */
+    private AppException(final ErrorCode code, final String message, final HttpStatus status,
+            final ErrorDetails details, final Throwable cause, final boolean shared) {
+        super(message, cause, !shared, !shared && !isStackless(code));
         this.code = code;
         this.status = status;
         this.details = copyDetails(details);
     }
 
+    /**
+     * Returns a shared stackless exception for a fixed message.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Return the cached instance for the code, status, and message.
+     * 2) Create and cache one while under MAX_CACHED; create an uncached one beyond that.
+     * 3) Instances carry no details, stack trace, cause, or suppressed exceptions.
+     * </pre>
+     *
+     * @param code error code
+     * @param message fixed error message
+     * @param status HTTP status
+     * @return shared exception
+     */
+    public static AppException cached(final ErrorCode code, final String message,
+            final HttpStatus status) {
+        return CACHED.get(code, message, status);
+    }
+
+    /**
+     * Checks whether exceptions with a code skip stack capture.
+     *
+     * @param code error code
+     * @return true when the stack trace is not captured
+     */
+    public static boolean isStackless(final ErrorCode code) {
+        return code != null && stacklessCodes.contains(code);
+    }
+
+    /**
+     * Configures which error codes skip stack capture.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Parse comma-separated ErrorCode names; a blank value captures every stack trace.
+     * 2) Publish the set for exceptions created afterwards.
+     * </pre>
+     *
+     * @param codes comma-separated error code names
+     * @throws IllegalArgumentException when a name is not an ErrorCode
+     */
+    /* default */ static void setStacklessCodes(final String codes) {
+        stacklessCodes = parseCodes(codes);
+    }
+
     /**
      * Returns structured error details.
      * 
@@ -83,6 +193,23 @@ public class AppException extends RuntimeException {
         return copyDetails(details);
     }
 
+    /**
+     * Parses comma-separated error code names.
+     *
+     * @param codes comma-separated names, may be null or blank
+     * @return parsed codes
+     */
+    private static Set<ErrorCode> parseCodes(final String codes) {
+        final Set<ErrorCode> parsed = EnumSet.noneOf(ErrorCode.class);
+        final String raw = codes == null ? "" : codes;
+        for (final String name : raw.split(",")) {
+            if (!name.isBlank()) {
+                parsed.add(ErrorCode.valueOf(name.trim()));
+            }
+        }
+        return parsed;
+    }
+
     /**
      * Copies the error details to avoid exposing internal state.
      * 
@@ -114,4 +241,72 @@ public class AppException extends RuntimeException {
         }
         return copy;
     }
+
+    /**
+     * Bounded concurrent cache of shared stackless instances.
+     *
+     * <pre>
+     * Data contract:
+     * 1) Holds at most maxEntries instances keyed by code, status, and message; nothing is
+     *    ever evicted.
+     * 2) Messages beyond the bound get a fresh stackless instance on every call, so callers
+     *    that build messages from input cannot grow the cache.
+     * </pre>
+     */
+    /* default */ static final class SharedCache {
+        /** Upper bound on cached instances. */
+        private final int maxEntries;
+
+        /** Shared instances by key. */
+        private final Map<CacheKey, AppException> entries = new ConcurrentHashMap<>();
+
+        /**
+         * Creates an empty cache.
+         *
+         * @param maxEntries upper bound on cached instances
+         */
+        /* default */ SharedCache(final int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        /**
+         * Returns the shared instance for a code, message, and status.
+         *
+         * @param code error code
+         * @param message fixed error message
+         * @param status HTTP status
+         * @return shared exception
+         */
+        /* default */ AppException get(final ErrorCode code, final String message,
+                final HttpStatus status) {
+            final CacheKey key = new CacheKey(code, status, message);
+            AppException shared = entries.get(key);
+            if (shared == null) {
+                shared = entries.size() < maxEntries
+                        ? entries.computeIfAbsent(key, SharedCache::share)
+                        : share(key);
+            }
+            return shared;
+        }
+
+        /**
+         * Creates a shared instance for a cache key.
+         *
+         * @param key code, status, and message
+         * @return shared exception
+         */
+        private static AppException share(final CacheKey key) {
+            return new AppException(key.code(), key.message(), key.status(), null, null, true);
+        }
+    }
+
+    /**
+     * Cache key of a shared instance.
+     *
+     * @param code error code
+     * @param status HTTP status
+     * @param message fixed error message
+     */
+    private record CacheKey(ErrorCode code, HttpStatus status, String message) {
+    }
 }
@@ -0,0 +1,42 @@
+package com.example.demo.error;
+
+import com.example.demo.StaticSettingConfigurer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the configured stackless error codes to AppException.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Bind app.errors.stackless-codes (comma-separated ErrorCode names).
+ * 2) Install them once at startup for every AppException created afterwards.
+ * 3) Restore the default codes when the context closes.
+ * </pre>
+ */
+@Component
+public class AppExceptionConfigurer extends StaticSettingConfigurer {
+    /**
+     * Configures the stackless error codes.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Read the codes from configuration (default AppException.DEFAULT_STACKLESS_CODES).
+     * 2) Install them; an unknown code fails startup, a blank value keeps every stack trace.
+     * </pre>
+     *
+     * @param codes comma-separated error code names
+     */
+    @Value("${app.errors.stackless-codes:" + AppException.DEFAULT_STACKLESS_CODES + "}")
+    /* default */ void setStacklessCodes(final String codes) {
+        AppException.setStacklessCodes(codes);
+    }
+
+    /**
+     * Reinstalls AppException.DEFAULT_STACKLESS_CODES.
+     */
+    @Override
+    protected void restoreDefault() {
+        AppException.setStacklessCodes(AppException.DEFAULT_STACKLESS_CODES);
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.demo.error;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Suppresses repeated stack traces of unhandled exceptions during error storms.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Fingerprint exceptions by type plus the top N stack frames, ignoring the message.
+ * 2) Let the first occurrence of a fingerprint in each window be logged in full.
+ * 3) Count later occurrences lock-free and log one summary per window with the count and
+ *    the first and last traceIds.
+ * 4) Bound the number of tracked fingerprints; untracked ones are always logged in full.
+ * </pre>
+ *
+ * <pre>
+ * Data contract:
+ * 1) firstTraceId is the occurrence logged in full, so the summary links to its stack trace.
+ * 2) A window is summarized when its fingerprint recurs after the window, or by the
+ *    scheduled sweep that runs once per window, so the count of a storm that stopped is
+ *    still logged at most two windows after it began.
+ * 3) Counts are best effort: an occurrence racing a window roll-over may be missed.
+ * </pre>
+ */
+@Component
+public class ErrorLogThrottle {
+    /** Default window length in milliseconds. */
+    /* default */ static final long DEFAULT_WINDOW_MS = 60_000L;
+
+    /** Default number of stack frames in a fingerprint. */
+    /* default */ static final int DEFAULT_FRAMES = 8;
+
+    /** Maximum number of tracked fingerprints. */
+    /* default */ static final int MAX_FINGERPRINTS = 256;
+
+    /**
+     * Delay between sweeps: the window length, or the default when suppression is off,
+     * because a scheduled delay must be positive.
+     */
+    private static final String SWEEP_DELAY = "#{${app.errors.log-throttle.window-ms:"
+            + DEFAULT_WINDOW_MS + "} > 0 ? ${app.errors.log-throttle.window-ms:"
+            + DEFAULT_WINDOW_MS + "} : " + DEFAULT_WINDOW_MS + "}";
+
+    /** Logger for window summaries. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ErrorLogThrottle.class);
+
+    /** Multiplier of the fingerprint hash, the 64-bit golden ratio. */
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    /** Tracked fingerprints by hash. */
+    private final Map<Long, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    /** Millisecond clock. */
+    private final LongSupplier clock;
+
+    /** Window length in milliseconds; 0 logs every occurrence in full. */
+    private long windowMs = DEFAULT_WINDOW_MS;
+
+    /** Number of stack frames in a fingerprint. */
+    private int frames = DEFAULT_FRAMES;
+
+    /** Creates a throttle on the system clock. */
+    public ErrorLogThrottle() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a throttle.
+     *
+     * @param clock millisecond clock
+     */
+    /* default */ ErrorLogThrottle(final LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Configures the window length.
+     *
+     * @param windowMs window length in milliseconds; 0 disables suppression
+     */
+    @Value("${app.errors.log-throttle.window-ms:" + DEFAULT_WINDOW_MS + "}")
+    /* default */ void setWindowMs(final long windowMs) {
+        if (windowMs < 0) {
+            throw new IllegalArgumentException("window-ms must not be negative: " + windowMs);
+        }
+        this.windowMs = windowMs;
+    }
+
+    /**
+     * Configures the number of stack frames in a fingerprint.
+     *
+     * @param frames number of top frames
+     */
+    @Value("${app.errors.log-throttle.frames:" + DEFAULT_FRAMES + "}")
+    /* default */ void setFrames(final int frames) {
+        if (frames < 0) {
+            throw new IllegalArgumentException("frames must not be negative: " + frames);
+        }
+        this.frames = frames;
+    }
+
+    /**
+     * Records an occurrence and decides whether to log its stack trace.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Return true for every occurrence when suppression is disabled.
+     * 2) Look up the fingerprint; track it while under MAX_FINGERPRINTS.
+     * 3) Return true when the occurrence opens a new window, summarizing the previous one.
+     * 4) Otherwise count it against the open window and return false.
+     * </pre>
+     *
+     * @param exception unhandled exception
+     * @param traceId trace id of the request
+     * @return true when the caller should log the full stack trace
+     */
+    public boolean shouldLog(final Throwable exception, final String traceId) {
+        boolean full = true;
+        if (windowMs > 0) {
+            final long now = clock.getAsLong();
+            final Long hash = fingerprint(exception, frames);
+            Fingerprint target = fingerprints.get(hash);
+            if (target == null && fingerprints.size() < MAX_FINGERPRINTS) {
+                target = fingerprints.computeIfAbsent(hash,
+                        key -> new Fingerprint(key, exception.getClass().getName()));
+            }
+            full = target == null || target.occur(now, windowMs, traceId);
+        }
+        return full;
+    }
+
+    /**
+     * Hashes the exception type and its top stack frames.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Mix the exception class name.
+     * 2) Mix class, method, and line of up to frames top stack frames.
+     * </pre>
+     *
+     * @param exception exception to fingerprint
+     * @param frames number of top frames
+     * @return 64-bit fingerprint
+     */
+    /* default */ static long fingerprint(final Throwable exception, final int frames) {
+        long hash = mix(0L, exception.getClass().getName().hashCode());
+        final StackTraceElement[] trace = exception.getStackTrace();
+        final int depth = Math.min(frames, trace.length);
+        for (int index = 0; index < depth; index++) {
+            final StackTraceElement frame = trace[index];
+            hash = mix(hash, frame.getClassName().hashCode());
+            hash = mix(hash, String.valueOf(frame.getMethodName()).hashCode());
+            hash = mix(hash, frame.getLineNumber());
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the number of tracked fingerprints.
+     *
+     * @return tracked fingerprints
+     */
+    /* default */ int size() {
+        return fingerprints.size();
+    }
+
+    /**
+     * Summarizes and drops windows that have expired.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Do nothing when suppression is disabled.
+     * 2) Close every expired window, logging its summary, and stop tracking its fingerprint.
+     * </pre>
+     */
+    @Scheduled(fixedDelayString = SWEEP_DELAY, initialDelayString = SWEEP_DELAY)
+    public void sweep() {
+        if (windowMs > 0) {
+            final long now = clock.getAsLong();
+            for (final Fingerprint entry : fingerprints.values()) {
+                if (entry.expire(now, windowMs)) {
+                    fingerprints.remove(entry.hash, entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mixes one value into a hash.
+     *
+     * @param hash current hash
+     * @param value value to mix
+     * @return new hash
+     */
+    private static long mix(final long hash, final int value) {
+        return Long.rotateLeft((hash ^ value) * MIX, 31);
+    }
+
+    /** Open window of one fingerprint. */
+    private static final class Fingerprint {
+        /** Fingerprint hash. */
+        private final Long hash;
+
+        /** Exception class name. */
+        private final String type;
+
+        /** Open window, or null once expired. */
+        private final AtomicReference<Window> window = new AtomicReference<>();
+
+        /**
+         * Creates an entry without an open window.
+         *
+         * @param hash fingerprint hash
+         * @param type exception class name
+         */
+        private Fingerprint(final Long hash, final String type) {
+            this.hash = hash;
+            this.type = type;
+        }
+
+        /**
+         * Records an occurrence.
+         *
+         * <pre>
+         * Algorithm:
+         * 1) Count the occurrence when the open window has not expired.
+         * 2) Otherwise open a new window with CAS, retrying if another thread won.
+         * 3) Summarize the replaced window.
+         * </pre>
+         *
+         * @param now current time in milliseconds
+         * @param windowMs window length in milliseconds
+         * @param traceId trace id of the request
+         * @return true when the occurrence opened a new window
+         */
+        private boolean occur(final long now, final long windowMs, final String traceId) {
+            boolean opened = false;
+            boolean done = false;
+            while (!done) {
+                final Window current = window.get();
+                if (current != null && now - current.startMs < windowMs) {
+                    current.suppressed.increment();
+                    current.lastTraceId = traceId;
+                    done = true;
+                } else if (window.compareAndSet(current, new Window(now, traceId))) {
+                    summarize(current, windowMs);
+                    opened = true;
+                    done = true;
+                }
+            }
+            return opened;
+        }
+
+        /**
+         * Closes the window once it has expired.
+         *
+         * @param now current time in milliseconds
+         * @param windowMs window length in milliseconds
+         * @return true when the window was closed
+         */
+        private boolean expire(final long now, final long windowMs) {
+            final Window current = window.get();
+            final boolean expired = current == null
+                    || now - current.startMs >= windowMs && window.compareAndSet(current, null);
+            if (expired) {
+                summarize(current, windowMs);
+            }
+            return expired;
+        }
+
+        /**
+         * Logs the summary of a finished window that suppressed occurrences.
+         *
+         * @param finished finished window, may be null
+         * @param windowMs window length in milliseconds
+         */
+        private void summarize(final Window finished, final long windowMs) {
+            if (finished != null && LOGGER.isErrorEnabled()) {
+                final long count = finished.suppressed.sum();
+                if (count > 0) {
+                    LOGGER.error(
+                            "Suppressed {} repeats of {} fingerprint={} windowMs={}"
+                                    + " firstTraceId={} lastTraceId={}",
+                            count, type, Long.toHexString(hash), windowMs,
+                            finished.firstTraceId, finished.lastTraceId);
+                }
+            }
+        }
+    }
+
+    /** One suppression window. */
+    private static final class Window {
+        /** Window start in milliseconds. */
+        private final long startMs;
+
+        /** Trace id of the occurrence logged in full. */
+        private final String firstTraceId;
+
+        /** Occurrences suppressed in this window. */
+        private final LongAdder suppressed = new LongAdder();
+
+        /** Trace id of the latest suppressed occurrence. */
+        private volatile String lastTraceId;
+
+        /**
+         * Opens a window.
+         *
+         * @param startMs window start in milliseconds
+         * @param firstTraceId trace id of the occurrence logged in full
+         */
+        private Window(final long startMs, final String firstTraceId) {
+            this.startMs = startMs;
+            this.firstTraceId = firstTraceId;
+        }
+    }
+}
@@ -1,14 +1,14 @@
 package com.example.demo.error;
 
+import com.example.demo.metrics.ErrorTelemetry;
 import com.example.demo.model.ErrorDetails;
 import com.example.demo.model.ErrorResponse;
+import com.example.demo.trace.TraceIdResolver;
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
-import org.slf4j.MDC;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.util.StringUtils;
 
 /**
  * Builds standard error responses for the API.
@@ -18,11 +18,12 @@ import org.springframework.util.StringUtils;
  * 1) Assemble canonical ErrorResponse payloads.
  * 2) Resolve trace identifiers consistently across request contexts.
  * 3) Convert validation and status data to API-facing error structures.
+ * 4) Count every error response in the installed ErrorTelemetry.
  * </pre>
  */
 public final class ErrorResponseFactory {
-    /** Request/response header used for trace propagation. */
-    private static final String TRACE_ID_HEADER = "X-Request-Id";
+    /** Error counters; replaced by the Spring bean at startup and reset on context close. */
+    private static volatile ErrorTelemetry telemetry = new ErrorTelemetry();
 
     /**
      * Utility class; no instances.
@@ -42,7 +43,8 @@ public final class ErrorResponseFactory {
      * Algorithm:
      * 1) Create ErrorResponse and set code, message, traceId, timestamp, and path.
      * 2) Attach details only when field errors or additional properties are present.
-     * 3) Return a ResponseEntity with the provided HTTP status.
+     * 3) Count the error per code, status, and route.
+     * 4) Return a ResponseEntity with the provided HTTP status.
      * </pre>
      *
      * @param status HTTP status
@@ -67,31 +69,45 @@ public final class ErrorResponseFactory {
                                 && !details.getAdditionalProperties().isEmpty()))) {
             body.setDetails(details);
         }
+        recordError(status, code, request);
         return ResponseEntity.status(status).body(body);
     }
 
+    /**
+     * Counts one error response.
+     *
+     * @param status HTTP status
+     * @param code error code
+     * @param request current request
+     */
+    /* default */ static void recordError(final HttpStatus status, final String code,
+            final HttpServletRequest request) {
+        telemetry.record(code, status.value(), request);
+    }
+
+    /**
+     * Installs the error telemetry.
+     *
+     * @param errorTelemetry error telemetry
+     */
+    public static void setTelemetry(final ErrorTelemetry errorTelemetry) {
+        telemetry = errorTelemetry;
+    }
+
     /**
      * Resolves the current trace identifier.
      * 
      * <pre>
      * Algorithm:
-     * 1) Read traceId from MDC when available.
-     * 2) Fallback to X-Request-Id request header.
-     * 3) Generate a random UUID when no incoming value exists.
+     * 1) Delegate to the shared TraceIdResolver used by access logging.
+     * 2) MDC wins, then X-Request-Id, then the traceparent trace-id, then a generated id.
      * </pre>
      *
      * @param request current request
      * @return trace id
      */
     public static String resolveTraceId(final HttpServletRequest request) {
-        String traceId = MDC.get("traceId");
-        if (!StringUtils.hasText(traceId)) {
-            traceId = request.getHeader(TRACE_ID_HEADER);
-        }
-        if (!StringUtils.hasText(traceId)) {
-            traceId = java.util.UUID.randomUUID().toString();
-        }
-        return traceId;
+        return TraceIdResolver.resolve(request);
     }
 
     /**
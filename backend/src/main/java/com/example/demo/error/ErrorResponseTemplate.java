@@ -0,0 +1,321 @@
+package com.example.demo.error;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Pre-encoded JSON error body for one fixed status, code, and message.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Encode the constant fragments of the ErrorResponse payload once, at construction.
+ * 2) Splice in the per-request traceId, timestamp, and path as escaped UTF-8 bytes.
+ * 3) Build each body in one exactly sized byte array, without ErrorResponse or Jackson.
+ * 4) Count each rendered error like ErrorResponseFactory does.
+ * </pre>
+ *
+ * <pre>
+ * Data contract:
+ * 1) Bodies carry code, message, traceId, timestamp, and path in ErrorResponse order;
+ *    details is omitted, as it is optional in the schema.
+ * 2) timestamp is UTC with millisecond precision, for example 2026-02-01T12:34:56.789Z.
+ * </pre>
+ */
+/* default */ final class ErrorResponseTemplate {
+    /** Fragment between traceId and timestamp. */
+    private static final byte[] TIMESTAMP = ascii("\",\"timestamp\":\"");
+
+    /** Fragment between timestamp and path. */
+    private static final byte[] PATH = ascii("\",\"path\":\"");
+
+    /** Closing fragment. */
+    private static final byte[] TAIL = ascii("\"}");
+
+    /** Encoded length of "yyyy-MM-ddTHH:mm:ss.SSSZ". */
+    private static final int TIMESTAMP_LENGTH = 24;
+
+    /** Milliseconds per second. */
+    private static final int MILLIS_PER_SECOND = 1000;
+
+    /** Hexadecimal digits for \\u escapes. */
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    /** Most recently formatted second, shared by all templates. */
+    private static final AtomicReference<Second> LAST_SECOND =
+            new AtomicReference<>(new Second(Long.MIN_VALUE, new byte[0]));
+
+    /** Response status. */
+    private final HttpStatus status;
+
+    /** Error code name. */
+    private final String code;
+
+    /** Opening fragment with code and message, up to the traceId value. */
+    private final byte[] head;
+
+    /**
+     * Creates a template.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Escape code and message into the opening fragment.
+     * 2) Keep the status for the response entity.
+     * </pre>
+     *
+     * @param status response status
+     * @param code error code
+     * @param message fixed error message
+     */
+    /* default */ ErrorResponseTemplate(final HttpStatus status, final ErrorCode code,
+            final String message) {
+        this.status = status;
+        this.code = code.name();
+        final String opening = "{\"code\":\"" + code.name() + "\",\"message\":\"";
+        final byte[] prefix = ascii(opening);
+        final byte[] messageSuffix = ascii("\",\"traceId\":\"");
+        final int messageLength = escapedLength(message);
+        this.head = new byte[prefix.length + messageLength + messageSuffix.length];
+        System.arraycopy(prefix, 0, head, 0, prefix.length);
+        escape(message, head, prefix.length);
+        System.arraycopy(messageSuffix, 0, head, prefix.length + messageLength,
+                messageSuffix.length);
+    }
+
+    /**
+     * Renders the error response for a request.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Resolve the traceId the same way as ErrorResponseFactory.
+     * 2) Size the body from the escaped lengths of traceId and path.
+     * 3) Copy the constant fragments and write the variable values in place.
+     * 4) Return the bytes as an application/json entity with the template status.
+     * </pre>
+     *
+     * @param request current request
+     * @return response entity with the encoded body
+     */
+    /* default */ ResponseEntity<byte[]> render(final HttpServletRequest request) {
+        return render(request, ErrorResponseFactory.resolveTraceId(request));
+    }
+
+    /**
+     * Renders the error response for a request with an already resolved traceId.
+     *
+     * @param request current request
+     * @param traceId trace identifier, for example the one already logged
+     * @return response entity with the encoded body
+     */
+    /* default */ ResponseEntity<byte[]> render(final HttpServletRequest request,
+            final String traceId) {
+        ErrorResponseFactory.recordError(status, code, request);
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(encode(traceId, System.currentTimeMillis(), request.getRequestURI()));
+    }
+
+    /**
+     * Encodes a body.
+     *
+     * @param traceId trace identifier
+     * @param epochMillis timestamp in epoch milliseconds
+     * @param path request path, null is written as empty
+     * @return encoded body
+     */
+    /* default */ byte[] encode(final String traceId, final long epochMillis, final String path) {
+        final String safeTrace = traceId == null ? "" : traceId;
+        final String safePath = path == null ? "" : path;
+        final int traceLength = escapedLength(safeTrace);
+        final int pathLength = escapedLength(safePath);
+        final byte[] body = new byte[head.length + traceLength + TIMESTAMP.length
+                + TIMESTAMP_LENGTH + PATH.length + pathLength + TAIL.length];
+        int offset = copy(head, body, 0);
+        offset = escape(safeTrace, body, offset);
+        offset = copy(TIMESTAMP, body, offset);
+        offset = writeTimestamp(epochMillis, body, offset);
+        offset = copy(PATH, body, offset);
+        offset = escape(safePath, body, offset);
+        copy(TAIL, body, offset);
+        return body;
+    }
+
+    /**
+     * Writes a UTC timestamp with millisecond precision.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Reuse the formatted date and time when the second has not changed.
+     * 2) Otherwise format it once and publish it for other threads.
+     * 3) Append ".SSSZ".
+     * </pre>
+     *
+     * @param epochMillis timestamp in epoch milliseconds
+     * @param target output buffer
+     * @param offset write position
+     * @return position after the timestamp
+     */
+    private static int writeTimestamp(final long epochMillis, final byte[] target,
+            final int offset) {
+        final long epochSecond = Math.floorDiv(epochMillis, MILLIS_PER_SECOND);
+        Second second = LAST_SECOND.get();
+        if (second.epochSecond() != epochSecond) {
+            second = new Second(epochSecond, ascii(DateTimeFormatter.ISO_LOCAL_DATE_TIME
+                    .format(LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC))));
+            LAST_SECOND.set(second);
+        }
+        final int millis = (int) Math.floorMod(epochMillis, MILLIS_PER_SECOND);
+        int position = copy(second.text(), target, offset);
+        target[position++] = '.';
+        target[position++] = (byte) ('0' + millis / 100);
+        target[position++] = (byte) ('0' + millis / 10 % 10);
+        target[position++] = (byte) ('0' + millis % 10);
+        target[position++] = 'Z';
+        return position;
+    }
+
+    /**
+     * Returns the JSON-escaped UTF-8 length of a string.
+     *
+     * @param value string to escape
+     * @return encoded length in bytes
+     */
+    private static int escapedLength(final String value) {
+        int length = 0;
+        int index = 0;
+        while (index < value.length()) {
+            final char current = value.charAt(index);
+            if (current == '"' || current == '\\') {
+                length += 2;
+            } else if (current < 0x20) {
+                length += 6;
+            } else if (current < 0x80) {
+                length++;
+            } else if (current < 0x800) {
+                length += 2;
+            } else if (isPair(value, index)) {
+                length += 4;
+                index++;
+            } else {
+                length += Character.isSurrogate(current) ? 6 : 3;
+            }
+            index++;
+        }
+        return length;
+    }
+
+    /**
+     * Writes a string as JSON-escaped UTF-8.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Escape quotes and backslashes with a backslash.
+     * 2) Escape control characters and lone surrogates as \\u sequences.
+     * 3) Encode everything else as UTF-8, combining surrogate pairs into 4-byte sequences.
+     * </pre>
+     *
+     * @param value string to escape
+     * @param target output buffer sized with escapedLength(...)
+     * @param offset write position
+     * @return position after the value
+     */
+    private static int escape(final String value, final byte[] target, final int offset) {
+        int position = offset;
+        int index = 0;
+        while (index < value.length()) {
+            final char current = value.charAt(index);
+            if (current == '"' || current == '\\') {
+                target[position++] = '\\';
+                target[position++] = (byte) current;
+            } else if (current < 0x80 && current >= 0x20) {
+                target[position++] = (byte) current;
+            } else if (current < 0x20 || Character.isSurrogate(current)
+                    && !isPair(value, index)) {
+                position = writeUnicodeEscape(current, target, position);
+            } else if (current < 0x800) {
+                target[position++] = (byte) (0xC0 | current >> 6);
+                target[position++] = (byte) (0x80 | current & 0x3F);
+            } else if (Character.isHighSurrogate(current)) {
+                final int codePoint = Character.toCodePoint(current, value.charAt(++index));
+                target[position++] = (byte) (0xF0 | codePoint >> 18);
+                target[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                target[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                target[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                target[position++] = (byte) (0xE0 | current >> 12);
+                target[position++] = (byte) (0x80 | current >> 6 & 0x3F);
+                target[position++] = (byte) (0x80 | current & 0x3F);
+            }
+            index++;
+        }
+        return position;
+    }
+
+    /**
+     * Writes a \\uXXXX escape.
+     *
+     * @param value character to escape
+     * @param target output buffer
+     * @param offset write position
+     * @return position after the escape
+     */
+    private static int writeUnicodeEscape(final char value, final byte[] target,
+            final int offset) {
+        target[offset] = '\\';
+        target[offset + 1] = 'u';
+        target[offset + 2] = HEX[value >> 12 & 0xF];
+        target[offset + 3] = HEX[value >> 8 & 0xF];
+        target[offset + 4] = HEX[value >> 4 & 0xF];
+        target[offset + 5] = HEX[value & 0xF];
+        return offset + 6;
+    }
+
+    /**
+     * Checks whether a high surrogate at index is followed by a low surrogate.
+     *
+     * @param value string
+     * @param index index of the character to check
+     * @return true for a valid surrogate pair
+     */
+    private static boolean isPair(final String value, final int index) {
+        return Character.isHighSurrogate(value.charAt(index)) && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1));
+    }
+
+    /**
+     * Copies a fragment.
+     *
+     * @param fragment bytes to copy
+     * @param target output buffer
+     * @param offset write position
+     * @return position after the fragment
+     */
+    private static int copy(final byte[] fragment, final byte[] target, final int offset) {
+        System.arraycopy(fragment, 0, target, offset, fragment.length);
+        return offset + fragment.length;
+    }
+
+    /**
+     * Encodes ASCII text.
+     *
+     * @param text ASCII text
+     * @return encoded bytes
+     */
+    private static byte[] ascii(final String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Formatted date and time of one UTC second.
+     *
+     * @param epochSecond epoch second
+     * @param text "yyyy-MM-ddTHH:mm:ss" as ASCII bytes
+     */
+    private record Second(long epochSecond, byte[] text) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.error;
+
+import com.example.demo.StaticSettingConfigurer;
+import com.example.demo.metrics.ErrorTelemetry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the error telemetry bean to ErrorResponseFactory.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Receive the ErrorTelemetry bean served by the error endpoint.
+ * 2) Install it once at startup for every static factory caller.
+ * 3) Detach it when the context closes, so later errors no longer count in its series.
+ * </pre>
+ */
+@Component
+public class ErrorTelemetryConfigurer extends StaticSettingConfigurer {
+    /**
+     * Configures the error telemetry.
+     *
+     * @param telemetry error telemetry bean
+     */
+    @Autowired
+    /* default */ void setTelemetry(final ErrorTelemetry telemetry) {
+        ErrorResponseFactory.setTelemetry(telemetry);
+    }
+
+    /**
+     * Installs a fresh, unshared ErrorTelemetry.
+     */
+    @Override
+    protected void restoreDefault() {
+        ErrorResponseFactory.setTelemetry(new ErrorTelemetry());
+    }
+}
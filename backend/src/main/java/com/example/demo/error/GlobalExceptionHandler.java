@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
@@ -29,6 +30,8 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
  * 1) Convert framework and domain exceptions into uniform ErrorResponse bodies.
  * 2) Preserve useful validation details for client troubleshooting.
  * 3) Keep status-to-error-code mapping consistent across handlers.
+ * 4) Serve fixed-message errors from pre-encoded ErrorResponseTemplate bodies.
+ * 5) Suppress repeated unhandled-exception stack traces through ErrorLogThrottle.
  * </pre>
  */
 @RestControllerAdvice
@@ -36,6 +39,31 @@ public class GlobalExceptionHandler {
     /** Logger for exception handling diagnostics. */
     private static final Logger LOGGER = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    /** Pre-encoded body for malformed request bodies. */
+    private static final ErrorResponseTemplate MALFORMED_BODY = new ErrorResponseTemplate(
+            HttpStatus.BAD_REQUEST, ErrorCode.BAD_REQUEST, "Malformed request body");
+
+    /** Pre-encoded body for unresolved routes and resources. */
+    private static final ErrorResponseTemplate NOT_FOUND =
+            new ErrorResponseTemplate(HttpStatus.NOT_FOUND, ErrorCode.NOT_FOUND, "Not found");
+
+    /** Pre-encoded body for unexpected errors. */
+    private static final ErrorResponseTemplate UNEXPECTED_ERROR = new ErrorResponseTemplate(
+            HttpStatus.INTERNAL_SERVER_ERROR, ErrorCode.INTERNAL_ERROR, "Unexpected error");
+
+    /** Decides which unhandled exceptions are logged with a stack trace. */
+    private ErrorLogThrottle logThrottle = new ErrorLogThrottle();
+
+    /**
+     * Configures the unhandled-exception log throttle.
+     *
+     * @param throttle log throttle bean
+     */
+    @Autowired(required = false)
+    /* default */ void setLogThrottle(final ErrorLogThrottle throttle) {
+        logThrottle = throttle;
+    }
+
     /**
      * Handles domain exceptions with an explicit status.
      * 
@@ -126,17 +154,17 @@ public class GlobalExceptionHandler {
      * 1) Treat parsing/deserialize failures as client input errors.
      * 2) Return BAD_REQUEST with a fixed "Malformed request body" message.
      * 3) Omit details because field-level mapping is not reliable here.
+     * 4) Render the pre-encoded template body.
      * </pre>
      *
      * @param exception message not readable exception
      * @param request current request
-     * @return error response
+     * @return error response as encoded JSON
      */
     @ExceptionHandler(HttpMessageNotReadableException.class)
-    public ResponseEntity<ErrorResponse> handleNotReadable(
+    public ResponseEntity<byte[]> handleNotReadable(
             final HttpMessageNotReadableException exception, final HttpServletRequest request) {
-        return ErrorResponseFactory.buildResponse(HttpStatus.BAD_REQUEST,
-                ErrorCode.BAD_REQUEST.name(), "Malformed request body", null, request);
+        return MALFORMED_BODY.render(request);
     }
 
     /**
@@ -182,10 +210,10 @@ public class GlobalExceptionHandler {
      *
      * @param exception no handler exception
      * @param request current request
-     * @return error response
+     * @return error response as encoded JSON
      */
     @ExceptionHandler(NoHandlerFoundException.class)
-    public ResponseEntity<ErrorResponse> handleNotFound(final NoHandlerFoundException exception,
+    public ResponseEntity<byte[]> handleNotFound(final NoHandlerFoundException exception,
             final HttpServletRequest request) {
         return buildNotFoundResponse(request);
     }
@@ -202,10 +230,10 @@ public class GlobalExceptionHandler {
      *
      * @param exception no resource found exception
      * @param request current request
-     * @return error response
+     * @return error response as encoded JSON
      */
     @ExceptionHandler(NoResourceFoundException.class)
-    public ResponseEntity<ErrorResponse> handleResourceNotFound(
+    public ResponseEntity<byte[]> handleResourceNotFound(
             final NoResourceFoundException exception, final HttpServletRequest request) {
         return buildNotFoundResponse(request);
     }
@@ -217,15 +245,14 @@ public class GlobalExceptionHandler {
      * Algorithm:
      * 1) Use HTTP 404 for unresolved routes and resources.
      * 2) Set API code to NOT_FOUND.
-     * 3) Emit a stable "Not found" message.
+     * 3) Emit a stable "Not found" message from the pre-encoded template.
      * </pre>
      *
      * @param request current request
-     * @return standardized not-found response
+     * @return standardized not-found response as encoded JSON
      */
-    private ResponseEntity<ErrorResponse> buildNotFoundResponse(final HttpServletRequest request) {
-        return ErrorResponseFactory.buildResponse(HttpStatus.NOT_FOUND, ErrorCode.NOT_FOUND.name(),
-                "Not found", null, request);
+    private ResponseEntity<byte[]> buildNotFoundResponse(final HttpServletRequest request) {
+        return NOT_FOUND.render(request);
     }
 
     /**
@@ -236,21 +263,22 @@ public class GlobalExceptionHandler {
      * 1) Catch any uncategorized Exception as server failure.
      * 2) Return INTERNAL_SERVER_ERROR with INTERNAL_ERROR code.
      * 3) Use a generic message to avoid leaking internals.
+     * 4) Log the stack trace only when ErrorLogThrottle lets this fingerprint through.
+     * 5) Reuse the logged traceId in the pre-encoded template body.
      * </pre>
      *
      * @param exception unhandled exception
      * @param request current request
-     * @return error response
+     * @return error response as encoded JSON
      */
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponse> handleUnhandled(final Exception exception,
+    public ResponseEntity<byte[]> handleUnhandled(final Exception exception,
             final HttpServletRequest request) {
         final String traceId = ErrorResponseFactory.resolveTraceId(request);
-        if (LOGGER.isErrorEnabled()) {
+        if (LOGGER.isErrorEnabled() && logThrottle.shouldLog(exception, traceId)) {
             LOGGER.error("Unhandled exception traceId={} path={}", traceId, request.getRequestURI(),
                     exception);
         }
-        return ErrorResponseFactory.buildResponse(HttpStatus.INTERNAL_SERVER_ERROR,
-                ErrorCode.INTERNAL_ERROR.name(), "Unexpected error", null, request);
+        return UNEXPECTED_ERROR.render(request, traceId);
     }
 }
@@ -0,0 +1,148 @@
+package com.example.demo.logging;
+
+import java.io.StringWriter;
+import java.util.List;
+import net.logstash.logback.argument.StructuredArgument;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Structured argument that streams one access record straight into the JSON generator.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Write access fields as top-level JSON properties without intermediate maps.
+ * 2) Mask header values while streaming them into nested objects.
+ * 3) Keep field names and value types identical to the key-value layout it replaces.
+ * </pre>
+ */
+/* default */ final class AccessLogArgument implements StructuredArgument {
+    /** Record to write. */
+    private final AccessLogRecord record;
+
+    /** Trusted proxy allowlist used for client IP resolution. */
+    private final TrustedProxyMatcher trustedProxies;
+
+    /** Forwarding header the record's forwarding value was read from. */
+    private final ForwardingHeader forwardingHeader;
+
+    /**
+     * Creates an access-log argument.
+     *
+     * @param record access-log record
+     * @param trustedProxies trusted proxy allowlist
+     * @param forwardingHeader forwarding header set by the trusted proxies
+     */
+    /* default */ AccessLogArgument(final AccessLogRecord record,
+            final TrustedProxyMatcher trustedProxies, final ForwardingHeader forwardingHeader) {
+        this.record = record;
+        this.trustedProxies = trustedProxies;
+        this.forwardingHeader = forwardingHeader;
+    }
+
+    /**
+     * Writes the access fields into the enclosing JSON object.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Capture request/response bodies with the shared capture policy.
+     * 2) Write scalar request fields, sanitizing the query and resolving the client IP.
+     * 3) Stream masked request/response headers as nested objects.
+     * 4) Write body text, truncation/omission flags, original body byte lengths, exception,
+     *    and sample weight.
+     * </pre>
+     *
+     * @param generator JSON generator positioned inside the log event object
+     */
+    @Override
+    public void writeTo(final JsonGenerator generator) {
+        final AccessLogSupport.BodyCapture requestBody = record.getRequestBody().capture();
+        final AccessLogSupport.BodyCapture responseBody = record.getResponseBody().capture();
+        generator.writeStringProperty("method", record.getMethod());
+        generator.writeStringProperty("path", record.getPath());
+        generator.writeStringProperty("query", LogSanitizer.sanitizeQuery(record.getQuery()));
+        generator.writeNumberProperty("status", record.getStatus());
+        generator.writeNumberProperty("durationMs", record.getDurationMs());
+        generator.writeStringProperty("clientIp", AccessLogClientIpResolver.resolveClientIp(
+                record.getRemoteAddr(), record.getForwarding(), forwardingHeader, trustedProxies));
+        generator.writeStringProperty("remoteAddr", record.getRemoteAddr());
+        generator.writeStringProperty("userAgent", record.getUserAgent());
+        writeHeaders(generator, "requestHeaders", record.getRequestHeaders());
+        writeHeaders(generator, "responseHeaders", record.getResponseHeaders());
+        generator.writeStringProperty("requestBody", requestBody.body());
+        generator.writeStringProperty("responseBody", responseBody.body());
+        generator.writeBooleanProperty("requestBodyTruncated", requestBody.truncated());
+        generator.writeBooleanProperty("responseBodyTruncated", responseBody.truncated());
+        generator.writeBooleanProperty("requestBodyOmitted", requestBody.omitted());
+        generator.writeBooleanProperty("responseBodyOmitted", responseBody.omitted());
+        writeLength(generator, "requestBodyBytes", record.getRequestBody().length());
+        writeLength(generator, "responseBodyBytes", record.getResponseBody().length());
+        generator.writeStringProperty("exception", record.getException());
+        generator.writeNumberProperty("sampleWeight", record.getSampleWeight());
+    }
+
+    /**
+     * Renders the access fields as a standalone JSON object.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Open a JSON object on a string-backed generator.
+     * 2) Write the same fields as writeTo(...).
+     * 3) Close the object and return the text.
+     * </pre>
+     *
+     * @return JSON object text
+     */
+    @Override
+    public String toString() {
+        final StringWriter out = new StringWriter();
+        try (JsonGenerator generator = JsonMapper.shared().createGenerator(out)) {
+            generator.writeStartObject();
+            writeTo(generator);
+            generator.writeEndObject();
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes an original body length in bytes.
+     *
+     * @param generator JSON generator
+     * @param name property name
+     * @param length body length, or -1 when unknown (written as null)
+     */
+    private static void writeLength(final JsonGenerator generator, final String name,
+            final long length) {
+        if (length < 0) {
+            generator.writeNullProperty(name);
+        } else {
+            generator.writeNumberProperty(name, length);
+        }
+    }
+
+    /**
+     * Streams flattened header pairs as a masked JSON object.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Write the property name and open an object.
+     * 2) Walk name/value pairs, masking each value by header name.
+     * 3) Close the object.
+     * </pre>
+     *
+     * @param generator JSON generator
+     * @param name property name
+     * @param pairs flattened header name/value pairs
+     */
+    private static void writeHeaders(final JsonGenerator generator, final String name,
+            final List<String> pairs) {
+        generator.writeName(name);
+        generator.writeStartObject();
+        for (int index = 0; index + 1 < pairs.size(); index += 2) {
+            final String header = pairs.get(index);
+            generator.writeStringProperty(header,
+                    LogSanitizer.maskHeaderValue(header, pairs.get(index + 1)));
+        }
+        generator.writeEndObject();
+    }
+}
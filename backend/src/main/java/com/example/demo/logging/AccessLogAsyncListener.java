@@ -0,0 +1,107 @@
+package com.example.demo.logging;
+
+import com.example.demo.trace.RequestContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Finishes access logging when an asynchronous request completes.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Remember timeouts and errors reported by the container.
+ * 2) Run the completion callback exactly once, when the response is complete.
+ * 3) Bind the request context, and with it the MDC trace id, on the completing thread.
+ * </pre>
+ */
+/* default */ final class AccessLogAsyncListener implements AsyncListener {
+    /** Context of the request. */
+    private final RequestContext context;
+
+    /** Completion callback receiving the failure, if any. */
+    private final Consumer<Exception> completion;
+
+    /** Whether the completion callback already ran. */
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    /** Failure reported by onTimeout/onError. */
+    private volatile Exception failure;
+
+    /**
+     * Creates a listener.
+     *
+     * @param context context of the request
+     * @param completion callback that records and logs the completed request
+     */
+    /* default */ AccessLogAsyncListener(final RequestContext context,
+            final Consumer<Exception> completion) {
+        this.context = context;
+        this.completion = completion;
+    }
+
+    /**
+     * Finishes the request.
+     *
+     * @param event async event
+     */
+    @Override
+    public void onComplete(final AsyncEvent event) {
+        finish();
+    }
+
+    /**
+     * Records a timeout; logging waits for onComplete so the timeout status is final.
+     *
+     * @param event async event
+     */
+    @Override
+    public void onTimeout(final AsyncEvent event) {
+        failure = new TimeoutException("Async request timed out");
+    }
+
+    /**
+     * Records an error; logging waits for onComplete so the error status is final.
+     *
+     * @param event async event
+     */
+    @Override
+    public void onError(final AsyncEvent event) {
+        final Throwable thrown = event.getThrowable();
+        failure = thrown instanceof Exception ex ? ex : new ServletException(thrown);
+    }
+
+    /**
+     * Re-registers for a new asynchronous cycle, which clears previous listeners.
+     *
+     * @param event async event
+     */
+    @Override
+    public void onStartAsync(final AsyncEvent event) {
+        event.getAsyncContext().addListener(this);
+    }
+
+    /**
+     * Runs the completion callback once with the request context bound.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Skip when the callback already ran.
+     * 2) Open the request context scope and invoke the callback with the recorded failure.
+     * 3) Close the scope, restoring the completing thread's context and MDC.
+     * </pre>
+     */
+    private void finish() {
+        if (finished.compareAndSet(false, true)) {
+            final RequestContext.Scope scope = context.open();
+            try {
+                completion.accept(failure);
+            } finally {
+                scope.close();
+            }
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.demo.logging;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
-import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
-import java.nio.charset.UnsupportedCharsetException;
-import java.util.Locale;
 
 /**
  * Shared helpers for request/response body capture policy.
@@ -14,9 +16,22 @@ import java.util.Locale;
  * 1) Enforce body-capture on/off policy.
  * 2) Decode text payloads using safe charset resolution.
  * 3) Sanitize sensitive body fields and truncate oversized payloads.
+ * 4) Mask JSON bodies in one streaming pass bounded by the capture limit.
+ * 5) Decode only the capture-limit prefix of other text bodies with reused per-thread codecs.
  * </pre>
  */
 final class AccessLogBodyCaptureSupport {
+    /** Shared capture for empty bodies. */
+    private static final AccessLogSupport.BodyCapture EMPTY =
+            new AccessLogSupport.BodyCapture(null, false, false);
+
+    /** Shared capture for bodies excluded from logs. */
+    private static final AccessLogSupport.BodyCapture OMITTED =
+            new AccessLogSupport.BodyCapture(null, false, true);
+
+    /** Per-thread codecs reused while the charset and limit stay the same. */
+    private static final ThreadLocal<PrefixCodec> CODECS = new ThreadLocal<>();
+
     /**
      * Utility class.
      * 
@@ -33,10 +48,8 @@ final class AccessLogBodyCaptureSupport {
      * 
      * <pre>
      * Algorithm:
-     * 1) Return omitted capture when policy disables body logging.
-     * 2) Return empty capture when payload is null or empty.
-     * 3) Omit non-text payloads for safety.
-     * 4) Decode, sanitize, and truncate text payloads.
+     * 1) Treat the captured bytes as the complete body.
+     * 2) Delegate to the length-aware overload.
      * </pre>
      *
      * @param bodyBytes raw body bytes
@@ -46,53 +59,162 @@ final class AccessLogBodyCaptureSupport {
      */
     /* default */ static AccessLogSupport.BodyCapture captureBody(final byte[] bodyBytes,
             final String contentType, final boolean captureEnabled) {
+        return captureBody(bodyBytes, bodyBytes == null ? 0L : bodyBytes.length, contentType,
+                captureEnabled);
+    }
+
+    /**
+     * Captures and truncates a payload body prefix with the default limit.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Delegate to the limit-aware overload with MAX_BODY_BYTES.
+     * </pre>
+     *
+     * @param bodyBytes captured body prefix
+     * @param totalLength total body length in bytes, or -1 when present but unknown
+     * @param contentType content type header
+     * @param captureEnabled whether body capture is enabled
+     * @return captured body metadata
+     */
+    /* default */ static AccessLogSupport.BodyCapture captureBody(final byte[] bodyBytes,
+            final long totalLength, final String contentType, final boolean captureEnabled) {
+        return captureBody(bodyBytes, totalLength, contentType, captureEnabled,
+                AccessLogSupport.MAX_BODY_BYTES);
+    }
+
+    /**
+     * Captures and truncates a payload body prefix.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Return omitted capture when policy disables body logging and the body is not empty.
+     * 2) Return empty capture when the captured prefix is null or empty.
+     * 3) Omit non-text payloads for safety.
+     * 4) Mask JSON payloads while copying at most maxBytes bytes.
+     * 5) Decode at most maxBytes bytes of other text payloads, sanitize, and cut the
+     *    result back to maxBytes encoded bytes.
+     * 6) Mark truncation when the body was longer than the captured prefix.
+     * </pre>
+     *
+     * @param bodyBytes captured body prefix
+     * @param totalLength total body length in bytes, or -1 when present but unknown
+     * @param contentType content type header
+     * @param captureEnabled whether body capture is enabled
+     * @param maxBytes capture limit in bytes
+     * @return captured body metadata
+     */
+    /* default */ static AccessLogSupport.BodyCapture captureBody(final byte[] bodyBytes,
+            final long totalLength, final String contentType, final boolean captureEnabled,
+            final int maxBytes) {
         AccessLogSupport.BodyCapture capture;
         if (captureEnabled) {
-            capture = new AccessLogSupport.BodyCapture(null, false, false);
+            capture = EMPTY;
             if (bodyBytes != null && bodyBytes.length > 0) {
-                if (isTextLike(contentType)) {
-                    final Charset charset = resolveCharset(contentType);
-                    String body = new String(bodyBytes, charset);
-                    body = LogSanitizer.sanitizeBody(body, contentType);
-                    final boolean truncated = body.length() > AccessLogSupport.MAX_BODY_BYTES;
-                    if (truncated) {
-                        body = body.substring(0, AccessLogSupport.MAX_BODY_BYTES);
-                    }
-                    capture = new AccessLogSupport.BodyCapture(body, truncated, false);
+                final ContentTypeDescriptor type = ContentTypeDescriptor.of(contentType);
+                if (type.json()) {
+                    capture = captureJson(bodyBytes, totalLength, type.charset(), maxBytes);
+                } else if (type.textLike()) {
+                    capture = captureText(bodyBytes, totalLength, type, maxBytes);
                 } else {
-                    capture = new AccessLogSupport.BodyCapture(null, false, true);
+                    capture = OMITTED;
                 }
             }
         } else {
-            final boolean omitted = bodyBytes != null && bodyBytes.length > 0;
-            capture = new AccessLogSupport.BodyCapture(null, false, omitted);
+            capture = totalLength == 0 ? EMPTY : OMITTED;
         }
         return capture;
     }
 
+    /**
+     * Captures a JSON body with the streaming masker.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Mask ASCII-compatible bytes directly; transcode other charsets to UTF-8 first.
+     * 2) Copy at most maxBytes bytes, masking sensitive values on the way.
+     * 3) Mark truncation when the budget was spent or the prefix was shorter than the body.
+     * </pre>
+     *
+     * @param bodyBytes captured body prefix
+     * @param totalLength total body length in bytes, or -1 when present but unknown
+     * @param charset declared charset
+     * @param maxBytes capture limit in bytes
+     * @return captured body metadata
+     */
+    private static AccessLogSupport.BodyCapture captureJson(final byte[] bodyBytes,
+            final long totalLength, final Charset charset, final int maxBytes) {
+        final boolean asciiCompatible = StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset);
+        final byte[] json = asciiCompatible ? bodyBytes
+                : new String(bodyBytes, charset).getBytes(StandardCharsets.UTF_8);
+        final JsonBodyMasker masker = new JsonBodyMasker(json, maxBytes).run();
+        final String body =
+                masker.toString(asciiCompatible ? charset : StandardCharsets.UTF_8);
+        return new AccessLogSupport.BodyCapture(body,
+                masker.isTruncated() || totalLength > bodyBytes.length, false);
+    }
+
+    /**
+     * Captures a non-JSON text body from a bounded byte prefix.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Decode at most maxBytes bytes; a multibyte character split by the limit is
+     *    dropped rather than decoded as a replacement character.
+     * 2) Sanitize the decoded prefix.
+     * 3) Cut the sanitized text to the longest prefix that encodes to maxBytes bytes,
+     *    since masking may lengthen it.
+     * 4) Mark truncation when any bytes or characters were left out.
+     * 5) Keep the codec for the next capture only up to MAX_BODY_BYTES, so a raised
+     *    per-route limit does not pin large buffers to every request thread.
+     * 6) Skip the cache on virtual threads: each request runs on a new thread, so the codec
+     *    would never be reused and would only add a thread-local map per request.
+     * </pre>
+     *
+     * @param bodyBytes captured body prefix
+     * @param totalLength total body length in bytes, or -1 when present but unknown
+     * @param type parsed content type
+     * @param maxBytes capture limit in bytes
+     * @return captured body metadata
+     */
+    private static AccessLogSupport.BodyCapture captureText(final byte[] bodyBytes,
+            final long totalLength, final ContentTypeDescriptor type, final int maxBytes) {
+        final Charset charset = type.charset();
+        PrefixCodec codec = CODECS.get();
+        if (codec == null || !codec.charset.equals(charset) || codec.limit != maxBytes) {
+            codec = new PrefixCodec(charset, maxBytes);
+            if (maxBytes <= AccessLogSupport.MAX_BODY_BYTES
+                    && !Thread.currentThread().isVirtual()) {
+                CODECS.set(codec);
+            }
+        }
+        final boolean complete = bodyBytes.length <= maxBytes;
+        final String sanitized = LogSanitizer.sanitizeBody(
+                codec.decode(bodyBytes, Math.min(bodyBytes.length, maxBytes), complete), type);
+        final int fitted = codec.fit(sanitized);
+        final String body = fitted < sanitized.length() ? sanitized.substring(0, fitted)
+                : sanitized;
+        return new AccessLogSupport.BodyCapture(body,
+                !complete || fitted < sanitized.length() || totalLength > bodyBytes.length,
+                false);
+    }
+
     /**
      * Checks whether the content type is safe to log as text.
      * 
      * <pre>
      * Algorithm:
-     * 1) Treat null content type as non-text.
-     * 2) Normalize value to lowercase.
-     * 3) Accept text, JSON, XML, and form-url-encoded content types.
+     * 1) Look up the cached content-type descriptor (null is non-text).
+     * 2) Accept text, JSON, XML, and form-url-encoded content types.
      * </pre>
      *
      * @param contentType content type header
      * @return true if text-like
      */
     /* default */ static boolean isTextLike(final String contentType) {
-        boolean textLike = false;
-        if (contentType != null) {
-            final String normalized = contentType.toLowerCase(Locale.ROOT);
-            textLike = normalized.startsWith("text/") || normalized.contains("application/json")
-                    || normalized.contains("+json") || normalized.contains("application/xml")
-                    || normalized.contains("+xml")
-                    || normalized.contains("application/x-www-form-urlencoded");
-        }
-        return textLike;
+        return ContentTypeDescriptor.of(contentType).textLike();
     }
 
     /**
@@ -100,32 +222,119 @@ final class AccessLogBodyCaptureSupport {
      * 
      * <pre>
      * Algorithm:
-     * 1) Default to UTF-8.
-     * 2) Extract charset token from content type.
-     * 3) Resolve charset with fallback to UTF-8 on invalid values.
+     * 1) Look up the cached content-type descriptor.
+     * 2) Return its charset; UTF-8 when missing or invalid.
      * </pre>
      *
      * @param contentType content type header
      * @return resolved charset
      */
     /* default */ static Charset resolveCharset(final String contentType) {
-        Charset resolved = StandardCharsets.UTF_8;
-        String normalized = null;
-        if (contentType != null) {
-            normalized = contentType.toLowerCase(Locale.ROOT);
+        return ContentTypeDescriptor.of(contentType).charset();
+    }
+
+    /**
+     * Reusable decoder/encoder pair for one charset and byte limit.
+     * 
+     * <pre>
+     * Data contract:
+     * 1) Buffers are sized once for the byte limit and reused for every capture.
+     * 2) Malformed and unmappable input is replaced, matching String decoding.
+     * 3) Instances are confined to one thread.
+     * </pre>
+     */
+    private static final class PrefixCodec {
+        /** Charset handled by this codec. */
+        private final Charset charset;
+
+        /** Byte limit the buffers are sized for. */
+        private final int limit;
+
+        /** Reused decoder. */
+        private final CharsetDecoder decoder;
+
+        /** Reused encoder, or null when the charset only decodes. */
+        private final CharsetEncoder encoder;
+
+        /** Decoded characters of the current capture. */
+        private final CharBuffer chars;
+
+        /** Scratch space for measuring encoded lengths. */
+        private final ByteBuffer bytes;
+
+        /**
+         * Creates a codec.
+         *
+         * @param charset charset to decode and encode
+         * @param limit byte limit
+         */
+        private PrefixCodec(final Charset charset, final int limit) {
+            this.charset = charset;
+            this.limit = limit;
+            this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.encoder = charset.canEncode()
+                    ? charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    : null;
+            this.chars = CharBuffer.allocate((int) Math.ceil(limit * decoder.maxCharsPerByte()));
+            this.bytes = ByteBuffer.allocate(limit);
         }
-        final int charsetIndex = normalized == null ? -1 : normalized.indexOf("charset=");
-        String charset = null;
-        if (charsetIndex >= 0) {
-            charset = normalized.substring(charsetIndex + "charset=".length()).trim();
+
+        /**
+         * Decodes a byte prefix.
+         * 
+         * <pre>
+         * Algorithm:
+         * 1) Reset the decoder and decode the prefix into the reused character buffer.
+         * 2) When the prefix is not the whole body, decode without end-of-input so a
+         *    trailing partial character is left unread instead of replaced.
+         * 3) Flush only when the prefix is the whole body.
+         * </pre>
+         *
+         * @param input body bytes
+         * @param length number of bytes to decode
+         * @param endOfInput whether the prefix is the whole body
+         * @return decoded text
+         */
+        private String decode(final byte[] input, final int length, final boolean endOfInput) {
+            decoder.reset();
+            chars.clear();
+            decoder.decode(ByteBuffer.wrap(input, 0, length), chars, endOfInput);
+            if (endOfInput) {
+                decoder.flush(chars);
+            }
+            return chars.flip().toString();
         }
-        if (charset != null) {
-            try {
-                resolved = Charset.forName(charset);
-            } catch (final IllegalCharsetNameException | UnsupportedCharsetException ex) {
-                resolved = StandardCharsets.UTF_8;
+
+        /**
+         * Finds the longest prefix of text that encodes within the byte limit.
+         * 
+         * <pre>
+         * Algorithm:
+         * 1) Skip encoding when even the worst-case encoded length fits.
+         * 2) Otherwise encode into the limit-sized buffer; the encoder stops on overflow
+         *    without splitting a character, so the consumed character count is the prefix.
+         * 3) Fall back to the character count for decode-only charsets.
+         * </pre>
+         *
+         * @param text sanitized text
+         * @return number of characters to keep
+         */
+        private int fit(final String text) {
+            int length = text.length();
+            if (encoder != null
+                    && (double) length * encoder.maxBytesPerChar() > bytes.capacity()) {
+                final CharBuffer input = CharBuffer.wrap(text);
+                encoder.reset();
+                bytes.clear();
+                if (encoder.encode(input, bytes, true).isOverflow()) {
+                    length = input.position();
+                }
+            } else if (encoder == null) {
+                length = Math.min(length, bytes.capacity());
             }
+            return length;
         }
-        return resolved;
     }
 }
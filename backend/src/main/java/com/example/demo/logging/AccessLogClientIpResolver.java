@@ -1,13 +1,6 @@
 package com.example.demo.logging;
 
 import jakarta.servlet.http.HttpServletRequest;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-import java.util.Arrays;
-import java.util.LinkedHashSet;
-import java.util.Locale;
-import java.util.Set;
-import java.util.stream.Collectors;
 import org.springframework.util.StringUtils;
 
 /**
@@ -15,8 +8,8 @@ import org.springframework.util.StringUtils;
  * 
  * <pre>
  * Responsibilities:
- * 1) Parse and normalize trusted proxy addresses from configuration.
- * 2) Resolve X-Forwarded-For only when remote address is explicitly trusted.
+ * 1) Parse trusted proxy addresses and CIDR ranges from configuration.
+ * 2) Resolve the configured forwarding header only when remote address is explicitly trusted.
  * 3) Fall back to request remote address when trust checks do not pass.
  * </pre>
  */
@@ -24,8 +17,9 @@ final class AccessLogClientIpResolver {
     /** Default trusted proxies used when configuration is absent. */
     private static final String DEF_TRUSTED = "127.0.0.1,::1,0:0:0:0:0:0:0:1";
 
-    /** Forwarded header key used for client IP resolution. */
-    private static final String HDR_XFF = "X-Forwarded-For";
+    /** Parsed default trusted proxies, shared because matchers are immutable. */
+    private static final TrustedProxyMatcher DEFAULT_MATCHER =
+            TrustedProxyMatcher.parse(DEF_TRUSTED);
 
     /**
      * Utility class.
@@ -39,18 +33,17 @@ final class AccessLogClientIpResolver {
     private AccessLogClientIpResolver() {}
 
     /**
-     * Returns the default trusted-proxy address set.
+     * Returns the default trusted-proxy matcher.
      * 
      * <pre>
      * Algorithm:
-     * 1) Parse the built-in default proxy list.
-     * 2) Return a normalized immutable set.
+     * 1) Return the matcher parsed once from the built-in default proxy list.
      * </pre>
      *
-     * @return default trusted-proxy addresses
+     * @return default trusted-proxy matcher
      */
-    /* default */ static Set<String> defaultTrustedProxyAddresses() {
-        return parseTrustedProxyAddresses(DEF_TRUSTED);
+    /* default */ static TrustedProxyMatcher defaultTrustedProxyAddresses() {
+        return DEFAULT_MATCHER;
     }
 
     /**
@@ -58,19 +51,28 @@ final class AccessLogClientIpResolver {
      * 
      * <pre>
      * Algorithm:
-     * 1) Split the comma-separated value.
-     * 2) Trim entries and discard blank tokens.
-     * 3) Normalize entries to lowercase canonical form where possible.
+     * 1) Split the comma-separated value and discard blank tokens.
+     * 2) Parse each address literal or CIDR range into a prefix trie.
+     * 3) Reject host names and malformed entries with IllegalArgumentException.
      * </pre>
      *
-     * @param configured comma-separated proxy addresses
-     * @return normalized trusted-proxy set
+     * @param configured comma-separated proxy addresses or CIDR ranges
+     * @return trusted-proxy matcher
      */
-    /* default */ static Set<String> parseTrustedProxyAddresses(final String configured) {
-        final String raw = configured == null ? "" : configured;
-        return Arrays.stream(raw.split(",")).map(String::trim).filter(StringUtils::hasText)
-                .map(AccessLogClientIpResolver::normalizeAddress)
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+    /* default */ static TrustedProxyMatcher parseTrustedProxyAddresses(final String configured) {
+        return TrustedProxyMatcher.parse(configured);
+    }
+
+    /**
+     * Resolves the effective client IP from X-Forwarded-For.
+     *
+     * @param request current request
+     * @param trustedProxies trusted proxy allowlist
+     * @return client IP
+     */
+    /* default */ static String resolveClientIp(final HttpServletRequest request,
+            final TrustedProxyMatcher trustedProxies) {
+        return resolveClientIp(request, ForwardingHeader.X_FORWARDED_FOR, trustedProxies);
     }
 
     /**
@@ -78,77 +80,82 @@ final class AccessLogClientIpResolver {
      * 
      * <pre>
      * Algorithm:
-     * 1) Read remoteAddr as the default client IP.
-     * 2) Read X-Forwarded-For and parse its first hop when present.
-     * 3) Use forwarded IP only when remoteAddr is in trusted proxy allowlist.
-     * 4) Otherwise return remoteAddr unchanged.
+     * 1) Read remoteAddr and every line of the configured forwarding header.
+     * 2) Delegate to the raw-value overload.
      * </pre>
      *
      * @param request current request
+     * @param header forwarding header set by the trusted proxies
      * @param trustedProxies trusted proxy allowlist
      * @return client IP
      */
     /* default */ static String resolveClientIp(final HttpServletRequest request,
-            final Set<String> trustedProxies) {
-        String clientIp = request.getRemoteAddr();
-        final String forwarded = request.getHeader(HDR_XFF);
-        final String remoteAddr = request.getRemoteAddr();
-        if (StringUtils.hasText(forwarded) && isTrustedProxy(remoteAddr, trustedProxies)) {
-            final int commaIndex = forwarded.indexOf(',');
-            clientIp =
-                    commaIndex > 0 ? forwarded.substring(0, commaIndex).trim() : forwarded.trim();
-        }
-        return clientIp;
+            final ForwardingHeader header, final TrustedProxyMatcher trustedProxies) {
+        return resolveClientIp(request.getRemoteAddr(), header.read(request), header,
+                trustedProxies);
     }
 
     /**
-     * Checks whether a remote address belongs to the trusted proxy allowlist.
+     * Resolves the effective client IP from a remote address and X-Forwarded-For.
+     *
+     * @param remoteAddr remote address from the container
+     * @param forwardedFor X-Forwarded-For header value
+     * @param trustedProxies trusted proxy allowlist
+     * @return client IP
+     */
+    /* default */ static String resolveClientIp(final String remoteAddr,
+            final String forwardedFor, final TrustedProxyMatcher trustedProxies) {
+        return resolveClientIp(remoteAddr, forwardedFor, ForwardingHeader.X_FORWARDED_FOR,
+                trustedProxies);
+    }
+
+    /**
+     * Resolves the effective client IP from raw values.
      * 
      * <pre>
      * Algorithm:
-     * 1) Reject blank remote addresses.
-     * 2) Normalize both literal and canonical address forms.
-     * 3) Match either normalized representation against trusted proxy allowlist.
+     * 1) Use remoteAddr as the default client IP.
+     * 2) Consult the forwarding header only when remoteAddr is in the trusted proxy allowlist.
+     * 3) Walk hops right to left and use the first untrusted one.
+     * 4) Otherwise return remoteAddr unchanged.
      * </pre>
      *
-     * @param remoteAddr remote address from request
+     * @param remoteAddr remote address from the container
+     * @param forwarding value of the forwarding header, all lines joined in order
+     * @param header forwarding header the value was read from
      * @param trustedProxies trusted proxy allowlist
-     * @return true when the proxy is trusted
+     * @return client IP
      */
-    /* default */ static boolean isTrustedProxy(final String remoteAddr,
-            final Set<String> trustedProxies) {
-        boolean trusted = false;
-        if (StringUtils.hasText(remoteAddr) && trustedProxies != null
-                && !trustedProxies.isEmpty()) {
-            final String normalizedRemote = normalizeAddress(remoteAddr);
-            if (trustedProxies.contains(normalizedRemote)) {
-                trusted = true;
-            } else {
-                try {
-                    final InetAddress address = InetAddress.getByName(remoteAddr);
-                    trusted = trustedProxies.contains(normalizeAddress(address.getHostAddress()));
-                } catch (final UnknownHostException ex) {
-                    trusted = false;
-                }
+    /* default */ static String resolveClientIp(final String remoteAddr,
+            final String forwarding, final ForwardingHeader header,
+            final TrustedProxyMatcher trustedProxies) {
+        String clientIp = remoteAddr;
+        if (forwarding != null && isTrustedProxy(remoteAddr, trustedProxies)) {
+            final long hop = header.clientHop(forwarding, trustedProxies);
+            if (hop != ForwardedHeaderParser.NO_HOP) {
+                clientIp = forwarding.substring(ForwardedHeaderParser.start(hop),
+                        ForwardedHeaderParser.end(hop));
             }
         }
-        return trusted;
+        return clientIp;
     }
 
     /**
-     * Normalizes addresses for case-insensitive matching.
+     * Checks whether a remote address belongs to the trusted proxy allowlist.
      * 
      * <pre>
      * Algorithm:
-     * 1) Trim input value.
-     * 2) Convert to lowercase using Locale.ROOT.
-     * 3) Return normalized string.
+     * 1) Reject blank remote addresses and missing allowlists.
+     * 2) Match the address literal against the CIDR trie; host names are never resolved.
      * </pre>
      *
-     * @param address raw address
-     * @return normalized address
+     * @param remoteAddr remote address from request
+     * @param trustedProxies trusted proxy allowlist
+     * @return true when the proxy is trusted
      */
-    private static String normalizeAddress(final String address) {
-        return address.trim().toLowerCase(Locale.ROOT);
+    /* default */ static boolean isTrustedProxy(final String remoteAddr,
+            final TrustedProxyMatcher trustedProxies) {
+        return StringUtils.hasText(remoteAddr) && trustedProxies != null
+                && trustedProxies.matches(remoteAddr);
     }
 }
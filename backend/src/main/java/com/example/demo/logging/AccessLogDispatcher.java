@@ -0,0 +1,300 @@
+package com.example.demo.logging;
+
+import com.example.demo.trace.RequestContext;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hands access-log records to a dedicated writer thread.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Decouple request latency from access-log encoding and I/O.
+ * 2) Apply the configured overflow policy when the ring buffer is full.
+ * 3) Count dropped records and bind the record trace id to MDC while writing it.
+ * 4) Write records enqueued while stopping, so none is lost without being counted.
+ * </pre>
+ *
+ * <pre>
+ * Design note:
+ * 1) A producer may read running as true and enqueue after the writer's last poll. The
+ *    consumer role is therefore a flag: whoever holds it may poll. The writer holds it from
+ *    construction and releases it on exit; after that, the exiting writer or any producer
+ *    that enqueued takes it and drains whatever is published. Each side releases and then
+ *    re-checks, so the last record is always seen by one of them.
+ * 2) An idle writer parks for up to IDLE_PARK_NANOS and announces it in a flag; the first
+ *    producer to publish while the flag is set unparks it. An idle service therefore wakes
+ *    the writer at most 100 times per second, while records still reach it immediately. A
+ *    record published between the writer's last poll and its announcement waits for the
+ *    park to time out.
+ * </pre>
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+final class AccessLogDispatcher {
+    /** Name of the writer thread. */
+    private static final String THREAD_NAME = "access-log-writer";
+
+    /** Longest park of the writer thread while the buffer is empty. */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /** Park time used by producers waiting for space under the BLOCK policy. */
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /** Maximum time to wait for the writer thread to drain on shutdown. */
+    private static final long STOP_TIMEOUT_MS = 5000L;
+
+    /** Pending records. */
+    private final AccessLogRingBuffer buffer;
+
+    /** Policy applied when the buffer is full. */
+    private final OverflowPolicy policy;
+
+    /** Writer invoked for each record on the writer thread. */
+    private final Consumer<AccessLogRecord> sink;
+
+    /** Writer thread draining the buffer. */
+    private final Thread writer;
+
+    /** Whether the writer thread accepts new records. */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** Whether a thread owns the single-consumer side; the writer holds it until it exits. */
+    private final AtomicBoolean consuming = new AtomicBoolean(true);
+
+    /** Whether the writer is parked, or about to park, waiting for a record. */
+    private final AtomicBoolean idle = new AtomicBoolean();
+
+    /** Records dropped because the buffer was full or the writer failed. */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Creates a dispatcher.
+     *
+     * <pre>
+     * Initialization:
+     * 1) Allocate the ring buffer with the requested capacity.
+     * 2) Prepare, but do not start, a daemon writer thread.
+     * </pre>
+     *
+     * @param capacity ring buffer capacity
+     * @param policy overflow policy
+     * @param sink record writer
+     */
+    /* default */ AccessLogDispatcher(final int capacity, final OverflowPolicy policy,
+            final Consumer<AccessLogRecord> sink) {
+        this.buffer = new AccessLogRingBuffer(capacity);
+        this.policy = policy == null ? OverflowPolicy.DROP : policy;
+        this.sink = sink;
+        this.writer = Thread.ofPlatform().name(THREAD_NAME).daemon(true).unstarted(this::drain);
+    }
+
+    /**
+     * Starts the writer thread.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Flip running to true once.
+     * 2) Start the writer thread on the first call only.
+     * </pre>
+     */
+    /* default */ void start() {
+        if (running.compareAndSet(false, true)) {
+            writer.start();
+        }
+    }
+
+    /**
+     * Stops the writer thread after draining pending records.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Flip running to false so new records are written inline.
+     * 2) Wake the writer and wait up to STOP_TIMEOUT_MS for it to drain.
+     * 3) Preserve the interrupt flag when interrupted while waiting.
+     * </pre>
+     */
+    /* default */ void stop() {
+        if (running.compareAndSet(true, false)) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(STOP_TIMEOUT_MS);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Submits a record for asynchronous writing.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Write inline when the dispatcher is not running.
+     * 2) Offer the record to the ring buffer.
+     * 3) Under BLOCK, park briefly and retry until accepted or stopped.
+     * 4) After enqueueing, unpark an idle writer and drain pending records when the writer
+     *    has already exited.
+     * 5) Write a rejected record inline when the dispatcher stopped meanwhile; otherwise
+     *    count it as dropped.
+     * </pre>
+     *
+     * @param record record to write
+     * @return true when the record was enqueued or written
+     */
+    /* default */ boolean dispatch(final AccessLogRecord record) {
+        boolean accepted;
+        if (running.get()) {
+            accepted = buffer.offer(record);
+            while (!accepted && policy == OverflowPolicy.BLOCK && running.get()) {
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                accepted = buffer.offer(record);
+            }
+            final boolean stopped = !running.get();
+            if (accepted) {
+                wakeWriter();
+                drainPending();
+            } else if (stopped) {
+                accepted = deliver(record);
+            } else {
+                dropped.increment();
+            }
+        } else {
+            accepted = deliver(record);
+        }
+        return accepted;
+    }
+
+    /**
+     * Returns the number of dropped records.
+     *
+     * @return dropped record count
+     */
+    /* default */ long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of records waiting for the writer.
+     *
+     * @return pending record count
+     */
+    /* default */ int getPendingCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Returns whether the writer is parked waiting for a record.
+     *
+     * @return true while the writer is idle
+     */
+    /* default */ boolean isWriterIdle() {
+        return idle.get();
+    }
+
+    /**
+     * Writer thread loop.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Poll records and deliver them while running.
+     * 2) When the buffer is empty, announce idleness and park for up to IDLE_PARK_NANOS or
+     *    until a producer unparks the writer.
+     * 3) Once stopped, release the consumer role and drain the remaining records.
+     * </pre>
+     */
+    private void drain() {
+        while (running.get()) {
+            final AccessLogRecord record = buffer.poll();
+            if (record == null) {
+                idle.set(true);
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                idle.set(false);
+            } else {
+                deliver(record);
+            }
+        }
+        consuming.set(false);
+        drainPending();
+    }
+
+    /**
+     * Unparks the writer when it announced idleness.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Clear the idle flag; only the producer that clears it pays for the unpark.
+     * </pre>
+     */
+    private void wakeWriter() {
+        if (idle.compareAndSet(true, false)) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Writes published records once the writer has given up the consumer role.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) While a record is readable, try to take the consumer role; give up when another
+     *    thread, such as the running writer, holds it, since it re-checks after releasing.
+     * 2) Deliver every readable record, release the role, and re-check.
+     * </pre>
+     */
+    private void drainPending() {
+        while (buffer.isReadable() && consuming.compareAndSet(false, true)) {
+            for (AccessLogRecord record = buffer.poll(); record != null;
+                    record = buffer.poll()) {
+                deliver(record);
+            }
+            consuming.set(false);
+        }
+    }
+
+    /**
+     * Writes one record with its trace id bound to MDC.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Open a trace-id scope so encoders include the record trace id.
+     * 2) Invoke the sink and count sink failures as dropped records.
+     * 3) Close the scope, restoring the calling thread's MDC.
+     * </pre>
+     *
+     * @param record record to write
+     * @return true when the sink completed normally
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private boolean deliver(final AccessLogRecord record) {
+        boolean delivered = false;
+        final RequestContext.Scope scope = RequestContext.openTraceId(record.getTraceId());
+        try {
+            sink.accept(record);
+            delivered = true;
+        } catch (final RuntimeException ex) {
+            dropped.increment();
+        } finally {
+            scope.close();
+        }
+        return delivered;
+    }
+
+    /**
+     * Behavior when the ring buffer is full.
+     *
+     * <pre>
+     * Values:
+     * 1) DROP discards the record and increments the dropped counter.
+     * 2) BLOCK parks the request thread until space is available.
+     * </pre>
+     */
+    /* default */ enum OverflowPolicy {
+        /** Discard the record. */
+        DROP,
+        /** Wait for free space. */
+        BLOCK
+    }
+}
@@ -1,26 +1,27 @@
 package com.example.demo.logging;
 
-import static net.logstash.logback.argument.StructuredArguments.keyValue;
-
+import com.example.demo.metrics.LatencyRecorder;
+import com.example.demo.trace.RequestContext;
+import com.example.demo.trace.TraceIdResolver;
+import com.example.demo.trace.TraceParent;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.time.Duration;
-import java.util.Map;
-import java.util.Set;
+import java.util.List;
+import java.util.function.Function;
 import lombok.NoArgsConstructor;
+import net.logstash.logback.argument.StructuredArguments;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
-import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 /**
  * Logs structured access logs with request/response payloads and trace IDs.
@@ -30,6 +31,12 @@ import org.springframework.web.util.ContentCachingResponseWrapper;
  * 1) Intercept each HTTP request once and measure request duration.
  * 2) Delegate metadata sanitization to dedicated helpers.
  * 3) Propagate a trace identifier across logging context and response headers.
+ * 4) Optionally move decoding, masking, and encoding to a dedicated writer thread.
+ * 5) Optionally sample access lines per route while keeping errors and slow requests.
+ * 6) Record nanosecond latencies per route and status for percentile queries.
+ * 7) Defer logging of asynchronous requests until the response completes.
+ * 8) Apply per-route skip, sampling, and body-capture policies from the policy registry.
+ * 9) Log the weight of sampled-out requests that no later line of their route carried.
  * </pre>
  */
 @Component
@@ -38,17 +45,27 @@ public class AccessLogFilter extends OncePerRequestFilter {
     /** Logger dedicated to access logs. */
     private static final Logger ACCESS_LOG = LoggerFactory.getLogger("ACCESS_LOG");
 
-    /** MDC key used to store and read trace id values. */
-    private static final String TRACE_ID_MDC_KEY = "traceId";
-
-    /** Paths that should not emit access logs. */
-    private static final String[] SKIP_PATHS = {"/actuator", "/health"};
-
     /** Default trusted proxy list when configuration is absent. */
     private static final String TRUSTED_PROXIES = "127.0.0.1,::1,0:0:0:0:0:0:0:1";
 
+    /** Default ring buffer capacity for asynchronous access logging. */
+    private static final int DEF_ASYNC_CAPACITY = 8192;
+
+    /** Default latency above which sampled routes are always logged. */
+    private static final long DEF_SLOW_THRESHOLD_MS = 1000L;
+
+    /** Delay between flushes of uncarried sample weight; one rate window. */
+    private static final long CARRY_FLUSH_MS = 1000L;
+
     /** Trusted proxy addresses allowed to forward client IP headers. */
-    private Set<String> trustedProxies = AccessLogClientIpResolver.defaultTrustedProxyAddresses();
+    private TrustedProxyMatcher trustedProxies =
+            AccessLogClientIpResolver.defaultTrustedProxyAddresses();
+
+    /** Forwarding header the trusted proxies append the client hop to. */
+    private ForwardingHeader forwardingHeader = ForwardingHeader.X_FORWARDED_FOR;
+
+    /** Resolves client IPs for request contexts against the current trusted proxies. */
+    private final Function<HttpServletRequest, String> clientIpResolver = this::resolveClientIp;
 
     /** Whether request payload logging is enabled. */
     private boolean reqBodyCapture;
@@ -56,23 +73,82 @@ public class AccessLogFilter extends OncePerRequestFilter {
     /** Whether response payload logging is enabled. */
     private boolean resBodyCapture;
 
+    /** Whether access logs are written by a dedicated writer thread. */
+    private boolean asyncEnabled;
+
+    /** Ring buffer capacity for asynchronous access logging. */
+    private int asyncCapacity = DEF_ASYNC_CAPACITY;
+
+    /** Behavior when the asynchronous ring buffer is full. */
+    private AccessLogDispatcher.OverflowPolicy overflowPolicy =
+            AccessLogDispatcher.OverflowPolicy.DROP;
+
+    /** Asynchronous dispatcher, or null when access logs are written inline. */
+    private AccessLogDispatcher dispatcher;
+
+    /** Whether access-log sampling is enabled. */
+    private boolean samplingEnabled;
+
+    /** Per-route sampling rule specification. */
+    private String samplingRules = "";
+
+    /** Requests at or above this duration are always logged when sampling. */
+    private long slowThresholdMs = DEF_SLOW_THRESHOLD_MS;
+
+    /** Access-log sampler; without rules it keeps every request. */
+    private AccessLogSampler sampler =
+            new AccessLogSampler(List.of(), DEF_SLOW_THRESHOLD_MS, System::nanoTime);
+
+    /** Per-route policies. */
+    private AccessLogPolicyRegistry policies = new AccessLogPolicyRegistry();
+
+    /** Per-route latency recorder, or null when latencies are not recorded. */
+    private LatencyRecorder latencyRecorder;
+
     /**
      * Configures trusted proxy addresses.
      * 
      * <pre>
      * Algorithm:
-     * 1) Read comma-separated proxy addresses from configuration.
-     * 2) Parse and normalize entries.
-     * 3) Update trustedProxies with parsed values.
+     * 1) Read comma-separated proxy addresses or CIDR ranges from configuration.
+     * 2) Parse entries into a prefix-trie matcher; host names are rejected.
+     * 3) Update trustedProxies with the parsed matcher.
      * </pre>
      *
-     * @param trustedProxies comma-separated proxy addresses
+     * @param trustedProxies comma-separated proxy addresses or CIDR ranges
      */
     @Value("${app.logging.access.trusted-proxies:" + TRUSTED_PROXIES + "}")
     /* default */ void setTrustedProxies(final String trustedProxies) {
         this.trustedProxies = AccessLogClientIpResolver.parseTrustedProxyAddresses(trustedProxies);
     }
 
+    /**
+     * Configures the forwarding header the trusted proxies append the client hop to.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Read X_FORWARDED_FOR or FORWARDED from configuration.
+     * 2) Update forwardingHeader; the other header is never read.
+     * </pre>
+     *
+     * @param header forwarding header set by the trusted proxies
+     */
+    @Value("${app.logging.access.forwarded-header:X_FORWARDED_FOR}")
+    /* default */ void setForwardedHeader(final ForwardingHeader header) {
+        forwardingHeader = header;
+    }
+
+    /**
+     * Resolves the client IP of a request with the trusted proxies configured at call time.
+     *
+     * @param request request whose client IP is resolved
+     * @return client IP
+     */
+    private String resolveClientIp(final HttpServletRequest request) {
+        return AccessLogClientIpResolver.resolveClientIp(request, forwardingHeader,
+                trustedProxies);
+    }
+
     /**
      * Configures request body capture.
      * 
@@ -105,14 +181,214 @@ public class AccessLogFilter extends OncePerRequestFilter {
         resBodyCapture = enabled;
     }
 
+    /**
+     * Configures asynchronous access logging.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Read boolean flag from configuration.
+     * 2) Update asyncEnabled toggle; the dispatcher starts in initFilterBean().
+     * </pre>
+     *
+     * @param enabled whether access logs are written asynchronously
+     */
+    @Value("${app.logging.access.async.enabled:false}")
+    /* default */ void setAsyncEnabled(final boolean enabled) {
+        asyncEnabled = enabled;
+    }
+
+    /**
+     * Configures the asynchronous ring buffer capacity.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Read capacity from configuration.
+     * 2) Store it; the ring buffer rounds it up to a power of two.
+     * </pre>
+     *
+     * @param capacity ring buffer capacity
+     */
+    @Value("${app.logging.access.async.capacity:" + DEF_ASYNC_CAPACITY + "}")
+    /* default */ void setAsyncCapacity(final int capacity) {
+        asyncCapacity = capacity;
+    }
+
+    /**
+     * Configures the asynchronous overflow policy.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Read DROP or BLOCK from configuration.
+     * 2) Update overflowPolicy.
+     * </pre>
+     *
+     * @param policy overflow policy
+     */
+    @Value("${app.logging.access.async.overflow-policy:DROP}")
+    /* default */ void setAsyncOverflowPolicy(final AccessLogDispatcher.OverflowPolicy policy) {
+        overflowPolicy = policy;
+    }
+
+    /**
+     * Configures access-log sampling.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Read boolean flag from configuration.
+     * 2) Update samplingEnabled; the sampler is built in initFilterBean().
+     * </pre>
+     *
+     * @param enabled whether sampling is enabled
+     */
+    @Value("${app.logging.access.sampling.enabled:false}")
+    /* default */ void setSamplingEnabled(final boolean enabled) {
+        samplingEnabled = enabled;
+    }
+
+    /**
+     * Configures per-route sampling rules.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Read comma-separated prefix=rate:N or prefix=probability:P entries.
+     * 2) Store the specification; it is parsed in initFilterBean().
+     * </pre>
+     *
+     * @param rules sampling rule specification
+     */
+    @Value("${app.logging.access.sampling.rules:}")
+    /* default */ void setSamplingRules(final String rules) {
+        samplingRules = rules;
+    }
+
+    /**
+     * Configures the slow-request threshold for sampling.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Read the threshold in milliseconds from configuration.
+     * 2) Update slowThresholdMs.
+     * </pre>
+     *
+     * @param thresholdMs latency at or above which requests are always logged
+     */
+    @Value("${app.logging.access.sampling.slow-threshold-ms:" + DEF_SLOW_THRESHOLD_MS + "}")
+    /* default */ void setSlowThresholdMs(final long thresholdMs) {
+        slowThresholdMs = thresholdMs;
+    }
+
+    /**
+     * Configures the latency recorder.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Receive the recorder bean when one is available.
+     * 2) Update latencyRecorder; a null recorder disables latency recording.
+     * </pre>
+     *
+     * @param recorder latency recorder
+     */
+    @Autowired(required = false)
+    /* default */ void setLatencyRecorder(final LatencyRecorder recorder) {
+        latencyRecorder = recorder;
+    }
+
+    /**
+     * Configures the per-route policy registry.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Receive the registry bean when one is available.
+     * 2) Update policies; the registry may be reloaded at runtime.
+     * </pre>
+     *
+     * @param registry policy registry
+     */
+    @Autowired(required = false)
+    /* default */ void setPolicyRegistry(final AccessLogPolicyRegistry registry) {
+        policies = registry;
+    }
+
+    /**
+     * Builds the sampler and starts the asynchronous dispatcher when enabled.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Build the sampler; sampling rules are parsed only when sampling is enabled.
+     * 2) Skip the dispatcher when asynchronous logging is disabled or already started.
+     * 3) Create a dispatcher that writes records through writeAccess(...).
+     * 4) Start its writer thread.
+     * </pre>
+     */
+    @Override
+    protected void initFilterBean() {
+        sampler = new AccessLogSampler(
+                samplingEnabled ? AccessLogSampler.parseRules(samplingRules) : List.of(),
+                slowThresholdMs, System::nanoTime);
+        if (asyncEnabled && dispatcher == null) {
+            dispatcher = new AccessLogDispatcher(asyncCapacity, overflowPolicy, this::writeAccess);
+            dispatcher.start();
+        }
+    }
+
+    /**
+     * Stops the asynchronous dispatcher.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Drain pending records and stop the writer thread.
+     * 2) Fall back to inline writing for any later request.
+     * </pre>
+     */
+    @Override
+    public void destroy() {
+        if (dispatcher != null) {
+            dispatcher.stop();
+            dispatcher = null;
+        }
+    }
+
+    /**
+     * Returns the number of access-log records dropped by the asynchronous dispatcher.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Return zero when access logs are written inline.
+     * 2) Otherwise read the dispatcher's dropped counter.
+     * </pre>
+     *
+     * @return dropped record count
+     */
+    public long getDroppedAccessLogCount() {
+        return dispatcher == null ? 0L : dispatcher.getDroppedCount();
+    }
+
+    /**
+     * Logs the weight of sampled-out requests that no later line carried.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Once per rate window, ask the sampler for weight skipped in finished windows of the
+     *    configured rules and the route policy rules.
+     * 2) Write one "sampled-out" event per rule with its prefix as path and the skipped count
+     *    as sampleWeight, so summed weights still reconstruct the request count.
+     * </pre>
+     */
+    @Scheduled(fixedDelay = CARRY_FLUSH_MS, initialDelay = CARRY_FLUSH_MS)
+    public void flushSampledOut() {
+        sampler.flushCarried(policies.rules(), (prefix, carried) -> ACCESS_LOG.info(
+                "sampled-out", StructuredArguments.keyValue("path", prefix),
+                StructuredArguments.keyValue("sampleWeight", (double) carried)));
+    }
+
     /**
      * Determines whether the current request should skip logging.
      * 
      * <pre>
      * Algorithm:
      * 1) Read request URI from the current request.
-     * 2) Compare the path against known skip prefixes.
-     * 3) Return true when any prefix matches, otherwise false.
+     * 2) Resolve the route policy for the path.
+     * 3) Return its skip flag.
      * </pre>
      *
      * @param request current request
@@ -120,17 +396,7 @@ public class AccessLogFilter extends OncePerRequestFilter {
      */
     @Override
     protected boolean shouldNotFilter(final HttpServletRequest request) {
-        boolean skip = false;
-        final String path = request.getRequestURI();
-        if (StringUtils.hasText(path)) {
-            for (final String prefix : SKIP_PATHS) {
-                if (path.startsWith(prefix)) {
-                    skip = true;
-                    break;
-                }
-            }
-        }
-        return skip;
+        return policies.resolve(request.getRequestURI()).skip();
     }
 
     /**
@@ -138,11 +404,17 @@ public class AccessLogFilter extends OncePerRequestFilter {
      * 
      * <pre>
      * Algorithm:
-     * 1) Wrap request/response with content-caching wrappers.
-     * 2) Resolve trace ID, bind it to MDC, and write it to response headers.
-     * 3) Execute downstream filter chain and preserve thrown failure type.
-     * 4) Log access details and restore previous MDC context.
-     * 5) Copy cached response body back to the client.
+     * 1) Resolve the route policy once; it fixes capture flags and limits for the request.
+     * 2) Wrap the request with a content-caching wrapper only when request capture is on.
+     * 3) Wrap the response with a tee that keeps a prefix when response capture is on and
+     *    otherwise only counts bytes, so an omitted body is reported from what was written.
+     * 4) Resolve trace ID, open a RequestContext scope (which binds it to MDC), and write it
+     *    to response headers.
+     *    A valid W3C traceparent is propagated with this server's span id.
+     * 5) Execute downstream filter chain and preserve thrown failure type.
+     * 6) When the request went async, defer completion to an AccessLogAsyncListener.
+     * 7) Otherwise record latency and log access details immediately.
+     * 8) Close the scope, restoring the enclosing context and MDC trace id.
      * </pre>
      *
      * @param request current request
@@ -156,20 +428,35 @@ public class AccessLogFilter extends OncePerRequestFilter {
     protected void doFilterInternal(final HttpServletRequest request,
             final HttpServletResponse response, final FilterChain filterChain)
             throws ServletException, IOException {
-        final ContentCachingRequestWrapper requestWrapper =
-                new ContentCachingRequestWrapper(request, AccessLogSupport.MAX_BODY_BYTES);
-        final ContentCachingResponseWrapper responseWrapper =
-                new ContentCachingResponseWrapper(response);
+        final AccessLogPolicyRegistry.Route route = policies.resolve(request.getRequestURI());
+        final HttpServletRequest requestToUse = route.captureRequest(reqBodyCapture)
+                ? new ContentCachingRequestWrapper(request, route.maxBodyBytes())
+                : request;
+        final AccessLogTeeResponseWrapper responseToUse = new AccessLogTeeResponseWrapper(
+                response, route.captureResponse(resBodyCapture) ? route.maxBodyBytes() : 0);
 
-        final Map<String, String> priorMdc = MDC.getCopyOfContextMap();
-        final String traceId = AccessLogSupport.resolveTraceId(requestWrapper);
-        MDC.put(TRACE_ID_MDC_KEY, traceId);
-        responseWrapper.setHeader(AccessLogSupport.TRACE_ID_HEADER, traceId);
+        final TraceParent traceParent =
+                TraceParent.parse(requestToUse.getHeader(TraceParent.HEADER));
+        final String traceId = AccessLogSupport.resolveTraceId(requestToUse, traceParent);
+        final RequestContext context = new RequestContext(traceId, requestToUse, clientIpResolver);
+        final RequestContext.Scope scope = context.open();
+        responseToUse.setHeader(AccessLogSupport.TRACE_ID_HEADER, traceId);
+        if (traceParent != null) {
+            responseToUse.setHeader(TraceParent.HEADER,
+                    traceParent.child(TraceIdResolver.nextSpanId()).toHeader());
+        }
 
         final long startNanos = System.nanoTime();
         Exception failure = null;
+        boolean asyncStarted = false;
         try {
-            filterChain.doFilter(requestWrapper, responseWrapper);
+            filterChain.doFilter(requestToUse, responseToUse);
+            asyncStarted = requestToUse.isAsyncStarted();
+            if (asyncStarted) {
+                requestToUse.getAsyncContext().addListener(new AccessLogAsyncListener(context,
+                        asyncFailure -> completeExchange(context, requestToUse, responseToUse,
+                                route, startNanos, asyncFailure)));
+            }
         } catch (final IOException | ServletException ex) {
             failure = ex;
             throw ex;
@@ -177,71 +464,199 @@ public class AccessLogFilter extends OncePerRequestFilter {
             failure = ex;
             throw new ServletException(ex);
         } finally {
-            final long durationMs = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
-            logAccess(requestWrapper, responseWrapper, durationMs, failure);
-            if (priorMdc == null) {
-                MDC.clear();
-            } else {
-                MDC.setContextMap(priorMdc);
+            if (!asyncStarted) {
+                completeExchange(context, requestToUse, responseToUse, route, startNanos,
+                        failure);
             }
-            responseWrapper.copyBodyToResponse();
+            scope.close();
         }
     }
 
     /**
-     * Emits structured access log payload.
+     * Finishes timing, latency recording, and access logging for a completed request.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Measure elapsed nanoseconds since the request entered the filter.
+     * 2) Move writer output into the tee capture without committing the response.
+     * 3) Record the nanosecond latency per status and the route read from the request context.
+     * 4) Log access details.
+     * </pre>
+     *
+     * @param context request context bound for the request
+     * @param request current request, possibly content-caching
+     * @param response tee wrapper over the current response
+     * @param route route policy resolved when the request entered the filter
+     * @param startNanos request start time from System.nanoTime()
+     * @param failure thrown exception, if any
+     */
+    private void completeExchange(final RequestContext context, final HttpServletRequest request,
+            final AccessLogTeeResponseWrapper response,
+            final AccessLogPolicyRegistry.Route route, final long startNanos,
+            final Exception failure) {
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        final long durationMs = Duration.ofNanos(elapsedNanos).toMillis();
+        response.flushCapture();
+        if (latencyRecorder != null) {
+            latencyRecorder.record(request.getMethod(), context.route(),
+                    finalStatus(response, failure), elapsedNanos);
+        }
+        logAccess(request, response, durationMs, failure, route);
+    }
+
+    /**
+     * Emits structured access log payload under the route policy of the request path.
      * 
      * <pre>
      * Algorithm:
-     * 1) Capture sanitized request/response bodies and headers via helper utilities.
-     * 2) Derive final status code, including failure fallback to 500.
-     * 3) Write one structured "access" log event with key attributes.
+     * 1) Resolve the route policy for the request URI.
+     * 2) Delegate to the route-aware overload.
      * </pre>
      *
-     * @param request cached request
-     * @param response cached response
+     * @param request current request, possibly content-caching
+     * @param response tee wrapper over the current response
      * @param durationMs request duration
      * @param failure thrown exception, if any
      */
-    protected void logAccess(final ContentCachingRequestWrapper request,
-            final ContentCachingResponseWrapper response, final long durationMs,
+    protected void logAccess(final HttpServletRequest request,
+            final AccessLogTeeResponseWrapper response, final long durationMs,
             final Exception failure) {
-        final AccessLogSupport.BodyCapture requestBody = AccessLogBodyCaptureSupport.captureBody(
-                request.getContentAsByteArray(), request.getContentType(), reqBodyCapture);
-        final AccessLogSupport.BodyCapture responseBody = AccessLogBodyCaptureSupport.captureBody(
-                response.getContentAsByteArray(), response.getContentType(), resBodyCapture);
+        logAccess(request, response, durationMs, failure,
+                policies.resolve(request.getRequestURI()));
+    }
+
+    /**
+     * Emits structured access log payload.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Skip all work when the access logger is disabled.
+     * 2) Derive the final status and ask the sampler for a sample weight, using the route's
+     *    sampling rule when it has one and the configured sampling rules otherwise.
+     * 3) Skip requests the sampler drops; errors and slow requests are always kept.
+     * 4) Snapshot request/response data into an immutable AccessLogRecord.
+     * 5) Hand the record to the asynchronous dispatcher, or write it inline.
+     * </pre>
+     *
+     * @param request current request, possibly content-caching
+     * @param response tee wrapper over the current response
+     * @param durationMs request duration
+     * @param failure thrown exception, if any
+     * @param route route policy of the request
+     */
+    private void logAccess(final HttpServletRequest request,
+            final AccessLogTeeResponseWrapper response, final long durationMs,
+            final Exception failure, final AccessLogPolicyRegistry.Route route) {
+        if (ACCESS_LOG.isInfoEnabled()) {
+            final int status = finalStatus(response, failure);
+            final double weight = route.rule() == null
+                    ? sampler.sample(request.getRequestURI(), status, failure != null, durationMs)
+                    : sampler.sample(route.rule(), status, failure != null, durationMs);
+            if (weight > AccessLogSampler.SKIP) {
+                final AccessLogRecord record =
+                        snapshot(request, response, status, durationMs, failure, weight, route);
+                if (dispatcher == null) {
+                    writeAccess(record);
+                } else {
+                    dispatcher.dispatch(record);
+                }
+            }
+        }
+    }
 
+    /**
+     * Derives the status reported for a request.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Start from the response status.
+     * 2) Report 500 when a failure escaped with a non-error status.
+     * </pre>
+     *
+     * @param response current response
+     * @param failure thrown exception, if any
+     * @return final HTTP status
+     */
+    private static int finalStatus(final HttpServletResponse response, final Exception failure) {
         int status = response.getStatus();
         if (failure != null && status < 400) {
             status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
         }
+        return status;
+    }
 
-        final Map<String, String> requestHeaders = AccessLogSupport.sanitizeHeaders(request);
-        final Map<String, String> responseHeaders = AccessLogSupport.sanitizeHeaders(response);
-
-        if (ACCESS_LOG.isInfoEnabled()) {
-            final LoggingEventBuilder logBuilder = ACCESS_LOG.atInfo()
-                    .addArgument(keyValue("method", request.getMethod()))
-                    .addArgument(keyValue("path", request.getRequestURI()))
-                    .addArgument(
-                            keyValue("query", LogSanitizer.sanitizeQuery(request.getQueryString())))
-                    .addArgument(keyValue("status", status))
-                    .addArgument(keyValue("durationMs", durationMs))
-                    .addArgument(keyValue("clientIp",
-                            AccessLogClientIpResolver.resolveClientIp(request, trustedProxies)))
-                    .addArgument(keyValue("remoteAddr", request.getRemoteAddr()))
-                    .addArgument(keyValue("userAgent", request.getHeader("User-Agent")))
-                    .addArgument(keyValue("requestHeaders", requestHeaders))
-                    .addArgument(keyValue("responseHeaders", responseHeaders))
-                    .addArgument(keyValue("requestBody", requestBody.body()))
-                    .addArgument(keyValue("responseBody", responseBody.body()))
-                    .addArgument(keyValue("requestBodyTruncated", requestBody.truncated()))
-                    .addArgument(keyValue("responseBodyTruncated", responseBody.truncated()))
-                    .addArgument(keyValue("requestBodyOmitted", requestBody.omitted()))
-                    .addArgument(keyValue("responseBodyOmitted", responseBody.omitted()))
-                    .addArgument(keyValue("exception",
-                            failure == null ? null : failure.getClass().getName()));
-            logBuilder.log("access");
+    /**
+     * Copies the data needed for one access log line.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Copy the response prefix and written size from the tee, and the cached request bytes;
+     *    an uncached request keeps only its declared length.
+     *    The request length is the declared length when the cache stopped at its limit.
+     * 2) Treat a body with a Content-Encoding other than identity as not captured, so
+     *    compressed bytes are reported as omitted instead of being decoded as text.
+     * 3) Copy raw headers and request metadata without decoding or masking.
+     * 4) Return an immutable record that outlives the servlet objects.
+     * </pre>
+     *
+     * @param request current request, possibly content-caching
+     * @param response tee wrapper over the current response
+     * @param status final HTTP status
+     * @param durationMs request duration
+     * @param failure thrown exception, if any
+     * @param weight sample weight of the record
+     * @param route route policy of the request
+     * @return access-log record
+     */
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    private AccessLogRecord snapshot(final HttpServletRequest request,
+            final AccessLogTeeResponseWrapper response, final int status, final long durationMs,
+            final Exception failure, final double weight,
+            final AccessLogPolicyRegistry.Route route) {
+        final AccessLogRecord.BodySnapshot requestBody;
+        if (request instanceof ContentCachingRequestWrapper cached) {
+            final byte[] bytes = cached.getContentAsByteArray();
+            requestBody = new AccessLogRecord.BodySnapshot(bytes,
+                    Math.max(bytes.length, AccessLogSupport.requestBodyLength(request)),
+                    request.getContentType(), route.captureRequest(reqBodyCapture)
+                            && AccessLogSupport.isIdentityEncoding(
+                                    request.getHeader(AccessLogSupport.HDR_CONTENT_ENCODING)),
+                    route.maxBodyBytes());
+        } else {
+            requestBody = new AccessLogRecord.BodySnapshot(null,
+                    AccessLogSupport.requestBodyLength(request), request.getContentType(), false);
         }
+        final AccessLogRecord.BodySnapshot responseBody = new AccessLogRecord.BodySnapshot(
+                response.getContentPrefix(), response.getContentSize(), response.getContentType(),
+                route.captureResponse(resBodyCapture) && AccessLogSupport.isIdentityEncoding(
+                        response.getHeader(AccessLogSupport.HDR_CONTENT_ENCODING)),
+                route.maxBodyBytes());
+        return AccessLogRecord.builder().traceId(RequestContext.currentTraceId())
+                .method(request.getMethod()).path(request.getRequestURI())
+                .query(request.getQueryString()).status(status).durationMs(durationMs)
+                .sampleWeight(weight)
+                .remoteAddr(request.getRemoteAddr())
+                .forwarding(forwardingHeader.read(request))
+                .userAgent(request.getHeader("User-Agent"))
+                .requestHeaders(AccessLogSupport.snapshotHeaders(request))
+                .responseHeaders(AccessLogSupport.snapshotHeaders(response))
+                .requestBody(requestBody)
+                .responseBody(responseBody)
+                .exception(failure == null ? null : failure.getClass().getName()).build();
+    }
+
+    /**
+     * Writes one structured access log event.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Wrap the record in an AccessLogArgument bound to the trusted proxy allowlist.
+     * 2) Write one "access" event; the encoder streams the fields straight to JSON.
+     * </pre>
+     *
+     * @param record access-log record
+     */
+    /* default */ void writeAccess(final AccessLogRecord record) {
+        ACCESS_LOG.info("access", new AccessLogArgument(record, trustedProxies, forwardingHeader));
     }
 }
@@ -0,0 +1,162 @@
+package com.example.demo.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.util.StringUtils;
+
+/**
+ * Access-log policy for one route prefix.
+ *
+ * <pre>
+ * Data contract:
+ * 1) prefix is a plain path prefix starting with '/'; the longest matching prefix wins.
+ * 2) A null option inherits the value of the next shorter matching prefix, and finally the
+ *    filter-wide default (no skip, configured capture flags, MAX_BODY_BYTES, sampling rules).
+ * 3) sampling is "rate:N" or "probability:P", as in the sampling rules.
+ * 4) maxBodyBytes is between 1 and MAX_CAPTURE_BYTES.
+ * </pre>
+ *
+ * @param prefix route prefix
+ * @param skip whether requests are not logged at all
+ * @param requestBody whether the request body is captured
+ * @param responseBody whether the response body is captured
+ * @param maxBodyBytes capture limit per body in bytes
+ * @param sampling sampling mode
+ */
+public record AccessLogPolicy(String prefix, Boolean skip, Boolean requestBody,
+        Boolean responseBody, Integer maxBodyBytes, String sampling) {
+    /** Largest capture limit a policy may set. */
+    public static final int MAX_CAPTURE_BYTES = 1 << 20;
+
+    /** Separator between policies. */
+    private static final String POLICY_SEPARATOR = ",";
+
+    /** Separator between options of one policy. */
+    private static final String OPTION_SEPARATOR = ";";
+
+    /** Separator between option name and value. */
+    private static final char VALUE_SEPARATOR = ':';
+
+    /**
+     * Validates the policy.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Require a prefix starting with '/'.
+     * 2) Require maxBodyBytes, when set, to be within 1..MAX_CAPTURE_BYTES.
+     * 3) Require sampling, when set, to parse as a sampling mode.
+     * 4) Reject violations with IllegalArgumentException.
+     * </pre>
+     */
+    public AccessLogPolicy {
+        if (prefix == null || !prefix.startsWith("/")) {
+            throw new IllegalArgumentException("Policy prefix must start with '/': " + prefix);
+        }
+        if (maxBodyBytes != null && (maxBodyBytes <= 0 || maxBodyBytes > MAX_CAPTURE_BYTES)) {
+            throw new IllegalArgumentException("Invalid max body bytes for " + prefix + ": "
+                    + maxBodyBytes);
+        }
+        if (sampling != null) {
+            AccessLogSampler.parseMode(prefix, sampling);
+        }
+    }
+
+    /**
+     * Parses a comma-separated policy specification.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Split on commas and discard blank entries.
+     * 2) Split each entry into prefix=options; options are separated by semicolons.
+     * 3) Read skip, request-body:B, response-body:B, max-body-bytes:N, rate:N, and
+     *    probability:P; a bare skip means skip:true.
+     * 4) Reject malformed entries with IllegalArgumentException.
+     * </pre>
+     *
+     * @param spec policy specification, for example
+     *     "/actuator=skip,/api/orders=request-body:true;max-body-bytes:16384;rate:10"
+     * @return parsed policies in declaration order
+     */
+    public static List<AccessLogPolicy> parseAll(final String spec) {
+        final List<AccessLogPolicy> parsed = new ArrayList<>();
+        final String raw = spec == null ? "" : spec;
+        for (final String entry : raw.split(POLICY_SEPARATOR)) {
+            final String trimmed = entry.trim();
+            if (StringUtils.hasText(trimmed)) {
+                parsed.add(parse(trimmed));
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Parses one policy entry.
+     *
+     * @param entry policy text such as "/api=skip" or "/api=request-body:true;rate:10"
+     * @return parsed policy
+     */
+    private static AccessLogPolicy parse(final String entry) {
+        final int prefixEnd = entry.indexOf('=');
+        if (prefixEnd <= 0) {
+            throw new IllegalArgumentException("Invalid access-log policy: " + entry);
+        }
+        Boolean skip = null;
+        Boolean requestBody = null;
+        Boolean responseBody = null;
+        Integer maxBodyBytes = null;
+        String sampling = null;
+        for (final String option : entry.substring(prefixEnd + 1).split(OPTION_SEPARATOR)) {
+            final String trimmed = option.trim();
+            final int nameEnd = trimmed.indexOf(VALUE_SEPARATOR);
+            final String name = (nameEnd < 0 ? trimmed : trimmed.substring(0, nameEnd)).trim()
+                    .toLowerCase(Locale.ROOT);
+            final String value = nameEnd < 0 ? "true" : trimmed.substring(nameEnd + 1).trim();
+            switch (name) {
+                case "skip" -> skip = parseFlag(entry, value);
+                case "request-body" -> requestBody = parseFlag(entry, value);
+                case "response-body" -> responseBody = parseFlag(entry, value);
+                case "max-body-bytes" -> maxBodyBytes = parseBytes(entry, value);
+                case "rate", "probability" -> sampling = name + VALUE_SEPARATOR + value;
+                default -> throw new IllegalArgumentException(
+                        "Unknown access-log policy option: " + entry);
+            }
+        }
+        return new AccessLogPolicy(entry.substring(0, prefixEnd).trim(), skip, requestBody,
+                responseBody, maxBodyBytes, sampling);
+    }
+
+    /**
+     * Parses a strict boolean option value.
+     *
+     * @param entry policy text for error messages
+     * @param value option value
+     * @return parsed flag
+     */
+    private static Boolean parseFlag(final String entry, final String value) {
+        final Boolean flag;
+        if ("true".equalsIgnoreCase(value)) {
+            flag = Boolean.TRUE;
+        } else if ("false".equalsIgnoreCase(value)) {
+            flag = Boolean.FALSE;
+        } else {
+            throw new IllegalArgumentException("Invalid access-log policy flag: " + entry);
+        }
+        return flag;
+    }
+
+    /**
+     * Parses a byte-count option value.
+     *
+     * @param entry policy text for error messages
+     * @param value option value
+     * @return parsed byte count
+     */
+    private static Integer parseBytes(final String entry, final String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (final NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid access-log policy size: " + entry, ex);
+        }
+    }
+}
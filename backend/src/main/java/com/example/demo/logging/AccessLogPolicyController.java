@@ -0,0 +1,116 @@
+package com.example.demo.logging;
+
+import com.example.demo.error.AppException;
+import com.example.demo.error.ErrorCode;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin endpoint for runtime access-log policy overrides.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Serve the configured policies and current overrides under the /actuator prefix.
+ *    This path is always access-logged, whatever the policies say, so changes leave a trail.
+ * 2) Replace or clear the overrides without a restart; the next request sees them.
+ * 3) Refuse writes with 403 Forbidden unless
+ *    app.logging.access.policy-admin.write-enabled is true; the endpoint has no
+ *    authentication of its own.
+ * 4) Report invalid overrides as 400 Bad Request and keep the previous state.
+ * </pre>
+ */
+@RestController
+public class AccessLogPolicyController {
+    /** Endpoint path. */
+    private static final String PATH = AccessLogPolicyRegistry.ADMIN_PATH;
+
+    /** Policy registry. */
+    private final AccessLogPolicyRegistry registry;
+
+    /** Whether PUT and DELETE may change the overrides. */
+    private boolean writeEnabled;
+
+    /**
+     * Creates the controller.
+     *
+     * @param registry policy registry
+     */
+    public AccessLogPolicyController(final AccessLogPolicyRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Returns the configured policies and overrides.
+     *
+     * @return policy snapshot
+     */
+    @GetMapping(PATH)
+    public AccessLogPolicyRegistry.Snapshot policies() {
+        return registry.getSnapshot();
+    }
+
+    /**
+     * Replaces the runtime overrides.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Refuse the change when writes are disabled.
+     * 2) Bind and validate the policies from the request body.
+     * 3) Swap them into the registry; duplicate prefixes are rejected.
+     * 4) Return the resulting snapshot.
+     * </pre>
+     *
+     * @param overrides override policies
+     * @return policy snapshot after the update
+     */
+    @PutMapping(PATH)
+    public AccessLogPolicyRegistry.Snapshot replaceOverrides(
+            @RequestBody final List<AccessLogPolicy> overrides) {
+        requireWritable();
+        try {
+            return registry.setOverrides(overrides);
+        } catch (final IllegalArgumentException ex) {
+            throw new AppException(ErrorCode.BAD_REQUEST, ex.getMessage(), HttpStatus.BAD_REQUEST,
+                    null, ex);
+        }
+    }
+
+    /**
+     * Drops all runtime overrides.
+     *
+     * @return policy snapshot after the update
+     */
+    @DeleteMapping(PATH)
+    public AccessLogPolicyRegistry.Snapshot clearOverrides() {
+        requireWritable();
+        return registry.clearOverrides();
+    }
+
+    /**
+     * Rejects a change when writes are disabled.
+     *
+     * @throws AppException with 403 Forbidden when writes are disabled
+     */
+    private void requireWritable() {
+        if (!writeEnabled) {
+            throw new AppException(ErrorCode.FORBIDDEN,
+                    "Access-log policy changes are disabled", HttpStatus.FORBIDDEN);
+        }
+    }
+
+    /**
+     * Configures whether the overrides may be changed at runtime.
+     *
+     * @param writeEnabled whether PUT and DELETE are allowed
+     */
+    @Value("${app.logging.access.policy-admin.write-enabled:false}")
+    /* default */ void setWriteEnabled(final boolean writeEnabled) {
+        this.writeEnabled = writeEnabled;
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.demo.logging;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runtime-tunable access-log policies keyed by route prefix.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Bind app.logging.access.policies as the configured policy set.
+ * 2) Layer runtime overrides on top; an override replaces the configured policy with the
+ *    same prefix and is dropped again by clearOverrides().
+ * 3) Compile the effective set into a character trie whose nodes carry the resolved route,
+ *    so a lookup walks the path once and allocates nothing.
+ * 4) Swap compiled state atomically; in-flight requests keep the route they resolved.
+ * 5) Always log the policy admin endpoint itself, unsampled, so policy changes cannot hide
+ *    from the access log.
+ * </pre>
+ */
+@Component
+public class AccessLogPolicyRegistry {
+    /** Policies applied when configuration is absent. */
+    public static final String DEFAULT_POLICIES = "/actuator=skip,/health=skip";
+
+    /** Path of the policy admin endpoint. */
+    public static final String ADMIN_PATH = "/actuator/access-log/policies";
+
+    /** Policy pinned on the admin path after configured policies and overrides. */
+    private static final AccessLogPolicy ADMIN_POLICY =
+            new AccessLogPolicy(ADMIN_PATH, false, null, null, null, "probability:1");
+
+    /** Current configured policies, overrides, and compiled trie. */
+    private final AtomicReference<State> state =
+            new AtomicReference<>(State.of(AccessLogPolicy.parseAll(DEFAULT_POLICIES), List.of()));
+
+    /**
+     * Configures the policy set.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Parse comma-separated prefix=options entries from configuration.
+     * 2) Recompile with the current overrides; invalid entries fail startup.
+     * </pre>
+     *
+     * @param spec policy specification
+     */
+    @Value("${app.logging.access.policies:" + DEFAULT_POLICIES + "}")
+    /* default */ void setPolicies(final String spec) {
+        final List<AccessLogPolicy> configured = AccessLogPolicy.parseAll(spec);
+        state.updateAndGet(current -> State.of(configured, current.overrides()));
+    }
+
+    /**
+     * Resolves the effective route policy for a request path.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Walk the trie one path character at a time until no child matches.
+     * 2) Return the route of the deepest node reached; every node already carries the
+     *    policy of its longest configured prefix, so the walk is O(path length).
+     * </pre>
+     *
+     * @param path request path, may be null
+     * @return effective route policy
+     */
+    /* default */ Route resolve(final String path) {
+        Node node = state.get().root();
+        if (path != null) {
+            for (int index = 0; index < path.length(); index++) {
+                final Node child = node.child(path.charAt(index));
+                if (child == null) {
+                    break;
+                }
+                node = child;
+            }
+        }
+        return node.route;
+    }
+
+    /**
+     * Returns the sampling rules of the current routes.
+     *
+     * @return distinct rules carried by the compiled routes
+     */
+    /* default */ List<AccessLogSampler.Rule> rules() {
+        return state.get().rules();
+    }
+
+    /**
+     * Returns the configured policies and runtime overrides.
+     *
+     * @return current policy snapshot
+     */
+    public Snapshot getSnapshot() {
+        final State current = state.get();
+        return new Snapshot(current.configured(), current.overrides());
+    }
+
+    /**
+     * Replaces the runtime overrides.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Reject duplicate prefixes with IllegalArgumentException.
+     * 2) Recompile with the configured policies and swap the state atomically.
+     * </pre>
+     *
+     * @param overrides override policies
+     * @return policy snapshot after the update
+     */
+    public Snapshot setOverrides(final List<AccessLogPolicy> overrides) {
+        final List<AccessLogPolicy> copy = List.copyOf(overrides);
+        final State updated = state.updateAndGet(current -> State.of(current.configured(), copy));
+        return new Snapshot(updated.configured(), updated.overrides());
+    }
+
+    /**
+     * Drops all runtime overrides.
+     *
+     * @return policy snapshot after the update
+     */
+    public Snapshot clearOverrides() {
+        return setOverrides(List.of());
+    }
+
+    /**
+     * Configured policies and runtime overrides.
+     *
+     * @param configured policies from configuration
+     * @param overrides policies set at runtime
+     */
+    public record Snapshot(List<AccessLogPolicy> configured, List<AccessLogPolicy> overrides) {
+    }
+
+    /**
+     * Effective policy of one route after inheritance.
+     *
+     * <pre>
+     * Data contract:
+     * 1) requestBody and responseBody are null when the filter-wide capture flags apply.
+     * 2) rule is null when the filter-wide sampling rules apply; rules are rebuilt on every
+     *    reload, so rate windows restart.
+     * </pre>
+     *
+     * @param skip whether requests are not logged at all
+     * @param requestBody whether the request body is captured, or null
+     * @param responseBody whether the response body is captured, or null
+     * @param maxBodyBytes capture limit per body in bytes
+     * @param rule sampling rule, or null
+     */
+    /* default */ record Route(boolean skip, Boolean requestBody, Boolean responseBody,
+            int maxBodyBytes, AccessLogSampler.Rule rule) {
+        /** Route for paths without any matching policy. */
+        /* default */ static final Route DEFAULT =
+                new Route(false, null, null, AccessLogSupport.MAX_BODY_BYTES, null);
+
+        /**
+         * Returns whether the request body is captured.
+         *
+         * @param fallback filter-wide request capture flag
+         * @return effective request capture flag
+         */
+        /* default */ boolean captureRequest(final boolean fallback) {
+            return requestBody == null ? fallback : requestBody;
+        }
+
+        /**
+         * Returns whether the response body is captured.
+         *
+         * @param fallback filter-wide response capture flag
+         * @return effective response capture flag
+         */
+        /* default */ boolean captureResponse(final boolean fallback) {
+            return responseBody == null ? fallback : responseBody;
+        }
+
+        /**
+         * Applies a policy on top of this route.
+         *
+         * @param policy policy for a longer prefix
+         * @return route with the policy's non-null options replacing inherited ones
+         */
+        private Route with(final AccessLogPolicy policy) {
+            return new Route(policy.skip() == null ? skip : policy.skip(),
+                    policy.requestBody() == null ? requestBody : policy.requestBody(),
+                    policy.responseBody() == null ? responseBody : policy.responseBody(),
+                    policy.maxBodyBytes() == null ? maxBodyBytes : policy.maxBodyBytes(),
+                    policy.sampling() == null ? rule
+                            : AccessLogSampler.parseMode(policy.prefix(), policy.sampling()));
+        }
+    }
+
+    /**
+     * Immutable registry state.
+     *
+     * @param configured policies from configuration
+     * @param overrides policies set at runtime
+     * @param root compiled trie root
+     * @param rules distinct sampling rules of the compiled routes
+     */
+    private record State(List<AccessLogPolicy> configured, List<AccessLogPolicy> overrides,
+            Node root, List<AccessLogSampler.Rule> rules) {
+        /**
+         * Compiles configured policies and overrides.
+         *
+         * <pre>
+         * Algorithm:
+         * 1) Reject duplicate prefixes within each list.
+         * 2) Insert configured policies, then overrides, so an override wins on its prefix.
+         * 3) Insert the admin policy last so neither can skip or sample the admin path.
+         * 4) Freeze the trie, resolving inherited options top-down.
+         * 5) Collect the distinct sampling rules of the frozen routes.
+         * </pre>
+         *
+         * @param configured policies from configuration
+         * @param overrides policies set at runtime
+         * @return compiled state
+         */
+        private static State of(final List<AccessLogPolicy> configured,
+                final List<AccessLogPolicy> overrides) {
+            final Builder root = new Builder();
+            insertAll(root, configured);
+            insertAll(root, overrides);
+            insertAll(root, List.of(ADMIN_POLICY));
+            final Node frozen = root.freeze(Route.DEFAULT);
+            final Set<AccessLogSampler.Rule> rules = new HashSet<>();
+            collectRules(frozen, rules);
+            return new State(List.copyOf(configured), List.copyOf(overrides), frozen,
+                    List.copyOf(rules));
+        }
+
+        /**
+         * Collects the sampling rules of a subtree.
+         *
+         * @param node subtree root
+         * @param rules receives each rule once; rules compare by identity
+         */
+        private static void collectRules(final Node node, final Set<AccessLogSampler.Rule> rules) {
+            if (node.route.rule() != null) {
+                rules.add(node.route.rule());
+            }
+            for (final Node child : node.children) {
+                collectRules(child, rules);
+            }
+        }
+
+        /**
+         * Inserts a list of policies with unique prefixes.
+         *
+         * @param root trie root
+         * @param policies policies to insert
+         */
+        private static void insertAll(final Builder root, final List<AccessLogPolicy> policies) {
+            final Set<String> prefixes = new HashSet<>();
+            for (final AccessLogPolicy policy : policies) {
+                if (!prefixes.add(policy.prefix())) {
+                    throw new IllegalArgumentException(
+                            "Duplicate access-log policy prefix: " + policy.prefix());
+                }
+                Builder node = root;
+                for (int index = 0; index < policy.prefix().length(); index++) {
+                    node = node.children.computeIfAbsent(policy.prefix().charAt(index),
+                            label -> new Builder());
+                }
+                node.policy = policy;
+            }
+        }
+    }
+
+    /**
+     * Mutable trie node used only while compiling.
+     */
+    private static final class Builder {
+        /** Children ordered by label. */
+        private final SortedMap<Character, Builder> children = new TreeMap<>();
+
+        /** Policy whose prefix ends at this node, or null. */
+        private AccessLogPolicy policy;
+
+        /**
+         * Freezes this subtree.
+         *
+         * @param inherited route of the nearest ancestor with a policy
+         * @return immutable node
+         */
+        private Node freeze(final Route inherited) {
+            final Route route = policy == null ? inherited : inherited.with(policy);
+            final char[] labels = new char[children.size()];
+            final Node[] nodes = new Node[children.size()];
+            int slot = 0;
+            for (final Map.Entry<Character, Builder> entry : children.entrySet()) {
+                labels[slot] = entry.getKey();
+                nodes[slot] = entry.getValue().freeze(route);
+                slot++;
+            }
+            return new Node(labels, nodes, route);
+        }
+    }
+
+    /**
+     * Immutable trie node.
+     */
+    private static final class Node {
+        /** Child labels in ascending order. */
+        private final char[] labels;
+
+        /** Children aligned with labels. */
+        private final Node[] children;
+
+        /** Effective route for paths ending at or diverging below this node. */
+        private final Route route;
+
+        /**
+         * Creates a node.
+         *
+         * @param labels child labels in ascending order
+         * @param children children aligned with labels
+         * @param route effective route
+         */
+        private Node(final char[] labels, final Node[] children, final Route route) {
+            this.labels = labels;
+            this.children = children;
+            this.route = route;
+        }
+
+        /**
+         * Returns the child for a label.
+         *
+         * @param label next path character
+         * @return child node, or null
+         */
+        private Node child(final char label) {
+            final int slot = Arrays.binarySearch(labels, label);
+            return slot < 0 ? null : children[slot];
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.logging;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Immutable snapshot of one completed request used for access logging.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Hold raw request/response data copied on the request thread.
+ * 2) Defer decoding, sanitization, and encoding to the log writer.
+ * 3) Stay independent from servlet objects that the container recycles.
+ * </pre>
+ */
+@Value
+@Builder
+/* default */ class AccessLogRecord {
+    /** Trace id bound to the request. */
+    String traceId;
+    /** HTTP method. */
+    String method;
+    /** Request URI path. */
+    String path;
+    /** Raw query string, unsanitized. */
+    String query;
+    /** Final HTTP status code. */
+    int status;
+    /** Request duration in milliseconds. */
+    long durationMs;
+    /** Number of requests this line stands for after sampling. */
+    double sampleWeight;
+    /** Remote address reported by the container. */
+    String remoteAddr;
+    /** Raw value of the configured forwarding header, every line joined in order. */
+    String forwarding;
+    /** User-Agent header value. */
+    String userAgent;
+    /** Request headers as flattened name/value pairs. */
+    List<String> requestHeaders;
+    /** Response headers as flattened name/value pairs. */
+    List<String> responseHeaders;
+    /** Request body snapshot. */
+    BodySnapshot requestBody;
+    /** Response body snapshot. */
+    BodySnapshot responseBody;
+    /** Failure class name, or null when the request completed normally. */
+    String exception;
+
+    /**
+     * Raw body bytes with the policy needed to capture them later.
+     *
+     * <pre>
+     * Data contract:
+     * 1) content holds the cached body bytes, or null when nothing was cached.
+     * 2) length is the total body size, which may exceed the cached prefix (-1 when unknown).
+     * 3) contentType is the declared content type header.
+     * 4) captureEnabled and maxBytes carry the body-capture policy of the request's route.
+     * </pre>
+     *
+     * @param content cached body bytes
+     * @param length total body size in bytes
+     * @param contentType content type header
+     * @param captureEnabled whether body capture is enabled
+     * @param maxBytes capture limit in bytes
+     */
+    public record BodySnapshot(byte[] content, long length, String contentType,
+            boolean captureEnabled, int maxBytes) {
+        /**
+         * Creates a snapshot captured with the default MAX_BODY_BYTES limit.
+         *
+         * @param content cached body bytes
+         * @param length total body size in bytes
+         * @param contentType content type header
+         * @param captureEnabled whether body capture is enabled
+         */
+        public BodySnapshot(final byte[] content, final long length, final String contentType,
+                final boolean captureEnabled) {
+            this(content, length, contentType, captureEnabled, AccessLogSupport.MAX_BODY_BYTES);
+        }
+
+        /**
+         * Captures the body with the shared capture policy.
+         *
+         * <pre>
+         * Algorithm:
+         * 1) Delegate to AccessLogBodyCaptureSupport.captureBody(...).
+         * 2) Return the decoded, sanitized, and truncated capture.
+         * </pre>
+         *
+         * @return captured body metadata
+         */
+        /* default */ AccessLogSupport.BodyCapture capture() {
+            return AccessLogBodyCaptureSupport.captureBody(content, length, contentType,
+                    captureEnabled, maxBytes);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.demo.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer, single-consumer ring buffer for access-log records.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Accept records from request threads without locks or allocation.
+ * 2) Reject records immediately when the buffer is full.
+ * 3) Hand records to exactly one consumer thread in publication order.
+ * </pre>
+ */
+final class AccessLogRingBuffer {
+    /** Largest supported capacity (power of two). */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /** Published records indexed by position modulo capacity. */
+    private final AtomicReferenceArray<AccessLogRecord> slots;
+
+    /** Per-slot sequence numbers used to coordinate producers and the consumer. */
+    private final AtomicLongArray sequences;
+
+    /** Bit mask used to map positions to slot indexes. */
+    private final int mask;
+
+    /** Next position claimed by producers. */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Next position read by the consumer. */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Creates a ring buffer.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Round the requested capacity up to a power of two.
+     * 2) Allocate slot and sequence arrays of that size.
+     * 3) Seed each slot sequence with its index so producers can claim it.
+     * </pre>
+     *
+     * @param requestedCapacity requested number of slots
+     */
+    /* default */ AccessLogRingBuffer(final int requestedCapacity) {
+        final int capacity = roundToPowerOfTwo(requestedCapacity);
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int index = 0; index < capacity; index++) {
+            sequences.set(index, index);
+        }
+    }
+
+    /**
+     * Publishes a record when a slot is free.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Read the tail position and the sequence of its slot.
+     * 2) When the slot is free, claim the position with CAS and publish the record.
+     * 3) When the slot still holds an unread record, report the buffer as full.
+     * 4) When another producer won the race, retry with the new tail.
+     * </pre>
+     *
+     * @param record record to publish
+     * @return true when the record was accepted
+     */
+    /* default */ boolean offer(final AccessLogRecord record) {
+        boolean accepted = false;
+        boolean retry = true;
+        while (retry) {
+            final long position = tail.get();
+            final int index = (int) (position & mask);
+            final long delta = sequences.get(index) - position;
+            if (delta == 0 && tail.compareAndSet(position, position + 1)) {
+                slots.lazySet(index, record);
+                sequences.set(index, position + 1);
+                accepted = true;
+                retry = false;
+            } else if (delta < 0) {
+                retry = false;
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Removes the next published record.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Check whether the slot at head has been published.
+     * 2) Read and clear the slot, then release it for the next lap.
+     * 3) Return null when no record is available.
+     * </pre>
+     *
+     * <p>
+     * Must only be called from the single consumer thread.
+     * </p>
+     *
+     * @return next record or null
+     */
+    /* default */ AccessLogRecord poll() {
+        final long position = head.get();
+        final int index = (int) (position & mask);
+        AccessLogRecord record = null;
+        if (sequences.get(index) == position + 1) {
+            record = slots.get(index);
+            slots.lazySet(index, null);
+            sequences.set(index, position + mask + 1);
+            head.lazySet(position + 1);
+        }
+        return record;
+    }
+
+    /**
+     * Returns whether the record at the consumer position is published.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Check the head slot sequence the same way poll() does, without consuming it.
+     * </pre>
+     *
+     * @return true when the next poll() would return a record
+     */
+    /* default */ boolean isReadable() {
+        final long position = head.get();
+        return sequences.get((int) (position & mask)) == position + 1;
+    }
+
+    /**
+     * Returns the approximate number of pending records.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Subtract consumer position from producer position.
+     * 2) Clamp transient negative values to zero.
+     * </pre>
+     *
+     * @return pending record count
+     */
+    /* default */ int size() {
+        return (int) Math.max(0L, tail.get() - head.get());
+    }
+
+    /**
+     * Returns the slot count.
+     *
+     * @return capacity
+     */
+    /* default */ int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Rounds a capacity to the next power of two.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Clamp the value into [2, MAX_CAPACITY].
+     * 2) Round up to the next power of two.
+     * </pre>
+     *
+     * @param requested requested capacity
+     * @return power-of-two capacity
+     */
+    private static int roundToPowerOfTwo(final int requested) {
+        final int clamped = Math.min(Math.max(requested, 2), MAX_CAPACITY);
+        return Integer.highestOneBit(clamped - 1) << 1;
+    }
+}
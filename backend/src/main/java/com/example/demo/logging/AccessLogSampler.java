@@ -0,0 +1,421 @@
+package com.example.demo.logging;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.ObjLongConsumer;
+import org.springframework.util.StringUtils;
+
+/**
+ * Tail-aware access-log sampler with per-route-prefix rules.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Always keep errors (status &gt;= 400 or a failure) and slow requests.
+ * 2) Sample remaining requests by rate (lines per second) or by probability.
+ * 3) Return a sample weight so downstream counts can be reconstructed.
+ * 4) Hand over the weight of requests skipped in a finished window that no later line
+ *    carried, so a route that goes quiet does not lose its count.
+ * </pre>
+ */
+final class AccessLogSampler {
+    /** Weight returned for requests that must not be logged. */
+    /* default */ static final double SKIP = 0.0d;
+
+    /** Weight of a request that represents only itself. */
+    /* default */ static final double KEEP = 1.0d;
+
+    /** Separator between rules. */
+    private static final String RULE_SEPARATOR = ",";
+
+    /** Separator between prefix and mode. */
+    private static final char PREFIX_SEPARATOR = '=';
+
+    /** Separator between mode and value. */
+    private static final char VALUE_SEPARATOR = ':';
+
+    /** Nanoseconds per rate window. */
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** Rules ordered by descending prefix length. */
+    private final List<Rule> rules;
+
+    /** Requests at or above this duration are always kept. */
+    private final long slowThresholdMs;
+
+    /** Monotonic clock in nanoseconds. */
+    private final LongSupplier clock;
+
+    /**
+     * Creates a sampler.
+     *
+     * <pre>
+     * Initialization:
+     * 1) Order rules so the longest matching prefix wins.
+     * 2) Store the slow-request threshold and clock.
+     * </pre>
+     *
+     * @param rules sampling rules
+     * @param slowThresholdMs latency threshold for always-kept requests
+     * @param clock monotonic nanosecond clock
+     */
+    /* default */ AccessLogSampler(final List<Rule> rules, final long slowThresholdMs,
+            final LongSupplier clock) {
+        final List<Rule> ordered = new ArrayList<>(rules);
+        ordered.sort(Comparator.comparingInt((Rule rule) -> rule.prefix.length()).reversed());
+        this.rules = List.copyOf(ordered);
+        this.slowThresholdMs = slowThresholdMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Parses a comma-separated rule specification.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Split on commas and discard blank entries.
+     * 2) Parse each entry as prefix=rate:N or prefix=probability:P.
+     * 3) Reject malformed entries with IllegalArgumentException.
+     * </pre>
+     *
+     * @param spec rule specification, for example "/api/hello=rate:100,/api=probability:0.1"
+     * @return parsed rules
+     */
+    /* default */ static List<Rule> parseRules(final String spec) {
+        final List<Rule> parsed = new ArrayList<>();
+        final String raw = spec == null ? "" : spec;
+        for (final String entry : raw.split(RULE_SEPARATOR)) {
+            final String trimmed = entry.trim();
+            if (StringUtils.hasText(trimmed)) {
+                parsed.add(parseRule(trimmed));
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Decides whether a completed request is logged and with which weight.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Find the longest rule whose prefix matches the path.
+     * 2) Delegate to the rule-based overload.
+     * </pre>
+     *
+     * @param path request path
+     * @param status final HTTP status
+     * @param failed whether the request failed with an exception
+     * @param durationMs request duration
+     * @return sample weight, or SKIP when the request is not logged
+     */
+    /* default */ double sample(final String path, final int status, final boolean failed,
+            final long durationMs) {
+        return sample(match(path), status, failed, durationMs);
+    }
+
+    /**
+     * Decides whether a completed request is logged under a given rule.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Keep errors, failures, and slow requests with weight 1.
+     * 2) Keep requests without a rule with weight 1.
+     * 3) Otherwise delegate to the rule.
+     * </pre>
+     *
+     * @param rule sampling rule, or null when the route is not sampled
+     * @param status final HTTP status
+     * @param failed whether the request failed with an exception
+     * @param durationMs request duration
+     * @return sample weight, or SKIP when the request is not logged
+     */
+    /* default */ double sample(final Rule rule, final int status, final boolean failed,
+            final long durationMs) {
+        double weight = KEEP;
+        if (rule != null && status < 400 && !failed && durationMs < slowThresholdMs) {
+            weight = rule.sample(clock.getAsLong());
+        }
+        return weight;
+    }
+
+    /**
+     * Hands over the skipped weight that finished windows left uncarried.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Read the clock once.
+     * 2) Ask the configured rules, then the given route rules, for weight skipped in a window
+     *    that has ended; report each non-zero weight with the rule prefix.
+     * </pre>
+     *
+     * @param routeRules additional rules, such as those of the route policies
+     * @param sink receives the rule prefix and the number of skipped requests
+     */
+    /* default */ void flushCarried(final Collection<Rule> routeRules,
+            final ObjLongConsumer<String> sink) {
+        final long nowNanos = clock.getAsLong();
+        flushCarried(rules, nowNanos, sink);
+        flushCarried(routeRules, nowNanos, sink);
+    }
+
+    /**
+     * Hands over the uncarried skipped weight of some rules.
+     *
+     * @param candidates rules to flush
+     * @param nowNanos current monotonic time
+     * @param sink receives the rule prefix and the number of skipped requests
+     */
+    private static void flushCarried(final Collection<Rule> candidates, final long nowNanos,
+            final ObjLongConsumer<String> sink) {
+        for (final Rule rule : candidates) {
+            final long carried = rule.flushCarried(nowNanos);
+            if (carried > 0L) {
+                sink.accept(rule.prefix, carried);
+            }
+        }
+    }
+
+    /**
+     * Finds the longest rule whose prefix matches the path.
+     *
+     * @param path request path
+     * @return matching rule or null
+     */
+    private Rule match(final String path) {
+        Rule matched = null;
+        if (path != null) {
+            for (final Rule rule : rules) {
+                if (path.startsWith(rule.prefix)) {
+                    matched = rule;
+                    break;
+                }
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Parses one rule entry.
+     *
+     * @param entry rule text such as "/api=rate:100"
+     * @return parsed rule
+     */
+    private static Rule parseRule(final String entry) {
+        final int prefixEnd = entry.indexOf(PREFIX_SEPARATOR);
+        if (prefixEnd <= 0) {
+            throw new IllegalArgumentException("Invalid sampling rule: " + entry);
+        }
+        return parseMode(entry.substring(0, prefixEnd).trim(), entry.substring(prefixEnd + 1));
+    }
+
+    /**
+     * Parses a sampling mode for one route prefix.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Split the text into mode and value at the first colon.
+     * 2) Build a rate rule for rate:N or a probability rule for probability:P.
+     * 3) Reject malformed text with IllegalArgumentException.
+     * </pre>
+     *
+     * @param prefix route prefix
+     * @param spec mode text such as "rate:100" or "probability:0.1"
+     * @return parsed rule
+     */
+    /* default */ static Rule parseMode(final String prefix, final String spec) {
+        final int modeEnd = spec.indexOf(VALUE_SEPARATOR);
+        if (modeEnd < 0) {
+            throw new IllegalArgumentException("Invalid sampling rule: " + prefix + "=" + spec);
+        }
+        final String mode = spec.substring(0, modeEnd).trim().toLowerCase(Locale.ROOT);
+        final String value = spec.substring(modeEnd + 1).trim();
+        final Rule rule;
+        try {
+            rule = switch (mode) {
+                case "rate" -> Rule.rate(prefix, Integer.parseInt(value));
+                case "probability" -> Rule.probability(prefix, Double.parseDouble(value));
+                default -> throw new IllegalArgumentException(
+                        "Unknown sampling mode: " + prefix + "=" + spec);
+            };
+        } catch (final NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid sampling value: " + prefix + "=" + spec,
+                    ex);
+        }
+        return rule;
+    }
+
+    /**
+     * Sampling rule for one route prefix.
+     *
+     * <pre>
+     * Responsibilities:
+     * 1) Rate mode emits at most N lines per second; each line carries the number of
+     *    requests it stands for (itself plus those skipped since the previous line).
+     * 2) Probability mode emits each request with probability P and weight 1/P.
+     * 3) Keep all mutable state lock-free.
+     * </pre>
+     *
+     * <pre>
+     * Design note:
+     * 1) Windows are aligned to whole seconds of the monotonic clock. The window index and
+     *    the lines emitted in it share one atomic word, so a window rollover and the lines
+     *    counted against it cannot interleave and exceed the budget.
+     * 2) Weight skipped after the last line of a window is carried by the next line. When no
+     *    line follows, flushCarried(...) hands it over once the window has ended.
+     * </pre>
+     */
+    /* default */ static final class Rule {
+        /** Route prefix. */
+        private final String prefix;
+
+        /** Lines per second in rate mode, or -1 in probability mode. */
+        private final int perSecond;
+
+        /** Keep probability in probability mode. */
+        private final double probability;
+
+        /** Mask of the low 32 bits, which hold the emitted-line count in the window state. */
+        private static final long LOW_BITS = 0xFFFF_FFFFL;
+
+        /** Window index in the high 32 bits and lines emitted in it in the low 32 bits. */
+        private final AtomicLong window = new AtomicLong();
+
+        /** Requests skipped since the last emitted line. */
+        private final AtomicLong skipped = new AtomicLong();
+
+        /**
+         * Creates a rule.
+         *
+         * @param prefix route prefix
+         * @param perSecond lines per second, or -1 for probability mode
+         * @param probability keep probability for probability mode
+         */
+        private Rule(final String prefix, final int perSecond, final double probability) {
+            this.prefix = prefix;
+            this.perSecond = perSecond;
+            this.probability = probability;
+        }
+
+        /**
+         * Creates a rate-mode rule.
+         *
+         * @param prefix route prefix
+         * @param perSecond maximum lines per second (negative values are treated as zero)
+         * @return rule
+         */
+        /* default */ static Rule rate(final String prefix, final int perSecond) {
+            return new Rule(prefix, Math.max(0, perSecond), 0.0d);
+        }
+
+        /**
+         * Creates a probability-mode rule.
+         *
+         * @param prefix route prefix
+         * @param probability keep probability, clamped to [0, 1]
+         * @return rule
+         */
+        /* default */ static Rule probability(final String prefix, final double probability) {
+            return new Rule(prefix, -1, Math.min(1.0d, Math.max(0.0d, probability)));
+        }
+
+        /**
+         * Returns the route prefix.
+         *
+         * @return prefix
+         */
+        /* default */ String prefix() {
+            return prefix;
+        }
+
+        /**
+         * Samples one request.
+         *
+         * @param nowNanos current monotonic time
+         * @return sample weight or SKIP
+         */
+        private double sample(final long nowNanos) {
+            return perSecond < 0 ? sampleProbability() : sampleRate(nowNanos);
+        }
+
+        /**
+         * Samples by probability.
+         *
+         * @return 1/probability when kept, otherwise SKIP
+         */
+        private double sampleProbability() {
+            double weight = SKIP;
+            if (probability > 0.0d && ThreadLocalRandom.current().nextDouble() < probability) {
+                weight = KEEP / probability;
+            }
+            return weight;
+        }
+
+        /**
+         * Samples by rate.
+         *
+         * <pre>
+         * Algorithm:
+         * 1) Count the request in the window state atomically: a state from an earlier window
+         *    restarts at one, and the count saturates one above the budget.
+         * 2) Emit while the window budget lasts, carrying skipped requests as weight.
+         * 3) Otherwise count the request as skipped.
+         * </pre>
+         *
+         * @param nowNanos current monotonic time
+         * @return weight of the emitted line, or SKIP
+         */
+        private double sampleRate(final long nowNanos) {
+            final long index = windowIndex(nowNanos);
+            final long state = window.updateAndGet(current -> (index << Integer.SIZE)
+                    | (Math.min(countIn(current, index), perSecond) + 1L));
+            double weight = SKIP;
+            if ((state & LOW_BITS) <= perSecond) {
+                weight = skipped.getAndSet(0L) + KEEP;
+            } else {
+                skipped.incrementAndGet();
+            }
+            return weight;
+        }
+
+        /**
+         * Takes the skipped weight once the window it was counted in has ended.
+         *
+         * @param nowNanos current monotonic time
+         * @return skipped requests no line has carried, or 0 while their window is open
+         */
+        private long flushCarried(final long nowNanos) {
+            long carried = 0L;
+            if (window.get() >>> Integer.SIZE != windowIndex(nowNanos)) {
+                carried = skipped.getAndSet(0L);
+            }
+            return carried;
+        }
+
+        /**
+         * Returns the window index of a time, truncated to the 32 bits kept in the state.
+         *
+         * @param nowNanos monotonic time
+         * @return window index
+         */
+        private static long windowIndex(final long nowNanos) {
+            return Math.floorDiv(nowNanos, WINDOW_NANOS) & LOW_BITS;
+        }
+
+        /**
+         * Returns the lines a state counts in a window.
+         *
+         * @param state window state
+         * @param index window index
+         * @return emitted lines, or 0 when the state belongs to another window
+         */
+        private static long countIn(final long state, final long index) {
+            return state >>> Integer.SIZE == index ? state & LOW_BITS : 0L;
+        }
+    }
+}
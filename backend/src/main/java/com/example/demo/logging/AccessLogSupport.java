@@ -1,26 +1,36 @@
 package com.example.demo.logging;
 
+import com.example.demo.trace.TraceIdResolver;
+import com.example.demo.trace.TraceParent;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Enumeration;
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import org.springframework.util.StringUtils;
+import java.util.List;
 
 /**
  * Shared helpers used by access logging.
  * 
  * <pre>
  * Responsibilities:
- * 1) Resolve trace id and sanitize request/response headers.
+ * 1) Resolve trace id and snapshot request/response headers.
  * 2) Delegate payload capture and client IP resolution to focused helpers.
  * 3) Expose shared constants and body-capture data contracts.
  * </pre>
  */
 final class AccessLogSupport {
     /** Request/response header used for trace propagation. */
-    /* default */ static final String TRACE_ID_HEADER = "X-Request-Id";
+    /* default */ static final String TRACE_ID_HEADER = TraceIdResolver.TRACE_ID_HEADER;
+
+    /** Header announcing a chunked or otherwise length-less request body. */
+    private static final String HDR_TRANSFER_ENCODING = "Transfer-Encoding";
+
+    /** Header naming the content coding applied to a body. */
+    /* default */ static final String HDR_CONTENT_ENCODING = "Content-Encoding";
+
+    /** Content coding that leaves the body unchanged. */
+    private static final String IDENTITY_ENCODING = "identity";
 
     /** Maximum body size to capture for logs. */
     /* default */ static final int MAX_BODY_BYTES = 4096;
@@ -41,21 +51,34 @@ final class AccessLogSupport {
      * 
      * <pre>
      * Algorithm:
-     * 1) Try X-Request-Id from incoming headers.
-     * 2) Validate that the value is non-blank.
-     * 3) Generate UUID when the header is missing or empty.
+     * 1) Parse the W3C traceparent header.
+     * 2) Delegate to resolveTraceId(request, traceParent).
      * </pre>
      *
      * @param request current request
      * @return trace identifier
      */
     /* default */ static String resolveTraceId(final HttpServletRequest request) {
-        final String incoming = request.getHeader(TRACE_ID_HEADER);
-        String traceId = incoming;
-        if (!StringUtils.hasText(traceId)) {
-            traceId = UUID.randomUUID().toString();
-        }
-        return traceId;
+        return resolveTraceId(request, TraceParent.parse(request.getHeader(TraceParent.HEADER)));
+    }
+
+    /**
+     * Resolves or generates a trace id with an already parsed traceparent header.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Try X-Request-Id, then the traceparent trace-id.
+     * 2) Generate an id with the configured TraceIdGenerator when both are missing.
+     * 3) Ignore MDC: this runs at the request entry point.
+     * </pre>
+     *
+     * @param request current request
+     * @param traceParent parsed traceparent header, or null
+     * @return trace identifier
+     */
+    /* default */ static String resolveTraceId(final HttpServletRequest request,
+            final TraceParent traceParent) {
+        return TraceIdResolver.resolveIncoming(request, traceParent);
     }
 
     /**
@@ -64,7 +87,7 @@ final class AccessLogSupport {
      * <pre>
      * Algorithm:
      * 1) Start with request.getRemoteAddr() as fallback.
-     * 2) Parse X-Forwarded-For only when remote address is in default trusted proxies.
+     * 2) Walk X-Forwarded-For hops only when remote address is a default trusted proxy.
      * 3) Return the resolved client-facing IP value.
      * </pre>
      *
@@ -77,54 +100,90 @@ final class AccessLogSupport {
     }
 
     /**
-     * Collects and masks request headers.
+     * Returns whether a body is sent without a content coding.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Treat a missing or blank Content-Encoding and identity as unencoded.
+     * 2) Any other coding, such as gzip, means the bytes cannot be decoded as text.
+     * </pre>
+     *
+     * @param contentEncoding Content-Encoding header value, may be null
+     * @return true when the body bytes are the unencoded representation
+     */
+    /* default */ static boolean isIdentityEncoding(final String contentEncoding) {
+        return contentEncoding == null || contentEncoding.isBlank()
+                || IDENTITY_ENCODING.equalsIgnoreCase(contentEncoding.trim());
+    }
+
+    /**
+     * Returns the declared request body length without reading the body.
+     * 
+     * <pre>
+     * Algorithm:
+     * 1) Use Content-Length when the container reports one.
+     * 2) Treat a Transfer-Encoding header as a body of unknown length (-1).
+     * 3) Otherwise report an empty body (0).
+     * </pre>
+     *
+     * @param request current request
+     * @return body length, -1 when unknown but present, or 0 when absent
+     */
+    /* default */ static long requestBodyLength(final HttpServletRequest request) {
+        long length = request.getContentLengthLong();
+        if (length < 0) {
+            length = request.getHeader(HDR_TRANSFER_ENCODING) == null ? 0L : -1L;
+        }
+        return length;
+    }
+
+    /**
+     * Copies request headers into an immutable flattened list.
      * 
      * <pre>
      * Algorithm:
      * 1) Iterate all request header names.
      * 2) Join multiple values into a comma-separated string.
-     * 3) Mask sensitive headers before storing them in the output map.
+     * 3) Append name and raw value; masking is deferred to the log writer.
      * </pre>
      *
      * @param request current request
-     * @return sanitized headers
+     * @return flattened header name/value pairs
      */
-    /* default */ static Map<String, String> sanitizeHeaders(final HttpServletRequest request) {
-        final Map<String, String> headers = new ConcurrentHashMap<>();
+    /* default */ static List<String> snapshotHeaders(final HttpServletRequest request) {
+        final List<String> pairs = new ArrayList<>();
         final Enumeration<String> names = request.getHeaderNames();
         while (names != null && names.hasMoreElements()) {
             final String name = names.nextElement();
             final Enumeration<String> values = request.getHeaders(name);
-            final String joined =
-                    values == null ? "" : String.join(",", java.util.Collections.list(values));
-            headers.put(name, LogSanitizer.maskHeaderValue(name, joined));
+            pairs.add(name);
+            pairs.add(values == null ? "" : String.join(",", java.util.Collections.list(values)));
         }
-        return headers;
+        return List.copyOf(pairs);
     }
 
     /**
-     * Collects and masks response headers.
+     * Copies response headers into an immutable flattened list.
      * 
      * <pre>
      * Algorithm:
      * 1) Iterate response header names.
      * 2) Replace null header values with an empty string.
-     * 3) Mask sensitive values before storing them in the output map.
+     * 3) Append name and raw value; masking is deferred to the log writer.
      * </pre>
      *
      * @param response current response
-     * @return sanitized headers
+     * @return flattened header name/value pairs
      */
-    /* default */ static Map<String, String> sanitizeHeaders(final HttpServletResponse response) {
-        final Map<String, String> headers = new ConcurrentHashMap<>();
-        for (final String name : response.getHeaderNames()) {
-            String value = response.getHeader(name);
-            if (value == null) {
-                value = "";
-            }
-            headers.put(name, LogSanitizer.maskHeaderValue(name, value));
+    /* default */ static List<String> snapshotHeaders(final HttpServletResponse response) {
+        final Collection<String> names = response.getHeaderNames();
+        final List<String> pairs = new ArrayList<>(names.size() * 2);
+        for (final String name : names) {
+            final String value = response.getHeader(name);
+            pairs.add(name);
+            pairs.add(value == null ? "" : value);
         }
-        return headers;
+        return List.copyOf(pairs);
     }
 
     /**
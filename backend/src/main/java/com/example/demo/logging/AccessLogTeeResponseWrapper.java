@@ -0,0 +1,359 @@
+package com.example.demo.logging;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Response wrapper that streams bytes to the client and keeps a bounded prefix for logging.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Forward every written byte to the wrapped response immediately.
+ * 2) Copy at most captureLimit leading bytes into a private prefix buffer.
+ * 3) Count the total number of body bytes written.
+ * 4) Enforce, like the container, that a response uses either its writer or its stream.
+ * </pre>
+ */
+public final class AccessLogTeeResponseWrapper extends HttpServletResponseWrapper {
+    /** Initial prefix buffer size. */
+    private static final int INITIAL_CAPTURE = 256;
+
+    /** Maximum number of leading bytes kept for logging. */
+    private final int captureLimit;
+
+    /** Captured body prefix; allocated on first write. */
+    private byte[] prefix;
+
+    /** Number of valid bytes in prefix. */
+    private int prefixSize;
+
+    /** Total number of body bytes written. */
+    private long contentSize;
+
+    /** Tee output stream, created on first use. */
+    private TeeOutputStream outputStream;
+
+    /** Writer over the tee output stream, created on first use. */
+    private PrintWriter writer;
+
+    /** Whether getOutputStream() was handed out since the last reset(). */
+    private boolean usingStream;
+
+    /**
+     * Creates a tee wrapper.
+     *
+     * <pre>
+     * Initialization:
+     * 1) Wrap the container response.
+     * 2) Store the capture limit; a limit of zero only counts bytes.
+     * </pre>
+     *
+     * @param response wrapped response
+     * @param captureLimit maximum number of leading bytes to keep
+     */
+    public AccessLogTeeResponseWrapper(final HttpServletResponse response, final int captureLimit) {
+        super(response);
+        this.captureLimit = Math.max(0, captureLimit);
+    }
+
+    /**
+     * Returns the tee output stream.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Reject the call when the writer is in use, as the container does.
+     * 2) Return the tee stream, created over the wrapped output stream on first use.
+     * </pre>
+     *
+     * @return tee output stream
+     * @throws IOException when the wrapped stream cannot be obtained
+     * @throws IllegalStateException when getWriter() was already called
+     */
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        usingStream = true;
+        return teeStream();
+    }
+
+    /**
+     * Returns a writer that encodes into the tee output stream.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Reject the call when the output stream is in use, as the container does.
+     * 2) Create a PrintWriter over the tee stream with the response charset on first call.
+     * 3) Return the same instance on later calls.
+     * </pre>
+     *
+     * @return response writer
+     * @throws IOException when the wrapped stream cannot be obtained
+     * @throws IllegalStateException when getOutputStream() was already called
+     */
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (usingStream) {
+            throw new IllegalStateException("getOutputStream() has already been called");
+        }
+        if (writer == null) {
+            writer = newWriter(teeStream());
+        }
+        return writer;
+    }
+
+    /**
+     * Flushes buffered writer output to the client.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Flush the writer when one was handed out.
+     * 2) Delegate to the wrapped response.
+     * </pre>
+     *
+     * @throws IOException when flushing fails
+     */
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    /**
+     * Resets the response buffer and the captured prefix.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Delegate to the wrapped response, which discards unsent bytes.
+     * 2) Forget the captured prefix and byte count to match.
+     * 3) Replace a handed-out writer, discarding characters still buffered in its encoder.
+     * </pre>
+     */
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        prefixSize = 0;
+        contentSize = 0L;
+        if (writer != null) {
+            writer = newWriter(outputStream);
+        }
+    }
+
+    /**
+     * Resets the response and the captured prefix.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Delegate to the wrapped response, which discards headers and unsent bytes.
+     * 2) Forget the captured prefix and byte count to match.
+     * 3) Drop the writer, with any characters buffered in it, and clear the stream-or-writer
+     *    choice as the container does; the next getWriter() uses the charset set afterwards.
+     * </pre>
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        prefixSize = 0;
+        contentSize = 0L;
+        writer = null;
+        usingStream = false;
+    }
+
+    /**
+     * Moves characters buffered in the writer into the capture without committing.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Skip when no writer was handed out.
+     * 2) Flush the writer while the tee stream suppresses downstream flushes.
+     * </pre>
+     */
+    /* default */ void flushCapture() {
+        if (writer != null) {
+            outputStream.suppressFlush = true;
+            writer.flush();
+            outputStream.suppressFlush = false;
+        }
+    }
+
+    /**
+     * Returns the tee stream, creating it over the wrapped output stream on first use.
+     *
+     * @return tee output stream
+     * @throws IOException when the wrapped stream cannot be obtained
+     */
+    private TeeOutputStream teeStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TeeOutputStream(getResponse().getOutputStream());
+        }
+        return outputStream;
+    }
+
+    /**
+     * Creates a writer over the tee stream with the current response charset.
+     *
+     * @param stream tee output stream
+     * @return new writer
+     */
+    private PrintWriter newWriter(final TeeOutputStream stream) {
+        return new PrintWriter(new OutputStreamWriter(stream,
+                Charset.forName(getCharacterEncoding())), false);
+    }
+
+    /**
+     * Returns a copy of the captured body prefix.
+     *
+     * @return captured prefix bytes
+     */
+    public byte[] getContentPrefix() {
+        return prefix == null ? new byte[0] : Arrays.copyOf(prefix, prefixSize);
+    }
+
+    /**
+     * Returns the total number of body bytes written.
+     *
+     * @return body size in bytes
+     */
+    public long getContentSize() {
+        return contentSize;
+    }
+
+    /**
+     * Records written bytes in the prefix buffer and byte count.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Add len to the total byte count.
+     * 2) Copy as many bytes as still fit under captureLimit.
+     * 3) Grow the prefix buffer geometrically up to captureLimit.
+     * </pre>
+     *
+     * @param bytes source bytes
+     * @param offset source offset
+     * @param len number of bytes
+     */
+    private void capture(final byte[] bytes, final int offset, final int len) {
+        contentSize += len;
+        final int room = Math.min(len, captureLimit - prefixSize);
+        if (room > 0) {
+            final int required = prefixSize + room;
+            if (prefix == null || prefix.length < required) {
+                final int current = prefix == null ? INITIAL_CAPTURE : prefix.length * 2;
+                final int grown = Math.min(captureLimit, Math.max(required, current));
+                prefix = prefix == null ? new byte[grown] : Arrays.copyOf(prefix, grown);
+            }
+            System.arraycopy(bytes, offset, prefix, prefixSize, room);
+            prefixSize = required;
+        }
+    }
+
+    /**
+     * Output stream that forwards bytes and records them for logging.
+     *
+     * <pre>
+     * Responsibilities:
+     * 1) Write through to the container stream without buffering.
+     * 2) Feed the same bytes to the bounded prefix capture.
+     * 3) Delegate async-servlet readiness callbacks.
+     * </pre>
+     */
+    private final class TeeOutputStream extends ServletOutputStream {
+        /** Container output stream. */
+        private final ServletOutputStream delegate;
+
+        /** Whether flush() should stop at this stream. */
+        private boolean suppressFlush;
+
+        /** Single-byte scratch buffer. */
+        private final byte[] single = new byte[1];
+
+        /**
+         * Creates a tee stream.
+         *
+         * @param delegate container output stream
+         */
+        private TeeOutputStream(final ServletOutputStream delegate) {
+            super();
+            this.delegate = delegate;
+        }
+
+        /**
+         * Writes one byte.
+         *
+         * @param value byte to write
+         * @throws IOException when the container stream fails
+         */
+        @Override
+        public void write(final int value) throws IOException {
+            delegate.write(value);
+            single[0] = (byte) value;
+            capture(single, 0, 1);
+        }
+
+        /**
+         * Writes a byte range.
+         *
+         * @param bytes source bytes
+         * @param offset source offset
+         * @param len number of bytes
+         * @throws IOException when the container stream fails
+         */
+        @Override
+        public void write(final byte[] bytes, final int offset, final int len) throws IOException {
+            delegate.write(bytes, offset, len);
+            capture(bytes, offset, len);
+        }
+
+        /**
+         * Flushes the container stream unless a capture-only flush is in progress.
+         *
+         * @throws IOException when the container stream fails
+         */
+        @Override
+        public void flush() throws IOException {
+            if (!suppressFlush) {
+                delegate.flush();
+            }
+        }
+
+        /**
+         * Closes the container stream.
+         *
+         * @throws IOException when the container stream fails
+         */
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        /**
+         * Delegates readiness to the container stream.
+         *
+         * @return true when the container stream can accept data
+         */
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        /**
+         * Delegates write-listener registration to the container stream.
+         *
+         * @param listener write listener
+         */
+        @Override
+        public void setWriteListener(final WriteListener listener) {
+            delegate.setWriteListener(listener);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.demo.logging;
+
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsed view of a Content-Type header, shared by body capture and sanitization.
+ *
+ * <pre>
+ * Data contract:
+ * 1) textLike is true for text/*, JSON, XML, and form-url-encoded types.
+ * 2) json, form, and xml select the masking rules for the body.
+ * 3) charset is the declared charset, or UTF-8 when missing or invalid.
+ * 4) Only the media type and the charset parameter are considered; other parameters, such
+ *    as multipart boundaries, do not affect the descriptor.
+ * 5) Descriptors are immutable and cached by the normalized media type and charset
+ *    (see Cache).
+ * </pre>
+ *
+ * @param textLike whether the body is safe to log as text
+ * @param json whether the body is JSON (application/json or +json)
+ * @param form whether the body is application/x-www-form-urlencoded
+ * @param xml whether the body is XML (application/xml or +xml)
+ * @param charset charset to decode the body with
+ */
+/* default */ record ContentTypeDescriptor(boolean textLike, boolean json, boolean form,
+        boolean xml, Charset charset) {
+    /** Upper bound on cached media types; further values are parsed on every call. */
+    /* default */ static final int MAX_ENTRIES = 256;
+
+    /** Descriptor for a missing Content-Type header. */
+    private static final ContentTypeDescriptor NONE =
+            new ContentTypeDescriptor(false, false, false, false, StandardCharsets.UTF_8);
+
+    /** Process-wide cache used by body capture and sanitization. */
+    private static final Cache SHARED = new Cache(MAX_ENTRIES);
+
+    /** Parameter name that introduces the charset. */
+    private static final String CHARSET = "charset=";
+
+    /**
+     * Returns the descriptor for a Content-Type header from the shared cache.
+     *
+     * @param contentType raw Content-Type header, or null
+     * @return parsed descriptor
+     */
+    /* default */ static ContentTypeDescriptor of(final String contentType) {
+        return SHARED.get(contentType);
+    }
+
+    /**
+     * Reduces a Content-Type header to its lowercase media type and charset parameter.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Lowercase the value once.
+     * 2) Keep the trimmed media type before the first ';'.
+     * 3) Append ";charset=name" when a charset parameter is present; drop other parameters.
+     * </pre>
+     *
+     * @param contentType raw Content-Type header
+     * @return normalized key, for example "text/plain;charset=utf-8"
+     */
+    /* default */ static String normalize(final String contentType) {
+        final String lower = contentType.toLowerCase(Locale.ROOT);
+        final int semicolon = lower.indexOf(';');
+        final String mediaType = (semicolon < 0 ? lower : lower.substring(0, semicolon)).trim();
+        final String charset = charsetName(lower);
+        return charset == null ? mediaType : mediaType + ';' + CHARSET + charset;
+    }
+
+    /**
+     * Parses a normalized Content-Type value.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Classify JSON, XML, form, and text types by substring of the media type.
+     * 2) Resolve the charset parameter.
+     * </pre>
+     *
+     * @param normalized value returned by normalize
+     * @return parsed descriptor
+     */
+    private static ContentTypeDescriptor parse(final String normalized) {
+        final boolean json =
+                normalized.contains("application/json") || normalized.contains("+json");
+        final boolean xml = normalized.contains("application/xml") || normalized.contains("+xml");
+        final boolean form = normalized.contains("application/x-www-form-urlencoded");
+        return new ContentTypeDescriptor(normalized.startsWith("text/") || json || xml || form,
+                json, form, xml, charsetOf(charsetName(normalized)));
+    }
+
+    /**
+     * Extracts the charset parameter of a lowercase Content-Type value.
+     *
+     * @param lower lowercase Content-Type header
+     * @return charset name without quotes, or null when there is none
+     */
+    private static String charsetName(final String lower) {
+        String name = null;
+        final int charsetIndex = lower.indexOf(CHARSET);
+        if (charsetIndex >= 0) {
+            final int end = lower.indexOf(';', charsetIndex);
+            name = lower.substring(charsetIndex + CHARSET.length(),
+                    end < 0 ? lower.length() : end).trim().replace("\"", "");
+        }
+        return name;
+    }
+
+    /**
+     * Resolves a charset name.
+     *
+     * @param name charset name, or null
+     * @return named charset, or UTF-8 when missing or invalid
+     */
+    private static Charset charsetOf(final String name) {
+        Charset resolved = StandardCharsets.UTF_8;
+        if (name != null) {
+            try {
+                resolved = Charset.forName(name);
+            } catch (final IllegalCharsetNameException | UnsupportedCharsetException ex) {
+                resolved = StandardCharsets.UTF_8;
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Bounded concurrent cache of descriptors keyed by normalized media type and charset.
+     *
+     * <pre>
+     * Data contract:
+     * 1) Keys are normalize() results, so case, spacing, and per-request parameters such as
+     *    multipart boundaries map to one entry instead of one entry per raw header.
+     * 2) Holds at most maxEntries descriptors; values beyond the bound are parsed on every
+     *    call, so client-invented media types cannot grow the cache.
+     * </pre>
+     */
+    /* default */ static final class Cache {
+        /** Upper bound on cached header values. */
+        private final int maxEntries;
+
+        /** Descriptors by normalized media type and charset. */
+        private final Map<String, ContentTypeDescriptor> entries = new ConcurrentHashMap<>();
+
+        /**
+         * Creates an empty cache.
+         *
+         * @param maxEntries upper bound on cached header values
+         */
+        /* default */ Cache(final int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        /**
+         * Returns the descriptor for a Content-Type header.
+         *
+         * <pre>
+         * Algorithm:
+         * 1) Return NONE for a null header.
+         * 2) Normalize the header to its media type and charset.
+         * 3) Return the cached descriptor for known keys.
+         * 4) Parse and cache new keys while under maxEntries; parse uncached beyond that.
+         * </pre>
+         *
+         * @param contentType raw Content-Type header, or null
+         * @return parsed descriptor
+         */
+        /* default */ ContentTypeDescriptor get(final String contentType) {
+            ContentTypeDescriptor descriptor = NONE;
+            if (contentType != null) {
+                final String key = normalize(contentType);
+                descriptor = entries.get(key);
+                if (descriptor == null) {
+                    descriptor = entries.size() < maxEntries
+                            ? entries.computeIfAbsent(key, ContentTypeDescriptor::parse)
+                            : parse(key);
+                }
+            }
+            return descriptor;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.demo.logging;
+
+/**
+ * Finds the client hop in X-Forwarded-For and RFC 7239 Forwarded headers.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Walk hops from right to left, nearest proxy first, skipping trusted proxies.
+ * 2) Stop at the first untrusted hop so client-supplied entries further left are ignored.
+ * 3) Bound the walk to MAX_HOPS entries so oversized headers cost no more than a short one.
+ * </pre>
+ *
+ * <pre>
+ * Data contract:
+ * - Results are packed index ranges (start &lt;&lt; 32 | end) into the header, or NO_HOP.
+ * - The range covers the bare host: quotes, IPv6 brackets, and ports are excluded.
+ * - When every examined hop is trusted, the leftmost examined hop is returned.
+ * - Parsing never allocates; callers materialize the range only when they need a String.
+ * </pre>
+ */
+/* default */ final class ForwardedHeaderParser {
+    /** Result returned when a header has no usable hop. */
+    /* default */ static final long NO_HOP = -1L;
+
+    /** Maximum number of hops examined per header. */
+    /* default */ static final int MAX_HOPS = 20;
+
+    /** Forwarded parameter carrying the client node. */
+    private static final String FOR_PARAM = "for=";
+
+    /**
+     * Utility class.
+     *
+     * <pre>
+     * Design note:
+     * 1) Exposes static parsing helpers only.
+     * 2) Constructor is private to prevent accidental instantiation.
+     * </pre>
+     */
+    private ForwardedHeaderParser() {}
+
+    /**
+     * Finds the client hop of an X-Forwarded-For header.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Scan backwards for the previous comma to delimit each hop.
+     * 2) Skip blank hops; record the host range of each non-blank hop.
+     * 3) Stop at the first untrusted hop, or after MAX_HOPS hops.
+     * </pre>
+     *
+     * @param header X-Forwarded-For value, may be null
+     * @param trustedProxies trusted proxy matcher
+     * @return packed host range, or NO_HOP
+     */
+    /* default */ static long forwardedForClient(final String header,
+            final TrustedProxyMatcher trustedProxies) {
+        long client = NO_HOP;
+        if (header != null) {
+            int end = header.length();
+            boolean untrusted = false;
+            for (int hops = 0; !untrusted && end > 0 && hops < MAX_HOPS; hops++) {
+                final int comma = header.lastIndexOf(',', end - 1);
+                final long hop = hostRange(header, comma + 1, end);
+                if (hop != NO_HOP) {
+                    client = hop;
+                    untrusted = !trustedProxies.matches(header, start(hop), end(hop));
+                }
+                end = comma;
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Finds the client hop of an RFC 7239 Forwarded header.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Scan backwards for the previous comma outside quotes to delimit each element.
+     * 2) Read the for= parameter of the element; elements without one are skipped.
+     * 3) Stop at the first untrusted node, or after MAX_HOPS elements.
+     * </pre>
+     *
+     * @param header Forwarded value, may be null
+     * @param trustedProxies trusted proxy matcher
+     * @return packed host range, or NO_HOP
+     */
+    /* default */ static long forwardedClient(final String header,
+            final TrustedProxyMatcher trustedProxies) {
+        long client = NO_HOP;
+        if (header != null) {
+            int end = header.length();
+            boolean untrusted = false;
+            for (int hops = 0; !untrusted && end > 0 && hops < MAX_HOPS; hops++) {
+                final int start = elementStart(header, end);
+                final long hop = forValue(header, start, end);
+                if (hop != NO_HOP) {
+                    client = hop;
+                    untrusted = !trustedProxies.matches(header, start(hop), end(hop));
+                }
+                end = start - 1;
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Returns the start index of a packed range.
+     *
+     * @param range packed range
+     * @return start index
+     */
+    /* default */ static int start(final long range) {
+        return (int) (range >>> 32);
+    }
+
+    /**
+     * Returns the end index of a packed range.
+     *
+     * @param range packed range
+     * @return index after the last character
+     */
+    /* default */ static int end(final long range) {
+        return (int) range;
+    }
+
+    /**
+     * Finds where a Forwarded element starts, scanning backwards from its end.
+     *
+     * @param header Forwarded value
+     * @param end index after the element
+     * @return index of the first element character
+     */
+    private static int elementStart(final String header, final int end) {
+        int index = end - 1;
+        boolean quoted = false;
+        boolean found = false;
+        while (index >= 0 && !found) {
+            final char current = header.charAt(index);
+            if (current == '"') {
+                quoted = !quoted;
+            }
+            found = current == ',' && !quoted;
+            index--;
+        }
+        return found ? index + 2 : 0;
+    }
+
+    /**
+     * Extracts the for= node of one Forwarded element.
+     *
+     * @param header Forwarded value
+     * @param start first element index
+     * @param end index after the element
+     * @return packed host range, or NO_HOP when the element has no for= parameter
+     */
+    private static long forValue(final String header, final int start, final int end) {
+        long value = NO_HOP;
+        int pairStart = start;
+        while (pairStart < end && value == NO_HOP) {
+            final int pairEnd = pairEnd(header, pairStart, end);
+            final int keyStart = skipSpaces(header, pairStart, pairEnd);
+            if (pairEnd - keyStart > FOR_PARAM.length()
+                    && header.regionMatches(true, keyStart, FOR_PARAM, 0, FOR_PARAM.length())) {
+                value = hostRange(header, keyStart + FOR_PARAM.length(), pairEnd);
+            }
+            pairStart = pairEnd + 1;
+        }
+        return value;
+    }
+
+    /**
+     * Finds the end of a Forwarded parameter pair.
+     *
+     * @param header Forwarded value
+     * @param start first pair index
+     * @param end index after the element
+     * @return index of the next semicolon outside quotes, or end
+     */
+    private static int pairEnd(final String header, final int start, final int end) {
+        int index = start;
+        boolean quoted = false;
+        while (index < end && (quoted || header.charAt(index) != ';')) {
+            if (header.charAt(index) == '"') {
+                quoted = !quoted;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Narrows a hop to its bare host.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Trim whitespace and surrounding double quotes.
+     * 2) For "[v6]" or "[v6]:port", keep the bracket contents.
+     * 3) For "host:port" (exactly one colon), drop the port.
+     * </pre>
+     *
+     * @param header header value
+     * @param from first hop index
+     * @param to index after the hop
+     * @return packed host range, or NO_HOP when the hop is blank
+     */
+    private static long hostRange(final String header, final int from, final int to) {
+        int start = skipSpaces(header, from, to);
+        int end = to;
+        while (end > start && header.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (end - start >= 2 && header.charAt(start) == '"' && header.charAt(end - 1) == '"') {
+            start++;
+            end--;
+        }
+        if (start < end && header.charAt(start) == '[') {
+            final int close = header.indexOf(']', start);
+            if (close > start && close < end) {
+                start++;
+                end = close;
+            }
+        } else {
+            final int colon = header.indexOf(':', start);
+            if (colon >= 0 && colon < end && header.lastIndexOf(':', end - 1) == colon) {
+                end = colon;
+            }
+        }
+        return end > start ? (long) start << 32 | end : NO_HOP;
+    }
+
+    /**
+     * Skips leading whitespace.
+     *
+     * @param header header value
+     * @param start first index
+     * @param end index after the range
+     * @return index of the first non-whitespace character, or end
+     */
+    private static int skipSpaces(final String header, final int start, final int end) {
+        int index = start;
+        while (index < end && header.charAt(index) <= ' ') {
+            index++;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.logging;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Enumeration;
+
+/**
+ * Forwarding header that the trusted proxies append the client hop to.
+ *
+ * <pre>
+ * Values:
+ * 1) X_FORWARDED_FOR reads X-Forwarded-For, the header nginx and most load balancers append.
+ * 2) FORWARDED reads the RFC 7239 Forwarded header.
+ * </pre>
+ *
+ * <pre>
+ * Design note:
+ * 1) Only the configured header is read. A proxy that appends one header passes the other
+ *    through untouched, so trusting both would let a client pick its own address.
+ * 2) Every line of the header is read in order; the proxy appends its hop to the last line,
+ *    so reading only the first line would walk client-controlled values.
+ * </pre>
+ */
+/* default */ enum ForwardingHeader {
+    /** X-Forwarded-For: comma-separated hop addresses. */
+    X_FORWARDED_FOR("X-Forwarded-For"),
+    /** RFC 7239 Forwarded: comma-separated elements with for= parameters. */
+    FORWARDED("Forwarded");
+
+    /** Separator used to join header lines into one field value. */
+    private static final String LINE_SEPARATOR = ", ";
+
+    /** HTTP header name. */
+    private final String headerName;
+
+    /**
+     * Creates a forwarding header.
+     *
+     * @param headerName HTTP header name
+     */
+    ForwardingHeader(final String headerName) {
+        this.headerName = headerName;
+    }
+
+    /**
+     * Returns the HTTP header name.
+     *
+     * @return header name
+     */
+    /* default */ String headerName() {
+        return headerName;
+    }
+
+    /**
+     * Reads every line of this header as one field value.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Return null when the header is absent.
+     * 2) Return a single line as it is, without copying.
+     * 3) Join several lines in order with ", ", as RFC 9110 combines repeated fields.
+     * </pre>
+     *
+     * @param request current request
+     * @return joined header value, or null when absent
+     */
+    /* default */ String read(final HttpServletRequest request) {
+        final Enumeration<String> lines = request.getHeaders(headerName);
+        String value = null;
+        if (lines != null && lines.hasMoreElements()) {
+            value = lines.nextElement();
+            if (lines.hasMoreElements()) {
+                final StringBuilder joined = new StringBuilder(value);
+                while (lines.hasMoreElements()) {
+                    joined.append(LINE_SEPARATOR).append(lines.nextElement());
+                }
+                value = joined.toString();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Finds the client hop in a value of this header.
+     *
+     * @param value header value, may be null
+     * @param trustedProxies trusted proxy matcher
+     * @return packed host range, or ForwardedHeaderParser.NO_HOP
+     */
+    /* default */ long clientHop(final String value, final TrustedProxyMatcher trustedProxies) {
+        return this == FORWARDED ? ForwardedHeaderParser.forwardedClient(value, trustedProxies)
+                : ForwardedHeaderParser.forwardedForClient(value, trustedProxies);
+    }
+}
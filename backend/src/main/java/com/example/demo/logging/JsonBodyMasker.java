@@ -0,0 +1,428 @@
+package com.example.demo.logging;
+
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Single-pass JSON masker that copies a body while replacing values of sensitive keys.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Tokenize UTF-8 (or other ASCII-compatible) JSON bytes once, left to right.
+ * 2) Decode object keys, including escape sequences, and test them with LogSanitizer.
+ * 3) Replace the whole value of a sensitive key (string, number, literal, object, or array).
+ * 4) Stop reading and writing once the output byte budget is spent.
+ * </pre>
+ *
+ * <pre>
+ * Data contract:
+ * - Masked values are written as "****" so the output stays valid JSON for valid input.
+ * - Malformed input is copied as-is; masking is best-effort and never throws.
+ * - Output cut by the budget ends on a UTF-8 character boundary.
+ * - Instances are single-use and not thread-safe.
+ * </pre>
+ */
+/* default */ final class JsonBodyMasker {
+    /** Replacement written for sensitive values. */
+    private static final byte[] MASK = "\"****\"".getBytes(StandardCharsets.US_ASCII);
+
+    /** Longest key that is decoded for matching; longer keys are never sensitive. */
+    private static final int MAX_KEY_CHARS = 64;
+
+    /** Initial nesting capacity. */
+    private static final int INITIAL_DEPTH = 16;
+
+    /** Extra output capacity reserved for masks that are longer than the values they replace. */
+    private static final int GROWTH_SLACK = 64;
+
+    /** Input bytes. */
+    private final byte[] input;
+
+    /** Maximum number of output bytes. */
+    private final int maxBytes;
+
+    /** Output buffer, grown up to maxBytes. */
+    private byte[] output;
+
+    /** Number of output bytes written. */
+    private int written;
+
+    /** Read position in input. */
+    private int position;
+
+    /** Whether output stopped at the budget before the input was consumed. */
+    private boolean truncated;
+
+    /** Decoded characters of the current key. */
+    private final char[] key = new char[MAX_KEY_CHARS];
+
+    /** Reusable view of the key buffer for dictionary matching. */
+    private final CharBuffer keyView = CharBuffer.wrap(key);
+
+    /** Decoded length of the current key, or -1 when it cannot be sensitive. */
+    private int keyLength;
+
+    /** Container stack; true marks an object, false an array. */
+    private boolean[] objects = new boolean[INITIAL_DEPTH];
+
+    /** Current nesting depth. */
+    private int depth;
+
+    /**
+     * Creates a masker for one body.
+     *
+     * @param input JSON bytes in an ASCII-compatible encoding
+     * @param maxBytes output byte budget
+     */
+    /* default */ JsonBodyMasker(final byte[] input, final int maxBytes) {
+        this.input = input;
+        this.maxBytes = maxBytes;
+        this.output = new byte[(int) Math.min(maxBytes, (long) input.length + GROWTH_SLACK)];
+    }
+
+    /**
+     * Masks a complete JSON string without a budget.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Encode the text as UTF-8.
+     * 2) Run the masker with an unbounded budget and decode the result.
+     * </pre>
+     *
+     * @param json JSON text
+     * @return masked JSON text
+     */
+    /* default */ static String mask(final String json) {
+        final JsonBodyMasker masker =
+                new JsonBodyMasker(json.getBytes(StandardCharsets.UTF_8), Integer.MAX_VALUE);
+        masker.run();
+        return masker.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Walks the input once, copying tokens and masking sensitive values.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Track object/array nesting to know when a string is an object key.
+     * 2) Copy keys while decoding them; remember whether the key is sensitive.
+     * 3) After the colon of a sensitive key, skip the value and write the mask.
+     * 4) Copy every other byte unchanged until input ends or the budget is spent.
+     * </pre>
+     *
+     * @return this masker
+     */
+    /* default */ JsonBodyMasker run() {
+        boolean expectKey = false;
+        boolean maskNext = false;
+        while (position < input.length && !truncated) {
+            final byte current = input[position];
+            if (current == '"') {
+                if (expectKey) {
+                    copyKey();
+                    maskNext = keyLength >= 0 && LogSanitizer.isSensitiveKey(keyView, 0, keyLength);
+                    expectKey = false;
+                } else {
+                    copyString();
+                }
+            } else {
+                emit(current);
+                position++;
+                if (current == '{' || current == '[') {
+                    push(current == '{');
+                    expectKey = current == '{';
+                } else if (current == '}' || current == ']') {
+                    depth = Math.max(0, depth - 1);
+                    expectKey = false;
+                } else if (current == ',') {
+                    expectKey = depth > 0 && objects[depth - 1];
+                } else if (current == ':') {
+                    expectKey = false;
+                    if (maskNext) {
+                        maskValue();
+                        maskNext = false;
+                    }
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns whether the budget cut the output short.
+     *
+     * @return true when input remained after the budget was spent
+     */
+    /* default */ boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Decodes the output.
+     *
+     * @param charset charset of the input bytes
+     * @return masked text
+     */
+    /* default */ String toString(final Charset charset) {
+        int length = written;
+        if (truncated && StandardCharsets.UTF_8.equals(charset)) {
+            length = utf8Boundary(output, written);
+        }
+        return new String(output, 0, length, charset);
+    }
+
+    /**
+     * Copies a key string and decodes it into the key buffer.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Copy bytes through the closing quote.
+     * 2) Decode simple and unicode escapes of ASCII characters into the key buffer.
+     * 3) Mark the key as non-matching when it is too long or contains non-ASCII characters.
+     * </pre>
+     */
+    private void copyKey() {
+        keyLength = 0;
+        emit(input[position++]);
+        boolean closed = false;
+        while (position < input.length && !closed && !truncated) {
+            final byte current = input[position];
+            if (current == '\\' && position + 1 < input.length) {
+                appendKey(escapedChar());
+            } else {
+                closed = current == '"';
+                if (!closed) {
+                    appendKey(current);
+                }
+                emit(current);
+                position++;
+            }
+        }
+    }
+
+    /**
+     * Copies one escape sequence and returns the character it denotes.
+     *
+     * @return decoded ASCII character, or -1 when it is not ASCII or malformed
+     */
+    private int escapedChar() {
+        final byte kind = input[position + 1];
+        int decoded;
+        int length = 2;
+        if (kind == 'u') {
+            decoded = position + 6 <= input.length ? hex4(position + 2) : -1;
+            if (decoded >= 0) {
+                length = 6;
+            }
+        } else {
+            decoded = switch (kind) {
+                case 'n' -> '\n';
+                case 't' -> '\t';
+                case 'r' -> '\r';
+                case 'b' -> '\b';
+                case 'f' -> '\f';
+                default -> kind;
+            };
+        }
+        for (int index = 0; index < length; index++) {
+            emit(input[position++]);
+        }
+        return decoded >= 0 && decoded < 0x80 ? decoded : -1;
+    }
+
+    /**
+     * Parses four hex digits.
+     *
+     * @param start index of the first digit
+     * @return value, or -1 when a digit is invalid
+     */
+    private int hex4(final int start) {
+        int value = 0;
+        for (int index = start; index < start + 4 && value >= 0; index++) {
+            final int digit = Character.digit(input[index], 16);
+            value = digit < 0 ? -1 : value << 4 | digit;
+        }
+        return value;
+    }
+
+    /**
+     * Appends one decoded key character.
+     *
+     * @param value decoded character, or -1 for a character that can never match
+     */
+    private void appendKey(final int value) {
+        if (keyLength >= 0) {
+            if (value < 0 || value >= 0x80 || keyLength == MAX_KEY_CHARS) {
+                keyLength = -1;
+            } else {
+                key[keyLength++] = (char) value;
+            }
+        }
+    }
+
+    /**
+     * Copies a non-key string, including escapes, through its closing quote.
+     */
+    private void copyString() {
+        emit(input[position++]);
+        boolean closed = false;
+        while (position < input.length && !closed && !truncated) {
+            final byte current = input[position++];
+            emit(current);
+            if (current == '\\' && position < input.length) {
+                emit(input[position++]);
+            } else {
+                closed = current == '"';
+            }
+        }
+    }
+
+    /**
+     * Skips one value and writes the mask in its place.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Copy whitespace after the colon.
+     * 2) Skip a string, a balanced object/array, or a scalar up to the next delimiter.
+     * 3) Write "****" when a value was present.
+     * </pre>
+     */
+    private void maskValue() {
+        while (position < input.length && isWhitespace(input[position]) && !truncated) {
+            emit(input[position++]);
+        }
+        if (position < input.length && !truncated) {
+            final byte first = input[position];
+            if (first == '"') {
+                skipString();
+            } else if (first == '{' || first == '[') {
+                skipContainer();
+            } else {
+                while (position < input.length && !isDelimiter(input[position])) {
+                    position++;
+                }
+            }
+            for (final byte maskByte : MASK) {
+                emit(maskByte);
+            }
+        }
+    }
+
+    /**
+     * Skips a string starting at the current opening quote.
+     */
+    private void skipString() {
+        position++;
+        boolean closed = false;
+        while (position < input.length && !closed) {
+            final byte current = input[position++];
+            if (current == '\\') {
+                position++;
+            } else {
+                closed = current == '"';
+            }
+        }
+        position = Math.min(position, input.length);
+    }
+
+    /**
+     * Skips a balanced object or array, ignoring brackets inside strings.
+     */
+    private void skipContainer() {
+        int nesting = 0;
+        do {
+            final byte current = input[position];
+            if (current == '"') {
+                skipString();
+            } else {
+                if (current == '{' || current == '[') {
+                    nesting++;
+                } else if (current == '}' || current == ']') {
+                    nesting--;
+                }
+                position++;
+            }
+        } while (nesting > 0 && position < input.length);
+    }
+
+    /**
+     * Pushes a container onto the nesting stack.
+     *
+     * @param object true for an object, false for an array
+     */
+    private void push(final boolean object) {
+        if (depth == objects.length) {
+            objects = Arrays.copyOf(objects, depth * 2);
+        }
+        objects[depth++] = object;
+    }
+
+    /**
+     * Writes one byte, or marks truncation when the budget is spent.
+     *
+     * @param value byte to write
+     */
+    private void emit(final byte value) {
+        if (written == maxBytes) {
+            truncated = true;
+        } else {
+            if (written == output.length) {
+                output = Arrays.copyOf(output,
+                        (int) Math.min(maxBytes, Math.max(16L, (long) output.length * 2)));
+            }
+            output[written++] = value;
+        }
+    }
+
+    /**
+     * Checks for JSON whitespace.
+     *
+     * @param value byte to check
+     * @return true for space, tab, CR, or LF
+     */
+    private static boolean isWhitespace(final byte value) {
+        return value == ' ' || value == '\t' || value == '\r' || value == '\n';
+    }
+
+    /**
+     * Checks for bytes that end a scalar value.
+     *
+     * @param value byte to check
+     * @return true for ',', '}', ']', or whitespace
+     */
+    private static boolean isDelimiter(final byte value) {
+        return value == ',' || value == '}' || value == ']' || isWhitespace(value);
+    }
+
+    /**
+     * Finds the largest length that does not split a UTF-8 sequence.
+     *
+     * @param bytes UTF-8 bytes
+     * @param length number of valid bytes
+     * @return length ending on a character boundary
+     */
+    /* default */ static int utf8Boundary(final byte[] bytes, final int length) {
+        int lead = length - 1;
+        while (lead > 0 && length - lead < 4 && (bytes[lead] & 0xC0) == 0x80) {
+            lead--;
+        }
+        int boundary = length;
+        if (lead >= 0) {
+            final int first = bytes[lead] & 0xFF;
+            final int expected;
+            if (first >= 0xF0) {
+                expected = 4;
+            } else if (first >= 0xE0) {
+                expected = 3;
+            } else if (first >= 0xC0) {
+                expected = 2;
+            } else {
+                expected = 1;
+            }
+            boundary = length - lead < expected ? lead : length;
+        }
+        return boundary;
+    }
+}
@@ -1,43 +1,33 @@
 package com.example.demo.logging;
 
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
-import java.util.Locale;
-import java.util.Set;
-import java.util.regex.Pattern;
-
 /**
  * Sanitizes log content to avoid leaking sensitive data.
  * 
  * <pre>
  * Responsibilities:
- * 1) Mask sensitive key-value pairs in JSON and form payloads.
- * 2) Mask known secret-bearing HTTP headers.
+ * 1) Mask sensitive key-value pairs in JSON (streaming) and form payloads.
+ * 2) Mask secret-bearing HTTP headers.
  * 3) Mask sensitive query string parameters.
  * 4) Keep non-sensitive content unchanged for diagnostics.
+ * 5) Decide sensitivity for all of the above with one configurable key dictionary.
  * </pre>
  */
 public final class LogSanitizer {
-    /** JSON field matcher for sensitive keys. */
-    private static final Pattern JSON_MASK = Pattern
-            .compile("(?i)(\\\"(?:password|passwd|pwd|secret|token|access_token|refresh_token"
-                    + "|authorization|auth|apiKey|cardNumber|creditCard|ssn|idCard)"
-                    + "\\\"\\s*:\\s*\\\")([^\\\"]*)(\\\")");
+    /** Default sensitive key terms; see SensitiveKeyDictionary for the matching rules. */
+    /* default */ static final String DEFAULT_SENSITIVE_KEYS = "password,passwd,pwd,secret,"
+            + "token,access_token,refresh_token,authorization,auth,apiKey,cardNumber,creditCard,"
+            + "ssn,idCard,cookie";
 
-    /** Form URL-encoded matcher for sensitive keys. */
-    private static final Pattern FORM_MASK =
-            Pattern.compile("(?i)\\b(password|passwd|pwd|secret|token|access_token|refresh_token"
-                    + "|authorization|auth|apiKey|cardNumber|creditCard|ssn|idCard)"
-                    + "=([^&\\s]+)");
+    /** Replacement written for sensitive values. */
+    private static final String MASK = "****";
 
-    /** Header names that must be masked. */
-    private static final Set<String> SENSITIVE_HEADERS = Set.of("authorization",
-            "proxy-authorization", "cookie", "set-cookie", "x-api-key", "x-auth-token");
+    /** Per-thread scratch buffer for percent-decoded parameter keys. */
+    private static final ThreadLocal<StringBuilder> DECODED_KEY =
+            ThreadLocal.withInitial(StringBuilder::new);
 
-    /** Sensitive parameter keys normalized to lowercase alphanumeric form. */
-    private static final Set<String> QUERY_SECRET_KEYS =
-            Set.of("password", "passwd", "pwd", "secret", "token", "accesstoken", "refreshtoken",
-                    "authorization", "auth", "apikey", "cardnumber", "creditcard", "ssn", "idcard");
+    /** Dictionary shared by the JSON, form, query, and header maskers. */
+    private static volatile SensitiveKeyDictionary dictionary =
+            SensitiveKeyDictionary.compile(DEFAULT_SENSITIVE_KEYS);
 
     /**
      * Utility class.
@@ -56,8 +46,8 @@ public final class LogSanitizer {
      * <pre>
      * Algorithm:
      * 1) Return input unchanged when body is null or blank.
-     * 2) Normalize content type to select applicable masking rules.
-     * 3) Apply JSON and/or form regex masking for sensitive keys.
+     * 2) Look up the cached content-type descriptor to select applicable masking rules.
+     * 3) Mask JSON with the streaming JsonBodyMasker and forms like query strings.
      * </pre>
      *
      * @param body raw body
@@ -65,27 +55,67 @@ public final class LogSanitizer {
      * @return sanitized body
      */
     public static String sanitizeBody(final String body, final String contentType) {
+        return sanitizeBody(body, ContentTypeDescriptor.of(contentType));
+    }
+
+    /**
+     * Masks sensitive fields in a body whose content type is already parsed.
+     *
+     * @param body raw body
+     * @param type parsed content type
+     * @return sanitized body
+     */
+    /* default */ static String sanitizeBody(final String body, final ContentTypeDescriptor type) {
         String sanitized = body;
         if (body != null && !body.isBlank()) {
-            final String normalized =
-                    contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
-            if (normalized.contains("application/json") || normalized.contains("+json")) {
-                sanitized = JSON_MASK.matcher(sanitized).replaceAll("$1****$3");
+            if (type.json()) {
+                sanitized = JsonBodyMasker.mask(sanitized);
             }
-            if (normalized.contains("application/x-www-form-urlencoded")) {
-                sanitized = FORM_MASK.matcher(sanitized).replaceAll("$1=****");
+            if (type.form()) {
+                sanitized = maskParameters(sanitized);
             }
         }
         return sanitized;
     }
 
+    /**
+     * Installs a sensitive key dictionary.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Fall back to DEFAULT_SENSITIVE_KEYS when the configured list is blank, so masking
+     *    cannot be switched off by an empty property.
+     * 2) Compile the list and publish it for every masker at once.
+     * </pre>
+     *
+     * @param keys comma-separated key terms
+     * @throws IllegalArgumentException when a term is longer than the dictionary supports
+     */
+    /* default */ static void setSensitiveKeys(final String keys) {
+        dictionary = SensitiveKeyDictionary.compile(
+                keys == null || keys.isBlank() ? DEFAULT_SENSITIVE_KEYS : keys);
+    }
+
+    /**
+     * Checks whether a key is sensitive.
+     *
+     * @param key key text, for example a decoded JSON key
+     * @param start first index
+     * @param end index after the last character
+     * @return true when values of the key must be masked
+     */
+    /* default */ static boolean isSensitiveKey(final CharSequence key, final int start,
+            final int end) {
+        return dictionary.matches(key, start, end);
+    }
+
     /**
      * Masks sensitive headers.
      * 
      * <pre>
      * Algorithm:
      * 1) Return null when header value is null.
-     * 2) Normalize header name to lowercase.
+     * 2) Match the header name against the key dictionary without allocating.
      * 3) Replace sensitive header values with "****".
      * </pre>
      *
@@ -95,11 +125,8 @@ public final class LogSanitizer {
      */
     public static String maskHeaderValue(final String headerName, final String headerValue) {
         String masked = headerValue;
-        if (headerValue != null) {
-            final String normalized = headerName == null ? "" : headerName.toLowerCase(Locale.ROOT);
-            if (SENSITIVE_HEADERS.contains(normalized)) {
-                masked = "****";
-            }
+        if (headerValue != null && dictionary.matches(headerName)) {
+            masked = "****";
         }
         return masked;
     }
@@ -110,9 +137,9 @@ public final class LogSanitizer {
      * <pre>
      * Algorithm:
      * 1) Return input unchanged when query is null or blank.
-     * 2) Split query by '&amp;' and extract each parameter key.
-     * 3) Normalize and compare keys against the sensitive-key set.
-     * 4) Replace sensitive parameter values with "****".
+     * 2) Scan '&amp;'-separated parameters once, matching keys in place.
+     * 3) Replace sensitive parameter values with "****".
+     * 4) Return the same String instance when nothing was masked.
      * </pre>
      *
      * @param query raw query string without leading '?'
@@ -121,87 +148,111 @@ public final class LogSanitizer {
     public static String sanitizeQuery(final String query) {
         String sanitized = query;
         if (query != null && !query.isBlank()) {
-            final String[] parts = query.split("&", -1);
-            final StringBuilder builder = new StringBuilder(query.length());
-            for (int index = 0; index < parts.length; index++) {
-                if (index > 0) {
-                    builder.append('&');
-                }
-                builder.append(maskQueryPart(parts[index]));
-            }
-            sanitized = builder.toString();
+            sanitized = maskParameters(query);
         }
         return sanitized;
     }
 
     /**
-     * Checks whether a query parameter key is sensitive.
+     * Masks sensitive parameters of a query string or form body.
      * 
      * <pre>
      * Algorithm:
-     * 1) Decode percent-encoded key when possible.
-     * 2) Normalize key to lowercase alphanumeric form.
-     * 3) Compare against the sensitive-key set.
+     * 1) Walk parameters by '&amp;' offsets without splitting the string.
+     * 2) For each key=value parameter, match the key range against the key dictionary.
+     * 3) On the first sensitive key, start a copy; append unchanged runs and "****" values.
+     * 4) Return the input itself when no copy was started.
      * </pre>
      *
-     * @param key query parameter key
-     * @return true when the key should be masked
+     * @param parameters '&amp;'-separated key=value pairs
+     * @return sanitized parameters, or the same instance when nothing is sensitive
      */
-    private static boolean isSensitiveQueryKey(final String key) {
-        String decodedKey;
-        try {
-            decodedKey = URLDecoder.decode(key, StandardCharsets.UTF_8);
-        } catch (final IllegalArgumentException ex) {
-            decodedKey = key;
+    private static String maskParameters(final String parameters) {
+        final int length = parameters.length();
+        StringBuilder masked = null;
+        int copied = 0;
+        int start = 0;
+        while (start <= length) {
+            int end = parameters.indexOf('&', start);
+            if (end < 0) {
+                end = length;
+            }
+            final int equals = parameters.indexOf('=', start, end);
+            if (equals >= 0 && isSensitiveParameter(parameters, start, equals)) {
+                if (masked == null) {
+                    masked = new StringBuilder(length + MASK.length());
+                }
+                masked.append(parameters, copied, equals + 1).append(MASK);
+                copied = end;
+            }
+            start = end + 1;
         }
-        return QUERY_SECRET_KEYS.contains(normalizeKey(decodedKey));
+        String sanitized = parameters;
+        if (masked != null) {
+            sanitized = masked.append(parameters, copied, length).toString();
+        }
+        return sanitized;
     }
 
     /**
-     * Masks one query key-value segment.
+     * Checks whether a parameter key is sensitive.
      * 
      * <pre>
      * Algorithm:
-     * 1) Split segment into key and optional value.
-     * 2) Check whether the key is sensitive.
-     * 3) Mask value when the segment is key=value.
+     * 1) Match plain keys in place.
+     * 2) Percent-decode keys that contain '%' into a reused per-thread buffer first; each
+     *    escape becomes one character, so encoded letters match and other bytes separate.
+     *    Malformed escapes are kept literally.
      * </pre>
      *
-     * @param part one query segment
-     * @return sanitized segment
+     * @param text query string or form body
+     * @param start first index of the key
+     * @param end index after the key
+     * @return true when the value should be masked
      */
-    private static String maskQueryPart(final String part) {
-        final int equalsIndex = part.indexOf('=');
-        final String key = equalsIndex >= 0 ? part.substring(0, equalsIndex) : part;
-        String maskedPart = part;
-        if (isSensitiveQueryKey(key) && equalsIndex >= 0) {
-            maskedPart = key + "=****";
+    private static boolean isSensitiveParameter(final String text, final int start,
+            final int end) {
+        boolean sensitive;
+        if (text.indexOf('%', start, end) < 0) {
+            sensitive = dictionary.matches(text, start, end);
+        } else {
+            final StringBuilder decoded = DECODED_KEY.get();
+            decoded.setLength(0);
+            int index = start;
+            while (index < end) {
+                final int escaped = text.charAt(index) == '%' && index + 2 < end
+                        ? hexDigit(text.charAt(index + 1)) << 4 | hexDigit(text.charAt(index + 2))
+                        : -1;
+                if (escaped >= 0) {
+                    decoded.append((char) escaped);
+                    index += 3;
+                } else {
+                    decoded.append(text.charAt(index));
+                    index++;
+                }
+            }
+            sensitive = dictionary.matches(decoded, 0, decoded.length());
         }
-        return maskedPart;
+        return sensitive;
     }
 
     /**
-     * Normalizes parameter keys for case-insensitive matching.
-     * 
-     * <pre>
-     * Algorithm:
-     * 1) Convert key to lowercase using Locale.ROOT.
-     * 2) Keep only ASCII letters and digits.
-     * 3) Return the normalized string.
-     * </pre>
+     * Parses one ASCII hex digit.
      *
-     * @param key raw key
-     * @return normalized key
+     * @param value character
+     * @return digit value, or -1 when the character is not a hex digit
      */
-    private static String normalizeKey(final String key) {
-        final String lower = key.toLowerCase(Locale.ROOT);
-        final StringBuilder normalized = new StringBuilder(lower.length());
-        for (int index = 0; index < lower.length(); index++) {
-            final char current = lower.charAt(index);
-            if ((current >= 'a' && current <= 'z') || (current >= '0' && current <= '9')) {
-                normalized.append(current);
-            }
+    private static int hexDigit(final char value) {
+        final int digit;
+        if (value >= '0' && value <= '9') {
+            digit = value - '0';
+        } else if (value >= 'a' && value <= 'f') {
+            digit = value - 'a' + 10;
+        } else if (value >= 'A' && value <= 'F') {
+            digit = value - 'A' + 10;
+        } else {
+            digit = -1;
         }
-        return normalized.toString();
+        return digit;
     }
 }
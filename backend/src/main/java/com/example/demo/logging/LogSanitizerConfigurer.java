@@ -0,0 +1,42 @@
+package com.example.demo.logging;
+
+import com.example.demo.StaticSettingConfigurer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the configured sensitive key dictionary to LogSanitizer.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Bind app.logging.sanitizer.keys (comma-separated key terms).
+ * 2) Compile it once at startup for the body, form, query, and header maskers.
+ * 3) Restore the default dictionary when the context closes.
+ * </pre>
+ */
+@Component
+public class LogSanitizerConfigurer extends StaticSettingConfigurer {
+    /**
+     * Configures the sensitive key dictionary.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Read the key terms from configuration (default LogSanitizer.DEFAULT_SENSITIVE_KEYS).
+     * 2) Compile and install them; an invalid term fails startup.
+     * </pre>
+     *
+     * @param keys comma-separated key terms
+     */
+    @Value("${app.logging.sanitizer.keys:" + LogSanitizer.DEFAULT_SENSITIVE_KEYS + "}")
+    /* default */ void setKeys(final String keys) {
+        LogSanitizer.setSensitiveKeys(keys);
+    }
+
+    /**
+     * Reinstalls LogSanitizer.DEFAULT_SENSITIVE_KEYS.
+     */
+    @Override
+    protected void restoreDefault() {
+        LogSanitizer.setSensitiveKeys(LogSanitizer.DEFAULT_SENSITIVE_KEYS);
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.demo.logging;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+/**
+ * Case-insensitive Aho-Corasick automaton over sensitive key terms.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Compile a comma-separated term list once into a deterministic automaton.
+ * 2) Decide in one pass whether a key (JSON field, form/query parameter, header name)
+ *    contains a term as a whole word.
+ * 3) Match without allocation so every masker can call it per key.
+ * </pre>
+ *
+ * <pre>
+ * Data contract:
+ * - Terms and keys are compared on ASCII letters and digits only, ignoring case, so
+ *   "access_token", "accessToken", and "ACCESS-TOKEN" are the same key.
+ * - A term matches when it starts and ends on word boundaries of the key: key start/end,
+ *   a separator, a lower-to-upper camel-case step, or a letter/digit step.
+ *   "userPassword" and "x-auth-token" match; "author" and "passwords" do not.
+ * - Terms are limited to MAX_TERM_LENGTH letters and digits.
+ * </pre>
+ */
+/* default */ final class SensitiveKeyDictionary {
+    /** Longest supported term, bounded by the 64-bit boundary register. */
+    /* default */ static final int MAX_TERM_LENGTH = 64;
+
+    /** Alphabet size: 26 letters followed by 10 digits. */
+    private static final int ALPHABET = 36;
+
+    /** Character class of separators (anything that is not an ASCII letter or digit). */
+    private static final int SEPARATOR = 0;
+
+    /** Character class of lowercase letters. */
+    private static final int LOWER = 1;
+
+    /** Character class of uppercase letters. */
+    private static final int UPPER = 2;
+
+    /** Character class of digits. */
+    private static final int DIGIT = 3;
+
+    /** Deterministic transitions, ALPHABET entries per state. */
+    private final int[] transitions;
+
+    /** Per state, bit (length - 1) is set when a term of that length ends in the state. */
+    private final long[] terminalLengths;
+
+    /**
+     * Creates a dictionary from compiled tables.
+     *
+     * @param transitions deterministic transitions
+     * @param terminalLengths terminal term lengths per state
+     */
+    private SensitiveKeyDictionary(final int[] transitions, final long[] terminalLengths) {
+        this.transitions = transitions;
+        this.terminalLengths = terminalLengths;
+    }
+
+    /**
+     * Compiles a comma-separated term list.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Normalize each term to lowercase letters and digits; skip blank terms.
+     * 2) Insert terms into a trie.
+     * 3) Compute failure links breadth-first and fold them into full DFA transitions.
+     * 4) Merge terminal lengths along failure links so suffix terms are reported.
+     * </pre>
+     *
+     * @param configured comma-separated terms, for example "password,apiKey,client_secret"
+     * @return compiled dictionary
+     */
+    /* default */ static SensitiveKeyDictionary compile(final String configured) {
+        final String raw = configured == null ? "" : configured;
+        int[] goTo = new int[ALPHABET * 16];
+        Arrays.fill(goTo, -1);
+        long[] lengths = new long[16];
+        int states = 1;
+        for (final String term : raw.split(",")) {
+            int state = 0;
+            int length = 0;
+            for (int index = 0; index < term.length(); index++) {
+                final int symbol = symbol(term.charAt(index));
+                if (symbol >= 0) {
+                    final int slot = state * ALPHABET + symbol;
+                    if (goTo[slot] < 0) {
+                        if (states * ALPHABET == goTo.length) {
+                            final int previous = goTo.length;
+                            goTo = Arrays.copyOf(goTo, previous * 2);
+                            Arrays.fill(goTo, previous, goTo.length, -1);
+                            lengths = Arrays.copyOf(lengths, states * 2);
+                        }
+                        goTo[slot] = states++;
+                    }
+                    state = goTo[slot];
+                    length++;
+                }
+            }
+            if (length > MAX_TERM_LENGTH) {
+                throw new IllegalArgumentException("Sensitive key term is too long: " + term);
+            }
+            if (length > 0) {
+                lengths[state] |= 1L << (length - 1);
+            }
+        }
+        return new SensitiveKeyDictionary(link(goTo, lengths, states),
+                Arrays.copyOf(lengths, states));
+    }
+
+    /**
+     * Folds failure links into the trie, producing DFA transitions.
+     *
+     * @param goTo trie transitions, -1 for missing edges; rewritten in place
+     * @param lengths terminal lengths per state; merged in place
+     * @param states number of states
+     * @return DFA transitions
+     */
+    private static int[] link(final int[] goTo, final long[] lengths, final int states) {
+        final int[] fail = new int[states];
+        final Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            final int child = goTo[symbol];
+            if (child < 0) {
+                goTo[symbol] = 0;
+            } else {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.remove();
+            lengths[state] |= lengths[fail[state]];
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                final int slot = state * ALPHABET + symbol;
+                final int fallback = goTo[fail[state] * ALPHABET + symbol];
+                if (goTo[slot] < 0) {
+                    goTo[slot] = fallback;
+                } else {
+                    fail[goTo[slot]] = fallback;
+                    queue.add(goTo[slot]);
+                }
+            }
+        }
+        return Arrays.copyOf(goTo, states * ALPHABET);
+    }
+
+    /**
+     * Checks whether a whole key contains a term on word boundaries.
+     *
+     * @param key key text
+     * @return true when the key is sensitive
+     */
+    /* default */ boolean matches(final CharSequence key) {
+        return key != null && matches(key, 0, key.length());
+    }
+
+    /**
+     * Checks whether a key range contains a term on word boundaries.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Feed letters and digits, lowercased, through the automaton; skip separators.
+     * 2) Shift one bit per fed character into a register: 1 when a word starts there.
+     * 3) Before feeding a character that starts a new word, and at the end of the key,
+     *    report a match when a term ending at the previous character also started on a
+     *    word start: terminalLengths[state] and the register share a bit.
+     * </pre>
+     *
+     * @param key key text
+     * @param start first index
+     * @param end index after the last character
+     * @return true when the key is sensitive
+     */
+    /* default */ boolean matches(final CharSequence key, final int start, final int end) {
+        int state = 0;
+        long wordStarts = 0L;
+        int previousClass = SEPARATOR;
+        boolean separated = true;
+        boolean found = false;
+        for (int index = start; index < end && !found; index++) {
+            final char current = key.charAt(index);
+            final int currentClass = classOf(current);
+            if (currentClass == SEPARATOR) {
+                separated = true;
+            } else {
+                final boolean wordStart = separated
+                        || previousClass == LOWER && currentClass == UPPER
+                        || (previousClass == DIGIT) != (currentClass == DIGIT);
+                found = wordStart && (terminalLengths[state] & wordStarts) != 0L;
+                wordStarts = wordStarts << 1 | (wordStart ? 1L : 0L);
+                state = transitions[state * ALPHABET + symbol(current)];
+                previousClass = currentClass;
+                separated = false;
+            }
+        }
+        return found || (terminalLengths[state] & wordStarts) != 0L;
+    }
+
+    /**
+     * Maps a character to its automaton symbol.
+     *
+     * @param value character
+     * @return 0-25 for letters, 26-35 for digits, -1 otherwise
+     */
+    private static int symbol(final char value) {
+        final int symbol;
+        if (value >= 'a' && value <= 'z') {
+            symbol = value - 'a';
+        } else if (value >= 'A' && value <= 'Z') {
+            symbol = value - 'A';
+        } else if (value >= '0' && value <= '9') {
+            symbol = 26 + value - '0';
+        } else {
+            symbol = -1;
+        }
+        return symbol;
+    }
+
+    /**
+     * Classifies a character for word-boundary detection.
+     *
+     * @param value character
+     * @return LOWER, UPPER, DIGIT, or SEPARATOR
+     */
+    private static int classOf(final char value) {
+        final int characterClass;
+        if (value >= 'a' && value <= 'z') {
+            characterClass = LOWER;
+        } else if (value >= 'A' && value <= 'Z') {
+            characterClass = UPPER;
+        } else if (value >= '0' && value <= '9') {
+            characterClass = DIGIT;
+        } else {
+            characterClass = SEPARATOR;
+        }
+        return characterClass;
+    }
+}
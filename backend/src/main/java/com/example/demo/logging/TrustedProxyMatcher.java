@@ -0,0 +1,540 @@
+package com.example.demo.logging;
+
+import java.util.Arrays;
+
+/**
+ * Matches remote addresses against trusted IPv4/IPv6 CIDR ranges.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Parse literal addresses and CIDR ranges once, at configuration time.
+ * 2) Store ranges in binary prefix tries, one per address family.
+ * 3) Match literal remote addresses without name resolution or allocation.
+ * </pre>
+ *
+ * <pre>
+ * Data contract:
+ * - Entries are "address" or "address/prefix"; host names are rejected.
+ * - IPv4 ranges also match their IPv4-mapped IPv6 form (::ffff:a.b.c.d).
+ * - Lookups walk at most 32 or 128 trie levels, so cost is bounded by the address width.
+ * </pre>
+ */
+/* default */ final class TrustedProxyMatcher {
+    /** Bit width of an IPv4 address. */
+    private static final int IPV4_BITS = 32;
+
+    /** Bit width of an IPv6 address. */
+    private static final int IPV6_BITS = 128;
+
+    /** Bit width of one IPv6 group. */
+    private static final int GROUP_BITS = 16;
+
+    /** Number of groups in an IPv6 address. */
+    private static final int IPV6_GROUPS = 8;
+
+    /** Groups per 64-bit half of an IPv6 address. */
+    private static final int HALF_GROUPS = 4;
+
+    /** High 64 bits of the IPv4-mapped IPv6 prefix ::ffff:0:0/96. */
+    private static final long MAPPED_HIGH = 0L;
+
+    /** Low-half marker of the IPv4-mapped IPv6 prefix ::ffff:0:0/96. */
+    private static final long MAPPED_LOW = 0xFFFFL << IPV4_BITS;
+
+    /** Marker for invalid parse results. */
+    private static final long INVALID = -1L;
+
+    /** Trie of trusted IPv4 ranges. */
+    private final Trie ipv4;
+
+    /** Trie of trusted IPv6 ranges. */
+    private final Trie ipv6;
+
+    /**
+     * Creates a matcher from built tries.
+     *
+     * @param ipv4 trusted IPv4 ranges
+     * @param ipv6 trusted IPv6 ranges
+     */
+    private TrustedProxyMatcher(final Trie ipv4, final Trie ipv6) {
+        this.ipv4 = ipv4;
+        this.ipv6 = ipv6;
+    }
+
+    /**
+     * Parses a comma-separated list of trusted addresses and CIDR ranges.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Split the value on commas and skip blank entries.
+     * 2) Split each entry into address literal and optional prefix length.
+     * 3) Insert IPv4 ranges into both tries (native and IPv4-mapped form).
+     * 4) Insert IPv6 ranges into the IPv6 trie.
+     * 5) Reject anything that is not an address literal with IllegalArgumentException.
+     * </pre>
+     *
+     * @param configured comma-separated entries, for example "10.0.0.0/8,::1"
+     * @return matcher
+     */
+    /* default */ static TrustedProxyMatcher parse(final String configured) {
+        final Trie ipv4 = new Trie();
+        final Trie ipv6 = new Trie();
+        final String raw = configured == null ? "" : configured;
+        for (final String token : raw.split(",")) {
+            final String entry = token.trim();
+            if (!entry.isEmpty()) {
+                addEntry(entry, ipv4, ipv6);
+            }
+        }
+        return new TrustedProxyMatcher(ipv4, ipv6);
+    }
+
+    /**
+     * Returns whether the matcher trusts no address at all.
+     *
+     * @return true when no range is configured
+     */
+    /* default */ boolean isEmpty() {
+        return ipv4.isEmpty() && ipv6.isEmpty();
+    }
+
+    /**
+     * Checks whether a remote address literal falls inside a trusted range.
+     *
+     * @param remoteAddr remote address from the container
+     * @return true when the address is trusted
+     */
+    /* default */ boolean matches(final String remoteAddr) {
+        return remoteAddr != null && matches(remoteAddr, 0, remoteAddr.length());
+    }
+
+    /**
+     * Checks whether an address literal inside a larger text falls inside a trusted range.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Strip surrounding whitespace, IPv6 brackets, and a zone suffix by index.
+     * 2) Parse IPv4 dotted-quad or IPv6 text directly into long values.
+     * 3) Walk the matching trie; any terminal node on the path is a hit.
+     * 4) Anything that is not a literal (for example a host name) is untrusted.
+     * </pre>
+     *
+     * @param text text holding the address, for example a forwarding header
+     * @param from first index of the address
+     * @param to index after the last character of the address
+     * @return true when the address is trusted
+     */
+    /* default */ boolean matches(final String text, final int from, final int to) {
+        int start = from;
+        int end = to;
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (end - start > 1 && text.charAt(start) == '[' && text.charAt(end - 1) == ']') {
+            start++;
+            end--;
+        }
+        final int zone = text.indexOf('%', start);
+        if (zone >= 0 && zone < end) {
+            end = zone;
+        }
+        return matchesLiteral(text, start, end);
+    }
+
+    /**
+     * Matches a stripped address literal.
+     *
+     * @param text source text
+     * @param start first index
+     * @param end index after the last character
+     * @return true when the literal is trusted
+     */
+    private boolean matchesLiteral(final String text, final int start, final int end) {
+        final int colon = text.indexOf(':', start);
+        boolean trusted = false;
+        if (colon >= 0 && colon < end) {
+            final int layout = ipv6Layout(text, start, end);
+            trusted = layout >= 0 && ipv6.matches(ipv6Half(text, start, end, layout, 0),
+                    ipv6Half(text, start, end, layout, HALF_GROUPS), IPV6_BITS);
+        } else {
+            final long address = parseIpv4(text, start, end);
+            trusted = address != INVALID && ipv4.matches(address << IPV4_BITS, 0L, IPV4_BITS);
+        }
+        return trusted;
+    }
+
+    /**
+     * Parses one configured entry and inserts it into the tries.
+     *
+     * @param entry trimmed entry
+     * @param ipv4 IPv4 trie
+     * @param ipv6 IPv6 trie
+     */
+    private static void addEntry(final String entry, final Trie ipv4, final Trie ipv6) {
+        final int slash = entry.indexOf('/');
+        final int end = slash < 0 ? entry.length() : slash;
+        final boolean isIpv6 = entry.indexOf(':') >= 0;
+        final int width = isIpv6 ? IPV6_BITS : IPV4_BITS;
+        final int prefix = slash < 0 ? width : parsePrefix(entry, slash + 1, width);
+        if (isIpv6) {
+            final int layout = ipv6Layout(entry, 0, end);
+            if (layout < 0) {
+                throw new IllegalArgumentException("Invalid trusted proxy address: " + entry);
+            }
+            ipv6.insert(ipv6Half(entry, 0, end, layout, 0),
+                    ipv6Half(entry, 0, end, layout, HALF_GROUPS), prefix);
+        } else {
+            final long address = parseIpv4(entry, 0, end);
+            if (address == INVALID) {
+                throw new IllegalArgumentException("Invalid trusted proxy address: " + entry);
+            }
+            ipv4.insert(address << IPV4_BITS, 0L, prefix);
+            ipv6.insert(MAPPED_HIGH, MAPPED_LOW | address, IPV6_BITS - IPV4_BITS + prefix);
+        }
+    }
+
+    /**
+     * Parses a CIDR prefix length.
+     *
+     * @param entry configured entry
+     * @param start index of the first prefix digit
+     * @param width address width in bits
+     * @return prefix length
+     */
+    private static int parsePrefix(final String entry, final int start, final int width) {
+        final long prefix = parseDecimal(entry, start, entry.length(), 3);
+        if (prefix == INVALID || prefix > width) {
+            throw new IllegalArgumentException("Invalid trusted proxy prefix: " + entry);
+        }
+        return (int) prefix;
+    }
+
+    /**
+     * Parses a dotted-quad IPv4 literal.
+     *
+     * @param text source text
+     * @param start first index
+     * @param end index after the last character
+     * @return unsigned 32-bit address, or INVALID
+     */
+    private static long parseIpv4(final String text, final int start, final int end) {
+        long address = 0L;
+        int index = start;
+        for (int octet = 0; octet < 4 && address != INVALID; octet++) {
+            int dot = index;
+            while (dot < end && text.charAt(dot) != '.') {
+                dot++;
+            }
+            final long value = parseDecimal(text, index, dot, 3);
+            final boolean lastOctet = octet == 3;
+            if (value == INVALID || value > 0xFF || lastOctet != (dot == end)) {
+                address = INVALID;
+            } else {
+                address = address << 8 | value;
+                index = dot + 1;
+            }
+        }
+        return address;
+    }
+
+    /**
+     * Parses a short unsigned decimal number.
+     *
+     * @param text source text
+     * @param start first index
+     * @param end index after the last digit
+     * @param maxDigits maximum number of digits
+     * @return parsed value, or INVALID
+     */
+    private static long parseDecimal(final String text, final int start, final int end,
+            final int maxDigits) {
+        long value = end > start && end - start <= maxDigits ? 0L : INVALID;
+        for (int index = start; index < end && value != INVALID; index++) {
+            final char current = text.charAt(index);
+            value = current >= '0' && current <= '9' ? value * 10 + current - '0' : INVALID;
+        }
+        return value;
+    }
+
+    /**
+     * Validates an IPv6 literal and describes its group layout.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Walk colon-separated groups of 1-4 hex digits.
+     * 2) Record where a single "::" gap appears.
+     * 3) Accept a trailing dotted IPv4 group as two 16-bit groups.
+     * 4) Require exactly 8 groups without a gap, or at most 7 with one.
+     * </pre>
+     *
+     * @param text source text
+     * @param start first index
+     * @param end index after the last character
+     * @return explicit group count in bits 0-7 and gap position + 1 in bits 8-15 (0 when there
+     *     is no gap), or -1 when invalid
+     */
+    private static int ipv6Layout(final String text, final int start, final int end) {
+        int groups = 0;
+        int gap = -1;
+        boolean valid = true;
+        int index = start;
+        if (end - start >= 2 && text.charAt(start) == ':' && text.charAt(start + 1) == ':') {
+            gap = 0;
+            index = start + 2;
+        }
+        while (valid && index < end) {
+            final int segmentEnd = segmentEnd(text, index, end);
+            if (segmentEnd == end && hasDot(text, index, end)) {
+                valid = parseIpv4(text, index, end) != INVALID;
+                groups += 2;
+                index = end;
+            } else {
+                valid = parseHexGroup(text, index, segmentEnd) != INVALID;
+                groups++;
+                index = segmentEnd + 1;
+                if (index < end && text.charAt(index) == ':') {
+                    valid &= gap < 0;
+                    gap = groups;
+                    index++;
+                } else {
+                    valid &= segmentEnd == end || index < end;
+                }
+            }
+        }
+        valid &= gap < 0 ? groups == IPV6_GROUPS : groups < IPV6_GROUPS;
+        return valid ? groups | (gap + 1) << 8 : -1;
+    }
+
+    /**
+     * Extracts one 64-bit half of a validated IPv6 literal.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Re-walk the groups, assigning each its final position (gap groups are zero).
+     * 2) Keep only groups whose position falls inside the requested half.
+     * </pre>
+     *
+     * @param text source text
+     * @param start first index
+     * @param end index after the last character
+     * @param layout result of ipv6Layout
+     * @param firstGroup 0 for the high half, 4 for the low half
+     * @return 64 bits of the address
+     */
+    private static long ipv6Half(final String text, final int start, final int end,
+            final int layout, final int firstGroup) {
+        final int groups = layout & 0xFF;
+        final int gap = (layout >>> 8) - 1;
+        long half = 0L;
+        int position = 0;
+        int explicit = 0;
+        int index = gap == 0 ? start + 2 : start;
+        while (index < end) {
+            if (explicit == gap) {
+                position += IPV6_GROUPS - groups;
+            }
+            final int segmentEnd = segmentEnd(text, index, end);
+            if (segmentEnd == end && hasDot(text, index, end)) {
+                final long address = parseIpv4(text, index, end);
+                half = placeGroup(half, position, firstGroup, address >>> GROUP_BITS);
+                half = placeGroup(half, position + 1, firstGroup, address & 0xFFFF);
+                index = end;
+            } else {
+                half = placeGroup(half, position, firstGroup,
+                        parseHexGroup(text, index, segmentEnd));
+                position++;
+                explicit++;
+                index = segmentEnd + 1;
+                if (index < end && text.charAt(index) == ':') {
+                    index++;
+                }
+            }
+        }
+        return half;
+    }
+
+    /**
+     * Places a 16-bit group into a 64-bit half when its position belongs there.
+     *
+     * @param half accumulated half
+     * @param position final group position (0-7)
+     * @param firstGroup first group position of the half
+     * @param value group value
+     * @return updated half
+     */
+    private static long placeGroup(final long half, final int position, final int firstGroup,
+            final long value) {
+        final int offset = position - firstGroup;
+        return offset >= 0 && offset < HALF_GROUPS
+                ? half | value << GROUP_BITS * (HALF_GROUPS - 1 - offset)
+                : half;
+    }
+
+    /**
+     * Parses one IPv6 group of 1-4 hex digits.
+     *
+     * @param text source text
+     * @param start first index
+     * @param end index after the last digit
+     * @return group value, or INVALID
+     */
+    private static long parseHexGroup(final String text, final int start, final int end) {
+        long value = end > start && end - start <= 4 ? 0L : INVALID;
+        for (int index = start; index < end && value != INVALID; index++) {
+            value = hexDigit(text.charAt(index), value);
+        }
+        return value;
+    }
+
+    /**
+     * Appends one ASCII hex digit to a group value.
+     *
+     * @param current candidate digit
+     * @param value value accumulated so far
+     * @return updated value, or INVALID when the character is not a hex digit
+     */
+    private static long hexDigit(final char current, final long value) {
+        final long digit;
+        if (current >= '0' && current <= '9') {
+            digit = current - '0';
+        } else if (current >= 'a' && current <= 'f') {
+            digit = current - 'a' + 10;
+        } else if (current >= 'A' && current <= 'F') {
+            digit = current - 'A' + 10;
+        } else {
+            digit = INVALID;
+        }
+        return digit == INVALID ? INVALID : value << 4 | digit;
+    }
+
+    /**
+     * Finds the end of the colon-separated segment starting at an index.
+     *
+     * @param text source text
+     * @param start first index
+     * @param end index after the last character
+     * @return index of the next colon, or end
+     */
+    private static int segmentEnd(final String text, final int start, final int end) {
+        int index = start;
+        while (index < end && text.charAt(index) != ':') {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Checks whether a range contains a dot.
+     *
+     * @param text source text
+     * @param start first index
+     * @param end index after the last character
+     * @return true when a dot is present
+     */
+    private static boolean hasDot(final String text, final int start, final int end) {
+        final int dot = text.indexOf('.', start);
+        return dot >= 0 && dot < end;
+    }
+
+    /**
+     * Binary prefix trie over up to 128 address bits.
+     *
+     * <pre>
+     * Data contract:
+     * - Node 0 is the root; child index 0 means "no child" because the root is never a child.
+     * - children[2n] and children[2n + 1] hold the 0 and 1 children of node n.
+     * - terminal[n] marks the end of a configured prefix.
+     * </pre>
+     */
+    private static final class Trie {
+        /** Initial node capacity. */
+        private static final int INITIAL_NODES = 16;
+
+        /** Child node indexes, two per node. */
+        private int[] children = new int[INITIAL_NODES * 2];
+
+        /** Prefix-end markers, one per node. */
+        private boolean[] terminal = new boolean[INITIAL_NODES];
+
+        /** Number of allocated nodes, including the root. */
+        private int size = 1;
+
+        /**
+         * Returns whether any prefix was inserted.
+         *
+         * @return true when the trie is empty
+         */
+        private boolean isEmpty() {
+            return size == 1 && !terminal[0];
+        }
+
+        /**
+         * Inserts a prefix given as left-aligned bits.
+         *
+         * @param high first 64 bits
+         * @param low next 64 bits
+         * @param prefix number of significant bits
+         */
+        private void insert(final long high, final long low, final int prefix) {
+            int node = 0;
+            for (int depth = 0; depth < prefix; depth++) {
+                final int slot = node * 2 + bitAt(high, low, depth);
+                int child = children[slot];
+                if (child == 0) {
+                    child = allocate();
+                    children[slot] = child;
+                }
+                node = child;
+            }
+            terminal[node] = true;
+        }
+
+        /**
+         * Checks whether any inserted prefix covers the given bits.
+         *
+         * @param high first 64 bits
+         * @param low next 64 bits
+         * @param width number of address bits
+         * @return true when a covering prefix exists
+         */
+        private boolean matches(final long high, final long low, final int width) {
+            int node = 0;
+            boolean hit = terminal[0];
+            for (int depth = 0; !hit && node >= 0 && depth < width; depth++) {
+                final int child = children[node * 2 + bitAt(high, low, depth)];
+                node = child == 0 ? -1 : child;
+                hit = node >= 0 && terminal[node];
+            }
+            return hit;
+        }
+
+        /**
+         * Allocates a node, growing storage when needed.
+         *
+         * @return new node index
+         */
+        private int allocate() {
+            if (size == terminal.length) {
+                terminal = Arrays.copyOf(terminal, size * 2);
+                children = Arrays.copyOf(children, size * 4);
+            }
+            return size++;
+        }
+
+        /**
+         * Reads one bit of a left-aligned 128-bit value.
+         *
+         * @param high first 64 bits
+         * @param low next 64 bits
+         * @param depth bit position, 0 being the most significant
+         * @return 0 or 1
+         */
+        private static int bitAt(final long high, final long low, final int depth) {
+            final long word = depth < 64 ? high : low;
+            return (int) (word >>> (63 - (depth & 63))) & 1;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.metrics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Concurrent map of metric series with a fixed upper bound on distinct keys.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Create series lazily on first use, without locks for series that already exist.
+ * 2) Route new keys to one overflow series once MAX_SERIES is reached, so unmatched or
+ *    hostile routes cannot grow memory.
+ * </pre>
+ *
+ * <pre>
+ * Data contract:
+ * - The size check and the insert are not atomic; racing writers may exceed MAX_SERIES by at
+ *   most the number of concurrent first-time keys, plus the overflow series.
+ * </pre>
+ *
+ * @param <K> series key type
+ * @param <V> series type
+ */
+/* default */ final class BoundedSeriesMap<K, V> {
+    /** Maximum number of distinct series; further series share the overflow series. */
+    /* default */ static final int MAX_SERIES = 256;
+
+    /** Series by key. */
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+
+    /** Key of the series that absorbs new keys once MAX_SERIES is reached. */
+    private final K overflow;
+
+    /** Creates a series for its key. */
+    private final Function<K, V> factory;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param overflow key of the overflow series
+     * @param factory creates a series for its key
+     */
+    /* default */ BoundedSeriesMap(final K overflow, final Function<K, V> factory) {
+        this.overflow = overflow;
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the series for a key, creating it when needed.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Return the existing series without locking.
+     * 2) Create the series while under MAX_SERIES, otherwise use the overflow series.
+     * </pre>
+     *
+     * @param key series key
+     * @return series for the key, or the overflow series
+     */
+    /* default */ V getOrCreate(final K key) {
+        V target = entries.get(key);
+        if (target == null) {
+            target = entries.size() < MAX_SERIES ? entries.computeIfAbsent(key, factory)
+                    : entries.computeIfAbsent(overflow, factory);
+        }
+        return target;
+    }
+
+    /**
+     * Returns a live view of every series.
+     *
+     * @return series, in no particular order
+     */
+    /* default */ Collection<V> values() {
+        return entries.values();
+    }
+
+    /**
+     * Returns the number of series.
+     *
+     * @return series count, including the overflow series once created
+     */
+    /* default */ int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.metrics;
+
+/**
+ * Error counters of one (error code, status, route) series.
+ *
+ * <pre>
+ * Data contract:
+ * 1) route is the matched handler pattern, or "unmatched", not the raw request path.
+ * 2) total counts errors since the series was created.
+ * 3) window counts errors in the last 60 seconds; perSecond is window divided by 60.
+ * </pre>
+ *
+ * @param code error code
+ * @param status HTTP status
+ * @param route matched route pattern
+ * @param total errors since the series was created
+ * @param window errors in the sliding window
+ * @param perSecond average errors per second over the sliding window
+ */
+public record ErrorSeries(String code, int status, String route, long total, long window,
+        double perSecond) {}
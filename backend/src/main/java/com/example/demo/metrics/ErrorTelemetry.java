@@ -0,0 +1,215 @@
+package com.example.demo.metrics;
+
+import com.example.demo.trace.RequestContext;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts error responses per (error code, status, route) series.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Count errors on striped LongAdder counters without locks on the request path.
+ * 2) Keep a sliding window of per-second buckets for a recent error rate per series.
+ * 3) Bound the number of series so unmatched or hostile routes cannot grow memory.
+ * </pre>
+ */
+@Component
+public class ErrorTelemetry {
+    /** Length of the sliding window in seconds, one bucket per second. */
+    /* default */ static final int WINDOW_SECONDS = 60;
+
+    /** Key of the series that absorbs errors once the series bound is reached. */
+    private static final SeriesKey OVERFLOW = new SeriesKey("*", 0, "overflow");
+
+    /** Milliseconds per second. */
+    private static final long MILLIS_PER_SECOND = 1000L;
+
+    /** Series by key, bounded by BoundedSeriesMap.MAX_SERIES. */
+    private final BoundedSeriesMap<SeriesKey, Series> series =
+            new BoundedSeriesMap<>(OVERFLOW, Series::new);
+
+    /** Millisecond clock. */
+    private final LongSupplier clock;
+
+    /** Creates telemetry on the system clock. */
+    public ErrorTelemetry() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * Creates telemetry.
+     *
+     * @param clock millisecond clock
+     */
+    /* default */ ErrorTelemetry(final LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Records one error response for the matched route of a request.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Resolve the route with RequestContext.routeOf(...), the resolver shared with the
+     *    latency metrics.
+     * 2) Record the error under that route.
+     * </pre>
+     *
+     * @param code error code
+     * @param status HTTP status
+     * @param request current request
+     */
+    public void record(final String code, final int status, final HttpServletRequest request) {
+        record(code, status, RequestContext.routeOf(request));
+    }
+
+    /**
+     * Records one error response.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Look up the series; the bounded map falls back to OVERFLOW when full.
+     * 2) Increment its total and its bucket for the current second.
+     * </pre>
+     *
+     * @param code error code
+     * @param status HTTP status
+     * @param route matched route pattern
+     */
+    public void record(final String code, final int status, final String route) {
+        series.getOrCreate(new SeriesKey(code, status, route))
+                .record(Math.floorDiv(clock.getAsLong(), MILLIS_PER_SECOND));
+    }
+
+    /**
+     * Returns the counters of every series.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Sum each series' total and the buckets of the last WINDOW_SECONDS seconds.
+     * 2) Return series ordered by route, code, and status.
+     * </pre>
+     *
+     * @return error series
+     */
+    public List<ErrorSeries> snapshot() {
+        final long second = Math.floorDiv(clock.getAsLong(), MILLIS_PER_SECOND);
+        final List<ErrorSeries> result = new ArrayList<>(series.size());
+        for (final Series entry : series.values()) {
+            result.add(entry.snapshot(second));
+        }
+        result.sort(Comparator.comparing(ErrorSeries::route).thenComparing(ErrorSeries::code)
+                .thenComparingInt(ErrorSeries::status));
+        return result;
+    }
+
+    /**
+     * Series identity.
+     *
+     * @param code error code
+     * @param status HTTP status
+     * @param route matched route pattern
+     */
+    private record SeriesKey(String code, int status, String route) {}
+
+    /**
+     * Counters of one series.
+     *
+     * <pre>
+     * Responsibilities:
+     * 1) Count every error on a LongAdder total.
+     * 2) Count recent errors in a ring of per-second buckets; a bucket from an older
+     *    second is replaced with CAS, so writers never block each other.
+     * </pre>
+     */
+    private static final class Series {
+        /** Series identity. */
+        private final SeriesKey key;
+
+        /** Errors since the series was created. */
+        private final LongAdder total = new LongAdder();
+
+        /** Per-second buckets indexed by second modulo WINDOW_SECONDS. */
+        private final AtomicReferenceArray<Bucket> buckets =
+                new AtomicReferenceArray<>(WINDOW_SECONDS);
+
+        /**
+         * Creates a series.
+         *
+         * @param key series identity
+         */
+        private Series(final SeriesKey key) {
+            this.key = key;
+        }
+
+        /**
+         * Records one error.
+         *
+         * <pre>
+         * Algorithm:
+         * 1) Increment the total.
+         * 2) Replace the slot's bucket while it belongs to an older second.
+         * 3) Increment the bucket when it is for this second; a writer delayed past a newer
+         *    bucket only counts toward the total.
+         * </pre>
+         *
+         * @param second current epoch second
+         */
+        private void record(final long second) {
+            total.increment();
+            final int index = (int) Math.floorMod(second, WINDOW_SECONDS);
+            Bucket bucket = buckets.get(index);
+            while (bucket == null || bucket.second < second) {
+                final Bucket fresh = new Bucket(second);
+                bucket = buckets.compareAndSet(index, bucket, fresh) ? fresh : buckets.get(index);
+            }
+            if (bucket.second == second) {
+                bucket.count.increment();
+            }
+        }
+
+        /**
+         * Summarizes the series.
+         *
+         * @param second current epoch second
+         * @return error series
+         */
+        private ErrorSeries snapshot(final long second) {
+            long window = 0;
+            for (int index = 0; index < WINDOW_SECONDS; index++) {
+                final Bucket bucket = buckets.get(index);
+                if (bucket != null && bucket.second > second - WINDOW_SECONDS
+                        && bucket.second <= second) {
+                    window += bucket.count.sum();
+                }
+            }
+            return new ErrorSeries(key.code(), key.status(), key.route(), total.sum(), window,
+                    (double) window / WINDOW_SECONDS);
+        }
+    }
+
+    /** Errors counted in one second. */
+    private static final class Bucket {
+        /** Epoch second of the bucket. */
+        private final long second;
+
+        /** Errors in this second. */
+        private final LongAdder count = new LongAdder();
+
+        /**
+         * Creates an empty bucket.
+         *
+         * @param second epoch second
+         */
+        private Bucket(final long second) {
+            this.second = second;
+        }
+    }
+}
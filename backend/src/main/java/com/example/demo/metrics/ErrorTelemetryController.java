@@ -0,0 +1,46 @@
+package com.example.demo.metrics;
+
+import java.util.List;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Exposes error counters.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Serve per-code, per-status, and per-route error counts and recent rates under the
+ *    /actuator prefix, which the access-log filter neither logs nor measures.
+ * 2) Read counters without resetting them, so concurrent readers see the same values.
+ * </pre>
+ */
+@RestController
+public class ErrorTelemetryController {
+    /** Error telemetry. */
+    private final ErrorTelemetry telemetry;
+
+    /**
+     * Creates the controller.
+     *
+     * @param telemetry error telemetry
+     */
+    public ErrorTelemetryController(final ErrorTelemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    /**
+     * Returns error counters.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Snapshot every series; window values cover the last 60 seconds.
+     * 2) Return series ordered by route, code, and status.
+     * </pre>
+     *
+     * @return error series
+     */
+    @GetMapping("/actuator/errors")
+    public List<ErrorSeries> errors() {
+        return telemetry.snapshot();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.metrics;
+
+import java.util.List;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Exposes recorded request latencies.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Serve per-route and per-status latency percentiles under the /actuator prefix,
+ *    which the access-log filter neither logs nor measures.
+ * 2) Rotate interval histograms on each call.
+ * </pre>
+ */
+@RestController
+public class LatencyController {
+    /** Latency recorder. */
+    private final LatencyRecorder recorder;
+
+    /**
+     * Creates the controller.
+     *
+     * @param recorder latency recorder
+     */
+    public LatencyController(final LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Returns latency percentiles in nanoseconds.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Snapshot every series; interval values cover requests since the previous call.
+     * 2) Return series ordered by route, method, and status.
+     * </pre>
+     *
+     * @return latency series
+     */
+    @GetMapping("/actuator/latency")
+    public List<LatencySeries> latency() {
+        return recorder.snapshot();
+    }
+}
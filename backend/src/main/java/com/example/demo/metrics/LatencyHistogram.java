@@ -0,0 +1,158 @@
+package com.example.demo.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear latency histogram in nanoseconds, in the style of HdrHistogram.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Record values with wait-free atomic increments and a bounded relative error (~3%).
+ * 2) Track the exact maximum recorded value.
+ * 3) Derive percentiles by walking bucket counts.
+ * </pre>
+ */
+/* default */ final class LatencyHistogram {
+    /** Largest trackable value; larger values are clamped (about 68.7 seconds). */
+    /* default */ static final long MAX_TRACKABLE_NANOS = (1L << 36) - 1;
+
+    /** Bits of precision kept below the most significant bit. */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /** Number of buckets needed to cover [0, MAX_TRACKABLE_NANOS]. */
+    private static final int BUCKET_COUNT = indexOf(MAX_TRACKABLE_NANOS) + 1;
+
+    /** Count per bucket. */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /** Maximum recorded value. */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one value.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Clamp the value into [0, MAX_TRACKABLE_NANOS].
+     * 2) Increment the bucket count.
+     * 3) Raise the maximum only when the value exceeds it.
+     * </pre>
+     *
+     * @param nanos latency in nanoseconds
+     */
+    /* default */ void record(final long nanos) {
+        final long value = Math.min(MAX_TRACKABLE_NANOS, Math.max(0L, nanos));
+        counts.incrementAndGet(indexOf(value));
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Adds all counts of another histogram to this one.
+     *
+     * @param other histogram to add
+     */
+    /* default */ void add(final LatencyHistogram other) {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            final long count = other.counts.get(index);
+            if (count != 0L) {
+                counts.addAndGet(index, count);
+            }
+        }
+        final long otherMax = other.max.get();
+        long current = max.get();
+        while (otherMax > current && !max.compareAndSet(current, otherMax)) {
+            current = max.get();
+        }
+    }
+
+    /** Clears all counts and the maximum. */
+    /* default */ void reset() {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            counts.set(index, 0L);
+        }
+        max.set(0L);
+    }
+
+    /**
+     * Summarizes the histogram.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Sum bucket counts.
+     * 2) Resolve p50/p90/p99/p999 as the highest value equivalent to the bucket that
+     *    reaches each rank, capped at the exact maximum.
+     * </pre>
+     *
+     * @return summary in nanoseconds
+     */
+    /* default */ LatencySummary summary() {
+        long total = 0L;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            total += counts.get(index);
+        }
+        final long maxValue = max.get();
+        return new LatencySummary(total, percentile(0.50d, total, maxValue),
+                percentile(0.90d, total, maxValue), percentile(0.99d, total, maxValue),
+                percentile(0.999d, total, maxValue), total == 0L ? 0L : maxValue);
+    }
+
+    /**
+     * Returns the value at the given quantile.
+     *
+     * @param quantile quantile in (0, 1]
+     * @param total total count
+     * @param maxValue exact maximum
+     * @return value in nanoseconds, or 0 when empty
+     */
+    private long percentile(final double quantile, final long total, final long maxValue) {
+        long value = 0L;
+        if (total > 0L) {
+            final long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+            long seen = 0L;
+            int index = 0;
+            while (index < BUCKET_COUNT) {
+                seen += counts.get(index);
+                if (seen >= rank) {
+                    break;
+                }
+                index++;
+            }
+            value = Math.min(maxValue, highestEquivalentValue(index));
+        }
+        return value;
+    }
+
+    /**
+     * Maps a value to its bucket index.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Values below 2^(SUB_BUCKET_BITS + 1) map one-to-one.
+     * 2) Larger values keep SUB_BUCKET_BITS + 1 significant bits; the shift selects the
+     *    magnitude and the remaining bits select the linear sub-bucket.
+     * </pre>
+     *
+     * @param value non-negative value
+     * @return bucket index
+     */
+    /* default */ static int indexOf(final long value) {
+        final int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the largest value that maps to the given bucket.
+     *
+     * @param index bucket index
+     * @return highest equivalent value
+     */
+    /* default */ static long highestEquivalentValue(final int index) {
+        final int shift = Math.max(0, (index >> SUB_BUCKET_BITS) - 1);
+        final long lowest = (long) (index - (shift << SUB_BUCKET_BITS)) << shift;
+        return lowest + (1L << shift) - 1L;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writer/reader phaser that lets a reader swap buffers under wait-free writers.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Writers enter and exit a critical section with one atomic increment each.
+ * 2) The reader flips the phase and waits until every writer of the old phase has exited.
+ * 3) Follow the WriterReaderPhaser protocol used by HdrHistogram recorders.
+ * </pre>
+ */
+/* default */ final class LatencyPhaser {
+    /** Park time while waiting for writers of the previous phase. */
+    private static final long FLIP_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+
+    /** Start counter; its sign encodes the current phase. */
+    private final AtomicLong startEpoch = new AtomicLong();
+
+    /** Exit counter for writers that entered in the even phase. */
+    private final AtomicLong evenEndEpoch = new AtomicLong();
+
+    /** Exit counter for writers that entered in the odd phase. */
+    private final AtomicLong oddEndEpoch = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Enters a writer critical section.
+     *
+     * @return token to pass to writerExit(...)
+     */
+    /* default */ long writerEnter() {
+        return startEpoch.getAndIncrement();
+    }
+
+    /**
+     * Exits a writer critical section.
+     *
+     * @param token value returned by writerEnter()
+     */
+    /* default */ void writerExit(final long token) {
+        if (token < 0L) {
+            oddEndEpoch.getAndIncrement();
+        } else {
+            evenEndEpoch.getAndIncrement();
+        }
+    }
+
+    /**
+     * Flips the phase and waits for writers of the previous phase to exit.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Reset the exit counter of the next phase to its start value.
+     * 2) Swap the start counter to the next phase, capturing how many writers entered.
+     * 3) Park until the previous phase's exit counter catches up.
+     * </pre>
+     *
+     * <p>Callers must serialize flips; writers never block.</p>
+     */
+    /* default */ void flipPhase() {
+        final boolean nextPhaseIsEven = startEpoch.get() < 0L;
+        final long initialStartValue = nextPhaseIsEven ? 0L : Long.MIN_VALUE;
+        (nextPhaseIsEven ? evenEndEpoch : oddEndEpoch).set(initialStartValue);
+        final long startValueAtFlip = startEpoch.getAndSet(initialStartValue);
+        final AtomicLong previousEnd = nextPhaseIsEven ? oddEndEpoch : evenEndEpoch;
+        while (previousEnd.get() != startValueAtFlip) {
+            LockSupport.parkNanos(FLIP_PARK_NANOS);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.demo.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records request latencies per (method, route, status) series.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Record nanosecond latencies without locks on the request path.
+ * 2) Double-buffer each series so snapshots read a stable interval histogram.
+ * 3) Bound the number of series so unmatched or hostile routes cannot grow memory.
+ * </pre>
+ */
+@Component
+public class LatencyRecorder {
+    /** Key of the series that absorbs requests once the series bound is reached. */
+    private static final SeriesKey OVERFLOW = new SeriesKey("*", "overflow", 0);
+
+    /** Series by key, bounded by BoundedSeriesMap.MAX_SERIES. */
+    private final BoundedSeriesMap<SeriesKey, Series> series =
+            new BoundedSeriesMap<>(OVERFLOW, Series::new);
+
+    /**
+     * Records one request latency.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Look up the series; the bounded map falls back to OVERFLOW when full.
+     * 2) Record into the series' active histogram.
+     * </pre>
+     *
+     * @param method HTTP method
+     * @param route matched route pattern
+     * @param status final HTTP status
+     * @param nanos latency in nanoseconds
+     */
+    public void record(final String method, final String route, final int status,
+            final long nanos) {
+        series.getOrCreate(new SeriesKey(method, route, status)).record(nanos);
+    }
+
+    /**
+     * Rotates every series and returns its interval and cumulative summaries.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Swap each series' active and inactive histograms.
+     * 2) Summarize the finished interval and fold it into the cumulative histogram.
+     * 3) Return series ordered by route, method, and status.
+     * </pre>
+     *
+     * @return latency series
+     */
+    public List<LatencySeries> snapshot() {
+        final List<LatencySeries> result = new ArrayList<>(series.size());
+        for (final Series entry : series.values()) {
+            result.add(entry.snapshot());
+        }
+        result.sort(Comparator.comparing(LatencySeries::route).thenComparing(LatencySeries::method)
+                .thenComparingInt(LatencySeries::status));
+        return result;
+    }
+
+    /**
+     * Series identity.
+     *
+     * @param method HTTP method
+     * @param route matched route pattern
+     * @param status HTTP status
+     */
+    private record SeriesKey(String method, String route, int status) {}
+
+    /**
+     * Double-buffered histogram pair for one series.
+     *
+     * <pre>
+     * Responsibilities:
+     * 1) Writers record into the active histogram inside a phaser critical section.
+     * 2) The reader swaps buffers, flips the phaser, and reads the retired buffer alone.
+     * 3) Keep a cumulative histogram updated only by the reader.
+     * 4) Serialize readers with a ReentrantLock instead of synchronized, because the phase flip
+     *    parks and a virtual thread parked inside synchronized pins its carrier on Java 21.
+     * </pre>
+     */
+    private static final class Series {
+        /** Series identity. */
+        private final SeriesKey key;
+
+        /** Phaser guarding buffer swaps. */
+        private final LatencyPhaser phaser = new LatencyPhaser();
+
+        /** Lock serializing snapshots. */
+        private final ReentrantLock snapshotLock = new ReentrantLock();
+
+        /** Cumulative histogram. */
+        private final LatencyHistogram total = new LatencyHistogram();
+
+        /** Histogram currently written by request threads. */
+        private volatile LatencyHistogram active = new LatencyHistogram();
+
+        /** Histogram holding the last finished interval. */
+        private LatencyHistogram inactive = new LatencyHistogram();
+
+        /**
+         * Creates a series.
+         *
+         * @param key series identity
+         */
+        private Series(final SeriesKey key) {
+            this.key = key;
+        }
+
+        /**
+         * Records one value into the active histogram.
+         *
+         * @param nanos latency in nanoseconds
+         */
+        private void record(final long nanos) {
+            final long token = phaser.writerEnter();
+            try {
+                active.record(nanos);
+            } finally {
+                phaser.writerExit(token);
+            }
+        }
+
+        /**
+         * Ends the current interval and summarizes it.
+         *
+         * @return interval and cumulative summaries
+         */
+        private LatencySeries snapshot() {
+            snapshotLock.lock();
+            try {
+                final LatencyHistogram next = inactive;
+                next.reset();
+                inactive = active;
+                active = next;
+                phaser.flipPhase();
+                total.add(inactive);
+                return new LatencySeries(key.method(), key.route(), key.status(),
+                        inactive.summary(), total.summary());
+            } finally {
+                snapshotLock.unlock();
+            }
+        }
+    }
+}
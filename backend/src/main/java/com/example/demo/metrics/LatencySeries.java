@@ -0,0 +1,20 @@
+package com.example.demo.metrics;
+
+/**
+ * Latency summaries of one (method, route, status) series.
+ *
+ * <pre>
+ * Data contract:
+ * 1) route is the matched handler pattern, not the raw request path.
+ * 2) interval covers requests since the previous snapshot.
+ * 3) total covers all requests since the series was created.
+ * </pre>
+ *
+ * @param method HTTP method
+ * @param route matched route pattern
+ * @param status HTTP status
+ * @param interval summary since the previous snapshot
+ * @param total cumulative summary
+ */
+public record LatencySeries(String method, String route, int status, LatencySummary interval,
+        LatencySummary total) {}
@@ -0,0 +1,20 @@
+package com.example.demo.metrics;
+
+/**
+ * Latency percentiles of one histogram.
+ *
+ * <pre>
+ * Data contract:
+ * 1) count is the number of recorded requests.
+ * 2) Percentiles and max are in nanoseconds; all values are 0 when count is 0.
+ * 3) Percentiles carry the histogram's bounded relative error; max is exact.
+ * </pre>
+ *
+ * @param count number of recorded requests
+ * @param p50 median latency
+ * @param p90 90th percentile latency
+ * @param p99 99th percentile latency
+ * @param p999 99.9th percentile latency
+ * @param max maximum latency
+ */
+public record LatencySummary(long count, long p50, long p90, long p99, long p999, long max) {}
@@ -0,0 +1,266 @@
+package com.example.demo.trace;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.function.Function;
+import org.slf4j.MDC;
+import org.slf4j.spi.MDCAdapter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Per-request context exposing the trace id, client IP, and route of the request being handled.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Bind one immutable context per request for the extent of a strictly nested scope.
+ * 2) Expose traceId, clientIp, and route without copying the MDC map.
+ * 3) Mirror the trace id into MDC under traceId, the key the logback encoders read.
+ * 4) Own MDC hygiene for request and logging threads: a scope opened on an empty MDC clears
+ *    it on close, so keys a handler leaves behind do not reach the next request.
+ * 5) Resolve the route pattern for the latency and error metrics, so every series uses the
+ *    same key and the same UNMATCHED_ROUTE fallback.
+ * </pre>
+ *
+ * <pre>
+ * Design note:
+ * 1) ScopedValue is still a preview API on the Java 21 toolchain, so the binding is a
+ *    ThreadLocal used with the same discipline: open() binds, Scope.close() restores the
+ *    enclosing binding, and the outermost close() removes the entry so pooled and virtual
+ *    threads keep nothing after the request.
+ * 2) No MDC map is copied or restored per request. A scope opened on a non-empty MDC is
+ *    nested in someone else's logging context, so it restores only traceId and leaves the
+ *    other keys to their owner.
+ * 3) The context reads the live request; it must not be used after the request completes.
+ * </pre>
+ */
+public final class RequestContext {
+    /** Route reported for requests that no handler pattern matched. */
+    public static final String UNMATCHED_ROUTE = "unmatched";
+
+    /** Context bound to the current thread, or no entry outside a scope. */
+    private static final ThreadLocal<RequestContext> CURRENT = new ThreadLocal<>();
+
+    /** Trace id of the request. */
+    private final String trace;
+
+    /** Request the context describes. */
+    private final HttpServletRequest request;
+
+    /** Resolves the client IP of the request; applied lazily. */
+    private final Function<HttpServletRequest, String> clientIpResolver;
+
+    /**
+     * Creates a context for one request.
+     *
+     * @param traceId trace id of the request
+     * @param request request the context describes
+     * @param clientIpResolver resolves the client IP of the request
+     */
+    public RequestContext(final String traceId, final HttpServletRequest request,
+            final Function<HttpServletRequest, String> clientIpResolver) {
+        this.trace = traceId;
+        this.request = request;
+        this.clientIpResolver = clientIpResolver;
+    }
+
+    /**
+     * Returns the context bound to the current thread.
+     *
+     * @return bound context, or null outside a request scope
+     */
+    public static RequestContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Returns the trace id of the current thread.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Use the bound context when there is one.
+     * 2) Otherwise read MDC, which covers threads that only carry the logging context, such as
+     *    async completion callbacks and executor tasks.
+     * </pre>
+     *
+     * @return trace id, or null when none is bound
+     */
+    public static String currentTraceId() {
+        final RequestContext context = CURRENT.get();
+        return context == null ? MDC.get(TraceIdResolver.TRACE_ID_MDC_KEY) : context.trace;
+    }
+
+    /**
+     * Binds this context to the current thread until the returned scope is closed.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Remember the enclosing context, the enclosing MDC trace id, and whether MDC was empty.
+     * 2) Bind this context and put its trace id into MDC.
+     * </pre>
+     *
+     * @return scope to close, in the same thread, when the request leaves it
+     */
+    public Scope open() {
+        final Scope scope = new Scope(true, CURRENT.get(), trace);
+        CURRENT.set(this);
+        return scope;
+    }
+
+    /**
+     * Binds only an MDC trace id until the returned scope is closed.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Remember the enclosing MDC trace id and whether MDC was empty.
+     * 2) Put the trace id into MDC; the bound context, if any, is left as it is.
+     * </pre>
+     *
+     * <pre>
+     * Design note:
+     * 1) For threads that log on behalf of a request without handling it, such as the
+     *    access-log writer, where the request itself may already be recycled.
+     * </pre>
+     *
+     * @param traceId trace id to log with
+     * @return scope to close, in the same thread, when done logging
+     */
+    public static Scope openTraceId(final String traceId) {
+        return new Scope(false, null, traceId);
+    }
+
+    /**
+     * Returns whether an MDC adapter holds no entries for the current thread.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Ask the adapter for a copy of its context map.
+     * 2) Treat a missing or empty map as empty.
+     * </pre>
+     *
+     * <pre>
+     * Design note:
+     * 1) Scopes open on an empty MDC on request and writer threads, because the outermost
+     *    scope clears MDC on close. Logback returns null for an empty MDC without copying, so
+     *    only scopes nested in someone else's logging context pay for a copy.
+     * </pre>
+     *
+     * @param adapter MDC adapter
+     * @return true when there are no MDC entries
+     */
+    /* default */ static boolean isEmpty(final MDCAdapter adapter) {
+        final Map<String, String> entries = adapter.getCopyOfContextMap();
+        return entries == null || entries.isEmpty();
+    }
+
+    /**
+     * Resolves the matched route pattern of a request.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Read the best-matching handler pattern set by Spring MVC.
+     * 2) Fall back to UNMATCHED_ROUTE so raw paths never become metric or series keys.
+     * </pre>
+     *
+     * @param request current request
+     * @return route pattern, or UNMATCHED_ROUTE
+     */
+    public static String routeOf(final HttpServletRequest request) {
+        final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern instanceof String route ? route : UNMATCHED_ROUTE;
+    }
+
+    /**
+     * Returns the trace id of the request.
+     *
+     * @return trace id
+     */
+    public String traceId() {
+        return trace;
+    }
+
+    /**
+     * Returns the client IP of the request.
+     *
+     * @return client IP resolved through the configured resolver
+     */
+    public String clientIp() {
+        return clientIpResolver.apply(request);
+    }
+
+    /**
+     * Returns the matched route pattern of the request.
+     *
+     * @return route pattern, or UNMATCHED_ROUTE before handler mapping has matched the request
+     */
+    public String route() {
+        return routeOf(request);
+    }
+
+    /**
+     * Binding of a context, restoring the enclosing one on close.
+     *
+     * <pre>
+     * Data contract:
+     * - Scopes are strictly nested and closed by the thread that opened them.
+     * - Closing twice restores the same enclosing state again.
+     * </pre>
+     */
+    public static final class Scope implements AutoCloseable {
+        /** Whether the scope bound a context and must restore the enclosing one. */
+        private final boolean bound;
+
+        /** Context bound before this scope opened, or null. */
+        private final RequestContext prior;
+
+        /** MDC trace id before this scope opened, or null. */
+        private final String priorTraceId;
+
+        /** Whether MDC was empty when this scope opened. */
+        private final boolean mdcWasEmpty;
+
+        /**
+         * Records the enclosing state and puts the trace id into MDC.
+         *
+         * @param bound whether the caller binds a context
+         * @param prior enclosing context, or null
+         * @param traceId trace id to put into MDC
+         */
+        private Scope(final boolean bound, final RequestContext prior, final String traceId) {
+            this.bound = bound;
+            this.prior = prior;
+            this.priorTraceId = MDC.get(TraceIdResolver.TRACE_ID_MDC_KEY);
+            this.mdcWasEmpty = isEmpty(MDC.getMDCAdapter());
+            MDC.put(TraceIdResolver.TRACE_ID_MDC_KEY, traceId);
+        }
+
+        /**
+         * Restores the enclosing context and MDC.
+         *
+         * <pre>
+         * Algorithm:
+         * 1) When a context was bound, rebind the enclosing one, or remove the thread-local
+         *    entry when there was none.
+         * 2) Clear MDC when it was empty on entry, including keys added inside the scope.
+         * 3) Otherwise put back the enclosing MDC trace id, or remove the key when there was
+         *    none.
+         * </pre>
+         */
+        @Override
+        public void close() {
+            if (bound) {
+                if (prior == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(prior);
+                }
+            }
+            if (mdcWasEmpty) {
+                MDC.clear();
+            } else if (priorTraceId == null) {
+                MDC.remove(TraceIdResolver.TRACE_ID_MDC_KEY);
+            } else {
+                MDC.put(TraceIdResolver.TRACE_ID_MDC_KEY, priorTraceId);
+            }
+        }
+    }
+}
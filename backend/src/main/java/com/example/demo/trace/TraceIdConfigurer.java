@@ -0,0 +1,42 @@
+package com.example.demo.trace;
+
+import com.example.demo.StaticSettingConfigurer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the configured trace-id format to TraceIdResolver.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Bind app.trace.id-format (RANDOM or TIME_ORDERED).
+ * 2) Install the matching generator for every static resolver caller.
+ * 3) Restore the RANDOM format when the context closes.
+ * </pre>
+ */
+@Component
+public class TraceIdConfigurer extends StaticSettingConfigurer {
+    /**
+     * Configures the trace-id format.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Read the format from configuration (default RANDOM).
+     * 2) Install it as the resolver's generator.
+     * </pre>
+     *
+     * @param format trace-id format
+     */
+    @Value("${app.trace.id-format:RANDOM}")
+    /* default */ void setIdFormat(final TraceIdFormat format) {
+        TraceIdResolver.setGenerator(format);
+    }
+
+    /**
+     * Reinstalls the RANDOM format.
+     */
+    @Override
+    protected void restoreDefault() {
+        TraceIdResolver.setGenerator(TraceIdFormat.RANDOM);
+    }
+}
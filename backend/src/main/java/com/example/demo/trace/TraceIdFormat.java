@@ -0,0 +1,37 @@
+package com.example.demo.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Built-in trace-id generators.
+ *
+ * <pre>
+ * Values:
+ * 1) RANDOM uses 128 bits from the calling thread's ThreadLocalRandom.
+ * 2) TIME_ORDERED puts epoch milliseconds in the leading 48 bits so ids sort by creation time.
+ * 3) Both render 32 lowercase hex characters that are valid W3C trace-ids (never all zero).
+ * </pre>
+ *
+ * <p>These ids are not secrets: ThreadLocalRandom avoids the contended SecureRandom behind
+ * UUID.randomUUID() but is not cryptographically strong.</p>
+ */
+public enum TraceIdFormat implements TraceIdGenerator {
+    /** 128 random bits. */
+    RANDOM {
+        @Override
+        public String nextTraceId() {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            return TraceIds.toHex(random.nextLong(), random.nextLong());
+        }
+    },
+
+    /** 48-bit millisecond timestamp followed by 80 random bits. */
+    TIME_ORDERED {
+        @Override
+        public String nextTraceId() {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            final long high = System.currentTimeMillis() << 16 | random.nextLong() & 0xFFFFL;
+            return TraceIds.toHex(high, random.nextLong());
+        }
+    }
+}
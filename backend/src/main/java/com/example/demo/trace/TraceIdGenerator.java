@@ -0,0 +1,21 @@
+package com.example.demo.trace;
+
+/**
+ * Source of new trace identifiers.
+ *
+ * <pre>
+ * Contract:
+ * 1) Return a non-blank identifier for every call.
+ * 2) Be safe to call concurrently from request threads.
+ * 3) Prefer 32 lowercase hex characters so ids can double as W3C trace-ids.
+ * </pre>
+ */
+@FunctionalInterface
+public interface TraceIdGenerator {
+    /**
+     * Generates a trace identifier.
+     *
+     * @return new trace id
+     */
+    String nextTraceId();
+}
@@ -0,0 +1,113 @@
+package com.example.demo.trace;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.util.StringUtils;
+
+/**
+ * Single source of request trace ids for access logging and error responses.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Resolve the trace id from the request context, X-Request-Id, or a W3C traceparent
+ *    header, in that order.
+ * 2) Generate new ids through a pluggable TraceIdGenerator.
+ * 3) Generate span ids for propagated traceparent headers.
+ * </pre>
+ */
+public final class TraceIdResolver {
+    /** Request/response header used for trace propagation. */
+    public static final String TRACE_ID_HEADER = "X-Request-Id";
+
+    /** MDC key used to store and read trace id values. */
+    public static final String TRACE_ID_MDC_KEY = "traceId";
+
+    /** Generator used when a request carries no trace id. */
+    private static volatile TraceIdGenerator generator = TraceIdFormat.RANDOM;
+
+    /**
+     * Utility class.
+     *
+     * <pre>
+     * Design note:
+     * 1) Exposes static helpers so static factories can share one code path.
+     * 2) Constructor is private to prevent instantiation.
+     * </pre>
+     */
+    private TraceIdResolver() {}
+
+    /**
+     * Resolves the trace id of the request being handled.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Reuse the trace id of the RequestContext opened by the access-log filter, or of the
+     *    MDC logging context on threads that carry only that.
+     * 2) Otherwise resolve it from the incoming request headers.
+     * </pre>
+     *
+     * @param request current request
+     * @return trace id
+     */
+    public static String resolve(final HttpServletRequest request) {
+        String traceId = RequestContext.currentTraceId();
+        if (!StringUtils.hasText(traceId)) {
+            traceId = resolveIncoming(request,
+                    TraceParent.parse(request.getHeader(TraceParent.HEADER)));
+        }
+        return traceId;
+    }
+
+    /**
+     * Resolves the trace id carried by an incoming request, ignoring MDC.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Use the X-Request-Id header.
+     * 2) Fall back to the traceparent trace-id.
+     * 3) Generate a new id with the configured generator.
+     * </pre>
+     *
+     * @param request incoming request
+     * @param traceParent parsed traceparent header, or null
+     * @return trace id
+     */
+    public static String resolveIncoming(final HttpServletRequest request,
+            final TraceParent traceParent) {
+        String traceId = request.getHeader(TRACE_ID_HEADER);
+        if (!StringUtils.hasText(traceId) && traceParent != null) {
+            traceId = traceParent.traceId();
+        }
+        if (!StringUtils.hasText(traceId)) {
+            traceId = generator.nextTraceId();
+        }
+        return traceId;
+    }
+
+    /**
+     * Generates a W3C span id.
+     *
+     * @return 16 lowercase hex characters, never all zero
+     */
+    public static String nextSpanId() {
+        return TraceIds.toHex(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Installs the generator used for new trace ids.
+     *
+     * @param traceIdGenerator generator; null restores the RANDOM format
+     */
+    public static void setGenerator(final TraceIdGenerator traceIdGenerator) {
+        generator = traceIdGenerator == null ? TraceIdFormat.RANDOM : traceIdGenerator;
+    }
+
+    /**
+     * Returns the generator used for new trace ids.
+     *
+     * @return generator
+     */
+    public static TraceIdGenerator getGenerator() {
+        return generator;
+    }
+}
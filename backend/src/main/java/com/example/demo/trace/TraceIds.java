@@ -0,0 +1,101 @@
+package com.example.demo.trace;
+
+/**
+ * Hex helpers for trace and span identifiers.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Render 64-bit and 128-bit ids as fixed-width lowercase hex without formatting APIs.
+ * 2) Validate lowercase hex fields of W3C traceparent headers.
+ * </pre>
+ */
+/* default */ final class TraceIds {
+    /** Lowercase hex digits. */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** Hex characters per 64-bit value. */
+    private static final int LONG_HEX_CHARS = 16;
+
+    /**
+     * Utility class.
+     *
+     * <pre>
+     * Design note:
+     * 1) Exposes static helpers only.
+     * 2) Constructor is private to prevent instantiation.
+     * </pre>
+     */
+    private TraceIds() {}
+
+    /**
+     * Renders a 128-bit id; an all-zero id is bumped to 1 because W3C forbids it.
+     *
+     * @param high upper 64 bits
+     * @param low lower 64 bits
+     * @return 32 lowercase hex characters
+     */
+    /* default */ static String toHex(final long high, final long low) {
+        final char[] out = new char[LONG_HEX_CHARS * 2];
+        writeHex(high, out, 0);
+        writeHex(high == 0L && low == 0L ? 1L : low, out, LONG_HEX_CHARS);
+        return new String(out);
+    }
+
+    /**
+     * Renders a 64-bit id; zero is bumped to 1 because W3C forbids an all-zero span id.
+     *
+     * @param value id bits
+     * @return 16 lowercase hex characters
+     */
+    /* default */ static String toHex(final long value) {
+        final char[] out = new char[LONG_HEX_CHARS];
+        writeHex(value == 0L ? 1L : value, out, 0);
+        return new String(out);
+    }
+
+    /**
+     * Checks that a range holds only lowercase hex characters.
+     *
+     * @param text source text
+     * @param start first index
+     * @param end index after the last character
+     * @return true when every character is lowercase hex
+     */
+    /* default */ static boolean isHex(final String text, final int start, final int end) {
+        boolean valid = true;
+        for (int index = start; index < end && valid; index++) {
+            final char current = text.charAt(index);
+            valid = current >= '0' && current <= '9' || current >= 'a' && current <= 'f';
+        }
+        return valid;
+    }
+
+    /**
+     * Checks that a range holds only lowercase hex and is not all zeros.
+     *
+     * @param text source text
+     * @param start first index
+     * @param end index after the last character
+     * @return true when the range is a valid non-zero id
+     */
+    /* default */ static boolean isNonZeroHex(final String text, final int start, final int end) {
+        boolean nonZero = false;
+        for (int index = start; index < end && !nonZero; index++) {
+            nonZero = text.charAt(index) != '0';
+        }
+        return nonZero && isHex(text, start, end);
+    }
+
+    /**
+     * Writes 16 hex characters of a long, most significant nibble first.
+     *
+     * @param value value to write
+     * @param out target buffer
+     * @param offset first target index
+     */
+    private static void writeHex(final long value, final char[] out, final int offset) {
+        for (int index = 0; index < LONG_HEX_CHARS; index++) {
+            out[offset + index] = HEX[(int) (value >>> (60 - 4 * index)) & 0xF];
+        }
+    }
+}
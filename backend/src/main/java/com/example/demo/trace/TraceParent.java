@@ -0,0 +1,99 @@
+package com.example.demo.trace;
+
+/**
+ * Parsed W3C Trace Context traceparent header.
+ *
+ * <pre>
+ * Data contract:
+ * 1) traceId is 32 lowercase hex characters, not all zero.
+ * 2) parentId is 16 lowercase hex characters, not all zero.
+ * 3) flags is two lowercase hex characters (bit 0 is "sampled").
+ * </pre>
+ *
+ * @param traceId trace id
+ * @param parentId parent span id
+ * @param flags trace flags
+ */
+public record TraceParent(String traceId, String parentId, String flags) {
+    /** Header name defined by W3C Trace Context. */
+    public static final String HEADER = "traceparent";
+
+    /** Length of a version-00 header: 2 + 1 + 32 + 1 + 16 + 1 + 2. */
+    private static final int LENGTH = 55;
+
+    /** Start of the trace-id field. */
+    private static final int TRACE_ID_START = 3;
+
+    /** Start of the parent-id field. */
+    private static final int PARENT_ID_START = 36;
+
+    /** Start of the flags field. */
+    private static final int FLAGS_START = 53;
+
+    /**
+     * Parses a traceparent header.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Reject null, short, or "ff" version headers.
+     * 2) Accept longer headers only for future versions, reading the version-00 prefix.
+     * 3) Validate dashes and hex fields; reject all-zero trace or parent ids.
+     * </pre>
+     *
+     * @param header raw header value
+     * @return parsed value, or null when the header is absent or invalid
+     */
+    public static TraceParent parse(final String header) {
+        TraceParent parsed = null;
+        if (header != null && header.length() >= LENGTH && isValid(header)) {
+            parsed = new TraceParent(header.substring(TRACE_ID_START, PARENT_ID_START - 1),
+                    header.substring(PARENT_ID_START, FLAGS_START - 1),
+                    header.substring(FLAGS_START, LENGTH));
+        }
+        return parsed;
+    }
+
+    /**
+     * Creates the traceparent for a child span of this trace.
+     *
+     * @param spanId 16-hex-character span id of the child
+     * @return child traceparent keeping trace id and flags
+     */
+    public TraceParent child(final String spanId) {
+        return new TraceParent(traceId, spanId, flags);
+    }
+
+    /**
+     * Renders the version-00 header value.
+     *
+     * @return header value
+     */
+    public String toHeader() {
+        return "00-" + traceId + "-" + parentId + "-" + flags;
+    }
+
+    /**
+     * Validates the version-00 layout.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Require a hex version other than "ff".
+     * 2) Version 00 must be exactly LENGTH long; later versions may append "-" fields.
+     * 3) Require dashes between fields, non-zero hex ids, and hex flags.
+     * </pre>
+     *
+     * @param header header of at least LENGTH characters
+     * @return true when the header is well formed
+     */
+    private static boolean isValid(final String header) {
+        final boolean versionZero = header.charAt(0) == '0' && header.charAt(1) == '0';
+        final boolean lengthOk = versionZero ? header.length() == LENGTH
+                : header.length() == LENGTH || header.charAt(LENGTH) == '-';
+        return TraceIds.isHex(header, 0, 2) && !header.startsWith("ff") && lengthOk
+                && header.charAt(2) == '-' && header.charAt(PARENT_ID_START - 1) == '-'
+                && header.charAt(FLAGS_START - 1) == '-'
+                && TraceIds.isNonZeroHex(header, TRACE_ID_START, PARENT_ID_START - 1)
+                && TraceIds.isNonZeroHex(header, PARENT_ID_START, FLAGS_START - 1)
+                && TraceIds.isHex(header, FLAGS_START, LENGTH);
+    }
+}
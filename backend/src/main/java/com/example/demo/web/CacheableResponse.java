@@ -0,0 +1,130 @@
+package com.example.demo.web;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.UUID;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Read-endpoint payload with a strong ETag computed once per response version.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Hold the body, its strong ETag, and its Cache-Control policy for reuse across requests.
+ * 2) Derive the ETag from a version string once, instead of buffering and hashing each body
+ *    the way ShallowEtagHeaderFilter does.
+ * 3) Build 200 responses whose ETag lets Spring MVC answer a matching If-None-Match with an
+ *    empty 304 before the body is serialized.
+ * </pre>
+ *
+ * <pre>
+ * Usage:
+ * 1) Create one instance per representation version, for example when configuration is bound.
+ * 2) Return toResponseEntity() from GET handlers; the body must not be mutated afterwards.
+ * </pre>
+ *
+ * @param <T> body type
+ */
+public final class CacheableResponse<T> {
+    /** Response body shared by every request. */
+    private final T body;
+
+    /** Quoted strong entity tag. */
+    private final String eTag;
+
+    /** Cache-Control policy. */
+    private final CacheControl cacheControl;
+
+    /**
+     * Creates a cacheable response.
+     *
+     * @param body response body
+     * @param eTag quoted strong entity tag
+     * @param cacheControl Cache-Control policy
+     */
+    private CacheableResponse(final T body, final String eTag, final CacheControl cacheControl) {
+        this.body = body;
+        this.eTag = eTag;
+        this.cacheControl = cacheControl;
+    }
+
+    /**
+     * Creates a cacheable response for one representation version.
+     *
+     * @param body response body
+     * @param version string that changes whenever the serialized body changes
+     * @param cacheControl Cache-Control policy
+     * @param <T> body type
+     * @return cacheable response
+     */
+    public static <T> CacheableResponse<T> of(final T body, final String version,
+            final CacheControl cacheControl) {
+        return new CacheableResponse<>(body, strongETag(version), cacheControl);
+    }
+
+    /**
+     * Returns the Cache-Control policy for a max-age setting.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Use no-cache for 0 so clients revalidate every time and usually receive a 304.
+     * 2) Otherwise let clients reuse the response for maxAgeSeconds before revalidating.
+     * </pre>
+     *
+     * @param maxAgeSeconds max-age in seconds; 0 requires revalidation
+     * @return Cache-Control policy
+     */
+    public static CacheControl cacheControl(final long maxAgeSeconds) {
+        if (maxAgeSeconds < 0) {
+            throw new IllegalArgumentException("max-age must not be negative: " + maxAgeSeconds);
+        }
+        return maxAgeSeconds == 0 ? CacheControl.noCache()
+                : CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds));
+    }
+
+    /**
+     * Builds a strong ETag from a version string.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Hash the UTF-8 version into a 128-bit name-based UUID.
+     * 2) Quote its 32 hex digits; no W/ prefix, so the tag is strong.
+     * </pre>
+     *
+     * @param version representation version
+     * @return quoted strong entity tag
+     */
+    public static String strongETag(final String version) {
+        final UUID hash = UUID.nameUUIDFromBytes(version.getBytes(StandardCharsets.UTF_8));
+        final HexFormat hex = HexFormat.of();
+        return '"' + hex.toHexDigits(hash.getMostSignificantBits())
+                + hex.toHexDigits(hash.getLeastSignificantBits()) + '"';
+    }
+
+    /**
+     * Returns the quoted strong entity tag.
+     *
+     * @return entity tag
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Builds the 200 response with ETag and Cache-Control headers.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Set ETag and Cache-Control on an OK entity with the shared body.
+     * 2) Spring MVC compares the ETag with If-None-Match for GET and HEAD and, on a match,
+     *    writes an empty 304 with the same headers instead of the body.
+     * </pre>
+     *
+     * @return response entity
+     */
+    public ResponseEntity<T> toResponseEntity() {
+        return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(body);
+    }
+}
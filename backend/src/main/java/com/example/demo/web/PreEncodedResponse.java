@@ -0,0 +1,335 @@
+package com.example.demo.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Response body encoded once and written as raw bytes on every request.
+ *
+ * <pre>
+ * Responsibilities:
+ * 1) Hold the JSON bytes of a representation that depends only on configuration.
+ * 2) Optionally hold a gzip copy of the same bytes, compressed once up front.
+ * 3) Write the variant the client accepts straight to the servlet output stream with its
+ *    Content-Length, ETag, and Cache-Control, or an empty 304 when If-None-Match matches.
+ * </pre>
+ *
+ * <pre>
+ * Data contract:
+ * - The identity variant uses the same strong ETag as {@link CacheableResponse} for the version.
+ * - The gzip variant has its own strong ETag, since its bytes differ.
+ * - The gzip variant is kept only when it is smaller than the JSON; then Vary: Accept-Encoding
+ *   is sent with every response.
+ * </pre>
+ *
+ * <pre>
+ * Usage:
+ * 1) Create one instance per representation version, for example when configuration is bound.
+ * 2) Call write(request, response) from the handler and let it own the whole response.
+ * </pre>
+ */
+public final class PreEncodedResponse {
+    /** gzip content coding. */
+    /* default */ static final String GZIP = "gzip";
+
+    /** Legacy alias of the gzip content coding. */
+    private static final String X_GZIP = "x-gzip";
+
+    /** Wildcard content coding. */
+    private static final String ANY = "*";
+
+    /** Weak entity tag prefix, ignored by If-None-Match comparison. */
+    private static final String WEAK_PREFIX = "W/";
+
+    /** Fixed gzip member header: magic, deflate, no flags, no mtime, no extra flags, unknown OS. */
+    private static final byte[] GZIP_HEADER = {
+        (byte) 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    /** Size of the gzip trailer: CRC-32 and input size, both little-endian. */
+    private static final int GZIP_TRAILER = 8;
+
+    /** Deflate output chunk size. */
+    private static final int CHUNK = 512;
+
+    /** Suffix distinguishing the version of the gzip variant. */
+    private static final String GZIP_VERSION_SUFFIX = ";" + GZIP;
+
+    /** JSON bytes. */
+    private final byte[] identity;
+
+    /** Strong ETag of the JSON bytes. */
+    private final String identityETag;
+
+    /** gzip bytes; empty when no gzip variant is served. */
+    private final byte[] gzipped;
+
+    /** Strong ETag of the gzip bytes. */
+    private final String gzippedETag;
+
+    /** Cache-Control header value. */
+    private final String cacheControl;
+
+    /**
+     * Creates a pre-encoded response.
+     *
+     * @param identity JSON bytes
+     * @param gzipped gzip bytes, or empty
+     * @param version representation version
+     * @param cacheControl Cache-Control header value
+     */
+    private PreEncodedResponse(final byte[] identity, final byte[] gzipped, final String version,
+            final String cacheControl) {
+        this.identity = identity;
+        this.identityETag = CacheableResponse.strongETag(version);
+        this.gzipped = gzipped;
+        this.gzippedETag = CacheableResponse.strongETag(version + GZIP_VERSION_SUFFIX);
+        this.cacheControl = cacheControl;
+    }
+
+    /**
+     * Serializes a body once and creates its pre-encoded response.
+     *
+     * @param body response body
+     * @param version string that changes whenever the serialized body changes
+     * @param cacheControl Cache-Control policy
+     * @param gzip whether to also keep a gzip variant when it is smaller
+     * @return pre-encoded response
+     */
+    public static PreEncodedResponse json(final Object body, final String version,
+            final CacheControl cacheControl, final boolean gzip) {
+        return of(JsonMapper.shared().writeValueAsBytes(body), version, cacheControl, gzip);
+    }
+
+    /**
+     * Creates a pre-encoded response from JSON bytes.
+     *
+     * @param json JSON bytes; must not be mutated afterwards
+     * @param version string that changes whenever the bytes change
+     * @param cacheControl Cache-Control policy
+     * @param gzip whether to also keep a gzip variant when it is smaller
+     * @return pre-encoded response
+     */
+    public static PreEncodedResponse of(final byte[] json, final String version,
+            final CacheControl cacheControl, final boolean gzip) {
+        byte[] compressed = new byte[0];
+        if (gzip) {
+            final byte[] candidate = gzip(json);
+            if (candidate.length < json.length) {
+                compressed = candidate;
+            }
+        }
+        return new PreEncodedResponse(json, compressed, version, cacheControl.getHeaderValue());
+    }
+
+    /**
+     * Compresses bytes into a single gzip member.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Write the fixed 10-byte header.
+     * 2) Append raw deflate output at the best compression level; this runs once per version,
+     *    so its cost does not matter.
+     * 3) Append the CRC-32 and the input size as little-endian 32-bit values.
+     * </pre>
+     *
+     * @param bytes input bytes
+     * @return gzip bytes
+     */
+    /* default */ static byte[] gzip(final byte[] bytes) {
+        final ByteArrayOutputStream out =
+                new ByteArrayOutputStream(GZIP_HEADER.length + bytes.length + GZIP_TRAILER);
+        out.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+        final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            final byte[] chunk = new byte[CHUNK];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+        } finally {
+            deflater.end();
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        writeIntLittleEndian(out, (int) crc.getValue());
+        writeIntLittleEndian(out, bytes.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes a 32-bit value in little-endian order.
+     *
+     * @param out target stream
+     * @param value value to write
+     */
+    private static void writeIntLittleEndian(final ByteArrayOutputStream out, final int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    /**
+     * Returns the strong ETag of the JSON bytes.
+     *
+     * @return quoted entity tag
+     */
+    public String getETag() {
+        return identityETag;
+    }
+
+    /**
+     * Returns whether a gzip variant is served.
+     *
+     * @return true when gzip bytes are kept
+     */
+    public boolean hasGzip() {
+        return gzipped.length > 0;
+    }
+
+    /**
+     * Writes the response.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Pick the gzip variant when it exists and Accept-Encoding allows gzip.
+     * 2) Set ETag, Cache-Control, and Vary, which also belong on a 304.
+     * 3) Answer a matching If-None-Match with an empty 304.
+     * 4) Otherwise set Content-Type, Content-Encoding, and Content-Length, and write the bytes
+     *    to the output stream in one call.
+     * </pre>
+     *
+     * @param request current request
+     * @param response current response; not committed yet
+     * @throws IOException when the client connection fails
+     */
+    public void write(final HttpServletRequest request, final HttpServletResponse response)
+            throws IOException {
+        final boolean useGzip = hasGzip()
+                && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        final String eTag = useGzip ? gzippedETag : identityETag;
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (hasGzip()) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        } else {
+            final byte[] body = useGzip ? gzipped : identity;
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            if (useGzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            }
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    /**
+     * Returns whether an Accept-Encoding header allows gzip.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) Split the header into codings and read each q parameter.
+     * 2) An explicit gzip or x-gzip entry decides; otherwise a * entry does.
+     * 3) A q value of zero refuses the coding; a missing header refuses gzip.
+     * </pre>
+     *
+     * @param acceptEncoding Accept-Encoding header, or null
+     * @return true when gzip is acceptable
+     */
+    /* default */ static boolean acceptsGzip(final String acceptEncoding) {
+        boolean listed = false;
+        boolean gzip = false;
+        boolean any = false;
+        if (acceptEncoding != null) {
+            for (final String entry : acceptEncoding.split(",")) {
+                final int semicolon = entry.indexOf(';');
+                final String coding =
+                        (semicolon < 0 ? entry : entry.substring(0, semicolon)).trim();
+                final boolean acceptable =
+                        semicolon < 0 || !zeroQuality(entry.substring(semicolon + 1));
+                if (GZIP.equalsIgnoreCase(coding) || X_GZIP.equalsIgnoreCase(coding)) {
+                    listed = true;
+                    gzip = gzip || acceptable;
+                } else if (ANY.equals(coding)) {
+                    any = acceptable;
+                }
+            }
+        }
+        return listed ? gzip : any;
+    }
+
+    /**
+     * Returns whether coding parameters carry q=0.
+     *
+     * @param parameters parameters after the first semicolon
+     * @return true when the quality is zero
+     */
+    private static boolean zeroQuality(final String parameters) {
+        boolean zero = false;
+        for (final String parameter : parameters.split(";")) {
+            final String trimmed = parameter.trim();
+            if (trimmed.length() > 2 && (trimmed.charAt(0) == 'q' || trimmed.charAt(0) == 'Q')
+                    && trimmed.charAt(1) == '=') {
+                zero = isZero(trimmed.substring(2));
+            }
+        }
+        return zero;
+    }
+
+    /**
+     * Returns whether a qvalue is zero, such as 0, 0. or 0.000.
+     *
+     * @param value qvalue
+     * @return true when zero
+     */
+    private static boolean isZero(final String value) {
+        boolean zero = value.charAt(0) == '0';
+        int index = 1;
+        while (zero && index < value.length()) {
+            final char current = value.charAt(index);
+            zero = current == '0' || current == '.' && index == 1;
+            index++;
+        }
+        return zero;
+    }
+
+    /**
+     * Returns whether an If-None-Match header matches an entity tag.
+     *
+     * <pre>
+     * Algorithm:
+     * 1) * matches any current representation.
+     * 2) Otherwise compare each listed tag weakly, ignoring a W/ prefix, as RFC 9110 requires
+     *    for If-None-Match.
+     * </pre>
+     *
+     * @param ifNoneMatch If-None-Match header, or null
+     * @param eTag quoted entity tag of the selected variant
+     * @return true when the client copy is current
+     */
+    /* default */ static boolean matches(final String ifNoneMatch, final String eTag) {
+        boolean match = false;
+        if (ifNoneMatch != null) {
+            for (final String entry : ifNoneMatch.split(",")) {
+                final String tag = entry.trim();
+                match = match || ANY.equals(tag) || eTag.equals(tag)
+                        || tag.startsWith(WEAK_PREFIX) && eTag.equals(tag.substring(2));
+            }
+        }
+        return match;
+    }
+}
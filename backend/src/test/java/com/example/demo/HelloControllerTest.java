@@ -2,16 +2,29 @@ package com.example.demo;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 /** Verifies the hello endpoint returns a message. */
 @SpringBootTest
@@ -37,6 +50,12 @@ class HelloControllerTest {
         mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
     }
 
+    /** Clears request attributes bound by direct controller calls. */
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
     /**
      * Ensures the hello endpoint returns the expected payload.
      *
@@ -63,4 +82,126 @@ class HelloControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.path")
                         .value("/api/e2e-not-found-example"));
     }
+
+    /**
+     * Ensures a matching If-None-Match is answered with an empty 304.
+     *
+     * @throws Exception when the request fails
+     */
+    @Test
+    void answersMatchingETagWithNotModified() throws Exception {
+        final MvcResult first = mockMvc.perform(get("/api/hello")).andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache")).andReturn();
+        final String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertThat(eTag).startsWith("\"").doesNotStartWith("W/");
+
+        mockMvc.perform(get("/api/hello").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/hello").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"message\":\"Hello from Spring Boot\"}"));
+    }
+
+    /**
+     * Ensures the pre-encoded greeting is written with its exact Content-Length.
+     *
+     * @throws Exception when the request fails
+     */
+    @Test
+    void writesPreEncodedBytesWithContentLength() throws Exception {
+        final MvcResult result = mockMvc.perform(get("/api/hello")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")).andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING)).andReturn();
+        final MockHttpServletResponse response = result.getResponse();
+
+        Assertions.assertThat(response.getContentLength())
+                .isEqualTo(response.getContentAsByteArray().length)
+                .isEqualTo("{\"message\":\"Hello from Spring Boot\"}".length());
+    }
+
+    /**
+     * Ensures a configured max-age replaces no-cache without changing the ETag.
+     *
+     * @throws Exception when writing fails
+     */
+    @Test
+    void appliesConfiguredMaxAge() throws Exception {
+        final HelloController controller = new HelloController();
+        final String eTag = call(controller, new MockHttpServletResponse())
+                .getHeader(HttpHeaders.ETAG);
+        controller.setMaxAgeSeconds(60);
+
+        final MockHttpServletResponse response = call(controller, new MockHttpServletResponse());
+
+        Assertions.assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL))
+                .isEqualTo("max-age=60");
+        Assertions.assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(eTag);
+    }
+
+    /**
+     * Ensures entity mode returns the shared greeting with the same ETag as pre-encoded mode.
+     *
+     * @throws Exception when writing fails
+     */
+    @Test
+    void returnsEntityWhenPreEncodingIsDisabled() throws Exception {
+        final HelloController controller = new HelloController();
+        controller.setGzip(false);
+        final String eTag = call(controller, new MockHttpServletResponse())
+                .getHeader(HttpHeaders.ETAG);
+        controller.setPreEncoded(false);
+
+        final ResponseEntity<?> response = controller.getHello();
+
+        Assertions.assertThat(response.getHeaders().getETag()).isEqualTo(eTag);
+        Assertions.assertThat(response.getHeaders().getCacheControl()).isEqualTo("no-cache");
+    }
+
+    /**
+     * Ensures write failures surface as unchecked I/O errors.
+     */
+    @Test
+    void propagatesWriteFailures() {
+        final MockHttpServletResponse failing = new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(final WriteListener listener) {
+                        // Blocking test stream.
+                    }
+
+                    @Override
+                    public void write(final int value) throws IOException {
+                        throw new IOException("Connection reset");
+                    }
+                };
+            }
+        };
+
+        Assertions.assertThatThrownBy(() -> call(new HelloController(), failing))
+                .isInstanceOf(UncheckedIOException.class).hasMessageContaining("reset");
+    }
+
+    /**
+     * Calls getHello() with the given response bound to the current thread.
+     *
+     * @param controller controller under test
+     * @param response response to write to
+     * @return the response
+     */
+    private static MockHttpServletResponse call(final HelloController controller,
+            final MockHttpServletResponse response) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(
+                new MockHttpServletRequest("GET", "/api/hello"), response));
+        Assertions.assertThat(controller.getHello()).isNull();
+        return response;
+    }
 }
@@ -0,0 +1,172 @@
+package com.example.demo.batch;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.demo.web.CacheableResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/** Tests for {@link BatchController}. */
+@SpringBootTest
+class BatchControllerTest {
+    /** Batch endpoint path. */
+    private static final String PATH = "/api/batch";
+
+    /** ETag of the identity greeting. */
+    private static final String HELLO_ETAG = CacheableResponse.strongETag("Hello from Spring Boot");
+
+    /** Spring web application context used to configure MockMvc. */
+    private final WebApplicationContext context;
+
+    /** MockMvc instance used for endpoint assertions. */
+    private MockMvc mockMvc;
+
+    /**
+     * Creates the test instance with Spring's web context.
+     *
+     * @param context web application context
+     */
+    public BatchControllerTest(final WebApplicationContext context) {
+        this.context = context;
+    }
+
+    /** Builds MockMvc before each test. */
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    /**
+     * Sub-requests run through Spring MVC and come back in request order.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: Sub-requests run through Spring MVC and come back in request order
+     * Test conditions: Hello, an unknown API path, and hello with a query string
+     * Test result: 200 with parsed JSON bodies, per-entry statuses, and derived trace ids
+     * </pre>
+     *
+     * @throws Exception when the request fails
+     */
+    @Test
+    void runsSubRequestsInOrder() throws Exception {
+        batch("{\"requests\":[{\"id\":\"a\",\"path\":\"/api/hello\"},"
+                + "{\"id\":\"b\",\"path\":\"/api/batch-missing\"},"
+                + "{\"id\":\"c\",\"path\":\"/api/hello?x=1\"}]}", "If-None-Match", HELLO_ETAG)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responses.length()").value(3))
+                .andExpect(jsonPath("$.responses[0].id").value("a"))
+                .andExpect(jsonPath("$.responses[0].status").value(200))
+                .andExpect(jsonPath("$.responses[0].body.message").value("Hello from Spring Boot"))
+                .andExpect(jsonPath("$.responses[0].headers.ETag").value(HELLO_ETAG))
+                .andExpect(jsonPath("$.responses[0].headers['X-Request-Id']")
+                        .value("batch-trace-1"))
+                .andExpect(jsonPath("$.responses[1].id").value("b"))
+                .andExpect(jsonPath("$.responses[1].status").value(404))
+                .andExpect(jsonPath("$.responses[1].body.code").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.responses[1].body.traceId").value("batch-trace-2"))
+                .andExpect(jsonPath("$.responses[2].id").value("c"))
+                .andExpect(jsonPath("$.responses[2].status").value(200));
+    }
+
+    /**
+     * Sub-request headers apply only to their own sub-request.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: Sub-request headers apply only to their own sub-request
+     * Test conditions: One sub-request with If-None-Match and its own X-Request-Id, one without
+     * Test result: Empty 304 with the given trace id, and a full 200 for the other
+     * </pre>
+     *
+     * @throws Exception when the request fails
+     */
+    @Test
+    void appliesSubRequestHeaders() throws Exception {
+        batch("{\"requests\":[{\"id\":\"cached\",\"path\":\"/api/hello\",\"headers\":"
+                + "{\"if-none-match\":\"" + HELLO_ETAG.replace("\"", "\\\"")
+                + "\",\"X-Request-Id\":\"own-trace\",\"Accept-Encoding\":\"gzip\"}},"
+                + "{\"id\":\"fresh\",\"path\":\"/api/hello\"}]}", "Accept-Language", "fr")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responses[0].status").value(304))
+                .andExpect(jsonPath("$.responses[0].body").doesNotExist())
+                .andExpect(jsonPath("$.responses[0].headers['X-Request-Id']").value("own-trace"))
+                .andExpect(jsonPath("$.responses[1].status").value(200))
+                .andExpect(jsonPath("$.responses[1].headers['Content-Encoding']").doesNotExist())
+                .andExpect(jsonPath("$.responses[1].body.message").exists());
+    }
+
+    /**
+     * Invalid batches are rejected before any sub-request runs.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: Invalid batches are rejected before any sub-request runs
+     * Test conditions: Missing or empty list, too many entries, missing fields, paths outside
+     *                  /api/, dot-segments, and nested batches
+     * Test result: 400 with the BAD_REQUEST error code
+     * </pre>
+     *
+     * @throws Exception when the request fails
+     */
+    @Test
+    void rejectsInvalidBatches() throws Exception {
+        final StringBuilder tooMany = new StringBuilder("{\"requests\":[");
+        for (int index = 0; index < 21; index++) {
+            tooMany.append(index == 0 ? "" : ",").append("{\"id\":\"").append(index)
+                    .append("\",\"path\":\"/api/hello\"}");
+        }
+        final String[] bodies = {"{\"requests\":null}", "{\"requests\":[]}",
+            tooMany.append("]}").toString(), "{\"requests\":[{\"id\":\"a\"}]}",
+            "{\"requests\":[{\"path\":\"/api/hello\"}]}", "{\"requests\":[null]}",
+            "{\"requests\":[{\"id\":\"a\",\"path\":\"/actuator/errors\"}]}",
+            "{\"requests\":[{\"id\":\"a\",\"path\":\"/api/../actuator/errors\"}]}",
+            "{\"requests\":[{\"id\":\"a\",\"path\":\"/api/batch?x=1\"}]}",
+            "{\"requests\":[{\"id\":\"a\",\"path\":\"/api/batch/nested\"}]}"};
+        for (final String body : bodies) {
+            batch(body, "Accept", "application/json").andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
+        }
+    }
+
+    /**
+     * The sub-request limit must be positive.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: The sub-request limit must be positive
+     * Test conditions: max-requests of 0
+     * Test result: IllegalArgumentException
+     * </pre>
+     */
+    @Test
+    void rejectsNonPositiveLimit() {
+        final BatchController controller = new BatchController(null);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> controller.setMaxRequests(0), "Limit must be at least 1");
+    }
+
+    /**
+     * Posts a batch with the trace id batch-trace and one extra header.
+     *
+     * @param body JSON body
+     * @param header extra header name
+     * @param value extra header value
+     * @return result actions
+     * @throws Exception when the request fails
+     */
+    private ResultActions batch(final String body, final String header, final String value)
+            throws Exception {
+        return mockMvc.perform(post(PATH).contentType(MediaType.APPLICATION_JSON).content(body)
+                .header("X-Request-Id", "batch-trace").header(header, value));
+    }
+}
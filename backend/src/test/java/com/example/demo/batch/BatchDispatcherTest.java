@@ -0,0 +1,334 @@
+package com.example.demo.batch;
+
+import com.example.demo.error.GlobalExceptionHandler;
+import com.example.demo.model.BatchSubRequest;
+import com.example.demo.model.BatchSubResponse;
+import jakarta.servlet.Filter;
+import jakarta.servlet.GenericServlet;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import tools.jackson.databind.JsonNode;
+
+/** Tests for {@link BatchDispatcher}. */
+class BatchDispatcherTest {
+    /** Filter that passes every request to the servlet. */
+    private static final Filter PASS_THROUGH = (request, response, chain) ->
+            chain.doFilter(request, response);
+
+    /**
+     * Bodies are embedded as JSON or text depending on their content type.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: Bodies are embedded as JSON or text depending on their content type
+     * Test conditions: JSON, +json, malformed JSON, plain text, and empty responses
+     * Test result: Parsed trees for valid JSON, text otherwise, and no body when empty
+     * </pre>
+     */
+    @Test
+    void decodesBodiesByContentType() {
+        final BatchDispatcher dispatcher = dispatcher(PASS_THROUGH, new EchoServlet());
+
+        final List<BatchSubResponse> results = dispatcher.dispatch(batchRequest(),
+                new MockHttpServletResponse(), List.of(
+                        subRequest("json", "/api/echo?type=application/json&body={\"a\":1}"),
+                        subRequest("problem",
+                                "/api/echo?type=application/problem%2Bjson&body={\"b\":2}"),
+                        subRequest("broken", "/api/echo?type=application/json&body={"),
+                        subRequest("text", "/api/echo?type=text/plain;charset=UTF-8&body=hi"),
+                        subRequest("untyped", "/api/echo?body=raw"),
+                        subRequest("empty", "/api/echo")));
+
+        Assertions.assertEquals(List.of("json", "problem", "broken", "text", "untyped", "empty"),
+                results.stream().map(BatchSubResponse::getId).toList(), "Request order");
+        Assertions.assertEquals(1, ((JsonNode) results.get(0).getBody()).get("a").asInt(),
+                "JSON body");
+        Assertions.assertEquals(2, ((JsonNode) results.get(1).getBody()).get("b").asInt(),
+                "+json body");
+        Assertions.assertEquals("{", results.get(2).getBody(), "Malformed JSON stays text");
+        Assertions.assertEquals("hi", results.get(3).getBody(), "Text body");
+        Assertions.assertEquals("raw", results.get(4).getBody(), "Untyped body");
+        Assertions.assertNull(results.get(5).getBody(), "Empty body");
+    }
+
+    /**
+     * Sub-requests inherit batch headers except body, encoding, and conditional headers.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: Sub-requests inherit batch headers except body, encoding, and conditional ones
+     * Test conditions: Batch with Accept-Language, Content-Type, If-None-Match, and a trace id;
+     *                  one sub-request without headers, one overriding Accept-Language and
+     *                  trying to set Content-Type
+     * Test result: Headers echoed per sub-request with derived trace ids and no body headers
+     * </pre>
+     */
+    @Test
+    void buildsSubRequestHeaders() {
+        final BatchDispatcher dispatcher = dispatcher(PASS_THROUGH, new EchoServlet());
+        final BatchSubRequest plain = subRequest("plain", "/api/echo");
+        plain.setHeaders(null);
+        final BatchSubRequest custom = subRequest("custom", "/api/echo");
+        custom.setHeaders(Map.of("accept-language", "de", "Content-Type", "text/plain"));
+
+        final List<BatchSubResponse> results = dispatcher.dispatch(batchRequest(),
+                new MockHttpServletResponse(), List.of(plain, custom));
+
+        Assertions.assertEquals(Map.of("X-Accept-Language", "fr", "X-Content-Type", "none",
+                "X-If-None-Match", "none", "X-Request-Id", "batch-trace-1"),
+                results.get(0).getHeaders(), "Inherited headers");
+        Assertions.assertEquals(Map.of("X-Accept-Language", "de", "X-Content-Type", "none",
+                "X-If-None-Match", "none", "X-Request-Id", "batch-trace-2"),
+                results.get(1).getHeaders(), "Overridden headers");
+    }
+
+    /**
+     * Sub-requests cannot replace the forwarding headers of the batch request.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: Sub-requests cannot replace the forwarding headers of the batch request
+     * Test conditions: Batch from a proxy with X-Forwarded-For; a sub-request setting
+     *                  X-Forwarded-For, Forwarded, and X-Real-IP in mixed case
+     * Test result: The proxy-appended chain is kept and the forged headers are ignored
+     * </pre>
+     */
+    @Test
+    void keepsForwardingHeaders() {
+        final List<String> forwarding = List.of("X-Forwarded-For", "Forwarded", "X-Real-IP");
+        final BatchDispatcher dispatcher = dispatcher(PASS_THROUGH, new GenericServlet() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void service(final ServletRequest request, final ServletResponse response) {
+                for (final String name : forwarding) {
+                    final String value = ((HttpServletRequest) request).getHeader(name);
+                    ((HttpServletResponse) response).setHeader("X-Echo-" + name,
+                            value == null ? "none" : value);
+                }
+            }
+        });
+        final MockHttpServletRequest batch = batchRequest();
+        batch.addHeader("X-Forwarded-For", "198.51.100.7");
+        final BatchSubRequest forged = subRequest("forged", "/api/echo");
+        forged.setHeaders(Map.of("x-forwarded-for", "203.0.113.1", "FORWARDED",
+                "for=203.0.113.1", "X-Real-Ip", "203.0.113.1"));
+
+        final Map<String, String> headers = dispatcher.dispatch(batch,
+                new MockHttpServletResponse(), List.of(forged)).get(0).getHeaders();
+
+        Assertions.assertEquals("198.51.100.7", headers.get("X-Echo-X-Forwarded-For"),
+                "Inherited X-Forwarded-For");
+        Assertions.assertEquals("none", headers.get("X-Echo-Forwarded"), "Forwarded ignored");
+        Assertions.assertEquals("none", headers.get("X-Echo-X-Real-IP"), "X-Real-IP ignored");
+    }
+
+    /**
+     * Failures escaping the chain are rendered like unhandled exceptions.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: Failures escaping the chain are rendered like unhandled exceptions
+     * Test conditions: Servlet writes partial output and then throws
+     * Test result: 500 with the INTERNAL_ERROR payload and the sub-request trace id only
+     * </pre>
+     */
+    @Test
+    void rendersEscapedFailures() {
+        final BatchDispatcher dispatcher = dispatcher(PASS_THROUGH, new GenericServlet() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void service(final ServletRequest request, final ServletResponse response)
+                    throws IOException {
+                response.setContentType("text/plain");
+                response.getOutputStream().write("partial".getBytes(StandardCharsets.UTF_8));
+                throw new IOException("boom");
+            }
+        });
+
+        final BatchSubResponse result = dispatcher.dispatch(batchRequest(),
+                new MockHttpServletResponse(), List.of(subRequest("fails", "/api/fails"))).get(0);
+
+        Assertions.assertEquals(500, result.getStatus(), "Status");
+        Assertions.assertEquals("INTERNAL_ERROR",
+                ((JsonNode) result.getBody()).get("code").asString(), "Error code");
+        Assertions.assertEquals("batch-trace-1",
+                ((JsonNode) result.getBody()).get("traceId").asString(), "Trace id");
+        Assertions.assertEquals("application/json", result.getHeaders().get("Content-Type"),
+                "Partial output is discarded");
+    }
+
+    /**
+     * Errors sent without a body are rendered as standard error payloads.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: Errors sent without a body are rendered as standard error payloads
+     * Test conditions: Servlet sends 405, 503 with a message, an unknown 499, and a 404 with
+     *                  its own body
+     * Test result: JSON payloads with the mapped code and reason or message; the unknown
+     *              status and the written body are left alone
+     * </pre>
+     */
+    @Test
+    void rendersBodilessErrors() {
+        final BatchDispatcher dispatcher = dispatcher(PASS_THROUGH, new GenericServlet() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void service(final ServletRequest request, final ServletResponse response)
+                    throws IOException {
+                final HttpServletResponse http = (HttpServletResponse) response;
+                final int status = Integer.parseInt(request.getParameter("status"));
+                if (request.getParameter("body") == null) {
+                    http.sendError(status, request.getParameter("message"));
+                } else {
+                    http.setStatus(status);
+                    http.getWriter().write(request.getParameter("body"));
+                    http.flushBuffer();
+                }
+            }
+        });
+
+        final List<BatchSubResponse> results = dispatcher.dispatch(batchRequest(),
+                new MockHttpServletResponse(), List.of(subRequest("method", "/api/x?status=405"),
+                        subRequest("busy", "/api/x?status=503&message=busy"),
+                        subRequest("unknown", "/api/x?status=499"),
+                        subRequest("own", "/api/x?status=404&body=gone")));
+
+        final JsonNode method = (JsonNode) results.get(0).getBody();
+        Assertions.assertEquals(405, results.get(0).getStatus(), "Status is kept");
+        Assertions.assertEquals("INTERNAL_ERROR", method.get("code").asString(), "Mapped code");
+        Assertions.assertEquals("Method Not Allowed", method.get("message").asString(),
+                "Reason phrase");
+        Assertions.assertEquals("batch-trace-1", method.get("traceId").asString(), "Trace id");
+        Assertions.assertEquals("busy",
+                ((JsonNode) results.get(1).getBody()).get("message").asString(), "Message");
+        Assertions.assertNull(results.get(2).getBody(), "Unknown status keeps no body");
+        Assertions.assertEquals("gone", results.get(3).getBody(), "Written body is kept");
+    }
+
+    /**
+     * Servlet initialization failures stop the application.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: Servlet initialization failures stop the application
+     * Test conditions: Servlet whose init throws ServletException
+     * Test result: IllegalStateException with the servlet name
+     * </pre>
+     */
+    @Test
+    void reportsInitializationFailure() {
+        final BatchDispatcher dispatcher = dispatcher(PASS_THROUGH, new GenericServlet() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void init(final ServletConfig config) throws ServletException {
+                Assertions.assertEquals(BatchDispatcher.SERVLET_NAME, config.getServletName(),
+                        "Servlet name");
+                Assertions.assertNull(config.getInitParameter("any"), "No init parameters");
+                Assertions.assertFalse(config.getInitParameterNames().hasMoreElements(),
+                        "No init parameter names");
+                Assertions.assertNotNull(config.getServletContext(), "Servlet context");
+                throw new ServletException("init failed");
+            }
+
+            @Override
+            public void service(final ServletRequest request, final ServletResponse response) {
+                // Never called.
+            }
+        });
+
+        final IllegalStateException ex = Assertions.assertThrows(IllegalStateException.class,
+                dispatcher::afterSingletonsInstantiated, "Initialization failure");
+        Assertions.assertTrue(ex.getMessage().contains(BatchDispatcher.SERVLET_NAME), "Message");
+    }
+
+    /**
+     * Builds a dispatcher over a mock servlet context.
+     *
+     * @param filter filter
+     * @param servlet servlet
+     * @return dispatcher
+     */
+    private static BatchDispatcher dispatcher(final Filter filter, final GenericServlet servlet) {
+        return new BatchDispatcher(filter, servlet, new MockServletContext(),
+                new GlobalExceptionHandler());
+    }
+
+    /**
+     * Builds a batch request with a trace id and headers that must not be inherited.
+     *
+     * @return batch request
+     */
+    private static MockHttpServletRequest batchRequest() {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/batch");
+        request.addHeader("X-Request-Id", "batch-trace");
+        request.addHeader("Accept-Language", "fr");
+        request.addHeader("Content-Type", "application/json");
+        request.addHeader("If-None-Match", "\"tag\"");
+        return request;
+    }
+
+    /**
+     * Builds a sub-request.
+     *
+     * @param id sub-request id
+     * @param path path with optional query string
+     * @return sub-request
+     */
+    private static BatchSubRequest subRequest(final String id, final String path) {
+        final BatchSubRequest request = new BatchSubRequest();
+        request.setId(id);
+        request.setPath(path);
+        return request;
+    }
+
+    /** Servlet echoing selected request headers, or a body and type from the query string. */
+    private static final class EchoServlet extends GenericServlet {
+        /** Serialization id. */
+        private static final long serialVersionUID = 1L;
+
+        /** Headers echoed as X- response headers. */
+        private static final List<String> ECHOED = List.of("Accept-Language", "Content-Type",
+                "If-None-Match", "X-Request-Id");
+
+        /**
+         * Writes the body parameter with the type parameter, or echoes headers without one.
+         *
+         * @param request sub-request
+         * @param response buffered response
+         * @throws IOException when writing fails
+         */
+        @Override
+        public void service(final ServletRequest request, final ServletResponse response)
+                throws IOException {
+            final String body = request.getParameter("body");
+            if (body == null) {
+                for (final String name : ECHOED) {
+                    final String value = ((HttpServletRequest) request).getHeader(name);
+                    ((HttpServletResponse) response).setHeader("X-" + name,
+                            value == null ? "none" : value);
+                }
+            } else {
+                response.setContentType(request.getParameter("type"));
+                response.getWriter().write(body);
+            }
+        }
+    }
+}
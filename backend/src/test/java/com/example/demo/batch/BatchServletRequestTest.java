@@ -0,0 +1,160 @@
+package com.example.demo.batch;
+
+import jakarta.servlet.DispatcherType;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+/** Tests for {@link BatchServletRequest}. */
+class BatchServletRequestTest {
+    /**
+     * The target is split into path and decoded query parameters.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: The target is split into path and decoded query parameters
+     * Test conditions: Context path, repeated, valueless, empty, and encoded parameters
+     * Test result: GET request under the context path with parameters in order
+     * </pre>
+     */
+    @Test
+    void parsesTarget() {
+        final BatchServletRequest request =
+                request("/api/items?name=a+b&name=%C3%A9&flag&&empty=", Map.of());
+
+        Assertions.assertEquals("GET", request.getMethod(), "Method");
+        Assertions.assertEquals("/app/api/items", request.getRequestURI(), "URI");
+        Assertions.assertEquals("http://localhost:80/app/api/items",
+                request.getRequestURL().toString(), "URL");
+        Assertions.assertEquals("/api/items", request.getServletPath(), "Servlet path");
+        Assertions.assertNull(request.getPathInfo(), "Path info");
+        Assertions.assertNull(request.getPathTranslated(), "Path translated");
+        Assertions.assertEquals("name=a+b&name=%C3%A9&flag&&empty=", request.getQueryString(),
+                "Raw query");
+        Assertions.assertEquals("a b", request.getParameter("name"), "First value");
+        Assertions.assertArrayEquals(new String[] {"a b", "\u00e9"},
+                request.getParameterValues("name"), "All values");
+        Assertions.assertEquals("", request.getParameter("flag"), "Valueless parameter");
+        Assertions.assertEquals("", request.getParameter("empty"), "Empty value");
+        Assertions.assertNull(request.getParameter("missing"), "Missing parameter");
+        Assertions.assertNull(request.getParameterValues("missing"), "Missing values");
+        Assertions.assertEquals(List.of("name", "flag", "empty"),
+                Collections.list(request.getParameterNames()), "Parameter order");
+        Assertions.assertEquals(3, request.getParameterMap().size(), "Parameter map");
+
+        final BatchServletRequest noQuery = request("/api/items", Map.of());
+        Assertions.assertNull(noQuery.getQueryString(), "No query");
+        Assertions.assertTrue(noQuery.getParameterMap().isEmpty(), "No parameters");
+    }
+
+    /**
+     * Headers come from the given map, not from the batch request.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: Headers come from the given map, not from the batch request
+     * Test conditions: Text, integer, date, empty, and missing headers
+     * Test result: Case-insensitive values, -1 for missing numbers and dates
+     * </pre>
+     */
+    @Test
+    void readsHeaders() {
+        final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+        headers.put("Accept", List.of("text/plain", "application/json"));
+        headers.put("Max-Forwards", List.of("3"));
+        headers.put("If-Modified-Since", List.of("Thu, 01 Jan 1970 00:00:01 GMT"));
+        headers.put("Empty", List.of());
+        headers.put("Bad-Date", List.of("yesterday"));
+        final BatchServletRequest request = request("/api/items", headers);
+
+        Assertions.assertEquals("text/plain", request.getHeader("accept"), "First value");
+        Assertions.assertEquals(List.of("text/plain", "application/json"),
+                Collections.list(request.getHeaders("ACCEPT")), "All values");
+        Assertions.assertFalse(request.getHeaders("missing").hasMoreElements(), "No values");
+        Assertions.assertNull(request.getHeader("Empty"), "Empty header");
+        Assertions.assertNull(request.getHeader("Batch-Only"), "Batch headers are hidden");
+        Assertions.assertEquals(5, Collections.list(request.getHeaderNames()).size(), "Names");
+        Assertions.assertEquals(3, request.getIntHeader("Max-Forwards"), "Integer header");
+        Assertions.assertEquals(-1, request.getIntHeader("missing"), "Missing integer");
+        Assertions.assertEquals(1000L, request.getDateHeader("If-Modified-Since"), "Date");
+        Assertions.assertEquals(-1L, request.getDateHeader("missing"), "Missing date");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> request.getDateHeader("Bad-Date"), "Invalid date");
+    }
+
+    /**
+     * Body, attributes, and dispatch state are private to the sub-request.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: Body, attributes, and dispatch state are private to the sub-request
+     * Test conditions: Batch request with a body, an attribute, and locales
+     * Test result: Empty body, separate attributes, copied locales, REQUEST dispatch, no async
+     * </pre>
+     *
+     * @throws IOException when reading fails
+     */
+    @Test
+    void isolatesBodyAndState() throws IOException {
+        final BatchServletRequest request = request("/api/items", Map.of());
+
+        Assertions.assertNull(request.getContentType(), "Content type");
+        Assertions.assertEquals(-1, request.getContentLength(), "Content length");
+        Assertions.assertEquals(-1L, request.getContentLengthLong(), "Long content length");
+        request.setCharacterEncoding("ISO-8859-1");
+        Assertions.assertNull(request.getCharacterEncoding(), "Character encoding");
+        Assertions.assertEquals(-1, request.getInputStream().read(), "Empty stream");
+        Assertions.assertTrue(request.getInputStream().isFinished(), "Finished");
+        Assertions.assertTrue(request.getInputStream().isReady(), "Ready");
+        request.getInputStream().setReadListener(null);
+        Assertions.assertNull(request.getReader().readLine(), "Empty reader");
+
+        Assertions.assertNull(request.getAttribute("batch"), "Batch attribute is hidden");
+        request.setAttribute("own", "value");
+        Assertions.assertEquals("value", request.getAttribute("own"), "Own attribute");
+        Assertions.assertEquals(List.of("own"), Collections.list(request.getAttributeNames()),
+                "Attribute names");
+        request.setAttribute("own", null);
+        Assertions.assertNull(request.getAttribute("own"), "Null removes");
+        request.setAttribute("own", "value");
+        request.removeAttribute("own");
+        Assertions.assertNull(request.getAttribute("own"), "Removed");
+
+        Assertions.assertEquals(Locale.FRENCH, request.getLocale(), "Locale");
+        Assertions.assertEquals(List.of(Locale.FRENCH, Locale.ENGLISH),
+                Collections.list(request.getLocales()), "Locales");
+        Assertions.assertEquals(DispatcherType.REQUEST, request.getDispatcherType(), "Dispatch");
+        Assertions.assertFalse(request.isAsyncStarted(), "Async started");
+        Assertions.assertFalse(request.isAsyncSupported(), "Async supported");
+        Assertions.assertThrows(IllegalStateException.class, request::startAsync, "Start");
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> request.startAsync(request, new MockHttpServletResponse()), "Start with");
+        Assertions.assertThrows(IllegalStateException.class, request::getAsyncContext, "Context");
+    }
+
+    /**
+     * Builds a sub-request of a batch request under the /app context path.
+     *
+     * @param target path with optional query string
+     * @param headers sub-request headers
+     * @return sub-request
+     */
+    private static BatchServletRequest request(final String target,
+            final Map<String, List<String>> headers) {
+        final MockHttpServletRequest batch = new MockHttpServletRequest("POST", "/app/api/batch");
+        batch.setContextPath("/app");
+        batch.setContent("{}".getBytes(StandardCharsets.UTF_8));
+        batch.setAttribute("batch", Boolean.TRUE);
+        batch.addHeader("Batch-Only", "yes");
+        batch.setPreferredLocales(List.of(Locale.FRENCH, Locale.ENGLISH));
+        return new BatchServletRequest(batch, target, headers);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.demo.batch;
+
+import jakarta.servlet.http.Cookie;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/** Tests for {@link BatchServletResponse}. */
+class BatchServletResponseTest {
+    /**
+     * Headers are kept case-insensitively and joined for the batch result.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: Headers are kept case-insensitively and joined for the batch result
+     * Test conditions: Text, integer, date, cookie, null, and repeated headers
+     * Test result: Joined values in insertion order without Set-Cookie; nothing reaches the
+     *              batch response
+     * </pre>
+     */
+    @Test
+    void buffersHeaders() {
+        final MockHttpServletResponse batch = new MockHttpServletResponse();
+        final BatchServletResponse response = new BatchServletResponse(batch);
+
+        response.setHeader("Vary", "Accept");
+        response.addHeader("vary", "Accept-Encoding");
+        response.addHeader("Ignored", null);
+        response.setIntHeader("Retry-After", 5);
+        response.addIntHeader("X-Count", 1);
+        response.addIntHeader("X-Count", 2);
+        response.setDateHeader("Expires", 1000L);
+        response.addDateHeader("X-Date", 0L);
+        final Cookie cookie = new Cookie("session", "abc");
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        response.addCookie(cookie);
+        response.setHeader("Removed", "x");
+        response.setHeader("Removed", null);
+
+        Assertions.assertEquals(Map.of("Vary", "Accept, Accept-Encoding", "Retry-After", "5",
+                "X-Count", "1, 2", "Expires", "Thu, 1 Jan 1970 00:00:01 GMT",
+                "X-Date", "Thu, 1 Jan 1970 00:00:00 GMT"), response.getHeaderMap(), "Headers");
+        Assertions.assertEquals(List.of("session=abc; Path=/; HttpOnly"),
+                response.getHeaders("Set-Cookie"), "Cookie kept apart from the header map");
+        Assertions.assertEquals(List.of("Vary", "Retry-After", "X-Count", "Expires", "X-Date",
+                "Set-Cookie"), response.getHeaderNames(), "Insertion order");
+        Assertions.assertTrue(response.containsHeader("VARY"), "Case-insensitive");
+        Assertions.assertEquals("Accept", response.getHeader("vary"), "First value");
+        Assertions.assertNull(response.getHeader("Missing"), "Missing header");
+        Assertions.assertEquals(List.of("1", "2"), response.getHeaders("x-count"), "All values");
+        Assertions.assertTrue(response.getHeaders("Missing").isEmpty(), "No values");
+        Assertions.assertTrue(batch.getHeaderNames().isEmpty(), "Batch response untouched");
+    }
+
+    /**
+     * The body is buffered through the stream or the writer.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: The body is buffered through the stream or the writer
+     * Test conditions: Stream and writer output, explicit and content-type charsets, reset
+     * Test result: Encoded bytes in order; resets discard body, headers, and status
+     * </pre>
+     *
+     * @throws IOException when writing fails
+     */
+    @Test
+    void buffersBody() throws IOException {
+        final BatchServletResponse response =
+                new BatchServletResponse(new MockHttpServletResponse());
+        Assertions.assertEquals("UTF-8", response.getCharacterEncoding(), "Default charset");
+        response.setContentType("text/plain");
+        Assertions.assertEquals("UTF-8", response.getCharacterEncoding(), "No charset parameter");
+        response.setContentType("text/plain;charset=ISO-8859-1");
+        Assertions.assertEquals("ISO-8859-1", response.getCharacterEncoding(), "Type charset");
+        Assertions.assertEquals("text/plain;charset=ISO-8859-1", response.getContentType(),
+                "Content type");
+        response.setContentLength(1);
+        response.setContentLengthLong(1L);
+        response.setBufferSize(1);
+        Assertions.assertFalse(response.containsHeader("Content-Length"), "Length ignored");
+
+        response.getOutputStream().write('a');
+        response.getOutputStream().write("bc".getBytes(StandardCharsets.US_ASCII), 0, 2);
+        Assertions.assertTrue(response.getOutputStream().isReady(), "Ready");
+        response.getOutputStream().setWriteListener(null);
+        response.getWriter().write("\u00e9");
+        Assertions.assertSame(response.getWriter(), response.getWriter(), "Same writer");
+        response.writeBody(new byte[] {'!'});
+        response.writeBody(null);
+        Assertions.assertArrayEquals(new byte[] {'a', 'b', 'c', (byte) 0xe9, '!'},
+                response.getContentAsByteArray(), "Body in writer charset");
+        Assertions.assertFalse(response.isCommitted(), "Not committed");
+        response.flushBuffer();
+        Assertions.assertTrue(response.isCommitted(), "Committed");
+
+        response.getWriter().write("x");
+        response.resetBuffer();
+        Assertions.assertEquals(0, response.getContentAsByteArray().length, "Buffer reset");
+        response.setStatus(201);
+        response.reset();
+        Assertions.assertEquals(200, response.getStatus(), "Status reset");
+        Assertions.assertNull(response.getContentType(), "Headers reset");
+
+        response.setCharacterEncoding("UTF-16");
+        Assertions.assertEquals("UTF-16", response.getCharacterEncoding(), "Explicit charset");
+        response.setLocale(Locale.GERMAN);
+        Assertions.assertEquals(Locale.GERMAN, response.getLocale(), "Locale");
+    }
+
+    /**
+     * Errors and redirects set the status and commit without a body.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: Errors and redirects set the status and commit without a body
+     * Test conditions: sendError with and without a message, sendRedirect, a fresh response
+     * Test result: Matching status, message, Location for the redirect, and committed responses
+     * </pre>
+     */
+    @Test
+    void recordsErrorsAndRedirects() {
+        final BatchServletResponse fresh = new BatchServletResponse(new MockHttpServletResponse());
+        Assertions.assertEquals(0, fresh.getContentAsByteArray().length, "No body");
+        fresh.flushBuffer();
+        fresh.resetBuffer();
+
+        final BatchServletResponse error = new BatchServletResponse(new MockHttpServletResponse());
+        error.sendError(404);
+        Assertions.assertEquals(404, error.getStatus(), "Error status");
+        Assertions.assertTrue(error.isCommitted(), "Error commits");
+
+        final BatchServletResponse message =
+                new BatchServletResponse(new MockHttpServletResponse());
+        message.sendError(503, "busy");
+        Assertions.assertEquals(503, message.getStatus(), "Error status with message");
+        Assertions.assertEquals("busy", message.getErrorMessage(), "Error message");
+
+        final BatchServletResponse redirect =
+                new BatchServletResponse(new MockHttpServletResponse());
+        redirect.sendRedirect("/api/hello");
+        Assertions.assertEquals(302, redirect.getStatus(), "Redirect status");
+        Assertions.assertEquals("/api/hello", redirect.getHeader("Location"), "Location");
+        Assertions.assertTrue(redirect.isCommitted(), "Redirect commits");
+    }
+
+    /**
+     * Only errors committed without a body are flagged for rendering.
+     *
+     * <pre>
+     * Theme: Batch requests
+     * Test view: Only errors committed without a body are flagged for rendering
+     * Test conditions: Fresh, flushed 200, redirected, sent 405, and 405 with a body
+     * Test result: Only the sent 405 without a body is flagged
+     * </pre>
+     */
+    @Test
+    void flagsBodilessErrors() {
+        final BatchServletResponse response =
+                new BatchServletResponse(new MockHttpServletResponse());
+        Assertions.assertFalse(response.isBodilessError(), "Uncommitted response");
+        response.flushBuffer();
+        Assertions.assertFalse(response.isBodilessError(), "Committed success");
+        response.sendRedirect("/api/hello");
+        Assertions.assertFalse(response.isBodilessError(), "Redirect");
+        response.sendError(405);
+        Assertions.assertTrue(response.isBodilessError(), "Error without a body");
+        Assertions.assertNull(response.getErrorMessage(), "No message");
+        response.writeBody(new byte[] {'x'});
+        Assertions.assertFalse(response.isBodilessError(), "Error with a body");
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+/** Tests for {@link MdcTaskDecorator}. */
+class MdcTaskDecoratorTest {
+    /** MDC key used by tests. */
+    private static final String KEY = "traceId";
+
+    /** Clears MDC values after each test. */
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    /**
+     * Tasks run with the submitter's MDC and leave the worker's MDC intact.
+     *
+     * <pre>
+     * Theme: Task context propagation
+     * Test view: Tasks run with the submitter's MDC and leave the worker's MDC intact
+     * Test conditions: Submitter with a trace id; virtual worker with its own trace id
+     * Test result: Task sees the submitter's trace id; worker sees its own afterwards
+     * </pre>
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    @Test
+    void propagatesSubmitterContext() throws InterruptedException {
+        MDC.put(KEY, "request-trace");
+        final List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        final Runnable task = new MdcTaskDecorator().decorate(() -> seen.add(MDC.get(KEY)));
+        MDC.put(KEY, "changed-after-submit");
+
+        Thread.ofVirtual().start(() -> {
+            MDC.put(KEY, "worker-trace");
+            task.run();
+            seen.add(MDC.get(KEY));
+        }).join();
+
+        Assertions.assertEquals(List.of("request-trace", "worker-trace"), seen,
+                "Task context and restored worker context");
+    }
+
+    /**
+     * Tasks submitted without MDC run with an empty MDC and leave none behind.
+     *
+     * <pre>
+     * Theme: Task context propagation
+     * Test view: Tasks submitted without MDC run with an empty MDC and leave none behind
+     * Test conditions: Empty submitter MDC; worker with a stale trace id, then a task that
+     *                  sets one on a worker without MDC
+     * Test result: Stale value hidden during the task; value set by the task is cleared
+     * </pre>
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    @Test
+    void clearsWhenNoContext() throws InterruptedException {
+        final List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        final MdcTaskDecorator decorator = new MdcTaskDecorator();
+        final Runnable observe = decorator.decorate(() -> seen.add(String.valueOf(MDC.get(KEY))));
+        final Runnable leak = decorator.decorate(() -> MDC.put(KEY, "leaked"));
+
+        Thread.ofVirtual().start(() -> {
+            MDC.put(KEY, "stale");
+            observe.run();
+            MDC.clear();
+            leak.run();
+            seen.add(String.valueOf(MDC.get(KEY)));
+        }).join();
+
+        Assertions.assertEquals(List.of("null", "null"), seen, "No context in or after tasks");
+    }
+}
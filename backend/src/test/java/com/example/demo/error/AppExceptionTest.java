@@ -1,6 +1,7 @@
 package com.example.demo.error;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.example.demo.model.ErrorDetails;
 import org.junit.jupiter.api.Test;
@@ -73,4 +74,122 @@ class AppExceptionTest {
         assertThat(copy).isNotNull();
         assertThat(copy.getAdditionalProperties()).isNull();
     }
+
+    /**
+     * Expected client errors skip stack capture.
+     *
+     * <pre>
+     * Theme: Stackless exceptions
+     * Test view: Expected client errors skip stack capture
+     * Test conditions: Default configuration; NOT_FOUND and INTERNAL_ERROR exceptions with cause
+     * Test result: NOT_FOUND has no stack trace; INTERNAL_ERROR keeps one; causes are kept
+     * </pre>
+     */
+    @Test
+    void defaultCodesSkipStackCapture() {
+        final IllegalStateException cause = new IllegalStateException("cause");
+
+        final AppException notFound = new AppException(ErrorCode.NOT_FOUND, "Not found",
+                HttpStatus.NOT_FOUND, null, cause);
+        final AppException internal = new AppException(ErrorCode.INTERNAL_ERROR, "Failed",
+                HttpStatus.INTERNAL_SERVER_ERROR);
+
+        assertThat(AppException.isStackless(ErrorCode.NOT_FOUND)).isTrue();
+        assertThat(AppException.isStackless(null)).isFalse();
+        assertThat(notFound.getStackTrace()).isEmpty();
+        assertThat(notFound.getCause()).isSameAs(cause);
+        assertThat(internal.getStackTrace()).isNotEmpty();
+    }
+
+    /**
+     * Stackless codes are configurable.
+     *
+     * <pre>
+     * Theme: Stackless exceptions
+     * Test view: Stackless codes are configurable
+     * Test conditions: Only CONFLICT configured, then a blank value, then an unknown name,
+     *                  then the configurer's context closes
+     * Test result: Only configured codes skip stacks; blank keeps all; unknown names throw;
+     *              closing the context restores the defaults
+     * </pre>
+     */
+    @Test
+    void stacklessCodesAreConfigurable() {
+        try {
+            AppException.setStacklessCodes(" CONFLICT ,");
+            assertThat(new AppException(ErrorCode.CONFLICT, "Conflict", HttpStatus.CONFLICT)
+                    .getStackTrace()).isEmpty();
+            assertThat(new AppException(ErrorCode.NOT_FOUND, "Not found", HttpStatus.NOT_FOUND)
+                    .getStackTrace()).isNotEmpty();
+
+            AppException.setStacklessCodes("");
+            assertThat(AppException.isStackless(ErrorCode.CONFLICT)).isFalse();
+            assertThatThrownBy(() -> AppException.setStacklessCodes("MISSING"))
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            new AppExceptionConfigurer().destroy();
+            assertThat(AppException.isStackless(ErrorCode.NOT_FOUND)).isTrue();
+        } finally {
+            AppException.setStacklessCodes(AppException.DEFAULT_STACKLESS_CODES);
+        }
+    }
+
+    /**
+     * Cached exceptions are shared and immutable.
+     *
+     * <pre>
+     * Theme: Stackless exceptions
+     * Test view: Cached exceptions are shared and immutable
+     * Test conditions: Repeated lookups, a different status, initCause and addSuppressed calls
+     * Test result: Same instance per code/status/message; no stack, cause, or suppressed state
+     * </pre>
+     */
+    @Test
+    void cachedExceptionsAreSharedAndImmutable() {
+        final AppException shared =
+                AppException.cached(ErrorCode.CONFLICT, "Already exists", HttpStatus.CONFLICT);
+        shared.addSuppressed(new IllegalStateException("ignored"));
+
+        assertThat(AppException.cached(ErrorCode.CONFLICT, "Already exists", HttpStatus.CONFLICT))
+                .isSameAs(shared);
+        assertThat(AppException.cached(ErrorCode.CONFLICT, "Already exists",
+                HttpStatus.BAD_REQUEST)).isNotSameAs(shared);
+        assertThat(shared.getCode()).isEqualTo(ErrorCode.CONFLICT);
+        assertThat(shared.getStatus()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(shared.getMessage()).isEqualTo("Already exists");
+        assertThat(shared.getDetails()).isNull();
+        assertThat(shared.getStackTrace()).isEmpty();
+        assertThat(shared.getSuppressed()).isEmpty();
+        assertThatThrownBy(() -> shared.initCause(new IllegalStateException("cause")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * The shared instance cache stays bounded.
+     *
+     * <pre>
+     * Theme: Stackless exceptions
+     * Test view: The shared instance cache stays bounded
+     * Test conditions: More distinct messages than the cache bound
+     * Test result: Messages beyond the bound still get a correct, uncached exception
+     * </pre>
+     */
+    @Test
+    void cachedExceptionsAreBounded() {
+        final AppException.SharedCache cache = new AppException.SharedCache(2);
+        final AppException cached =
+                cache.get(ErrorCode.BAD_REQUEST, "Invalid a", HttpStatus.BAD_REQUEST);
+        cache.get(ErrorCode.BAD_REQUEST, "Invalid b", HttpStatus.BAD_REQUEST);
+        final String overflow = "Invalid c";
+
+        final AppException first = cache.get(ErrorCode.BAD_REQUEST, overflow,
+                HttpStatus.BAD_REQUEST);
+
+        assertThat(cache.get(ErrorCode.BAD_REQUEST, "Invalid a", HttpStatus.BAD_REQUEST))
+                .isSameAs(cached);
+        assertThat(first.getMessage()).isEqualTo(overflow);
+        assertThat(first.getStackTrace()).isEmpty();
+        assertThat(cache.get(ErrorCode.BAD_REQUEST, overflow, HttpStatus.BAD_REQUEST))
+                .isNotSameAs(first);
+    }
 }
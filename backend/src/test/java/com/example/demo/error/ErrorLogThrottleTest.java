@@ -0,0 +1,247 @@
+package com.example.demo.error;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+/** Tests for {@link ErrorLogThrottle}. */
+class ErrorLogThrottleTest {
+    /** Window length used by the tests. */
+    private static final long WINDOW_MS = 1000L;
+
+    /** Throttle logger. */
+    private final Logger logger = (Logger) LoggerFactory.getLogger(ErrorLogThrottle.class);
+
+    /** Appender collecting summaries. */
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    /** Test clock in milliseconds. */
+    private final AtomicLong clock = new AtomicLong(10_000L);
+
+    /** Throttle under test. */
+    private ErrorLogThrottle throttle;
+
+    /** Creates the throttle and attaches the appender. */
+    @BeforeEach
+    void setUp() {
+        throttle = new ErrorLogThrottle(clock::get);
+        throttle.setWindowMs(WINDOW_MS);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    /** Detaches the appender. */
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        appender.stop();
+    }
+
+    /**
+     * Repeats within a window are suppressed and summarized afterwards.
+     *
+     * <pre>
+     * Theme: Error log throttling
+     * Test view: Repeats within a window are suppressed and summarized afterwards
+     * Test conditions: Same fingerprint three times, then once after the window
+     * Test result: First and post-window occurrences are logged; summary has count and ids
+     * </pre>
+     */
+    @Test
+    void suppressesRepeatsAndSummarizes() {
+        assertThat(throttle.shouldLog(synthetic(7), "t1")).isTrue();
+        assertThat(throttle.shouldLog(synthetic(7), "t2")).isFalse();
+        assertThat(throttle.shouldLog(synthetic(7), "t3")).isFalse();
+        assertThat(appender.list).isEmpty();
+
+        clock.addAndGet(WINDOW_MS);
+        assertThat(throttle.shouldLog(synthetic(7), "t4")).isTrue();
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getFormattedMessage())
+                .contains("Suppressed 2 repeats of java.lang.IllegalStateException")
+                .contains("firstTraceId=t1", "lastTraceId=t3");
+    }
+
+    /**
+     * Fingerprints depend on type and frames, not on the message.
+     *
+     * <pre>
+     * Theme: Error log throttling
+     * Test view: Fingerprints depend on type and frames, not on the message
+     * Test conditions: Same site with different messages; other line; other type
+     * Test result: Only the same type and site share a fingerprint
+     * </pre>
+     */
+    @Test
+    void fingerprintsByTypeAndFrames() {
+        final List<IllegalStateException> sameSite = new ArrayList<>();
+        for (final String message : List.of("x", "y")) {
+            sameSite.add(new IllegalStateException(message));
+        }
+        final long same = ErrorLogThrottle.fingerprint(sameSite.get(0), 8);
+        final IllegalStateException otherLine = new IllegalStateException("x");
+        final IllegalArgumentException otherType = new IllegalArgumentException("x");
+        otherType.setStackTrace(sameSite.get(0).getStackTrace());
+
+        assertThat(ErrorLogThrottle.fingerprint(sameSite.get(1), 8)).isEqualTo(same);
+        assertThat(ErrorLogThrottle.fingerprint(otherLine, 8)).isNotEqualTo(same);
+        assertThat(ErrorLogThrottle.fingerprint(otherType, 8)).isNotEqualTo(same);
+        assertThat(ErrorLogThrottle.fingerprint(otherLine, 0))
+                .isEqualTo(ErrorLogThrottle.fingerprint(sameSite.get(0), 0));
+    }
+
+    /**
+     * Idle fingerprints are summarized and dropped by the sweep.
+     *
+     * <pre>
+     * Theme: Error log throttling
+     * Test view: Idle fingerprints are summarized and dropped by the sweep
+     * Test conditions: One fingerprint repeats and the storm stops; another opens a window;
+     *                  the sweep runs inside and after the window, and with suppression off
+     * Test result: The stopped storm is summarized without a further error and no longer
+     *              tracked; open windows are kept; a disabled throttle sweeps nothing
+     * </pre>
+     */
+    @Test
+    void sweepSummarizesIdleFingerprints() {
+        throttle.shouldLog(synthetic(7), "t1");
+        throttle.shouldLog(synthetic(7), "t2");
+        throttle.sweep();
+        assertThat(appender.list).isEmpty();
+
+        clock.addAndGet(WINDOW_MS);
+        assertThat(throttle.shouldLog(synthetic(1), "t3")).isTrue();
+        throttle.sweep();
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getFormattedMessage()).contains("Suppressed 1 repeats");
+        assertThat(throttle.size()).isEqualTo(1);
+
+        clock.addAndGet(WINDOW_MS);
+        throttle.setWindowMs(0);
+        throttle.sweep();
+        assertThat(throttle.size()).isEqualTo(1);
+    }
+
+    /**
+     * The number of tracked fingerprints is bounded.
+     *
+     * <pre>
+     * Theme: Error log throttling
+     * Test view: The number of tracked fingerprints is bounded
+     * Test conditions: More distinct fingerprints than MAX_FINGERPRINTS, each twice
+     * Test result: Size stays at the bound and untracked fingerprints are always logged
+     * </pre>
+     */
+    @Test
+    void boundsTrackedFingerprints() {
+        for (int line = 0; line < ErrorLogThrottle.MAX_FINGERPRINTS; line++) {
+            throttle.shouldLog(synthetic(line), "t");
+        }
+        final int untracked = ErrorLogThrottle.MAX_FINGERPRINTS;
+
+        assertThat(throttle.shouldLog(synthetic(untracked), "t")).isTrue();
+        assertThat(throttle.shouldLog(synthetic(untracked), "t")).isTrue();
+        assertThat(throttle.size()).isEqualTo(ErrorLogThrottle.MAX_FINGERPRINTS);
+    }
+
+    /**
+     * A zero window disables suppression and negative settings are rejected.
+     *
+     * <pre>
+     * Theme: Error log throttling
+     * Test view: A zero window disables suppression and negative settings are rejected
+     * Test conditions: window-ms 0; negative window-ms and frames
+     * Test result: Every occurrence is logged; invalid values throw
+     * </pre>
+     */
+    @Test
+    void zeroWindowDisablesSuppression() {
+        throttle.setWindowMs(0);
+        throttle.setFrames(0);
+
+        assertThat(throttle.shouldLog(synthetic(7), "t1")).isTrue();
+        assertThat(throttle.shouldLog(synthetic(7), "t2")).isTrue();
+        assertThat(throttle.size()).isZero();
+        assertThatThrownBy(() -> throttle.setWindowMs(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> throttle.setFrames(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Concurrent occurrences are counted without locks or losses.
+     *
+     * <pre>
+     * Theme: Error log throttling
+     * Test view: Concurrent occurrences are counted without locks or losses
+     * Test conditions: 4 threads record 1000 occurrences each inside one window
+     * Test result: Exactly one is logged and the summary counts all others
+     * </pre>
+     *
+     * @throws Exception when a worker fails
+     */
+    @Test
+    void countsConcurrentOccurrences() throws Exception {
+        final int threads = 4;
+        final int perThread = 1000;
+        final IllegalStateException exception = synthetic(7);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int worker = 0; worker < threads; worker++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int logged = 0;
+                    for (int index = 0; index < perThread; index++) {
+                        logged += throttle.shouldLog(exception, "t") ? 1 : 0;
+                    }
+                    return logged;
+                }));
+            }
+            start.countDown();
+            int logged = 0;
+            for (final Future<Integer> result : results) {
+                logged += result.get(10, TimeUnit.SECONDS);
+            }
+            clock.addAndGet(WINDOW_MS);
+            throttle.shouldLog(exception, "t");
+
+            assertThat(logged).isEqualTo(1);
+            assertThat(appender.list.get(0).getFormattedMessage())
+                    .contains("Suppressed " + (threads * perThread - 1) + " repeats");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates an exception with a single synthetic frame.
+     *
+     * @param line line number of the frame
+     * @return exception
+     */
+    private static IllegalStateException synthetic(final int line) {
+        final IllegalStateException exception = new IllegalStateException("synthetic");
+        exception.setStackTrace(new StackTraceElement[] {
+            new StackTraceElement("Synthetic", "fail", "Synthetic.java", line)});
+        return exception;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.demo.error;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.example.demo.metrics.ErrorTelemetry;
 import com.example.demo.model.ErrorDetails;
 import com.example.demo.model.ErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
@@ -240,4 +241,32 @@ class ErrorResponseFactoryBuildResponseTest {
 
         assertThat(ErrorResponseFactory.resolveTraceId(request)).isNotBlank();
     }
+
+    /**
+     * Installed telemetry counts errors until its context closes.
+     *
+     * <pre>
+     * Theme: Error telemetry
+     * Test view: Installed telemetry counts errors until its context closes
+     * Test conditions: Configurer installs a telemetry bean; one error; context close; one error
+     * Test result: Only the error raised before the close is counted in the bean
+     * </pre>
+     */
+    @Test
+    void configuredTelemetryIsDetachedOnClose() {
+        final ErrorTelemetry telemetry = new ErrorTelemetry();
+        final ErrorTelemetryConfigurer configurer = new ErrorTelemetryConfigurer();
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI(API_PATH);
+
+        configurer.setTelemetry(telemetry);
+        ErrorResponseFactory.buildResponse(HttpStatus.BAD_REQUEST, "BAD_REQUEST",
+                BAD_REQUEST_MSG, null, request);
+        configurer.destroy();
+        ErrorResponseFactory.buildResponse(HttpStatus.BAD_REQUEST, "BAD_REQUEST",
+                BAD_REQUEST_MSG, null, request);
+
+        assertThat(telemetry.snapshot()).singleElement()
+                .satisfies(series -> assertThat(series.total()).isEqualTo(1L));
+    }
 }
@@ -0,0 +1,151 @@
+package com.example.demo.error;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/** Tests for {@link ErrorResponseTemplate}. */
+class ErrorResponseTemplateTest {
+    /** Template under test. */
+    private static final ErrorResponseTemplate TEMPLATE =
+            new ErrorResponseTemplate(HttpStatus.NOT_FOUND, ErrorCode.NOT_FOUND, "Not \"found\"");
+
+    /** Fixed timestamp, 2023-11-14T22:13:20.123Z. */
+    private static final long EPOCH_MILLIS = 1_700_000_000_123L;
+
+    /**
+     * Rendered bodies carry the ErrorResponse fields.
+     *
+     * <pre>
+     * Theme: Pre-encoded error bodies
+     * Test view: Rendered bodies carry the ErrorResponse fields
+     * Test conditions: Request with X-Request-Id header and URI
+     * Test result: Status, content type, and JSON fields match the request
+     * </pre>
+     */
+    @Test
+    void renderCarriesRequestFields() {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/missing");
+        request.addHeader("X-Request-Id", "trace-abc");
+        final OffsetDateTime before = OffsetDateTime.now().minusSeconds(1);
+
+        final ResponseEntity<byte[]> response = TEMPLATE.render(request);
+        final JsonNode body = parse(response.getBody());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(body.get("code").asString()).isEqualTo("NOT_FOUND");
+        assertThat(body.get("message").asString()).isEqualTo("Not \"found\"");
+        assertThat(body.get("traceId").asString()).isEqualTo("trace-abc");
+        assertThat(body.get("path").asString()).isEqualTo("/missing");
+        assertThat(OffsetDateTime.parse(body.get("timestamp").asString())).isAfter(before);
+        assertThat(body.has("details")).isFalse();
+    }
+
+    /**
+     * An already resolved traceId is used as is.
+     *
+     * <pre>
+     * Theme: Pre-encoded error bodies
+     * Test view: An already resolved traceId is used as is
+     * Test conditions: Request without trace headers; explicit traceId
+     * Test result: Body carries the explicit traceId
+     * </pre>
+     */
+    @Test
+    void renderUsesGivenTraceId() {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/boom");
+
+        final JsonNode body = parse(TEMPLATE.render(request, "logged-trace").getBody());
+
+        assertThat(body.get("traceId").asString()).isEqualTo("logged-trace");
+    }
+
+    /**
+     * Variable values are JSON-escaped UTF-8.
+     *
+     * <pre>
+     * Theme: Pre-encoded error bodies
+     * Test view: Variable values are JSON-escaped UTF-8
+     * Test conditions: Quotes, backslash, control, 2/3/4-byte and lone surrogate characters
+     * Test result: The body parses back to the original strings and is exactly sized
+     * </pre>
+     */
+    @Test
+    void escapesVariableValues() {
+        final String traceId = "a\"b\\c\n\u0001\u00e9";
+        final String path = "/\u20ac/\uD83D\uDE00/\uD800x/\uDC00/\uD800";
+
+        final byte[] encoded = TEMPLATE.encode(traceId, EPOCH_MILLIS, path);
+        final JsonNode body = parse(encoded);
+
+        assertThat(body.get("traceId").asString()).isEqualTo(traceId);
+        assertThat(body.get("path").asString()).isEqualTo(path);
+        assertThat(encoded[encoded.length - 1]).isEqualTo((byte) '}');
+        assertThat(new String(encoded, StandardCharsets.UTF_8)).contains("\\u0001", "\u20ac");
+    }
+
+    /**
+     * Timestamps are UTC with millisecond precision.
+     *
+     * <pre>
+     * Theme: Pre-encoded error bodies
+     * Test view: Timestamps are UTC with millisecond precision
+     * Test conditions: Fixed instants, two within the same second
+     * Test result: Formatted timestamps match the instants
+     * </pre>
+     */
+    @Test
+    void formatsTimestamps() {
+        assertThat(timestamp(0L)).isEqualTo("1970-01-01T00:00:00.000Z");
+        assertThat(timestamp(EPOCH_MILLIS)).isEqualTo("2023-11-14T22:13:20.123Z");
+        assertThat(timestamp(EPOCH_MILLIS + 876)).isEqualTo("2023-11-14T22:13:20.999Z");
+        assertThat(timestamp(EPOCH_MILLIS + 877)).isEqualTo("2023-11-14T22:13:21.000Z");
+    }
+
+    /**
+     * Missing values are written as empty strings.
+     *
+     * <pre>
+     * Theme: Pre-encoded error bodies
+     * Test view: Missing values are written as empty strings
+     * Test conditions: Null traceId and path
+     * Test result: Body parses with empty traceId and path
+     * </pre>
+     */
+    @Test
+    void writesMissingValuesAsEmpty() {
+        final JsonNode body = parse(TEMPLATE.encode(null, EPOCH_MILLIS, null));
+
+        assertThat(body.get("traceId").asString()).isEmpty();
+        assertThat(body.get("path").asString()).isEmpty();
+    }
+
+    /**
+     * Encodes a body and returns its timestamp.
+     *
+     * @param epochMillis timestamp in epoch milliseconds
+     * @return timestamp field
+     */
+    private static String timestamp(final long epochMillis) {
+        return parse(TEMPLATE.encode("t", epochMillis, "/")).get("timestamp").asString();
+    }
+
+    /**
+     * Parses an encoded body.
+     *
+     * @param body encoded body
+     * @return JSON tree
+     */
+    private static JsonNode parse(final byte[] body) {
+        return JsonMapper.shared().readTree(body);
+    }
+}
@@ -6,7 +6,6 @@ import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
-import com.example.demo.model.ErrorResponse;
 import org.junit.jupiter.api.Test;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -71,11 +70,44 @@ class GlobalExceptionHandlerLoggingTest {
         final Level previousLevel = logger.getLevel();
         logger.setLevel(Level.OFF);
         try {
-            final ResponseEntity<ErrorResponse> response =
+            final ResponseEntity<byte[]> response =
                     handler.handleUnhandled(new IllegalStateException("boom"), request);
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
         } finally {
             logger.setLevel(previousLevel);
         }
     }
+
+    /**
+     * Repeated unhandled exceptions log one stack trace per window.
+     *
+     * <pre>
+     * Theme: Exception logging
+     * Test view: Repeated unhandled exceptions log one stack trace per window
+     * Test conditions: The same failure site is handled three times
+     * Test result: One error log entry; every response remains INTERNAL_SERVER_ERROR
+     * </pre>
+     */
+    @Test
+    void handleUnhandledSuppressesRepeatedStackTraces() {
+        final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/api/hello");
+
+        final Logger logger = (Logger) LoggerFactory.getLogger(HANDLER_LOGGER);
+        final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            for (int attempt = 0; attempt < 3; attempt++) {
+                final ResponseEntity<byte[]> response =
+                        handler.handleUnhandled(new IllegalStateException("boom"), request);
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+            assertThat(appender.list).hasSize(1);
+        } finally {
+            logger.detachAppender(appender);
+            appender.stop();
+        }
+    }
 }
@@ -69,7 +69,7 @@ class GlobalExceptionHandlerStatusTest {
         final MockHttpServletRequest request = new MockHttpServletRequest();
         request.setRequestURI("/api/hello");
 
-        final ResponseEntity<ErrorResponse> response = handler.handleNotReadable(
+        final ResponseEntity<byte[]> response = handler.handleNotReadable(
                 new HttpMessageNotReadableException("bad", new MockHttpInputMessage(new byte[0])),
                 request);
 
@@ -196,7 +196,7 @@ class GlobalExceptionHandlerStatusTest {
 
         final NoHandlerFoundException exception =
                 new NoHandlerFoundException("GET", "/missing", new HttpHeaders());
-        final ResponseEntity<ErrorResponse> response = handler.handleNotFound(exception, request);
+        final ResponseEntity<byte[]> response = handler.handleNotFound(exception, request);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
@@ -219,7 +219,7 @@ class GlobalExceptionHandlerStatusTest {
 
         final NoResourceFoundException exception =
                 new NoResourceFoundException(HttpMethod.GET, "/missing", "/missing");
-        final ResponseEntity<ErrorResponse> response =
+        final ResponseEntity<byte[]> response =
                 handler.handleResourceNotFound(exception, request);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
@@ -241,7 +241,7 @@ class GlobalExceptionHandlerStatusTest {
         final MockHttpServletRequest request = new MockHttpServletRequest();
         request.setRequestURI("/api/hello");
 
-        final ResponseEntity<ErrorResponse> response =
+        final ResponseEntity<byte[]> response =
                 handler.handleUnhandled(new IllegalStateException("boom"), request);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -0,0 +1,152 @@
+package com.example.demo.logging;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/** Tests for {@link AccessLogArgument}. */
+class AccessLogArgumentTest {
+    /** API path used by tests. */
+    private static final String PATH_API = "/api/hello";
+
+    /** Content type used by tests. */
+    private static final String JSON_TYPE = "application/json";
+
+    /** Requests written before allocation is measured. */
+    private static final int WARMUP_REQUESTS = 20_000;
+
+    /** Requests measured for the allocation figure. */
+    private static final int MEASURED_REQUESTS = 10_000;
+
+    /** Allocation budget per access line in bytes. */
+    private static final long ALLOCATION_BUDGET_BYTES = 512L;
+
+    /**
+     * Access fields are written as typed top-level properties with masked headers.
+     *
+     * <pre>
+     * Theme: Streaming access-log encoding
+     * Test view: Access fields are written as typed top-level properties with masked headers
+     * Test conditions: Record with query secret, forwarded header, sensitive headers, and body
+     * Test result: JSON carries numbers, booleans, nested masked headers, and sanitized values
+     * </pre>
+     */
+    @Test
+    void writesTypedFieldsAndMasksHeaders() {
+        final AccessLogRecord record = record(
+                new AccessLogRecord.BodySnapshot("{\"password\":\"p\"}".getBytes(
+                        StandardCharsets.UTF_8), 16L, JSON_TYPE, true),
+                "token=abc", "203.0.113.7, 10.0.0.1");
+
+        final JsonNode json = JsonMapper.shared().readTree(
+                new AccessLogArgument(record, AccessLogClientIpResolver
+                        .defaultTrustedProxyAddresses(), ForwardingHeader.X_FORWARDED_FOR)
+                        .toString());
+
+        Assertions.assertEquals("GET", json.get("method").asString(), "Method should be written");
+        Assertions.assertTrue(json.get("status").isInt(), "Status should be numeric");
+        Assertions.assertEquals(7L, json.get("durationMs").asLong(), "Duration should be kept");
+        Assertions.assertEquals("token=****", json.get("query").asString(),
+                "Query secrets should be masked");
+        Assertions.assertEquals("203.0.113.7", json.get("clientIp").asString(),
+                "Client IP should come from the trusted forwarded header");
+        Assertions.assertEquals("****", json.get("requestHeaders").get("Authorization")
+                .asString(), "Sensitive request header should be masked");
+        Assertions.assertEquals("text/plain", json.get("requestHeaders").get("Accept")
+                .asString(), "Other request headers should be kept");
+        Assertions.assertEquals("****", json.get("responseHeaders").get("Set-Cookie")
+                .asString(), "Sensitive response header should be masked");
+        Assertions.assertEquals("{\"password\":\"****\"}", json.get("requestBody").asString(),
+                "Request body should be sanitized");
+        Assertions.assertTrue(json.get("responseBody").isNull(), "Missing body is null");
+        Assertions.assertFalse(json.get("requestBodyTruncated").asBoolean(),
+                "Complete body is not truncated");
+        Assertions.assertTrue(json.get("responseBodyOmitted").asBoolean(),
+                "Uncaptured body should be omitted");
+        Assertions.assertEquals(16L, json.get("requestBodyBytes").asLong(),
+                "Original request body length should be written");
+        Assertions.assertTrue(json.get("responseBodyBytes").isNull(), "Unknown length is null");
+        Assertions.assertTrue(json.get("exception").isNull(), "No failure recorded");
+        Assertions.assertEquals(1.0d, json.get("sampleWeight").asDouble(),
+                "Sample weight should be written");
+    }
+
+    /**
+     * Steady-state access lines stay within the per-request allocation budget.
+     *
+     * <pre>
+     * Theme: Streaming access-log encoding
+     * Test view: Steady-state access lines stay within the per-request allocation budget
+     * Test conditions: Capture disabled, four headers, generator writing to a null stream
+     * Test result: Average allocation per written line is below ALLOCATION_BUDGET_BYTES
+     * </pre>
+     */
+    @Test
+    void steadyStateAllocationStaysWithinBudget() {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(),
+                "Thread allocation accounting is required");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        final AccessLogArgument argument = new AccessLogArgument(
+                record(new AccessLogRecord.BodySnapshot(null, 0L, JSON_TYPE, false), null, null),
+                AccessLogClientIpResolver.defaultTrustedProxyAddresses(),
+                ForwardingHeader.X_FORWARDED_FOR);
+
+        try (JsonGenerator generator =
+                JsonMapper.shared().createGenerator(OutputStream.nullOutputStream())) {
+            writeLines(generator, argument, WARMUP_REQUESTS);
+            final long before = threads.getCurrentThreadAllocatedBytes();
+            writeLines(generator, argument, MEASURED_REQUESTS);
+            final long perRequest =
+                    (threads.getCurrentThreadAllocatedBytes() - before) / MEASURED_REQUESTS;
+
+            Assertions.assertTrue(perRequest < ALLOCATION_BUDGET_BYTES,
+                    "Allocation per access line was " + perRequest + " bytes");
+        }
+    }
+
+    /**
+     * Writes the argument as consecutive root-level objects.
+     *
+     * @param generator JSON generator
+     * @param argument argument to write
+     * @param count number of objects
+     */
+    private static void writeLines(final JsonGenerator generator,
+            final AccessLogArgument argument, final int count) {
+        for (int index = 0; index < count; index++) {
+            generator.writeStartObject();
+            argument.writeTo(generator);
+            generator.writeEndObject();
+        }
+        generator.flush();
+    }
+
+    /**
+     * Builds a record with fixed headers and the given request body, query, and forwarded value.
+     *
+     * @param requestBody request body snapshot
+     * @param query raw query string
+     * @param forwarding raw X-Forwarded-For value
+     * @return access-log record
+     */
+    private static AccessLogRecord record(final AccessLogRecord.BodySnapshot requestBody,
+            final String query, final String forwarding) {
+        return AccessLogRecord.builder().method("GET").path(PATH_API).query(query).status(200)
+                .durationMs(7L).sampleWeight(1.0d).remoteAddr("127.0.0.1")
+                .forwarding(forwarding).userAgent("junit")
+                .requestHeaders(List.of("Authorization", "Bearer x", "Accept", "text/plain"))
+                .responseHeaders(List.of("Set-Cookie", "id=1", "Content-Type", JSON_TYPE))
+                .requestBody(requestBody)
+                .responseBody(new AccessLogRecord.BodySnapshot(null, -1L, JSON_TYPE, false))
+                .build();
+    }
+}
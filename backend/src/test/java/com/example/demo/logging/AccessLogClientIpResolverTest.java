@@ -1,6 +1,5 @@
 package com.example.demo.logging;
 
-import java.util.Set;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -36,7 +35,7 @@ class AccessLogClientIpResolverTest {
         request.addHeader(FORWARDED_HEADER, ipv4Address(203, 0, 113, 20));
 
         final String clientIp = AccessLogClientIpResolver.resolveClientIp(request,
-                Set.of(ipv4Address(127, 0, 0, 1)));
+                TrustedProxyMatcher.parse(ipv4Address(127, 0, 0, 1)));
         Assertions.assertEquals(ipv4Address(10, 0, 0, 5), clientIp,
                 "Forwarded value must be ignored for untrusted proxies");
     }
@@ -48,7 +47,7 @@ class AccessLogClientIpResolverTest {
      * Theme: Trusted proxy resolution
      * Test view: Forwarded headers are honored for allowlisted remotes
      * Test conditions: Remote address is in trusted proxy set
-     * Test result: First forwarded IP is returned
+     * Test result: Nearest untrusted forwarded IP is returned
      * </pre>
      */
     @Test
@@ -59,9 +58,9 @@ class AccessLogClientIpResolverTest {
                 ipv4Address(203, 0, 113, 20) + ", " + ipv4Address(70, 0, 0, 1));
 
         final String clientIp = AccessLogClientIpResolver.resolveClientIp(request,
-                Set.of(ipv4Address(10, 0, 0, 5)));
-        Assertions.assertEquals(ipv4Address(203, 0, 113, 20), clientIp,
-                "First forwarded hop should be used for trusted proxies");
+                TrustedProxyMatcher.parse(ipv4Address(10, 0, 0, 5)));
+        Assertions.assertEquals(ipv4Address(70, 0, 0, 1), clientIp,
+                "Rightmost untrusted hop should be used for trusted proxies");
     }
 
     /**
@@ -96,26 +95,51 @@ class AccessLogClientIpResolverTest {
                 AccessLogClientIpResolver.isTrustedProxy(ipv4Address(127, 0, 0, 1), null),
                 "Null trusted set must be rejected");
         Assertions.assertFalse(
-                AccessLogClientIpResolver.isTrustedProxy(ipv4Address(127, 0, 0, 1), Set.of()),
+                AccessLogClientIpResolver.isTrustedProxy(ipv4Address(127, 0, 0, 1),
+                        TrustedProxyMatcher.parse("")),
                 "Empty trusted set must be rejected");
     }
 
     /**
-     * Canonical remote address forms are accepted when allowlisted.
+     * Host names are never resolved.
      *
      * <pre>
      * Theme: Trusted proxy resolution
-     * Test view: Canonical remote address forms are accepted when allowlisted
+     * Test view: Host names are never resolved
      * Test conditions: Remote address is localhost and allowlist contains loopback IP
-     * Test result: isTrustedProxy returns true
+     * Test result: isTrustedProxy returns false
      * </pre>
      */
     @Test
-    void isTrustedProxyAcceptsCanonicalAddressResolution() {
-        Assertions.assertTrue(
+    void isTrustedProxyDoesNotResolveHostNames() {
+        Assertions.assertFalse(
                 AccessLogClientIpResolver.isTrustedProxy("localhost",
-                        Set.of(ipv4Address(127, 0, 0, 1))),
-                "Canonical loopback address should be treated as trusted");
+                        TrustedProxyMatcher.parse(ipv4Address(127, 0, 0, 1))),
+                "Host names must not be resolved on the request path");
+    }
+
+    /**
+     * CIDR ranges from configuration are honored.
+     *
+     * <pre>
+     * Theme: Trusted proxy resolution
+     * Test view: CIDR ranges from configuration are honored
+     * Test conditions: Allowlist contains 10.0.0.0/8 and remote is inside or outside it
+     * Test result: Forwarded IP is used only inside the range
+     * </pre>
+     */
+    @Test
+    void resolveClientIpHonorsCidrRanges() {
+        final TrustedProxyMatcher trusted =
+                AccessLogClientIpResolver.parseTrustedProxyAddresses("10.0.0.0/8");
+        final String forwarded = ipv4Address(203, 0, 113, 20);
+
+        Assertions.assertEquals(forwarded, AccessLogClientIpResolver
+                .resolveClientIp(ipv4Address(10, 20, 30, 40), forwarded, trusted),
+                "Remote inside the range should be trusted");
+        Assertions.assertEquals(ipv4Address(11, 0, 0, 1), AccessLogClientIpResolver
+                .resolveClientIp(ipv4Address(11, 0, 0, 1), forwarded, trusted),
+                "Remote outside the range should not be trusted");
     }
 
     /**
@@ -0,0 +1,304 @@
+package com.example.demo.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+/** Tests for {@link AccessLogDispatcher}. */
+class AccessLogDispatcherTest {
+    /** Trace id used by tests. */
+    private static final String TRACE_ID = "trace-async";
+
+    /** Clears MDC values after each test. */
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    /**
+     * Records are written on the writer thread with their trace id.
+     *
+     * <pre>
+     * Theme: Asynchronous access logging
+     * Test view: Records are written on the writer thread with their trace id
+     * Test conditions: Running dispatcher receives one record
+     * Test result: Sink runs on another thread and sees the record trace id in MDC
+     * </pre>
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    @Test
+    void dispatchWritesOnWriterThreadWithTraceId() throws InterruptedException {
+        final List<String> seen = new CopyOnWriteArrayList<>();
+        final CountDownLatch written = new CountDownLatch(1);
+        final AccessLogDispatcher dispatcher =
+                new AccessLogDispatcher(8, AccessLogDispatcher.OverflowPolicy.DROP, record -> {
+                    seen.add(Thread.currentThread().getName());
+                    seen.add(MDC.get("traceId"));
+                    written.countDown();
+                });
+        dispatcher.start();
+        try {
+            Assertions.assertTrue(
+                    dispatcher.dispatch(AccessLogRecord.builder().traceId(TRACE_ID).build()),
+                    "Record should be enqueued");
+            Assertions.assertTrue(written.await(5, TimeUnit.SECONDS),
+                    "Record should be written");
+        } finally {
+            dispatcher.stop();
+        }
+        Assertions.assertEquals(List.of("access-log-writer", TRACE_ID), seen,
+                "Sink should run on the writer thread with the trace id bound");
+    }
+
+    /**
+     * An idle writer is unparked by the next record.
+     *
+     * <pre>
+     * Theme: Asynchronous access logging
+     * Test view: An idle writer is unparked by the next record
+     * Test conditions: Running dispatcher whose writer parked on an empty buffer
+     * Test result: Dispatch clears the idle flag and the record is written
+     * </pre>
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    @Test
+    void dispatchWakesIdleWriter() throws InterruptedException {
+        final CountDownLatch written = new CountDownLatch(1);
+        final AccessLogDispatcher dispatcher = new AccessLogDispatcher(8,
+                AccessLogDispatcher.OverflowPolicy.DROP, record -> written.countDown());
+        dispatcher.start();
+        try {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!dispatcher.isWriterIdle() && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            Assertions.assertTrue(dispatcher.isWriterIdle(), "Writer should park when idle");
+            dispatcher.dispatch(AccessLogRecord.builder().build());
+            Assertions.assertTrue(written.await(5, TimeUnit.SECONDS),
+                    "Record should be written");
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    /**
+     * Full buffers drop records under the DROP policy.
+     *
+     * <pre>
+     * Theme: Asynchronous access logging
+     * Test view: Full buffers drop records under the DROP policy
+     * Test conditions: Writer is blocked and the buffer holds two records
+     * Test result: Extra records are rejected and counted
+     * </pre>
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    @Test
+    void dispatchDropsWhenFull() throws InterruptedException {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AccessLogDispatcher dispatcher =
+                new AccessLogDispatcher(2, AccessLogDispatcher.OverflowPolicy.DROP, record -> {
+                    entered.countDown();
+                    awaitQuietly(release);
+                });
+        final AccessLogRecord record = AccessLogRecord.builder().build();
+        dispatcher.start();
+        try {
+            dispatcher.dispatch(record);
+            Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS),
+                    "Writer should pick up the first record");
+            dispatcher.dispatch(record);
+            dispatcher.dispatch(record);
+            Assertions.assertFalse(dispatcher.dispatch(record), "Full buffer should drop");
+            Assertions.assertEquals(1L, dispatcher.getDroppedCount(),
+                    "Dropped records should be counted");
+            Assertions.assertEquals(2, dispatcher.getPendingCount(),
+                    "Two records should be pending");
+        } finally {
+            release.countDown();
+            dispatcher.stop();
+        }
+    }
+
+    /**
+     * Stopped dispatchers write inline and count sink failures.
+     *
+     * <pre>
+     * Theme: Asynchronous access logging
+     * Test view: Stopped dispatchers write inline and count sink failures
+     * Test conditions: Dispatcher is not started and sink throws once
+     * Test result: Successful records are written inline; failures are counted as dropped
+     * </pre>
+     */
+    @Test
+    void dispatchWritesInlineWhenStopped() {
+        final List<String> paths = new CopyOnWriteArrayList<>();
+        final AccessLogDispatcher dispatcher = new AccessLogDispatcher(2, null, record -> {
+            if (record.getPath() == null) {
+                throw new IllegalStateException("sink failure");
+            }
+            paths.add(record.getPath());
+        });
+        MDC.put("traceId", "outer");
+
+        Assertions.assertTrue(dispatcher.dispatch(AccessLogRecord.builder().path("/x").build()),
+                "Inline write should succeed");
+        Assertions.assertFalse(dispatcher.dispatch(AccessLogRecord.builder().build()),
+                "Sink failures should be reported");
+        Assertions.assertEquals(List.of("/x"), paths, "Inline record should be written");
+        Assertions.assertEquals(1L, dispatcher.getDroppedCount(),
+                "Sink failures should be counted as dropped");
+        Assertions.assertEquals("outer", MDC.get("traceId"),
+                "Caller MDC trace id should be restored");
+        dispatcher.stop();
+    }
+
+    /**
+     * BLOCK policy waits for the writer instead of dropping.
+     *
+     * <pre>
+     * Theme: Asynchronous access logging
+     * Test view: BLOCK policy waits for the writer instead of dropping
+     * Test conditions: Buffer of two receives many records under BLOCK
+     * Test result: All records are written and none are dropped
+     * </pre>
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    @Test
+    void dispatchBlocksUntilSpaceIsAvailable() throws InterruptedException {
+        final int total = 64;
+        final CountDownLatch written = new CountDownLatch(total);
+        final AccessLogDispatcher dispatcher = new AccessLogDispatcher(2,
+                AccessLogDispatcher.OverflowPolicy.BLOCK, record -> written.countDown());
+        dispatcher.start();
+        dispatcher.start();
+        try {
+            for (int index = 0; index < total; index++) {
+                Assertions.assertTrue(dispatcher.dispatch(AccessLogRecord.builder().build()),
+                        "BLOCK policy should eventually accept every record");
+            }
+            Assertions.assertTrue(written.await(5, TimeUnit.SECONDS),
+                    "All records should be written");
+        } finally {
+            dispatcher.stop();
+        }
+        Assertions.assertEquals(0L, dispatcher.getDroppedCount(), "No record should be dropped");
+    }
+
+    /**
+     * Stopping writes pending records and records blocked in BLOCK.
+     *
+     * <pre>
+     * Theme: Asynchronous access logging
+     * Test view: Stopping writes pending records and records blocked in BLOCK
+     * Test conditions: Writer is blocked, the buffer is full, and a producer waits for space
+     *                  when stop() is called
+     * Test result: The waiting record is written inline; the writer drains the rest on exit
+     * </pre>
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    @Test
+    void stopWritesPendingAndBlockedRecords() throws InterruptedException {
+        final List<String> paths = new CopyOnWriteArrayList<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AccessLogDispatcher dispatcher = new AccessLogDispatcher(2,
+                AccessLogDispatcher.OverflowPolicy.BLOCK, record -> {
+                    if ("/0".equals(record.getPath())) {
+                        entered.countDown();
+                        awaitQuietly(release);
+                    }
+                    paths.add(record.getPath());
+                });
+        dispatcher.start();
+        dispatcher.dispatch(AccessLogRecord.builder().path("/0").build());
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS), "Writer should be busy");
+        dispatcher.dispatch(AccessLogRecord.builder().path("/1").build());
+        dispatcher.dispatch(AccessLogRecord.builder().path("/2").build());
+        final AtomicBoolean written = new AtomicBoolean();
+        final Thread producer = Thread.ofPlatform().start(() -> written.set(
+                dispatcher.dispatch(AccessLogRecord.builder().path("/3").build())));
+        while (producer.getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+
+        final Thread stopper = Thread.ofPlatform().start(dispatcher::stop);
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+        release.countDown();
+        stopper.join(TimeUnit.SECONDS.toMillis(5));
+
+        Assertions.assertTrue(written.get(), "Waiting record should be written inline");
+        Assertions.assertEquals(List.of("/3", "/0", "/1", "/2"), paths,
+                "Every record should be written");
+        Assertions.assertEquals(0L, dispatcher.getDroppedCount(), "No record should be dropped");
+    }
+
+    /**
+     * Records dispatched concurrently with stop() are all written.
+     *
+     * <pre>
+     * Theme: Asynchronous access logging
+     * Test view: Records dispatched concurrently with stop() are all written
+     * Test conditions: Four producers dispatch into a large buffer while stop() runs
+     * Test result: Every record is written exactly once and none is dropped
+     * </pre>
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    @Test
+    void stopDuringDispatchLosesNoRecord() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = 5000;
+        final LongAdder written = new LongAdder();
+        final CountDownLatch started = new CountDownLatch(producers);
+        final AccessLogDispatcher dispatcher = new AccessLogDispatcher(1 << 16,
+                AccessLogDispatcher.OverflowPolicy.DROP, record -> written.increment());
+        final AccessLogRecord record = AccessLogRecord.builder().build();
+        final List<Thread> threads = new ArrayList<>();
+        dispatcher.start();
+        for (int index = 0; index < producers; index++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                started.countDown();
+                for (int count = 0; count < perProducer; count++) {
+                    dispatcher.dispatch(record);
+                }
+            }));
+        }
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS), "Producers should start");
+        dispatcher.stop();
+        for (final Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        Assertions.assertEquals((long) producers * perProducer, written.sum(),
+                "Every record should be written");
+        Assertions.assertEquals(0L, dispatcher.getDroppedCount(), "No record should be dropped");
+        Assertions.assertEquals(0, dispatcher.getPendingCount(), "Nothing should be pending");
+    }
+
+    /**
+     * Waits on a latch and restores the interrupt flag when interrupted.
+     *
+     * @param latch latch to await
+     */
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
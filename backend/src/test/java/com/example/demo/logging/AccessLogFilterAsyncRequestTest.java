@@ -0,0 +1,218 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.demo.trace.RequestContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/** Tests for access logging of asynchronous servlet requests in {@link AccessLogFilter}. */
+class AccessLogFilterAsyncRequestTest {
+    /** API path used by tests. */
+    private static final String PATH_API = "/api/hello";
+
+    /** Logger name used by AccessLogFilter. */
+    private static final String ACCESS_LOGGER = "ACCESS_LOG";
+
+    /** Trace id used by tests. */
+    private static final String TRACE_ID = "trace-deferred";
+
+    /** Access logger level before the test. */
+    private Level previousLevel;
+
+    /** Clears MDC values after each test. */
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    /**
+     * Async requests are logged on completion, not when the container thread returns.
+     *
+     * <pre>
+     * Theme: Async-servlet access logging
+     * Test view: Async requests are logged on completion, not when the container thread returns
+     * Test conditions: Chain starts async processing; the async context completes later
+     * Test result: No line after doFilter; one line with the trace id and final status after
+     * </pre>
+     *
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
+     */
+    @Test
+    void asyncRequestIsLoggedOnComplete() throws IOException, ServletException {
+        final AccessLogFilter filter = new AccessLogFilter();
+        final ListAppender<ILoggingEvent> appender = attach();
+        try {
+            final MockHttpServletRequest request = asyncRequest();
+            final MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilterInternal(request, response, (req, res) -> req.startAsync());
+
+            Assertions.assertTrue(appender.list.isEmpty(), "Nothing should be logged yet");
+            Assertions.assertNull(MDC.get("traceId"), "MDC should be restored on return");
+
+            response.setStatus(202);
+            ((MockAsyncContext) request.getAsyncContext()).complete();
+
+            Assertions.assertEquals(1, appender.list.size(), "One line after completion");
+            final ILoggingEvent event = appender.list.get(0);
+            Assertions.assertEquals(TRACE_ID, event.getMDCPropertyMap().get("traceId"),
+                    "Completion should bind the trace id");
+            Assertions.assertEquals(202, fields(event).get("status").asInt(),
+                    "Final async status should be logged");
+            Assertions.assertNull(MDC.get("traceId"), "MDC should be restored after completion");
+        } finally {
+            detach(appender);
+        }
+    }
+
+    /**
+     * Async errors are reported as failures once the request completes.
+     *
+     * <pre>
+     * Theme: Async-servlet access logging
+     * Test view: Async errors are reported as failures once the request completes
+     * Test conditions: Listener receives onError, then onComplete twice
+     * Test result: One line with status 500 and the error class
+     * </pre>
+     *
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
+     */
+    @Test
+    void asyncErrorIsLoggedOnce() throws IOException, ServletException {
+        final AccessLogFilter filter = new AccessLogFilter();
+        final ListAppender<ILoggingEvent> appender = attach();
+        try {
+            final MockHttpServletRequest request = asyncRequest();
+            final MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilterInternal(request, response, (req, res) -> req.startAsync());
+            final MockAsyncContext context = (MockAsyncContext) request.getAsyncContext();
+            final AsyncListener listener = context.getListeners().get(0);
+
+            listener.onError(new AsyncEvent(context, new IllegalStateException("boom")));
+            context.complete();
+            listener.onComplete(new AsyncEvent(context));
+
+            Assertions.assertEquals(1, appender.list.size(), "Completion should log once");
+            final JsonNode fields = fields(appender.list.get(0));
+            Assertions.assertEquals(500, fields.get("status").asInt(), "Error should be 500");
+            Assertions.assertEquals(IllegalStateException.class.getName(),
+                    fields.get("exception").asString(), "Error class should be logged");
+        } finally {
+            detach(appender);
+        }
+    }
+
+    /**
+     * Listener maps timeouts and non-exception errors and survives new async cycles.
+     *
+     * <pre>
+     * Theme: Async-servlet access logging
+     * Test view: Listener maps timeouts and non-exception errors and survives new async cycles
+     * Test conditions: onTimeout, onError with an Error, onStartAsync, and a prior MDC trace id
+     * Test result: Failures are exceptions, the listener re-registers, and the request
+     *              context is bound during completion and MDC restored afterwards
+     * </pre>
+     */
+    @Test
+    void listenerHandlesTimeoutErrorsAndRestart() {
+        final AtomicReference<Exception> seen = new AtomicReference<>();
+        final MockHttpServletRequest request = asyncRequest();
+        final RequestContext requestContext = new RequestContext(TRACE_ID, request,
+                HttpServletRequest::getRemoteAddr);
+        final AccessLogAsyncListener listener = new AccessLogAsyncListener(requestContext,
+                failure -> {
+                    Assertions.assertEquals(TRACE_ID, MDC.get("traceId"),
+                            "Trace id should be bound");
+                    Assertions.assertSame(requestContext, RequestContext.current(),
+                            "Request context should be bound");
+                    seen.set(failure);
+                });
+        final MockAsyncContext context =
+                new MockAsyncContext(request, new MockHttpServletResponse());
+
+        listener.onStartAsync(new AsyncEvent(context));
+        Assertions.assertSame(listener, context.getListeners().get(0),
+                "Listener should re-register for the new cycle");
+        listener.onTimeout(new AsyncEvent(context));
+        MDC.put("traceId", "outer");
+        listener.onComplete(new AsyncEvent(context));
+        Assertions.assertInstanceOf(TimeoutException.class, seen.get(), "Timeout failure");
+        Assertions.assertEquals("outer", MDC.get("traceId"), "Prior trace id should return");
+        Assertions.assertNull(RequestContext.current(), "Request context should be unbound");
+
+        final AccessLogAsyncListener errorListener =
+                new AccessLogAsyncListener(requestContext, seen::set);
+        errorListener.onError(new AsyncEvent(context, new AssertionError("fatal")));
+        errorListener.onComplete(new AsyncEvent(context));
+        Assertions.assertInstanceOf(ServletException.class, seen.get(),
+                "Errors should be wrapped in ServletException");
+    }
+
+    /**
+     * Creates an async-capable request with the test trace id.
+     *
+     * @return request
+     */
+    private static MockHttpServletRequest asyncRequest() {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", PATH_API);
+        request.setAsyncSupported(true);
+        request.addHeader("X-Request-Id", TRACE_ID);
+        return request;
+    }
+
+    /**
+     * Attaches a list appender to the access logger at INFO.
+     *
+     * @return started appender
+     */
+    private ListAppender<ILoggingEvent> attach() {
+        final Logger accessLogger = (Logger) LoggerFactory.getLogger(ACCESS_LOGGER);
+        previousLevel = accessLogger.getLevel();
+        final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        accessLogger.addAppender(appender);
+        accessLogger.setLevel(Level.INFO);
+        return appender;
+    }
+
+    /**
+     * Detaches the appender and restores the previous logger level.
+     *
+     * @param appender appender to detach
+     */
+    private void detach(final ListAppender<ILoggingEvent> appender) {
+        final Logger accessLogger = (Logger) LoggerFactory.getLogger(ACCESS_LOGGER);
+        accessLogger.detachAppender(appender);
+        appender.stop();
+        accessLogger.setLevel(previousLevel);
+    }
+
+    /**
+     * Parses the access fields of an event.
+     *
+     * @param event access event
+     * @return access fields
+     */
+    private static JsonNode fields(final ILoggingEvent event) {
+        return JsonMapper.shared().readTree(String.valueOf(event.getArgumentArray()[0]));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/** Tests for asynchronous access-log writing in {@link AccessLogFilter}. */
+class AccessLogFilterAsyncTest {
+    /** API path used by tests. */
+    private static final String PATH_API = "/api/hello";
+
+    /** Logger name used by AccessLogFilter. */
+    private static final String ACCESS_LOGGER = "ACCESS_LOG";
+
+    /** Clears MDC values after each test. */
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    /**
+     * Async mode writes the access line off the request thread.
+     *
+     * <pre>
+     * Theme: Asynchronous access logging
+     * Test view: Async mode writes the access line off the request thread
+     * Test conditions: Filter is initialized with async enabled and handles one request
+     * Test result: Access event is emitted by the writer thread with the request trace id
+     * </pre>
+     *
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
+     */
+    @Test
+    void asyncModeWritesOnWriterThread() throws IOException, ServletException {
+        final AccessLogFilter filter = new AccessLogFilter();
+        filter.setAsyncEnabled(true);
+        filter.setAsyncCapacity(16);
+        filter.setAsyncOverflowPolicy(AccessLogDispatcher.OverflowPolicy.BLOCK);
+        filter.initFilterBean();
+        filter.initFilterBean();
+
+        final Logger accessLogger = (Logger) LoggerFactory.getLogger(ACCESS_LOGGER);
+        final Level previousLevel = accessLogger.getLevel();
+        final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        accessLogger.addAppender(appender);
+        accessLogger.setLevel(Level.INFO);
+        try {
+            final MockHttpServletRequest request = new MockHttpServletRequest("GET", PATH_API);
+            request.addHeader("X-Request-Id", "trace-async");
+            filter.doFilterInternal(request, new MockHttpServletResponse(), (req, res) -> res
+                    .getOutputStream().write("ok".getBytes(StandardCharsets.UTF_8)));
+            filter.destroy();
+            filter.destroy();
+
+            Assertions.assertEquals(1, appender.list.size(), "One access event should be written");
+            final ILoggingEvent event = appender.list.get(0);
+            Assertions.assertEquals("access-log-writer", event.getThreadName(),
+                    "Access event should be written by the writer thread");
+            Assertions.assertEquals("trace-async", event.getMDCPropertyMap().get("traceId"),
+                    "Writer thread should bind the request trace id");
+            Assertions.assertEquals(0L, filter.getDroppedAccessLogCount(),
+                    "Dropped counter should read zero after shutdown");
+        } finally {
+            accessLogger.detachAppender(appender);
+            appender.stop();
+            accessLogger.setLevel(previousLevel);
+        }
+    }
+
+    /**
+     * Inline mode reports no dropped records and keeps the default overflow policy.
+     *
+     * <pre>
+     * Theme: Asynchronous access logging
+     * Test view: Inline mode reports no dropped records
+     * Test conditions: Filter is initialized with async disabled
+     * Test result: Dropped counter is zero and destroy is a no-op
+     * </pre>
+     */
+    @Test
+    void inlineModeReportsNoDrops() {
+        final AccessLogFilter filter = new AccessLogFilter();
+        filter.setAsyncEnabled(false);
+        filter.initFilterBean();
+
+        Assertions.assertEquals(0L, filter.getDroppedAccessLogCount(),
+                "Inline mode should never drop records");
+        Assertions.assertDoesNotThrow(filter::destroy, "Destroy should be a no-op inline");
+    }
+}
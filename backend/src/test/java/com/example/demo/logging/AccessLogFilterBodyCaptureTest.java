@@ -192,4 +192,128 @@ class AccessLogFilterBodyCaptureTest {
         Assertions.assertEquals(Boolean.FALSE, capture.omitted(),
                 "Null payloads should remain non-omitted when capture is disabled");
     }
+
+    /**
+     * Prefix shorter than the full body is marked truncated.
+     *
+     * <pre>
+     * Theme: Body capture
+     * Test view: Prefix shorter than the full body is marked truncated
+     * Test conditions: Captured prefix has two bytes while total length is larger
+     * Test result: Body is the decoded prefix and truncated is true
+     * </pre>
+     */
+    @Test
+    void captureBodyPrefixOfLongerBodyIsTruncated() {
+        final byte[] prefix = "ok".getBytes(StandardCharsets.UTF_8);
+        final AccessLogSupport.BodyCapture capture =
+                AccessLogBodyCaptureSupport.captureBody(prefix, 10L, CT_TEXT_UTF8, true);
+
+        Assertions.assertEquals("ok", capture.body(), "Prefix should be decoded");
+        Assertions.assertEquals(Boolean.TRUE, capture.truncated(),
+                "Bodies longer than the prefix should be marked truncated");
+    }
+
+    /**
+     * The capture limit applies to bytes, not characters.
+     *
+     * <pre>
+     * Theme: Body capture
+     * Test view: The capture limit applies to bytes, not characters
+     * Test conditions: UTF-8 body of two-byte characters longer than the limit, with the
+     *                  limit splitting one character; UTF-16 body with a byte-order mark
+     * Test result: Body holds only complete characters within MAX_CAPTURE bytes
+     * </pre>
+     */
+    @Test
+    void captureBodyLimitsDecodedBytes() {
+        final byte[] accented =
+                ("x" + "\u00e9".repeat(MAX_CAPTURE)).getBytes(StandardCharsets.UTF_8);
+        final AccessLogSupport.BodyCapture capture =
+                AccessLogSupport.captureBody(accented, CT_TEXT_UTF8);
+
+        Assertions.assertEquals("x" + "\u00e9".repeat((MAX_CAPTURE - 1) / 2), capture.body(),
+                "Split character should be dropped, not replaced");
+        Assertions.assertTrue(capture.truncated(), "Long body should be truncated");
+
+        final AccessLogSupport.BodyCapture utf16 = AccessLogSupport.captureBody(
+                "ok".repeat(MAX_CAPTURE).getBytes(StandardCharsets.UTF_16),
+                "text/plain;charset=UTF-16");
+        Assertions.assertEquals("ok".repeat(MAX_CAPTURE).substring(0, (MAX_CAPTURE - 2) / 2),
+                utf16.body(),
+                "UTF-16 prefix should be decoded after the byte-order mark");
+    }
+
+    /**
+     * Masked text is cut back to the byte limit.
+     *
+     * <pre>
+     * Theme: Body capture
+     * Test view: Masked text is cut back to the byte limit
+     * Test conditions: Complete form body at the limit whose masked values are longer
+     * Test result: Body is cut to MAX_CAPTURE bytes and marked truncated
+     * </pre>
+     */
+    @Test
+    void captureBodyCutsMaskedTextToLimit() {
+        final StringBuilder form = new StringBuilder("a=").append("b".repeat(100));
+        while (form.length() + "&pwd=1".length() <= MAX_CAPTURE) {
+            form.append("&pwd=1");
+        }
+        final byte[] body = form.toString().getBytes(StandardCharsets.US_ASCII);
+        final AccessLogSupport.BodyCapture capture = AccessLogBodyCaptureSupport.captureBody(
+                body, body.length, "application/x-www-form-urlencoded", true);
+
+        Assertions.assertEquals(MAX_CAPTURE, capture.body().length(), "Cut to the limit");
+        Assertions.assertTrue(capture.body().startsWith("a=b") && capture.body()
+                .contains("&pwd=****&"), "Masked values should be kept within the limit");
+        Assertions.assertTrue(capture.truncated(), "Cut bodies are truncated");
+    }
+
+    /**
+     * Decoders follow the charset of each capture.
+     *
+     * <pre>
+     * Theme: Body capture
+     * Test view: Decoders follow the charset of each capture
+     * Test conditions: Latin-1 capture followed by UTF-8 capture of the same character
+     * Test result: Each body is decoded with its own charset
+     * </pre>
+     */
+    @Test
+    void captureBodyReusesCodecsPerCharset() {
+        Assertions.assertEquals("\u00e9", AccessLogSupport.captureBody(
+                "\u00e9".getBytes(StandardCharsets.ISO_8859_1), "text/plain;charset=ISO-8859-1")
+                .body(), "Latin-1");
+        Assertions.assertEquals("\u00e9", AccessLogSupport.captureBody(
+                "\u00e9".getBytes(StandardCharsets.UTF_8), CT_TEXT_UTF8).body(), "UTF-8");
+        Assertions.assertEquals("\u00e9", AccessLogSupport.captureBody(
+                "\u00e9".getBytes(StandardCharsets.UTF_8), CT_TEXT_UTF8).body(), "Reused UTF-8");
+    }
+
+    /**
+     * Virtual threads capture bodies without caching codecs.
+     *
+     * <pre>
+     * Theme: Body capture
+     * Test view: Virtual threads capture bodies without caching codecs
+     * Test conditions: Two captures on one virtual thread
+     * Test result: Both bodies are decoded
+     * </pre>
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    @Test
+    void captureBodyOnVirtualThread() throws InterruptedException {
+        final String[] bodies = new String[2];
+        Thread.ofVirtual().start(() -> {
+            for (int index = 0; index < bodies.length; index++) {
+                bodies[index] = AccessLogSupport.captureBody(
+                        "\u00e9".getBytes(StandardCharsets.UTF_8), CT_TEXT_UTF8).body();
+            }
+        }).join();
+
+        Assertions.assertArrayEquals(new String[] {"\u00e9", "\u00e9"}, bodies,
+                "Bodies decoded on a virtual thread");
+    }
 }
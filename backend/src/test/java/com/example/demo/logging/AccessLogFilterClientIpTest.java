@@ -1,8 +1,19 @@
 package com.example.demo.logging;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
 
 /** Tests for client IP resolution. */
 class AccessLogFilterClientIpTest {
@@ -18,25 +29,75 @@ class AccessLogFilterClientIpTest {
     /** IP format string used by tests. */
     private static final String IP_FORMAT = "%d.%d.%d.%d";
 
+    /** Clears MDC values after each test. */
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
     /**
-     * Forwarded list uses first IP.
+     * The filter resolves and logs only the configured forwarding header.
      *
      * <pre>
      * Theme: Client IP resolution
-     * Test view: Forwarded list uses first IP
-     * Test conditions: X-Forwarded-For contains multiple values
-     * Test result: First IP is returned
+     * Test view: The filter resolves and logs only the configured forwarding header
+     * Test conditions: Trusted remote; client-supplied X-Forwarded-For and a proxy-set
+     *                  Forwarded split over two lines; filter configured for FORWARDED
+     * Test result: The access line carries the hop from the last Forwarded line
      * </pre>
+     *
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
      */
     @Test
-    void resolveClientIpForwardedCommaReturnsFirst() {
+    void filterUsesConfiguredForwardingHeader() throws IOException, ServletException {
+        final AccessLogFilter filter = new AccessLogFilter();
+        filter.setForwardedHeader(ForwardingHeader.FORWARDED);
+        final MockHttpServletRequest request = new MockHttpServletRequest(METHOD_GET, PATH_API);
+        request.setRemoteAddr(String.format(IP_FORMAT, 127, 0, 0, 1));
+        request.addHeader(FORWARDED_HEADER, String.format(IP_FORMAT, 1, 2, 3, 4));
+        request.addHeader("Forwarded", "for=1.2.3.4");
+        request.addHeader("Forwarded", "for=" + String.format(IP_FORMAT, 203, 0, 113, 5));
+        final Logger accessLogger = (Logger) LoggerFactory.getLogger("ACCESS_LOG");
+        final Level previousLevel = accessLogger.getLevel();
+        final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        accessLogger.addAppender(appender);
+        accessLogger.setLevel(Level.INFO);
+        try {
+            filter.doFilterInternal(request, new MockHttpServletResponse(), (req, res) -> { });
+
+            Assertions.assertEquals(String.format(IP_FORMAT, 203, 0, 113, 5),
+                    JsonMapper.shared().readTree(String.valueOf(
+                            appender.list.get(0).getArgumentArray()[0])).get("clientIp")
+                            .asString(), "Hop appended by the trusted proxy should be logged");
+        } finally {
+            accessLogger.detachAppender(appender);
+            appender.stop();
+            accessLogger.setLevel(previousLevel);
+        }
+    }
+
+    /**
+     * Forwarded list uses the nearest untrusted IP.
+     *
+     * <pre>
+     * Theme: Client IP resolution
+     * Test view: Forwarded list uses the nearest untrusted IP
+     * Test conditions: X-Forwarded-For contains multiple untrusted values
+     * Test result: Rightmost IP is returned because entries to its left are client-controlled
+     * </pre>
+     */
+    @Test
+    void resolveClientIpForwardedCommaReturnsNearestUntrusted() {
         final MockHttpServletRequest forwarded = new MockHttpServletRequest(METHOD_GET, PATH_API);
         forwarded.setRemoteAddr(String.format(IP_FORMAT, 127, 0, 0, 1));
         forwarded.addHeader(FORWARDED_HEADER, String.format(IP_FORMAT, 203, 0, 113, 1) + ", "
                 + String.format(IP_FORMAT, 70, 0, 0, 1));
 
-        Assertions.assertEquals(String.format(IP_FORMAT, 203, 0, 113, 1),
-                AccessLogSupport.resolveClientIp(forwarded), "First forwarded IP should be used");
+        Assertions.assertEquals(String.format(IP_FORMAT, 70, 0, 0, 1),
+                AccessLogSupport.resolveClientIp(forwarded),
+                "Rightmost untrusted forwarded IP should be used");
     }
 
     /**
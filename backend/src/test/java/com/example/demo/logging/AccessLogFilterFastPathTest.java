@@ -0,0 +1,162 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/** Tests for the counting-only path used when body capture is disabled. */
+class AccessLogFilterFastPathTest {
+    /** API path used by tests. */
+    private static final String PATH_API = "/api/hello";
+
+    /** Logger name used by AccessLogFilter. */
+    private static final String ACCESS_LOGGER = "ACCESS_LOG";
+
+    /** Clears MDC values after each test. */
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    /**
+     * Disabled capture keeps the request and only counts response bytes.
+     *
+     * <pre>
+     * Theme: Body capture fast path
+     * Test view: Disabled capture keeps the request and only counts response bytes
+     * Test conditions: Request and response capture are both disabled
+     * Test result: Chain receives the original request and a counting response; omitted comes
+     *              from the declared request length and the written response bytes
+     * </pre>
+     *
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
+     */
+    @Test
+    void disabledCaptureOnlyCountsResponse() throws IOException, ServletException {
+        final AccessLogFilter filter = new AccessLogFilter();
+        filter.setCaptureRequestBody(false);
+        filter.setCaptureResponseBody(false);
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH_API);
+        request.setContent("{}".getBytes(StandardCharsets.UTF_8));
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        final JsonNode fields = filterAndCapture(filter, request, response, (req, res) -> {
+            Assertions.assertSame(request, req, "Request should not be wrapped");
+            Assertions.assertSame(response,
+                    ((AccessLogTeeResponseWrapper) res).getResponse(), "Response is only counted");
+            res.setContentLength(0);
+        });
+
+        Assertions.assertTrue(fields.get("requestBodyOmitted").asBoolean(),
+                "Declared request body should be reported as omitted");
+        Assertions.assertFalse(fields.get("responseBodyOmitted").asBoolean(),
+                "Zero Content-Length response should not be omitted");
+        Assertions.assertTrue(fields.get("responseBody").isNull(), "No body should be captured");
+    }
+
+    /**
+     * Responses without Content-Length are judged by the bytes written.
+     *
+     * <pre>
+     * Theme: Body capture fast path
+     * Test view: Responses without Content-Length are judged by the bytes written
+     * Test conditions: Response capture disabled; an empty 200 and a streamed JSON body, both
+     *                  without Content-Length
+     * Test result: The empty response is not omitted; the streamed body is omitted
+     * </pre>
+     *
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
+     */
+    @Test
+    void unknownLengthUsesWrittenBytes() throws IOException, ServletException {
+        final AccessLogFilter filter = new AccessLogFilter();
+        filter.setCaptureResponseBody(false);
+
+        final JsonNode empty = filterAndCapture(filter,
+                new MockHttpServletRequest("GET", PATH_API), new MockHttpServletResponse(),
+                (req, res) -> { });
+        final JsonNode streamed = filterAndCapture(filter,
+                new MockHttpServletRequest("GET", PATH_API), new MockHttpServletResponse(),
+                (req, res) -> {
+                    res.setContentType("application/json");
+                    res.getWriter().write("{\"a\":1}");
+                });
+
+        Assertions.assertFalse(empty.get("responseBodyOmitted").asBoolean(),
+                "Empty response without Content-Length should not be omitted");
+        Assertions.assertTrue(streamed.get("responseBodyOmitted").asBoolean(),
+                "Written body without Content-Length should be omitted");
+        Assertions.assertTrue(streamed.get("responseBody").isNull(),
+                "No body should be captured");
+    }
+
+    /**
+     * Request length falls back to Transfer-Encoding.
+     *
+     * <pre>
+     * Theme: Body capture fast path
+     * Test view: Request length falls back to Transfer-Encoding
+     * Test conditions: Requests without Content-Length, with and without Transfer-Encoding
+     * Test result: Chunked request is unknown (-1); plain request is empty (0)
+     * </pre>
+     */
+    @Test
+    void requestBodyLengthUsesTransferEncoding() {
+        final MockHttpServletRequest plain = new MockHttpServletRequest("GET", PATH_API);
+        final MockHttpServletRequest chunked = new MockHttpServletRequest("POST", PATH_API);
+        chunked.addHeader("Transfer-Encoding", "chunked");
+
+        Assertions.assertEquals(0L, AccessLogSupport.requestBodyLength(plain),
+                "Requests without body headers should be empty");
+        Assertions.assertEquals(-1L, AccessLogSupport.requestBodyLength(chunked),
+                "Chunked requests should have unknown length");
+    }
+
+    /**
+     * Runs the filter once and returns the emitted access-event fields.
+     *
+     * @param filter filter under test
+     * @param request request
+     * @param response response
+     * @param chain handler writing the response
+     * @return access-event fields rendered as JSON
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
+     */
+    private static JsonNode filterAndCapture(final AccessLogFilter filter,
+            final MockHttpServletRequest request, final MockHttpServletResponse response,
+            final FilterChain chain)
+            throws IOException, ServletException {
+        final Logger accessLogger = (Logger) LoggerFactory.getLogger(ACCESS_LOGGER);
+        final Level previousLevel = accessLogger.getLevel();
+        final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        accessLogger.addAppender(appender);
+        accessLogger.setLevel(Level.INFO);
+        try {
+            filter.doFilterInternal(request, response, chain);
+            return JsonMapper.shared()
+                    .readTree(String.valueOf(appender.list.get(0).getArgumentArray()[0]));
+        } finally {
+            accessLogger.detachAppender(appender);
+            appender.stop();
+            accessLogger.setLevel(previousLevel);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.demo.logging;
 
 import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.AfterEach;
@@ -9,8 +10,6 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.MDC;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
-import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 /** Tests for access-log filter execution behavior. */
 class AccessLogFilterFilterTest {
@@ -231,8 +230,8 @@ class AccessLogFilterFilterTest {
         private Exception capturedFailure;
 
         @Override
-        protected void logAccess(final ContentCachingRequestWrapper request,
-                final ContentCachingResponseWrapper response, final long durationMs,
+        protected void logAccess(final HttpServletRequest request,
+                final AccessLogTeeResponseWrapper response, final long durationMs,
                 final Exception failure) {
             capturedFailure = failure;
         }
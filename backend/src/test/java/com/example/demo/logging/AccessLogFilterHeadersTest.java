@@ -6,13 +6,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
-import java.util.Map;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
-/** Tests for header sanitization. */
+/** Tests for header snapshots as written to the access line. */
 class AccessLogFilterHeadersTest {
     /** API path used by tests. */
     private static final String PATH_API = "/api/hello";
@@ -30,7 +31,7 @@ class AccessLogFilterHeadersTest {
      * Theme: Header sanitization
      * Test view: Null header names result in empty map
      * Test conditions: getHeaderNames returns null
-     * Test result: Sanitized map is empty
+     * Test result: Logged request headers are empty
      * </pre>
      */
     @Test
@@ -42,9 +43,10 @@ class AccessLogFilterHeadersTest {
             }
         };
 
-        final Map<String, String> headers = AccessLogSupport.sanitizeHeaders(noHeaders);
+        final JsonNode headers = render(AccessLogSupport.snapshotHeaders(noHeaders), List.of())
+                .get("requestHeaders");
 
-        Assertions.assertEquals(0, headers.size(), "Empty header names should yield empty map");
+        Assertions.assertEquals(0, headers.size(), "Empty header names should yield no headers");
     }
 
     /**
@@ -71,9 +73,10 @@ class AccessLogFilterHeadersTest {
             }
         };
 
-        final Map<String, String> headers = AccessLogSupport.sanitizeHeaders(nullValues);
+        final JsonNode headers = render(AccessLogSupport.snapshotHeaders(nullValues), List.of())
+                .get("requestHeaders");
 
-        Assertions.assertEquals("", headers.get(HEADER_TEST),
+        Assertions.assertEquals("", headers.get(HEADER_TEST).asString(),
                 "Null header values should be stored as empty strings");
     }
 
@@ -101,9 +104,59 @@ class AccessLogFilterHeadersTest {
             }
         };
 
-        final Map<String, String> headers = AccessLogSupport.sanitizeHeaders(nullResponse);
+        final JsonNode headers = render(List.of(), AccessLogSupport.snapshotHeaders(nullResponse))
+                .get("responseHeaders");
 
-        Assertions.assertEquals("", headers.get(HEADER_TEST),
+        Assertions.assertEquals("", headers.get(HEADER_TEST).asString(),
                 "Null response header values should be stored as empty strings");
     }
+
+    /**
+     * Sensitive headers are masked when the access line is written.
+     *
+     * <pre>
+     * Theme: Header sanitization
+     * Test view: Sensitive headers are masked when the access line is written
+     * Test conditions: Request with Authorization and a repeated header; response with Set-Cookie
+     * Test result: Sensitive values are masked; repeated values are joined; others are kept
+     * </pre>
+     */
+    @Test
+    void writtenHeadersMaskSensitiveValues() {
+        final MockHttpServletRequest request = new MockHttpServletRequest(METHOD_GET, PATH_API);
+        request.addHeader("Authorization", "Bearer secret");
+        request.addHeader(HEADER_TEST, "a");
+        request.addHeader(HEADER_TEST, "b");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        response.addHeader("Set-Cookie", "id=1");
+
+        final JsonNode json = render(AccessLogSupport.snapshotHeaders(request),
+                AccessLogSupport.snapshotHeaders(response));
+
+        Assertions.assertEquals("****", json.get("requestHeaders").get("Authorization")
+                .asString(), "Authorization should be masked");
+        Assertions.assertEquals("a,b", json.get("requestHeaders").get(HEADER_TEST).asString(),
+                "Repeated values should be joined");
+        Assertions.assertEquals("****", json.get("responseHeaders").get("Set-Cookie")
+                .asString(), "Set-Cookie should be masked");
+    }
+
+    /**
+     * Writes an access line carrying the given header snapshots.
+     *
+     * @param requestHeaders flattened request headers
+     * @param responseHeaders flattened response headers
+     * @return access-event fields rendered as JSON
+     */
+    private static JsonNode render(final List<String> requestHeaders,
+            final List<String> responseHeaders) {
+        final AccessLogRecord record = AccessLogRecord.builder().method(METHOD_GET).path(PATH_API)
+                .status(200).sampleWeight(1.0d).remoteAddr("127.0.0.1")
+                .requestHeaders(requestHeaders).responseHeaders(responseHeaders)
+                .requestBody(new AccessLogRecord.BodySnapshot(null, 0L, null, false))
+                .responseBody(new AccessLogRecord.BodySnapshot(null, 0L, null, false)).build();
+        return JsonMapper.shared().readTree(new AccessLogArgument(record,
+                AccessLogClientIpResolver.defaultTrustedProxyAddresses(),
+                ForwardingHeader.X_FORWARDED_FOR).toString());
+    }
 }
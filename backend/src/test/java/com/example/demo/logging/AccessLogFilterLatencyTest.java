@@ -0,0 +1,64 @@
+package com.example.demo.logging;
+
+import com.example.demo.metrics.LatencyRecorder;
+import com.example.demo.metrics.LatencySeries;
+import com.example.demo.trace.RequestContext;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+/** Tests for latency recording in {@link AccessLogFilter}. */
+class AccessLogFilterLatencyTest {
+    /** Route pattern used by tests. */
+    private static final String ROUTE = "/api/items/{id}";
+
+    /** Clears MDC values after each test. */
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    /**
+     * Latencies are keyed by route pattern and final status.
+     *
+     * <pre>
+     * Theme: Latency recording
+     * Test view: Latencies are keyed by route pattern and final status
+     * Test conditions: One matched request and one unmatched request that fails
+     * Test result: Matched request uses its pattern; failure is recorded as unmatched 500
+     * </pre>
+     *
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
+     */
+    @Test
+    void recordsRoutePatternAndFinalStatus() throws IOException, ServletException {
+        final LatencyRecorder recorder = new LatencyRecorder();
+        final AccessLogFilter filter = new AccessLogFilter();
+        filter.setLatencyRecorder(recorder);
+
+        final MockHttpServletRequest matched = new MockHttpServletRequest("GET", "/api/items/7");
+        filter.doFilterInternal(matched, new MockHttpServletResponse(), (req, res) -> req
+                .setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ROUTE));
+        Assertions.assertThrows(ServletException.class,
+                () -> filter.doFilterInternal(new MockHttpServletRequest("GET", "/nowhere"),
+                        new MockHttpServletResponse(), (req, res) -> {
+                            throw new IllegalStateException("boom");
+                        }));
+
+        final List<LatencySeries> series = recorder.snapshot();
+        Assertions.assertEquals(2, series.size(), "Two series should be recorded");
+        Assertions.assertEquals(ROUTE, series.get(0).route(), "Matched route uses its pattern");
+        Assertions.assertEquals(200, series.get(0).status(), "Matched request status");
+        Assertions.assertEquals(RequestContext.UNMATCHED_ROUTE, series.get(1).route(),
+                "Unmatched requests share one route");
+        Assertions.assertEquals(500, series.get(1).status(), "Failure should record 500");
+    }
+}
@@ -4,7 +4,12 @@ import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -13,7 +18,8 @@ import org.slf4j.MDC;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
 /** Tests for access log emission behavior. */
 class AccessLogFilterLogAccessTest {
@@ -29,6 +35,15 @@ class AccessLogFilterLogAccessTest {
     /** HTTP GET method name. */
     private static final String METHOD_GET = "GET";
 
+    /** JSON content type used by tests. */
+    private static final String JSON_TYPE = "application/json";
+
+    /** JSON body used by tests. */
+    private static final String JSON_BODY = "{\"name\":\"value\"}";
+
+    /** gzip content coding. */
+    private static final String GZIP_ENCODING = "gzip";
+
     /** Clears MDC context after each test to avoid cross-test leakage. */
     @AfterEach
     void tearDown() {
@@ -53,8 +68,8 @@ class AccessLogFilterLogAccessTest {
 
         final ContentCachingRequestWrapper reqWrapper = new ContentCachingRequestWrapper(
                 new MockHttpServletRequest(METHOD_GET, PATH_API), BODY_LIMIT);
-        final ContentCachingResponseWrapper resWrapper =
-                new ContentCachingResponseWrapper(new MockHttpServletResponse());
+        final AccessLogTeeResponseWrapper resWrapper =
+                new AccessLogTeeResponseWrapper(new MockHttpServletResponse(), BODY_LIMIT);
 
         accessLogger.setLevel(Level.OFF);
         Assertions.assertDoesNotThrow(() -> filter.logAccess(reqWrapper, resWrapper, 1L, null),
@@ -80,8 +95,8 @@ class AccessLogFilterLogAccessTest {
 
         final ContentCachingRequestWrapper reqWrapper = new ContentCachingRequestWrapper(
                 new MockHttpServletRequest(METHOD_GET, PATH_API), BODY_LIMIT);
-        final ContentCachingResponseWrapper resWrapper =
-                new ContentCachingResponseWrapper(new MockHttpServletResponse());
+        final AccessLogTeeResponseWrapper resWrapper =
+                new AccessLogTeeResponseWrapper(new MockHttpServletResponse(), BODY_LIMIT);
 
         accessLogger.setLevel(Level.INFO);
         Assertions.assertDoesNotThrow(
@@ -110,8 +125,8 @@ class AccessLogFilterLogAccessTest {
                 new MockHttpServletRequest(METHOD_GET, PATH_API), BODY_LIMIT);
         final MockHttpServletResponse errorResponse = new MockHttpServletResponse();
         errorResponse.setStatus(500);
-        final ContentCachingResponseWrapper resWrapper =
-                new ContentCachingResponseWrapper(errorResponse);
+        final AccessLogTeeResponseWrapper resWrapper =
+                new AccessLogTeeResponseWrapper(errorResponse, BODY_LIMIT);
 
         accessLogger.setLevel(Level.INFO);
         Assertions.assertDoesNotThrow(
@@ -141,8 +156,8 @@ class AccessLogFilterLogAccessTest {
 
         final ContentCachingRequestWrapper reqWrapper = new ContentCachingRequestWrapper(
                 new MockHttpServletRequest(METHOD_GET, PATH_API), BODY_LIMIT);
-        final ContentCachingResponseWrapper resWrapper =
-                new ContentCachingResponseWrapper(new MockHttpServletResponse());
+        final AccessLogTeeResponseWrapper resWrapper =
+                new AccessLogTeeResponseWrapper(new MockHttpServletResponse(), BODY_LIMIT);
         try {
             MDC.put("traceId", "trace-abc");
             accessLogger.setLevel(Level.INFO);
@@ -162,4 +177,98 @@ class AccessLogFilterLogAccessTest {
         }
     }
 
+    /**
+     * Bodies with a content coding are omitted instead of decoded.
+     *
+     * <pre>
+     * Theme: Access logging
+     * Test view: Bodies with a content coding are omitted instead of decoded
+     * Test conditions: Capture enabled; gzip request and response bodies declared as JSON;
+     *                  then identity-encoded bodies
+     * Test result: Encoded bodies are reported as omitted with no body text; identity bodies
+     *              are captured
+     * </pre>
+     *
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
+     */
+    @Test
+    void omitsContentEncodedBodies() throws IOException, ServletException {
+        final AccessLogFilter filter = new AccessLogFilter();
+        filter.setCaptureRequestBody(true);
+        filter.setCaptureResponseBody(true);
+
+        final JsonNode encoded = filterAndCapture(filter, GZIP_ENCODING, gzip(JSON_BODY));
+        final JsonNode identity = filterAndCapture(filter, "Identity",
+                JSON_BODY.getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertTrue(encoded.get("requestBody").isNull(), "No gzip request text");
+        Assertions.assertTrue(encoded.get("requestBodyOmitted").asBoolean(),
+                "Gzip request body should be omitted");
+        Assertions.assertTrue(encoded.get("responseBody").isNull(), "No gzip response text");
+        Assertions.assertTrue(encoded.get("responseBodyOmitted").asBoolean(),
+                "Gzip response body should be omitted");
+        Assertions.assertEquals(JSON_BODY, identity.get("requestBody").asString(),
+                "Identity request body should be captured");
+        Assertions.assertEquals(JSON_BODY, identity.get("responseBody").asString(),
+                "Identity response body should be captured");
+        Assertions.assertTrue(AccessLogSupport.isIdentityEncoding(" "),
+                "Blank coding is identity");
+        Assertions.assertFalse(AccessLogSupport.isIdentityEncoding(GZIP_ENCODING),
+                "gzip is a coding");
+    }
+
+    /**
+     * Runs one JSON request through the filter; the handler echoes the body with the same coding.
+     *
+     * @param filter filter under test
+     * @param contentEncoding Content-Encoding of the request and response bodies
+     * @param body encoded body bytes
+     * @return access-event fields rendered as JSON
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
+     */
+    private static JsonNode filterAndCapture(final AccessLogFilter filter,
+            final String contentEncoding, final byte[] body) throws IOException, ServletException {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH_API);
+        request.setContentType(JSON_TYPE);
+        request.addHeader(AccessLogSupport.HDR_CONTENT_ENCODING, contentEncoding);
+        request.setContent(body);
+        final Logger accessLogger = (Logger) LoggerFactory.getLogger(ACCESS_LOGGER);
+        final Level previousLevel = accessLogger.getLevel();
+        final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        accessLogger.addAppender(appender);
+        accessLogger.setLevel(Level.INFO);
+        try {
+            filter.doFilterInternal(request, new MockHttpServletResponse(), (req, res) -> {
+                final byte[] echoed = req.getInputStream().readAllBytes();
+                ((HttpServletResponse) res).setHeader(AccessLogSupport.HDR_CONTENT_ENCODING,
+                        contentEncoding);
+                res.setContentType(JSON_TYPE);
+                res.getOutputStream().write(echoed);
+            });
+            return JsonMapper.shared()
+                    .readTree(String.valueOf(appender.list.get(0).getArgumentArray()[0]));
+        } finally {
+            accessLogger.detachAppender(appender);
+            appender.stop();
+            accessLogger.setLevel(previousLevel);
+        }
+    }
+
+    /**
+     * Compresses a UTF-8 string with gzip.
+     *
+     * @param text text to compress
+     * @return gzip bytes
+     * @throws IOException IO exception
+     */
+    private static byte[] gzip(final String text) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
 }
@@ -0,0 +1,157 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/** Tests for per-route access-log policies applied by the filter. */
+class AccessLogFilterPolicyTest {
+    /** Logger name used by AccessLogFilter. */
+    private static final String ACCESS_LOGGER = "ACCESS_LOG";
+
+    /** Route with an override. */
+    private static final String PATH_ORDERS = "/api/orders";
+
+    /** Route without an override. */
+    private static final String PATH_HELLO = "/api/hello";
+
+    /** Access logger. */
+    private final Logger accessLogger = (Logger) LoggerFactory.getLogger(ACCESS_LOGGER);
+
+    /** Appender collecting access events. */
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    /** Access logger level before the test. */
+    private Level previousLevel;
+
+    /** Attaches the collecting appender. */
+    @BeforeEach
+    void setUp() {
+        previousLevel = accessLogger.getLevel();
+        appender.start();
+        accessLogger.addAppender(appender);
+        accessLogger.setLevel(Level.INFO);
+    }
+
+    /** Detaches the appender and clears MDC values. */
+    @AfterEach
+    void tearDown() {
+        accessLogger.detachAppender(appender);
+        appender.stop();
+        accessLogger.setLevel(previousLevel);
+        MDC.clear();
+    }
+
+    /**
+     * A route override turns on capture with its own limit.
+     *
+     * <pre>
+     * Theme: Per-route access-log policy
+     * Test view: A route override turns on capture with its own limit
+     * Test conditions: Capture disabled globally; override enables request capture at 8 bytes
+     * Test result: Only the overridden route captures, cut to 8 bytes and marked truncated
+     * </pre>
+     *
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
+     */
+    @Test
+    void overrideEnablesCaptureForOneRoute() throws IOException, ServletException {
+        final AccessLogPolicyRegistry registry = new AccessLogPolicyRegistry();
+        registry.setOverrides(
+                List.of(new AccessLogPolicy(PATH_ORDERS, null, true, null, 8, null)));
+        final AccessLogFilter filter = new AccessLogFilter();
+        filter.setPolicyRegistry(registry);
+
+        final JsonNode orders = filterAndCapture(filter, post(PATH_ORDERS));
+        final JsonNode hello = filterAndCapture(filter, post(PATH_HELLO));
+
+        Assertions.assertEquals("abcdefgh", orders.get("requestBody").asString(), "Captured");
+        Assertions.assertTrue(orders.get("requestBodyTruncated").asBoolean(), "Truncated");
+        Assertions.assertTrue(hello.get("requestBody").isNull(), "Other route not captured");
+        Assertions.assertTrue(hello.get("requestBodyOmitted").asBoolean(), "Other route omitted");
+    }
+
+    /**
+     * A route sampling policy applies even when global sampling is off.
+     *
+     * <pre>
+     * Theme: Per-route access-log policy
+     * Test view: A route sampling policy applies even when global sampling is off
+     * Test conditions: probability:0 on one route; successful and failed requests
+     * Test result: Successful requests on the route are dropped; errors and other routes kept
+     * </pre>
+     */
+    @Test
+    void routeSamplingDropsSuccessfulRequests() {
+        final AccessLogPolicyRegistry registry = new AccessLogPolicyRegistry();
+        registry.setPolicies(PATH_ORDERS + "=probability:0");
+        final AccessLogFilter filter = new AccessLogFilter();
+        filter.setPolicyRegistry(registry);
+        filter.initFilterBean();
+        final MockHttpServletResponse failed = new MockHttpServletResponse();
+        failed.setStatus(500);
+
+        filter.logAccess(post(PATH_ORDERS), counting(new MockHttpServletResponse()), 1L, null);
+        filter.logAccess(post(PATH_ORDERS), counting(failed), 1L, null);
+        filter.logAccess(post(PATH_HELLO), counting(new MockHttpServletResponse()), 1L, null);
+
+        Assertions.assertEquals(2, appender.list.size(), "Only the sampled-out request is dropped");
+    }
+
+    /**
+     * Wraps a response the way the filter does when response capture is off.
+     *
+     * @param response mock response
+     * @return counting tee wrapper
+     */
+    private static AccessLogTeeResponseWrapper counting(final MockHttpServletResponse response) {
+        return new AccessLogTeeResponseWrapper(response, 0);
+    }
+
+    /**
+     * Builds a text POST request.
+     *
+     * @param path request path
+     * @return mock request
+     */
+    private static MockHttpServletRequest post(final String path) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setContentType("text/plain");
+        request.setContent("abcdefghijklmnop".getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    /**
+     * Runs the filter once, reading the request body, and returns the emitted fields.
+     *
+     * @param filter filter under test
+     * @param request request
+     * @return access-event fields rendered as JSON
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
+     */
+    private JsonNode filterAndCapture(final AccessLogFilter filter,
+            final MockHttpServletRequest request) throws IOException, ServletException {
+        appender.list.clear();
+        filter.doFilterInternal(request, new MockHttpServletResponse(),
+                (req, res) -> req.getInputStream().readAllBytes());
+        return JsonMapper.shared()
+                .readTree(String.valueOf(appender.list.get(0).getArgumentArray()[0]));
+    }
+}
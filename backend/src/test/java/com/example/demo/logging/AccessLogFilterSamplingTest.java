@@ -0,0 +1,170 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/** Tests for access-log sampling in {@link AccessLogFilter}. */
+class AccessLogFilterSamplingTest {
+    /** API path used by tests. */
+    private static final String PATH_API = "/api/hello";
+
+    /** Logger name used by AccessLogFilter. */
+    private static final String ACCESS_LOGGER = "ACCESS_LOG";
+
+    /** Clears MDC values after each test. */
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    /**
+     * Sampled-out requests are skipped while errors are still logged.
+     *
+     * <pre>
+     * Theme: Access-log sampling
+     * Test view: Sampled-out requests are skipped while errors are still logged
+     * Test conditions: Sampling drops every request under /api; one 200 and one 500 request
+     * Test result: Only the failing request is logged, with sample weight 1
+     * </pre>
+     *
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
+     */
+    @Test
+    void samplingSkipsFastSuccessAndKeepsErrors() throws IOException, ServletException {
+        final AccessLogFilter filter = new AccessLogFilter();
+        filter.setSamplingEnabled(true);
+        filter.setSamplingRules("/api=probability:0");
+        filter.setSlowThresholdMs(60_000L);
+        filter.initFilterBean();
+
+        final Logger accessLogger = (Logger) LoggerFactory.getLogger(ACCESS_LOGGER);
+        final Level previousLevel = accessLogger.getLevel();
+        final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        accessLogger.addAppender(appender);
+        accessLogger.setLevel(Level.INFO);
+        try {
+            filter.doFilterInternal(new MockHttpServletRequest("GET", PATH_API),
+                    new MockHttpServletResponse(), (req, res) -> { });
+            filter.doFilterInternal(new MockHttpServletRequest("GET", PATH_API),
+                    new MockHttpServletResponse(),
+                    (req, res) -> ((HttpServletResponse) res).setStatus(500));
+
+            Assertions.assertEquals(1, appender.list.size(), "Only the error should be logged");
+            final JsonNode fields = JsonMapper.shared()
+                    .readTree(String.valueOf(appender.list.get(0).getArgumentArray()[0]));
+            Assertions.assertEquals(1.0d, fields.get("sampleWeight").asDouble(),
+                    "Kept error should carry weight one");
+        } finally {
+            accessLogger.detachAppender(appender);
+            appender.stop();
+            accessLogger.setLevel(previousLevel);
+        }
+    }
+
+    /**
+     * Disabled sampling logs every request with weight one.
+     *
+     * <pre>
+     * Theme: Access-log sampling
+     * Test view: Disabled sampling logs every request with weight one
+     * Test conditions: Sampling disabled even though a dropping rule is configured
+     * Test result: Request is logged
+     * </pre>
+     *
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
+     */
+    @Test
+    void disabledSamplingLogsEverything() throws IOException, ServletException {
+        final AccessLogFilter filter = new AccessLogFilter();
+        filter.setSamplingEnabled(false);
+        filter.setSamplingRules("/api=probability:0");
+        filter.initFilterBean();
+
+        final Logger accessLogger = (Logger) LoggerFactory.getLogger(ACCESS_LOGGER);
+        final Level previousLevel = accessLogger.getLevel();
+        final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        accessLogger.addAppender(appender);
+        accessLogger.setLevel(Level.INFO);
+        try {
+            filter.doFilterInternal(new MockHttpServletRequest("GET", PATH_API),
+                    new MockHttpServletResponse(), (req, res) -> { });
+
+            Assertions.assertEquals(1, appender.list.size(), "Request should be logged");
+        } finally {
+            accessLogger.detachAppender(appender);
+            appender.stop();
+            accessLogger.setLevel(previousLevel);
+        }
+    }
+
+    /**
+     * Weight no later line carried is logged once its window ends.
+     *
+     * <pre>
+     * Theme: Access-log sampling
+     * Test view: Weight no later line carried is logged once its window ends
+     * Test conditions: Rate of 0 per second under /api; two requests; two flushes after the
+     *                  rate window ends
+     * Test result: One sampled-out event with the rule prefix and weight 2
+     * </pre>
+     *
+     * @throws IOException IO exception
+     * @throws ServletException servlet exception
+     * @throws InterruptedException when interrupted while waiting for the window to end
+     */
+    @Test
+    void flushLogsSampledOutWeight() throws IOException, ServletException, InterruptedException {
+        final AccessLogFilter filter = new AccessLogFilter();
+        filter.setSamplingEnabled(true);
+        filter.setSamplingRules("/api=rate:0");
+        filter.setSlowThresholdMs(60_000L);
+        filter.initFilterBean();
+
+        final Logger accessLogger = (Logger) LoggerFactory.getLogger(ACCESS_LOGGER);
+        final Level previousLevel = accessLogger.getLevel();
+        final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        accessLogger.addAppender(appender);
+        accessLogger.setLevel(Level.INFO);
+        try {
+            for (int index = 0; index < 2; index++) {
+                filter.doFilterInternal(new MockHttpServletRequest("GET", PATH_API),
+                        new MockHttpServletResponse(), (req, res) -> { });
+            }
+            TimeUnit.SECONDS.sleep(1);
+            filter.flushSampledOut();
+            filter.flushSampledOut();
+
+            Assertions.assertEquals(1, appender.list.size(), "One sampled-out event");
+            final ILoggingEvent event = appender.list.get(0);
+            Assertions.assertEquals("sampled-out", event.getMessage(), "Event message");
+            Assertions.assertEquals("path=/api", String.valueOf(event.getArgumentArray()[0]),
+                    "Rule prefix");
+            Assertions.assertEquals("sampleWeight=2.0",
+                    String.valueOf(event.getArgumentArray()[1]), "Skipped requests");
+        } finally {
+            accessLogger.detachAppender(appender);
+            appender.stop();
+            accessLogger.setLevel(previousLevel);
+        }
+    }
+}
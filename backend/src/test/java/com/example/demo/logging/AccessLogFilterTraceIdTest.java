@@ -1,8 +1,25 @@
 package com.example.demo.logging;
 
+import com.example.demo.trace.RequestContext;
+import com.example.demo.trace.TraceParent;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
 
 /** Tests for trace id resolution. */
 class AccessLogFilterTraceIdTest {
@@ -18,6 +35,18 @@ class AccessLogFilterTraceIdTest {
     /** HTTP GET method name. */
     private static final String METHOD_GET = "GET";
 
+    /** Trace id carried by the traceparent header used in tests. */
+    private static final String PARENT_TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    /** Parent span id carried by the traceparent header used in tests. */
+    private static final String PARENT_SPAN_ID = "00f067aa0ba902b7";
+
+    /** Clears MDC values after each test. */
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
     /**
      * Existing trace header is returned.
      *
@@ -55,4 +84,182 @@ class AccessLogFilterTraceIdTest {
         Assertions.assertNotNull(AccessLogSupport.resolveTraceId(withoutTrace),
                 "Trace id should be generated when missing");
     }
+
+    /**
+     * Generated trace ids use the W3C shape.
+     *
+     * <pre>
+     * Theme: Trace propagation
+     * Test view: Generated trace ids use the W3C shape
+     * Test conditions: No trace header
+     * Test result: Trace id is 32 lowercase hex characters
+     * </pre>
+     */
+    @Test
+    void resolveTraceIdGeneratesW3cShape() {
+        final MockHttpServletRequest withoutTrace =
+                new MockHttpServletRequest(METHOD_GET, PATH_API);
+
+        final String traceId = AccessLogSupport.resolveTraceId(withoutTrace);
+
+        Assertions.assertTrue(traceId.matches("[0-9a-f]{32}"),
+                "Generated trace id should be 32 hex characters");
+    }
+
+    /**
+     * Incoming traceparent is continued.
+     *
+     * <pre>
+     * Theme: Trace propagation
+     * Test view: Incoming traceparent is continued
+     * Test conditions: Request carries only a valid traceparent header
+     * Test result: X-Request-Id echoes its trace id; response traceparent has a new span id
+     * </pre>
+     *
+     * @throws IOException when filter I/O fails
+     * @throws ServletException when filter processing fails
+     */
+    @Test
+    void doFilterInternalContinuesTraceParent() throws IOException, ServletException {
+        final AccessLogFilter filter = new AccessLogFilter();
+        final MockHttpServletRequest request = new MockHttpServletRequest(METHOD_GET, PATH_API);
+        request.addHeader(TraceParent.HEADER,
+                "00-" + PARENT_TRACE_ID + "-" + PARENT_SPAN_ID + "-01");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilterInternal(request, response, (req, res) -> { });
+
+        Assertions.assertEquals(PARENT_TRACE_ID, response.getHeader(TRACE_HEADER),
+                "Trace id should come from traceparent");
+        final TraceParent propagated = TraceParent.parse(response.getHeader(TraceParent.HEADER));
+        Assertions.assertNotNull(propagated, "Response traceparent should be valid");
+        Assertions.assertEquals(PARENT_TRACE_ID, propagated.traceId(), "Trace id is kept");
+        Assertions.assertNotEquals(PARENT_SPAN_ID, propagated.parentId(), "Span id is new");
+        Assertions.assertEquals("01", propagated.flags(), "Flags are kept");
+    }
+
+    /**
+     * Requests without traceparent get none back.
+     *
+     * <pre>
+     * Theme: Trace propagation
+     * Test view: Requests without traceparent get none back
+     * Test conditions: Request carries a malformed traceparent header
+     * Test result: Response has no traceparent header
+     * </pre>
+     *
+     * @throws IOException when filter I/O fails
+     * @throws ServletException when filter processing fails
+     */
+    @Test
+    void doFilterInternalIgnoresInvalidTraceParent() throws IOException, ServletException {
+        final AccessLogFilter filter = new AccessLogFilter();
+        final MockHttpServletRequest request = new MockHttpServletRequest(METHOD_GET, PATH_API);
+        request.addHeader(TraceParent.HEADER, "00-bogus");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilterInternal(request, response, (req, res) -> { });
+
+        Assertions.assertNull(response.getHeader(TraceParent.HEADER),
+                "Invalid traceparent should not be propagated");
+    }
+
+    /**
+     * The request context is bound for the chain and removed afterwards.
+     *
+     * <pre>
+     * Theme: Request context
+     * Test view: The request context is bound for the chain and removed afterwards
+     * Test conditions: Request from a trusted proxy with X-Request-Id and X-Forwarded-For
+     * Test result: The chain reads the trace id, forwarded client IP, and matched route;
+     *              no context or MDC key the handler left remains after the filter returns
+     * </pre>
+     *
+     * @throws IOException when filter I/O fails
+     * @throws ServletException when filter processing fails
+     */
+    @Test
+    void doFilterInternalBindsRequestContext() throws IOException, ServletException {
+        final AccessLogFilter filter = new AccessLogFilter();
+        final MockHttpServletRequest request = new MockHttpServletRequest(METHOD_GET, PATH_API);
+        request.addHeader(TRACE_HEADER, TRACE_VALUE);
+        request.addHeader(ForwardingHeader.X_FORWARDED_FOR.headerName(), "203.0.113.7");
+        final List<String> seen = new ArrayList<>();
+
+        filter.doFilterInternal(request, new MockHttpServletResponse(), (req, res) -> {
+            final RequestContext context = RequestContext.current();
+            seen.add(context.traceId());
+            seen.add(context.clientIp());
+            seen.add(context.route());
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, PATH_API);
+            seen.add(context.route());
+            MDC.put("userId", "u-1");
+        });
+
+        Assertions.assertEquals(List.of(TRACE_VALUE, "203.0.113.7", RequestContext.UNMATCHED_ROUTE,
+                PATH_API), seen,
+                "Chain should read the request context");
+        Assertions.assertNull(RequestContext.current(), "Context is removed after the request");
+        Assertions.assertNull(MDC.get("userId"), "Keys left by the handler are cleared");
+    }
+
+    /**
+     * Concurrent virtual-thread requests each see only their own trace id.
+     *
+     * <pre>
+     * Theme: Trace propagation
+     * Test view: Concurrent virtual-thread requests each see only their own trace id
+     * Test conditions: 64 requests held open together on virtual threads, each with its own
+     *                  X-Request-Id
+     * Test result: The chain sees the request's trace id; MDC and the request context are
+     *              empty afterwards
+     * </pre>
+     *
+     * @throws Exception when a request fails
+     */
+    @Test
+    void doFilterInternalIsolatesMdcOnVirtualThreads() throws Exception {
+        final AccessLogFilter filter = new AccessLogFilter();
+        final int requests = 64;
+        final CountDownLatch allInside = new CountDownLatch(requests);
+        final Map<String, String> seen = new ConcurrentHashMap<>();
+        final List<Future<String>> after = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int index = 0; index < requests; index++) {
+                final String traceId = TRACE_VALUE + "-" + index;
+                after.add(executor.submit(() -> {
+                    final MockHttpServletRequest request =
+                            new MockHttpServletRequest(METHOD_GET, PATH_API);
+                    request.addHeader(TRACE_HEADER, traceId);
+                    filter.doFilterInternal(request, new MockHttpServletResponse(),
+                            (req, res) -> {
+                                allInside.countDown();
+                                awaitQuietly(allInside);
+                                seen.put(traceId, String.valueOf(MDC.get("traceId")));
+                            });
+                    return MDC.get("traceId") + "/" + RequestContext.current();
+                }));
+            }
+            for (final Future<String> result : after) {
+                Assertions.assertEquals("null/null", result.get(10, TimeUnit.SECONDS),
+                        "MDC and the request context are cleared after the request");
+            }
+        }
+        Assertions.assertEquals(requests, seen.size(), "Every request ran");
+        seen.forEach((expected, actual) -> Assertions.assertEquals(expected, actual,
+                "Chain sees its own trace id"));
+    }
+
+    /**
+     * Waits for a latch, giving up after a bounded time.
+     *
+     * @param latch latch to await
+     */
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS), "Requests overlap");
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package com.example.demo.logging;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/** Verifies the access-log policy endpoint reloads policies at runtime. */
+@SpringBootTest
+class AccessLogPolicyControllerTest {
+    /** Endpoint path. */
+    private static final String PATH = "/actuator/access-log/policies";
+
+    /** Spring web application context used to configure MockMvc. */
+    private final WebApplicationContext context;
+
+    /** MockMvc instance used for endpoint assertions. */
+    private MockMvc mockMvc;
+
+    /**
+     * Creates the test instance with Spring's web context.
+     *
+     * @param context web application context
+     */
+    public AccessLogPolicyControllerTest(final WebApplicationContext context) {
+        this.context = context;
+    }
+
+    /** Builds MockMvc with the access-log filter and enables writes before each test. */
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(context.getBean(AccessLogFilter.class)).build();
+        context.getBean(AccessLogPolicyController.class).setWriteEnabled(true);
+    }
+
+    /** Drops overrides and disables writes so other tests see the configured state. */
+    @AfterEach
+    void tearDown() {
+        context.getBean(AccessLogPolicyRegistry.class).clearOverrides();
+        context.getBean(AccessLogPolicyController.class).setWriteEnabled(false);
+    }
+
+    /**
+     * Writes are refused unless enabled by configuration.
+     *
+     * @throws Exception when a request fails
+     */
+    @Test
+    void refusesWritesByDefault() throws Exception {
+        context.getBean(AccessLogPolicyController.class).setWriteEnabled(false);
+        final AccessLogFilter filter = context.getBean(AccessLogFilter.class);
+
+        mockMvc.perform(put(PATH).contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"prefix\":\"/\",\"skip\":true}]"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("FORBIDDEN"));
+        mockMvc.perform(delete(PATH)).andExpect(status().isForbidden());
+        mockMvc.perform(get(PATH)).andExpect(status().isOk())
+                .andExpect(jsonPath("$.overrides").isEmpty());
+        Assertions.assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("PUT", PATH)),
+                "Policy endpoint is access-logged");
+    }
+
+    /**
+     * Overrides take effect on the next request and are dropped on delete.
+     *
+     * @throws Exception when a request fails
+     */
+    @Test
+    void replacesAndClearsOverrides() throws Exception {
+        final AccessLogFilter filter = context.getBean(AccessLogFilter.class);
+        final MockHttpServletRequest hello = new MockHttpServletRequest("GET", "/api/hello");
+
+        mockMvc.perform(put(PATH).contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"prefix\":\"/api/hello\",\"skip\":true}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.overrides[0].prefix").value("/api/hello"))
+                .andExpect(jsonPath("$.configured[?(@.prefix == '/actuator')].skip")
+                        .value(true));
+        Assertions.assertTrue(filter.shouldNotFilter(hello), "Override applies immediately");
+
+        mockMvc.perform(get(PATH)).andExpect(status().isOk())
+                .andExpect(jsonPath("$.overrides[0].skip").value(true));
+        mockMvc.perform(delete(PATH)).andExpect(status().isOk())
+                .andExpect(jsonPath("$.overrides").isEmpty());
+        Assertions.assertFalse(filter.shouldNotFilter(hello), "Override dropped");
+    }
+
+    /**
+     * Invalid overrides are rejected with 400 and leave the registry unchanged.
+     *
+     * @throws Exception when a request fails
+     */
+    @Test
+    void rejectsInvalidOverrides() throws Exception {
+        mockMvc.perform(put(PATH).contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"prefix\":\"/api\"},{\"prefix\":\"/api\",\"skip\":true}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
+        mockMvc.perform(put(PATH).contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"prefix\":\"/api\",\"maxBodyBytes\":0}]"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get(PATH)).andExpect(jsonPath("$.overrides").isEmpty());
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.demo.logging;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link AccessLogPolicyRegistry}. */
+class AccessLogPolicyRegistryTest {
+    /** Order route used by tests. */
+    private static final String ORDERS = "/api/orders";
+
+    /** Order item path used by tests. */
+    private static final String ORDER_ITEM = "/api/orders/42";
+
+    /** Iterations run before measuring. */
+    private static final int WARMUP_LOOKUPS = 50_000;
+
+    /** Iterations measured. */
+    private static final int MEASURED_LOOKUPS = 100_000;
+
+    /** Allocation tolerated for accounting noise. */
+    private static final long ALLOCATION_SLACK_BYTES = 4096L;
+
+    /**
+     * Default policies skip actuator and health paths.
+     *
+     * <pre>
+     * Theme: Access-log policy registry
+     * Test view: Default policies skip actuator and health paths
+     * Test conditions: Registry without configuration; actuator, health, API, and null paths
+     * Test result: Only actuator and health prefixes are skipped; others use filter defaults
+     * </pre>
+     */
+    @Test
+    void defaultsSkipActuatorAndHealth() {
+        final AccessLogPolicyRegistry registry = new AccessLogPolicyRegistry();
+
+        Assertions.assertTrue(registry.resolve("/actuator/latency").skip(), "Actuator");
+        Assertions.assertTrue(registry.resolve("/health").skip(), "Health");
+        Assertions.assertFalse(registry.resolve("/act").skip(), "Partial prefix");
+        Assertions.assertSame(AccessLogPolicyRegistry.Route.DEFAULT,
+                registry.resolve("/api/hello"), "Unmatched path");
+        Assertions.assertSame(AccessLogPolicyRegistry.Route.DEFAULT, registry.resolve(null),
+                "Null path");
+    }
+
+    /**
+     * The longest prefix wins and inherits unset options from shorter prefixes.
+     *
+     * <pre>
+     * Theme: Access-log policy registry
+     * Test view: The longest prefix wins and inherits unset options from shorter prefixes
+     * Test conditions: /api sets sampling and a limit; /api/orders enables request capture
+     * Test result: Order paths capture requests with the /api limit and share its rule
+     * </pre>
+     */
+    @Test
+    void longestPrefixInheritsOptions() {
+        final AccessLogPolicyRegistry registry = new AccessLogPolicyRegistry();
+        registry.setPolicies("/api=rate:10;max-body-bytes:512," + ORDERS + "=request-body:true");
+
+        final AccessLogPolicyRegistry.Route orders = registry.resolve(ORDER_ITEM);
+        final AccessLogPolicyRegistry.Route api = registry.resolve("/api/hello");
+
+        Assertions.assertTrue(orders.captureRequest(false), "Request capture enabled");
+        Assertions.assertFalse(orders.captureResponse(false), "Response capture inherited");
+        Assertions.assertTrue(orders.captureResponse(true), "Response capture fallback");
+        Assertions.assertEquals(512, orders.maxBodyBytes(), "Limit inherited");
+        Assertions.assertSame(api.rule(), orders.rule(), "Sampling rule shared");
+        Assertions.assertFalse(api.captureRequest(false), "Sibling route unaffected");
+        Assertions.assertFalse(registry.resolve("/actuator").skip(),
+                "Configured policies replace the defaults");
+    }
+
+    /**
+     * Overrides replace configured policies until cleared.
+     *
+     * <pre>
+     * Theme: Access-log policy registry
+     * Test view: Overrides replace configured policies until cleared
+     * Test conditions: Override on a configured prefix, invalid update, then clear
+     * Test result: Lookups follow the override; a rejected update keeps the previous state
+     * </pre>
+     */
+    @Test
+    void overridesApplyAndClear() {
+        final AccessLogPolicyRegistry registry = new AccessLogPolicyRegistry();
+        registry.setPolicies(ORDERS + "=request-body:true");
+        final AccessLogPolicy override =
+                new AccessLogPolicy(ORDERS, null, null, true, 2048, null);
+
+        final AccessLogPolicyRegistry.Snapshot updated = registry.setOverrides(List.of(override));
+        final AccessLogPolicyRegistry.Route route = registry.resolve(ORDER_ITEM);
+
+        Assertions.assertEquals(List.of(override), updated.overrides(), "Snapshot overrides");
+        Assertions.assertEquals(1, updated.configured().size(), "Snapshot configuration");
+        Assertions.assertFalse(route.captureRequest(false), "Override replaces configuration");
+        Assertions.assertTrue(route.captureResponse(false), "Override option");
+        Assertions.assertEquals(2048, route.maxBodyBytes(), "Override limit");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.setOverrides(
+                List.of(override, new AccessLogPolicy(ORDERS, true, null, null, null, null))),
+                "Duplicate prefixes");
+        Assertions.assertEquals(List.of(override), registry.getSnapshot().overrides(),
+                "Rejected update keeps state");
+
+        Assertions.assertTrue(registry.clearOverrides().overrides().isEmpty(), "Cleared");
+        Assertions.assertTrue(registry.resolve(ORDER_ITEM).captureRequest(false),
+                "Configuration restored");
+    }
+
+    /**
+     * The policy admin endpoint is always logged.
+     *
+     * <pre>
+     * Theme: Access-log policy registry
+     * Test view: The policy admin endpoint is always logged
+     * Test conditions: Default policies, then overrides skipping everything and the admin path
+     * Test result: The admin path is neither skipped nor left to broader sampling rules
+     * </pre>
+     */
+    @Test
+    void adminPathIsAlwaysLogged() {
+        final AccessLogPolicyRegistry registry = new AccessLogPolicyRegistry();
+        final String admin = AccessLogPolicyRegistry.ADMIN_PATH;
+        Assertions.assertFalse(registry.resolve(admin).skip(), "Default policies");
+
+        registry.setOverrides(List.of(new AccessLogPolicy("/", true, null, null, null, "rate:1"),
+                new AccessLogPolicy(admin, true, null, null, null, null)));
+
+        Assertions.assertTrue(registry.resolve("/api/hello").skip(), "Override applies");
+        Assertions.assertFalse(registry.resolve(admin).skip(), "Admin path still logged");
+        Assertions.assertEquals(admin, registry.resolve(admin).rule().prefix(),
+                "Admin path keeps its own rule");
+        Assertions.assertEquals(2, registry.getSnapshot().overrides().size(),
+                "Pinned policy is not reported as an override");
+    }
+
+    /**
+     * Lookups do not allocate.
+     *
+     * <pre>
+     * Theme: Access-log policy registry
+     * Test view: Lookups do not allocate
+     * Test conditions: Repeated lookups of matched and unmatched paths after warm-up
+     * Test result: Allocated bytes per lookup stay near zero
+     * </pre>
+     */
+    @Test
+    void resolveDoesNotAllocate() {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(),
+                "Thread allocation accounting is required");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        final AccessLogPolicyRegistry registry = new AccessLogPolicyRegistry();
+        registry.setPolicies("/actuator=skip,/api=rate:10," + ORDERS + "=request-body:true");
+
+        int skipped = lookups(registry, WARMUP_LOOKUPS);
+        final long before = threads.getCurrentThreadAllocatedBytes();
+        skipped += lookups(registry, MEASURED_LOOKUPS);
+        final long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        Assertions.assertEquals(WARMUP_LOOKUPS + MEASURED_LOOKUPS, skipped, "Half are skipped");
+        Assertions.assertTrue(allocated < ALLOCATION_SLACK_BYTES,
+                "Lookups allocated " + allocated + " bytes");
+    }
+
+    /**
+     * Resolves a skipped and a logged path per iteration.
+     *
+     * @param registry registry under test
+     * @param count number of iterations
+     * @return number of skipped paths
+     */
+    private static int lookups(final AccessLogPolicyRegistry registry, final int count) {
+        int skipped = 0;
+        for (int index = 0; index < count; index++) {
+            skipped += registry.resolve("/actuator/health").skip() ? 1 : 0;
+            skipped += registry.resolve(ORDER_ITEM).skip() ? 1 : 0;
+        }
+        return skipped;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.logging;
+
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link AccessLogPolicy}. */
+class AccessLogPolicyTest {
+    /** Route prefix used by tests. */
+    private static final String PREFIX = "/api/orders";
+
+    /**
+     * Specifications parse into policies in declaration order.
+     *
+     * <pre>
+     * Theme: Access-log policy parsing
+     * Test view: Specifications parse into policies in declaration order
+     * Test conditions: Bare skip, flags, byte limit, sampling, blanks, and surrounding spaces
+     * Test result: Options are set as written; omitted options stay null
+     * </pre>
+     */
+    @Test
+    void parsesSpecification() {
+        final List<AccessLogPolicy> policies = AccessLogPolicy.parseAll(
+                " /health=skip ,, " + PREFIX + "=request-body:TRUE;response-body:false;"
+                        + "max-body-bytes:16384; rate:10,/api=probability:0.5");
+
+        Assertions.assertEquals(List.of(
+                new AccessLogPolicy("/health", true, null, null, null, null),
+                new AccessLogPolicy(PREFIX, null, true, false, 16_384, "rate:10"),
+                new AccessLogPolicy("/api", null, null, null, null, "probability:0.5")),
+                policies, "Parsed policies");
+        Assertions.assertTrue(AccessLogPolicy.parseAll(null).isEmpty(), "Null specification");
+        Assertions.assertTrue(AccessLogPolicy.parseAll(" , ").isEmpty(), "Blank specification");
+    }
+
+    /**
+     * Malformed specifications are rejected.
+     *
+     * <pre>
+     * Theme: Access-log policy parsing
+     * Test view: Malformed specifications are rejected
+     * Test conditions: Missing prefix or separator, unknown option, bad flag, size, or mode
+     * Test result: IllegalArgumentException is thrown for each
+     * </pre>
+     */
+    @Test
+    void rejectsMalformedSpecifications() {
+        for (final String spec : new String[] {"=skip", "/api", "api=skip", "/api=verbose",
+            "/api=skip:maybe", "/api=max-body-bytes:lots", "/api=rate:many", "/api=rate"}) {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> AccessLogPolicy.parseAll(spec), spec);
+        }
+    }
+
+    /**
+     * Policies validate their options on construction.
+     *
+     * <pre>
+     * Theme: Access-log policy parsing
+     * Test view: Policies validate their options on construction
+     * Test conditions: Null prefix, capture limits at and beyond the bounds, bad sampling
+     * Test result: Limits 1 and MAX_CAPTURE_BYTES are accepted; the rest throw
+     * </pre>
+     */
+    @Test
+    void validatesOptions() {
+        Assertions.assertEquals(1,
+                new AccessLogPolicy(PREFIX, null, null, null, 1, null).maxBodyBytes(),
+                "Smallest limit");
+        Assertions.assertEquals(AccessLogPolicy.MAX_CAPTURE_BYTES, new AccessLogPolicy(PREFIX,
+                null, null, null, AccessLogPolicy.MAX_CAPTURE_BYTES, null).maxBodyBytes(),
+                "Largest limit");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new AccessLogPolicy(null, true, null, null, null, null), "Null prefix");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new AccessLogPolicy(PREFIX, null, null, null, 0, null), "Zero limit");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new AccessLogPolicy(PREFIX, null, null, null,
+                        AccessLogPolicy.MAX_CAPTURE_BYTES + 1, null), "Limit above the cap");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new AccessLogPolicy(PREFIX, null, null, null, null, "burst:1"),
+                "Unknown sampling mode");
+    }
+}
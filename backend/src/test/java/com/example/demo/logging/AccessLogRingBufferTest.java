@@ -0,0 +1,73 @@
+package com.example.demo.logging;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link AccessLogRingBuffer}. */
+class AccessLogRingBufferTest {
+    /**
+     * Records are returned in publication order.
+     *
+     * <pre>
+     * Theme: Asynchronous access logging
+     * Test view: Records are returned in publication order
+     * Test conditions: Two records are offered to an empty buffer
+     * Test result: poll returns them in order and then null
+     * </pre>
+     */
+    @Test
+    void pollReturnsRecordsInOrder() {
+        final AccessLogRingBuffer buffer = new AccessLogRingBuffer(4);
+        final AccessLogRecord first = AccessLogRecord.builder().path("/a").build();
+        final AccessLogRecord second = AccessLogRecord.builder().path("/b").build();
+
+        Assertions.assertTrue(buffer.offer(first), "First record should be accepted");
+        Assertions.assertTrue(buffer.offer(second), "Second record should be accepted");
+        Assertions.assertEquals(2, buffer.size(), "Two records should be pending");
+        Assertions.assertSame(first, buffer.poll(), "First record should be polled first");
+        Assertions.assertSame(second, buffer.poll(), "Second record should be polled second");
+        Assertions.assertNull(buffer.poll(), "Empty buffer should return null");
+    }
+
+    /**
+     * Full buffers reject new records until a slot is freed.
+     *
+     * <pre>
+     * Theme: Asynchronous access logging
+     * Test view: Full buffers reject new records until a slot is freed
+     * Test conditions: Buffer of capacity two receives three records
+     * Test result: Third offer fails, then succeeds after one poll
+     * </pre>
+     */
+    @Test
+    void offerRejectsWhenFull() {
+        final AccessLogRingBuffer buffer = new AccessLogRingBuffer(2);
+        final AccessLogRecord record = AccessLogRecord.builder().build();
+
+        Assertions.assertTrue(buffer.offer(record), "First slot should be free");
+        Assertions.assertTrue(buffer.offer(record), "Second slot should be free");
+        Assertions.assertFalse(buffer.offer(record), "Full buffer should reject records");
+        Assertions.assertSame(record, buffer.poll(), "Poll should free one slot");
+        Assertions.assertTrue(buffer.offer(record), "Freed slot should be reusable");
+    }
+
+    /**
+     * Capacity is rounded to a power of two within bounds.
+     *
+     * <pre>
+     * Theme: Asynchronous access logging
+     * Test view: Capacity is rounded to a power of two within bounds
+     * Test conditions: Buffers are created with 0, 3, and 8 slots
+     * Test result: Capacities are 2, 4, and 8
+     * </pre>
+     */
+    @Test
+    void capacityIsRoundedToPowerOfTwo() {
+        Assertions.assertEquals(2, new AccessLogRingBuffer(0).capacity(),
+                "Small capacities should be raised to two");
+        Assertions.assertEquals(4, new AccessLogRingBuffer(3).capacity(),
+                "Capacities should round up to a power of two");
+        Assertions.assertEquals(8, new AccessLogRingBuffer(8).capacity(),
+                "Powers of two should be kept");
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.demo.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link AccessLogSampler}. */
+class AccessLogSamplerTest {
+    /** API path used by tests. */
+    private static final String PATH_API = "/api/hello";
+
+    /** Slow threshold used by tests. */
+    private static final long SLOW_MS = 500L;
+
+    /**
+     * Rule specifications are parsed into rate and probability rules.
+     *
+     * <pre>
+     * Theme: Sampling rule parsing
+     * Test view: Rule specifications are parsed into rate and probability rules
+     * Test conditions: Spec with two entries, surrounding blanks, and an empty entry
+     * Test result: Two rules with trimmed prefixes are returned
+     * </pre>
+     */
+    @Test
+    void parseRulesReadsRateAndProbability() {
+        final List<AccessLogSampler.Rule> rules =
+                AccessLogSampler.parseRules(" /api/hello = RATE:10 ,, /api=probability:0.5");
+
+        Assertions.assertEquals(2, rules.size(), "Two rules should be parsed");
+        Assertions.assertEquals(PATH_API, rules.get(0).prefix(), "Prefix should be trimmed");
+        Assertions.assertEquals("/api", rules.get(1).prefix(), "Second prefix should be kept");
+        Assertions.assertTrue(AccessLogSampler.parseRules(null).isEmpty(),
+                "Null spec should yield no rules");
+    }
+
+    /**
+     * Malformed rule specifications are rejected.
+     *
+     * <pre>
+     * Theme: Sampling rule parsing
+     * Test view: Malformed rule specifications are rejected
+     * Test conditions: Missing prefix, missing mode, unknown mode, and bad number
+     * Test result: IllegalArgumentException is thrown for each
+     * </pre>
+     */
+    @Test
+    void parseRulesRejectsMalformedEntries() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AccessLogSampler.parseRules("=rate:1"), "Missing prefix");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AccessLogSampler.parseRules("/api=rate"), "Missing value");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AccessLogSampler.parseRules("/api"), "Missing separator");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AccessLogSampler.parseRules("/api=burst:1"), "Unknown mode");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AccessLogSampler.parseRules("/api=rate:many"), "Bad number");
+    }
+
+    /**
+     * Rate rules emit a bounded number of lines per window and carry skipped counts.
+     *
+     * <pre>
+     * Theme: Rate sampling
+     * Test view: Rate rules emit a bounded number of lines per window
+     * Test conditions: Rate of 1 per second, three requests, then a new window
+     * Test result: First is kept, next two skipped, next window line has weight 3
+     * </pre>
+     */
+    @Test
+    void rateRuleCarriesSkippedRequestsAsWeight() {
+        final AtomicLong clock = new AtomicLong();
+        final AccessLogSampler sampler = new AccessLogSampler(
+                List.of(AccessLogSampler.Rule.rate(PATH_API, 1)), SLOW_MS, clock::get);
+
+        Assertions.assertEquals(1.0d, sampler.sample(PATH_API, 200, false, 1L), "First kept");
+        Assertions.assertEquals(0.0d, sampler.sample(PATH_API, 200, false, 1L), "Second skip");
+        Assertions.assertEquals(0.0d, sampler.sample(PATH_API, 200, false, 1L), "Third skip");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        Assertions.assertEquals(3.0d, sampler.sample(PATH_API, 200, false, 1L),
+                "Next window line should stand for itself and two skipped requests");
+    }
+
+    /**
+     * Weight skipped after the last line of a window is handed over once the window ends.
+     *
+     * <pre>
+     * Theme: Rate sampling
+     * Test view: Weight skipped after the last line of a window is handed over once it ends
+     * Test conditions: Rate of 1 per second, three requests, flushes before and after the
+     *                  window ends, then a route rule that skips everything
+     * Test result: Nothing is flushed while the window is open; the two skipped requests are
+     *              flushed once; route rules are flushed with their prefix
+     * </pre>
+     */
+    @Test
+    void carriedWeightIsFlushedAfterItsWindow() {
+        final AtomicLong clock = new AtomicLong();
+        final AccessLogSampler sampler = new AccessLogSampler(
+                List.of(AccessLogSampler.Rule.rate(PATH_API, 1)), SLOW_MS, clock::get);
+        final AccessLogSampler.Rule quiet = AccessLogSampler.Rule.rate("/quiet", 0);
+        final List<String> flushed = new ArrayList<>();
+        for (int index = 0; index < 3; index++) {
+            sampler.sample(PATH_API, 200, false, 1L);
+        }
+        sampler.sample(quiet, 200, false, 1L);
+
+        sampler.flushCarried(List.of(quiet), (prefix, carried) -> flushed.add(prefix + carried));
+        Assertions.assertEquals(List.of(), flushed, "Open windows keep their weight");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        sampler.flushCarried(List.of(quiet), (prefix, carried) -> flushed.add(prefix + carried));
+        sampler.flushCarried(List.of(quiet), (prefix, carried) -> flushed.add(prefix + carried));
+        Assertions.assertEquals(List.of(PATH_API + 2, "/quiet1"), flushed,
+                "Ended windows hand over their skipped weight once");
+        Assertions.assertEquals(1.0d, sampler.sample(PATH_API, 200, false, 1L),
+                "Flushed weight is not carried again");
+    }
+
+    /**
+     * Concurrent requests at a window rollover never exceed the window budget.
+     *
+     * <pre>
+     * Theme: Rate sampling
+     * Test view: Concurrent requests at a window rollover never exceed the window budget
+     * Test conditions: Rate of 5 per second; eight threads released together into each of
+     *                  50 new windows, 20 requests each
+     * Test result: Exactly 5 lines per window, and the weights of all lines plus the flushed
+     *              weight equal the number of requests
+     * </pre>
+     *
+     * @throws InterruptedException when interrupted while waiting
+     * @throws BrokenBarrierException when a worker leaves the barrier
+     * @throws TimeoutException when the workers do not reach the barrier
+     */
+    @Test
+    void rateBudgetHoldsAcrossConcurrentRollover()
+            throws InterruptedException, BrokenBarrierException, TimeoutException {
+        final int threads = 8;
+        final int windows = 50;
+        final int perThread = 20;
+        final AtomicLong clock = new AtomicLong();
+        final AccessLogSampler sampler = new AccessLogSampler(
+                List.of(AccessLogSampler.Rule.rate(PATH_API, 5)), SLOW_MS, clock::get);
+        final LongAdder lines = new LongAdder();
+        final LongAdder weight = new LongAdder();
+        final CyclicBarrier barrier = new CyclicBarrier(threads + 1);
+        final List<Thread> workers = new ArrayList<>();
+        for (int worker = 0; worker < threads; worker++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    for (int round = 0; round < windows; round++) {
+                        barrier.await();
+                        for (int index = 0; index < perThread; index++) {
+                            final double sampled = sampler.sample(PATH_API, 200, false, 1L);
+                            if (sampled > 0.0d) {
+                                lines.increment();
+                                weight.add((long) sampled);
+                            }
+                        }
+                        barrier.await();
+                    }
+                } catch (final InterruptedException | BrokenBarrierException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (int round = 0; round < windows; round++) {
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            barrier.await(5, TimeUnit.SECONDS);
+            barrier.await(5, TimeUnit.SECONDS);
+            Assertions.assertEquals(5L * (round + 1), lines.sum(), "Budget per window");
+        }
+        for (final Thread thread : workers) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        sampler.flushCarried(List.of(), (prefix, carried) -> weight.add(carried));
+
+        Assertions.assertEquals((long) threads * windows * perThread, weight.sum(),
+                "Every request is accounted for");
+    }
+
+    /**
+     * Probability rules keep nothing at zero and everything at one.
+     *
+     * <pre>
+     * Theme: Probability sampling
+     * Test view: Probability rules keep nothing at zero and everything at one
+     * Test conditions: Rules with probability 0 (clamped from -1) and 1 (clamped from 2)
+     * Test result: Weight is 0 and 1 respectively
+     * </pre>
+     */
+    @Test
+    void probabilityRuleHonorsBounds() {
+        final AccessLogSampler sampler = new AccessLogSampler(
+                List.of(AccessLogSampler.Rule.probability("/none", -1.0d),
+                        AccessLogSampler.Rule.probability("/all", 2.0d)),
+                SLOW_MS, System::nanoTime);
+
+        Assertions.assertEquals(0.0d, sampler.sample("/none/x", 200, false, 1L),
+                "Probability zero should skip");
+        Assertions.assertEquals(1.0d, sampler.sample("/all/x", 200, false, 1L),
+                "Probability one should keep with weight one");
+    }
+
+    /**
+     * Errors, failures, and slow requests are always kept.
+     *
+     * <pre>
+     * Theme: Tail-aware sampling
+     * Test view: Errors, failures, and slow requests are always kept
+     * Test conditions: Rule that drops every request on the path
+     * Test result: 4xx, failed, and slow requests have weight 1; a fast 200 is skipped
+     * </pre>
+     */
+    @Test
+    void tailRequestsAreAlwaysKept() {
+        final AccessLogSampler sampler = new AccessLogSampler(
+                List.of(AccessLogSampler.Rule.rate(PATH_API, 0)), SLOW_MS, System::nanoTime);
+
+        Assertions.assertEquals(1.0d, sampler.sample(PATH_API, 404, false, 1L), "4xx kept");
+        Assertions.assertEquals(1.0d, sampler.sample(PATH_API, 200, true, 1L), "Failure kept");
+        Assertions.assertEquals(1.0d, sampler.sample(PATH_API, 200, false, SLOW_MS),
+                "Slow request kept");
+        Assertions.assertEquals(0.0d, sampler.sample(PATH_API, 200, false, 1L), "Fast skipped");
+    }
+
+    /**
+     * The longest matching prefix wins and unmatched paths are kept.
+     *
+     * <pre>
+     * Theme: Rule matching
+     * Test view: The longest matching prefix wins and unmatched paths are kept
+     * Test conditions: Broad drop rule and narrower keep rule; unmatched and null paths
+     * Test result: Narrow path kept, broad path skipped, others kept
+     * </pre>
+     */
+    @Test
+    void longestPrefixWins() {
+        final AccessLogSampler sampler = new AccessLogSampler(
+                AccessLogSampler.parseRules("/api=probability:0,/api/hello=probability:1"),
+                SLOW_MS, System::nanoTime);
+
+        Assertions.assertEquals(1.0d, sampler.sample(PATH_API, 200, false, 1L), "Narrow rule");
+        Assertions.assertEquals(0.0d, sampler.sample("/api/other", 200, false, 1L),
+                "Broad rule");
+        Assertions.assertEquals(1.0d, sampler.sample("/static", 200, false, 1L), "No rule");
+        Assertions.assertEquals(1.0d, sampler.sample(null, 200, false, 1L), "Null path");
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.demo.logging;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/** Tests for {@link AccessLogTeeResponseWrapper}. */
+class AccessLogTeeResponseWrapperTest {
+    /** Prefix limit used by tests. */
+    private static final int LIMIT = 8;
+
+    /** Body larger than the prefix limit. */
+    private static final String LONG_BODY = "0123456789abcdef";
+
+    /**
+     * Bytes reach the client while the wrapper keeps only a bounded prefix.
+     *
+     * <pre>
+     * Theme: Response body capture
+     * Test view: Bytes reach the client while the wrapper keeps only a bounded prefix
+     * Test conditions: Body longer than the capture limit is written in two chunks
+     * Test result: Client sees the full body immediately; prefix is capped; size is total
+     * </pre>
+     *
+     * @throws IOException IO exception
+     */
+    @Test
+    void streamsBodyAndKeepsBoundedPrefix() throws IOException {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final AccessLogTeeResponseWrapper wrapper =
+                new AccessLogTeeResponseWrapper(response, LIMIT);
+        final byte[] body = LONG_BODY.getBytes(StandardCharsets.UTF_8);
+
+        wrapper.getOutputStream().write(body, 0, 4);
+        Assertions.assertEquals("0123", response.getContentAsString(),
+                "Bytes should be forwarded without waiting for completion");
+        wrapper.getOutputStream().write(body, 4, body.length - 4);
+        wrapper.getOutputStream().write('!');
+
+        Assertions.assertEquals(LONG_BODY + "!", response.getContentAsString(),
+                "Client should receive every byte");
+        Assertions.assertEquals("01234567",
+                new String(wrapper.getContentPrefix(), StandardCharsets.UTF_8),
+                "Prefix should be capped at the capture limit");
+        Assertions.assertEquals(body.length + 1L, wrapper.getContentSize(),
+                "Content size should count every byte");
+    }
+
+    /**
+     * Writer output is captured without committing the response.
+     *
+     * <pre>
+     * Theme: Response body capture
+     * Test view: Writer output is captured without committing the response
+     * Test conditions: Text is written through getWriter and flushCapture is called
+     * Test result: Prefix holds the text and the response is not committed
+     * </pre>
+     *
+     * @throws IOException IO exception
+     */
+    @Test
+    void flushCaptureMovesWriterOutputWithoutCommit() throws IOException {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final AccessLogTeeResponseWrapper wrapper =
+                new AccessLogTeeResponseWrapper(response, LIMIT);
+        wrapper.setCharacterEncoding("UTF-8");
+
+        final PrintWriter writer = wrapper.getWriter();
+        writer.write("ok");
+        Assertions.assertSame(writer, wrapper.getWriter(), "Writer should be reused");
+        wrapper.flushCapture();
+
+        Assertions.assertEquals("ok",
+                new String(wrapper.getContentPrefix(), StandardCharsets.UTF_8),
+                "Writer output should be captured");
+        Assertions.assertFalse(response.isCommitted(), "Capture flush should not commit");
+
+        wrapper.flushBuffer();
+        Assertions.assertTrue(response.isCommitted(), "flushBuffer should commit the response");
+    }
+
+    /**
+     * Buffer resets clear the captured prefix.
+     *
+     * <pre>
+     * Theme: Response body capture
+     * Test view: Buffer resets clear the captured prefix
+     * Test conditions: Bytes are written, then resetBuffer and reset are called
+     * Test result: Prefix is empty and size is zero after each reset
+     * </pre>
+     *
+     * @throws IOException IO exception
+     */
+    @Test
+    void resetClearsCapture() throws IOException {
+        final AccessLogTeeResponseWrapper wrapper =
+                new AccessLogTeeResponseWrapper(new MockHttpServletResponse(), LIMIT);
+
+        wrapper.getOutputStream().write("abc".getBytes(StandardCharsets.UTF_8));
+        wrapper.resetBuffer();
+        Assertions.assertEquals(0, wrapper.getContentPrefix().length,
+                "resetBuffer should clear the prefix");
+        wrapper.getOutputStream().write("abc".getBytes(StandardCharsets.UTF_8));
+        wrapper.reset();
+        Assertions.assertEquals(0L, wrapper.getContentSize(), "reset should clear the size");
+        wrapper.flushCapture();
+        wrapper.flushBuffer();
+    }
+
+    /**
+     * Writer and output stream exclude each other until reset.
+     *
+     * <pre>
+     * Theme: Response body capture
+     * Test view: Writer and output stream exclude each other until reset
+     * Test conditions: One mode is obtained, then the other, before and after reset()
+     * Test result: The second mode is rejected; reset() allows switching modes
+     * </pre>
+     *
+     * @throws IOException IO exception
+     */
+    @Test
+    void writerAndStreamAreExclusive() throws IOException {
+        final AccessLogTeeResponseWrapper wrapper =
+                new AccessLogTeeResponseWrapper(new MockHttpServletResponse(), LIMIT);
+
+        wrapper.getWriter();
+        Assertions.assertThrows(IllegalStateException.class, wrapper::getOutputStream,
+                "Stream should be rejected after getWriter");
+        wrapper.reset();
+        wrapper.getOutputStream();
+        Assertions.assertThrows(IllegalStateException.class, wrapper::getWriter,
+                "Writer should be rejected after getOutputStream");
+        wrapper.reset();
+        Assertions.assertNotNull(wrapper.getWriter(), "reset should allow switching modes");
+    }
+
+    /**
+     * Buffer resets discard characters still held by the writer.
+     *
+     * <pre>
+     * Theme: Response body capture
+     * Test view: Buffer resets discard characters still held by the writer
+     * Test conditions: Text is written through getWriter, then resetBuffer and more text
+     * Test result: Only the text written after the reset is sent and captured
+     * </pre>
+     *
+     * @throws IOException IO exception
+     */
+    @Test
+    void resetBufferDiscardsWriterCharacters() throws IOException {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final AccessLogTeeResponseWrapper wrapper =
+                new AccessLogTeeResponseWrapper(response, LIMIT);
+        wrapper.setCharacterEncoding("UTF-8");
+
+        final PrintWriter discarded = wrapper.getWriter();
+        discarded.write("old");
+        wrapper.resetBuffer();
+        Assertions.assertNotSame(discarded, wrapper.getWriter(),
+                "resetBuffer should hand out a fresh writer");
+        wrapper.getWriter().write("new");
+        wrapper.flushBuffer();
+
+        Assertions.assertEquals("new", response.getContentAsString(),
+                "Only text written after the reset should be sent");
+        Assertions.assertEquals("new",
+                new String(wrapper.getContentPrefix(), StandardCharsets.UTF_8),
+                "Only text written after the reset should be captured");
+    }
+
+    /**
+     * Zero capture limit counts bytes without keeping any.
+     *
+     * <pre>
+     * Theme: Response body capture
+     * Test view: Zero capture limit counts bytes without keeping any
+     * Test conditions: Wrapper created with a negative limit
+     * Test result: Prefix is empty while size counts written bytes
+     * </pre>
+     *
+     * @throws IOException IO exception
+     */
+    @Test
+    void zeroLimitOnlyCounts() throws IOException {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final AccessLogTeeResponseWrapper wrapper = new AccessLogTeeResponseWrapper(response, -1);
+
+        wrapper.getOutputStream().write("abc".getBytes(StandardCharsets.UTF_8));
+        wrapper.getOutputStream().flush();
+
+        Assertions.assertEquals(0, wrapper.getContentPrefix().length, "No prefix should be kept");
+        Assertions.assertEquals(3L, wrapper.getContentSize(), "Bytes should still be counted");
+        Assertions.assertTrue(wrapper.getOutputStream().isReady(),
+                "Readiness should be delegated");
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> wrapper.getOutputStream().setWriteListener(null),
+                "Write-listener registration should be delegated");
+        wrapper.getOutputStream().close();
+        Assertions.assertEquals("abc", response.getContentAsString(), "Body should be forwarded");
+    }
+
+    /**
+     * Prefix buffer grows across many small writes.
+     *
+     * <pre>
+     * Theme: Response body capture
+     * Test view: Prefix buffer grows across many small writes
+     * Test conditions: Limit above the initial buffer size receives single-byte writes
+     * Test result: Prefix holds every byte up to the limit
+     * </pre>
+     *
+     * @throws IOException IO exception
+     */
+    @Test
+    void prefixGrowsGeometrically() throws IOException {
+        final int limit = 1024;
+        final AccessLogTeeResponseWrapper wrapper =
+                new AccessLogTeeResponseWrapper(new MockHttpServletResponse(), limit);
+
+        for (int index = 0; index < limit + 10; index++) {
+            wrapper.getOutputStream().write('x');
+        }
+
+        Assertions.assertEquals(limit, wrapper.getContentPrefix().length,
+                "Prefix should grow up to the limit");
+        Assertions.assertEquals(limit + 10L, wrapper.getContentSize(),
+                "Every byte should be counted");
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.logging;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link ContentTypeDescriptor}. */
+class ContentTypeDescriptorTest {
+    /**
+     * Content types are classified once per header value.
+     *
+     * <pre>
+     * Theme: Content-type classification
+     * Test view: Content types are classified once per header value
+     * Test conditions: JSON, vendor XML, form, text, binary, and null headers
+     * Test result: Flags match the type; repeated lookups return the cached descriptor
+     * </pre>
+     */
+    @Test
+    void classifiesAndCachesContentTypes() {
+        final ContentTypeDescriptor json = ContentTypeDescriptor.of("Application/JSON");
+        Assertions.assertTrue(json.json() && json.textLike() && !json.form(), "JSON");
+        Assertions.assertSame(json, ContentTypeDescriptor.of("Application/JSON"), "Cached");
+        Assertions.assertTrue(ContentTypeDescriptor.of("application/vnd.a+xml").xml(), "XML");
+        Assertions.assertTrue(ContentTypeDescriptor.of("application/x-www-form-urlencoded")
+                .form(), "Form");
+        Assertions.assertTrue(ContentTypeDescriptor.of("text/csv").textLike(), "Text");
+        Assertions.assertFalse(ContentTypeDescriptor.of("image/png").textLike(), "Binary");
+        Assertions.assertFalse(ContentTypeDescriptor.of(null).textLike(), "Missing");
+        Assertions.assertEquals(StandardCharsets.UTF_8, ContentTypeDescriptor.of(null).charset(),
+                "Missing charset");
+    }
+
+    /**
+     * The charset parameter is parsed leniently.
+     *
+     * <pre>
+     * Theme: Content-type classification
+     * Test view: The charset parameter is parsed leniently
+     * Test conditions: Quoted charset, charset followed by parameters, invalid charset names
+     * Test result: Valid charsets resolve; invalid ones fall back to UTF-8
+     * </pre>
+     */
+    @Test
+    void parsesCharsetParameter() {
+        Assertions.assertEquals(StandardCharsets.ISO_8859_1,
+                ContentTypeDescriptor.of("text/plain; charset=\"ISO-8859-1\"").charset(),
+                "Quoted charset");
+        Assertions.assertEquals(StandardCharsets.UTF_16,
+                ContentTypeDescriptor.of("text/plain;charset=utf-16;format=flowed").charset(),
+                "Charset followed by parameters");
+        Assertions.assertEquals(StandardCharsets.UTF_8,
+                ContentTypeDescriptor.of("text/plain; charset=no such").charset(), "Illegal name");
+        Assertions.assertEquals(StandardCharsets.UTF_8,
+                ContentTypeDescriptor.of("text/plain; charset=x-unknown").charset(), "Unknown");
+    }
+
+    /**
+     * The cache stays bounded.
+     *
+     * <pre>
+     * Theme: Content-type classification
+     * Test view: The cache stays bounded
+     * Test conditions: More distinct header values than the cache bound
+     * Test result: Values beyond the bound are still parsed correctly but not cached
+     * </pre>
+     */
+    @Test
+    void boundsCache() {
+        final ContentTypeDescriptor.Cache cache = new ContentTypeDescriptor.Cache(2);
+        final ContentTypeDescriptor cached = cache.get("text/a");
+        cache.get("text/b");
+        final String overflow = "application/vnd.overflow+json";
+        final ContentTypeDescriptor first = cache.get(overflow);
+
+        Assertions.assertSame(cached, cache.get("text/a"), "Values within the bound are cached");
+        Assertions.assertTrue(first.json(), "Uncached values are parsed");
+        Assertions.assertNotSame(first, cache.get(overflow),
+                "Values beyond the bound are not cached");
+    }
+
+    /**
+     * Header values are cached by media type and charset only.
+     *
+     * <pre>
+     * Theme: Content-type classification
+     * Test view: Header values are cached by media type and charset only
+     * Test conditions: Case and spacing variants, multipart boundaries, and charsets
+     * Test result: Variants share one key and one descriptor; charsets stay distinct
+     * </pre>
+     */
+    @Test
+    void normalizesCacheKeys() {
+        final ContentTypeDescriptor.Cache cache = new ContentTypeDescriptor.Cache(2);
+        final ContentTypeDescriptor first = cache.get("multipart/form-data; boundary=a1");
+
+        Assertions.assertSame(first, cache.get("Multipart/Form-Data ;boundary=b2"),
+                "Boundaries share one entry");
+        Assertions.assertEquals("text/plain;charset=utf-8",
+                ContentTypeDescriptor.normalize(" Text/Plain; format=flowed; Charset=\"UTF-8\""),
+                "Media type and charset are kept");
+        Assertions.assertNotSame(cache.get("text/plain; charset=utf-8"),
+                cache.get("text/plain; charset=utf-16"), "Charsets stay distinct");
+        Assertions.assertSame(cache.get("text/plain;charset=UTF-8"),
+                cache.get("TEXT/PLAIN; CHARSET=utf-8"), "Case variants share one entry");
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.demo.logging;
+
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.lang.management.ManagementFactory;
+import java.util.Enumeration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/** Tests for {@link ForwardedHeaderParser}. */
+class ForwardedHeaderParserTest {
+    /** Trusted proxy ranges used by tests. */
+    private static final TrustedProxyMatcher TRUSTED =
+            TrustedProxyMatcher.parse("10.0.0.0/8,127.0.0.1,fd00::/8");
+
+    /** Trusted remote address used by tests. */
+    private static final String TRUSTED_REMOTE = "10.0.0.1";
+
+    /** Lookups performed before allocation is measured. */
+    private static final int WARMUP_LOOKUPS = 50_000;
+
+    /** Lookups measured for the allocation figure. */
+    private static final int MEASURED_LOOKUPS = 100_000;
+
+    /** Allocation slack for the whole measured loop, covering accounting noise. */
+    private static final long ALLOCATION_SLACK_BYTES = 4096L;
+
+    /**
+     * X-Forwarded-For is walked right to left.
+     *
+     * <pre>
+     * Theme: Forwarded header parsing
+     * Test view: X-Forwarded-For is walked right to left
+     * Test conditions: Spoofed leftmost entry, trusted hops, ports, brackets, and blanks
+     * Test result: First untrusted hop from the right is returned as a bare host
+     * </pre>
+     */
+    @Test
+    void forwardedForReturnsNearestUntrustedHop() {
+        Assertions.assertEquals("203.0.113.9",
+                forwardedFor("1.1.1.1, 203.0.113.9, 10.0.0.7 , 10.0.0.8"),
+                "Trusted hops should be skipped and spoofed entries ignored");
+        Assertions.assertEquals("203.0.113.9", forwardedFor("203.0.113.9:4711"), "Port dropped");
+        Assertions.assertEquals("2001:db8::1", forwardedFor("[2001:db8::1]:4711, , fd00::2"),
+                "Brackets dropped and blank hops skipped");
+        Assertions.assertEquals("2001:db8::1", forwardedFor("2001:db8::1"), "Bare IPv6 kept");
+        Assertions.assertEquals("10.0.0.9", forwardedFor("10.0.0.9,10.0.0.8"),
+                "Leftmost hop is used when every hop is trusted");
+        Assertions.assertEquals(TRUSTED_REMOTE, forwardedFor(" , "), "Blank header");
+        Assertions.assertEquals(TRUSTED_REMOTE, forwardedFor(null), "Missing header");
+    }
+
+    /**
+     * RFC 7239 Forwarded is walked right to left.
+     *
+     * <pre>
+     * Theme: Forwarded header parsing
+     * Test view: RFC 7239 Forwarded is walked right to left
+     * Test conditions: Quoted IPv6 nodes, extra parameters, mixed-case keys, quoted commas
+     * Test result: The for= node of the first untrusted element is returned
+     * </pre>
+     */
+    @Test
+    void forwardedReturnsNearestUntrustedNode() {
+        Assertions.assertEquals("2001:db8:cafe::17", forwarded(
+                "for=192.0.2.43, for=\"[2001:db8:cafe::17]:4711\";proto=https, "
+                        + "proto=http;FOR=10.0.0.3;by=10.0.0.1"),
+                "Quoted IPv6 node with port should be unwrapped");
+        Assertions.assertEquals("unknown", forwarded("for=unknown;by=\"a,b\", for=10.0.0.4"),
+                "Non-address nodes are untrusted and returned as-is");
+        Assertions.assertEquals("192.0.2.60", forwarded(" by=10.0.0.2, for=192.0.2.60 ;proto=http"),
+                "Elements without for= are skipped");
+        Assertions.assertEquals(TRUSTED_REMOTE, forwarded("proto=https;by=10.0.0.2"),
+                "Headers without for= fall back to the remote address");
+        Assertions.assertEquals(TRUSTED_REMOTE, forwarded("for=;proto=https"), "Empty node");
+    }
+
+    /**
+     * Only the configured forwarding header is read, across all of its lines.
+     *
+     * <pre>
+     * Theme: Forwarded header parsing
+     * Test view: Only the configured forwarding header is read, across all of its lines
+     * Test conditions: Both headers present, the client-supplied one first; X-Forwarded-For in
+     *                  two lines; a container denying header access; remote trusted or untrusted
+     * Test result: The configured header decides; the proxy-appended last line is walked;
+     *              untrusted remotes ignore the headers
+     * </pre>
+     */
+    @Test
+    void readsOnlyConfiguredHeader() {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(TRUSTED_REMOTE);
+        request.addHeader("Forwarded", "for=1.2.3.4");
+        request.addHeader("X-Forwarded-For", "1.2.3.4");
+        request.addHeader("X-Forwarded-For", "198.51.100.1, 10.0.0.7");
+
+        Assertions.assertEquals("198.51.100.1", AccessLogClientIpResolver.resolveClientIp(
+                request, ForwardingHeader.X_FORWARDED_FOR, TRUSTED),
+                "Client-supplied Forwarded is ignored and the last line is walked");
+        Assertions.assertEquals("1.2.3.4", AccessLogClientIpResolver.resolveClientIp(
+                request, ForwardingHeader.FORWARDED, TRUSTED), "Forwarded when configured");
+        Assertions.assertEquals("1.2.3.4, 198.51.100.1, 10.0.0.7",
+                ForwardingHeader.X_FORWARDED_FOR.read(request), "Lines are joined in order");
+        Assertions.assertNull(ForwardingHeader.FORWARDED.read(new MockHttpServletRequest()),
+                "Absent header");
+        Assertions.assertNull(ForwardingHeader.FORWARDED.read(
+                new HttpServletRequestWrapper(request) {
+                    @Override
+                    public Enumeration<String> getHeaders(final String name) {
+                        return null;
+                    }
+                }), "Container denies header access");
+        request.setRemoteAddr("198.51.100.7");
+        Assertions.assertEquals("198.51.100.7", AccessLogClientIpResolver.resolveClientIp(
+                request, ForwardingHeader.X_FORWARDED_FOR, TRUSTED),
+                "Untrusted remote ignores the header");
+    }
+
+    /**
+     * Hop walking is capped.
+     *
+     * <pre>
+     * Theme: Forwarded header parsing
+     * Test view: Hop walking is capped
+     * Test conditions: Header with more trusted hops than MAX_HOPS behind a spoofed client
+     * Test result: Walk stops at MAX_HOPS and returns the last examined hop
+     * </pre>
+     */
+    @Test
+    void hopWalkIsCapped() {
+        final StringBuilder header = new StringBuilder("203.0.113.1");
+        for (int hop = 1; hop <= ForwardedHeaderParser.MAX_HOPS; hop++) {
+            header.append(", 10.0.0.").append(hop);
+        }
+
+        Assertions.assertEquals("10.0.0.1", forwardedFor(header.toString()),
+                "Hops beyond the cap should not be examined");
+    }
+
+    /**
+     * Parsing does not allocate.
+     *
+     * <pre>
+     * Theme: Forwarded header parsing
+     * Test view: Parsing does not allocate
+     * Test conditions: Steady-state parsing of multi-hop X-Forwarded-For and Forwarded
+     * Test result: Thread allocation stays within accounting noise
+     * </pre>
+     */
+    @Test
+    void parsingDoesNotAllocate() {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(),
+                "Thread allocation accounting is required");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        long checksum = parse(WARMUP_LOOKUPS);
+        final long before = threads.getCurrentThreadAllocatedBytes();
+        checksum += parse(MEASURED_LOOKUPS);
+        final long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        Assertions.assertNotEquals(0L, checksum, "Parsing should find hops");
+        Assertions.assertTrue(allocated < ALLOCATION_SLACK_BYTES,
+                "Parsing allocated " + allocated + " bytes");
+    }
+
+    /**
+     * Runs alternating X-Forwarded-For and Forwarded parses.
+     *
+     * @param count number of parses
+     * @return sum of packed results
+     */
+    private static long parse(final int count) {
+        long checksum = 0L;
+        for (int index = 0; index < count; index++) {
+            checksum += (index & 1) == 0
+                    ? ForwardedHeaderParser.forwardedForClient("1.1.1.1, 203.0.113.9, 10.0.0.7",
+                            TRUSTED)
+                    : ForwardedHeaderParser.forwardedClient(
+                            "for=192.0.2.43, for=\"[2001:db8::17]:4711\";proto=https", TRUSTED);
+        }
+        return checksum;
+    }
+
+    /**
+     * Resolves the client IP from an X-Forwarded-For value behind a trusted remote.
+     *
+     * @param header X-Forwarded-For value
+     * @return client IP
+     */
+    private static String forwardedFor(final String header) {
+        return AccessLogClientIpResolver.resolveClientIp(TRUSTED_REMOTE, header,
+                ForwardingHeader.X_FORWARDED_FOR, TRUSTED);
+    }
+
+    /**
+     * Resolves the client IP from a Forwarded value behind a trusted remote.
+     *
+     * @param header Forwarded value
+     * @return client IP
+     */
+    private static String forwarded(final String header) {
+        return AccessLogClientIpResolver.resolveClientIp(TRUSTED_REMOTE, header,
+                ForwardingHeader.FORWARDED, TRUSTED);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.logging;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link JsonBodyMasker}. */
+class JsonBodyMaskerTest {
+    /** JSON content type used by tests. */
+    private static final String CT_JSON = "application/json";
+
+    /**
+     * Sensitive values are masked at any depth and of any type.
+     *
+     * <pre>
+     * Theme: Streaming JSON masking
+     * Test view: Sensitive values are masked at any depth and of any type
+     * Test conditions: Nested objects, arrays, numbers, null, objects as sensitive values
+     * Test result: Whole values are replaced by "****"; other values are unchanged
+     * </pre>
+     */
+    @Test
+    void masksValuesOfAnyTypeAtAnyDepth() {
+        Assertions.assertEquals("{\"a\":{\"Password\" : \"****\"},\"l\":[{\"ssn\":\"****\"}],"
+                + "\"pin\":1}", JsonBodyMasker.mask("{\"a\":{\"Password\" : 123},"
+                        + "\"l\":[{\"ssn\":{\"x\":[1,\"}\"]}}],\"pin\":1}"),
+                "Nested and non-string values should be masked");
+        Assertions.assertEquals("{\"token\":\"****\",\"ok\":true}",
+                JsonBodyMasker.mask("{\"token\":null,\"ok\":true}"), "Literal values");
+        Assertions.assertEquals("[\"password\",\"x\"]", JsonBodyMasker.mask("[\"password\",\"x\"]"),
+                "Array strings are values, not keys");
+    }
+
+    /**
+     * Escapes are decoded in keys and skipped in values.
+     *
+     * <pre>
+     * Theme: Streaming JSON masking
+     * Test view: Escapes are decoded in keys and skipped in values
+     * Test conditions: Unicode-escaped sensitive key; value text that looks like a key
+     * Test result: Escaped key is masked; look-alike text inside a value is left alone
+     * </pre>
+     */
+    @Test
+    void handlesEscapes() {
+        Assertions.assertEquals("{\"pass\\u0077ord\":\"****\",\"n\":\"a\\\"password\\\":\\\"x\"}",
+                JsonBodyMasker.mask("{\"pass\\u0077ord\":\"s\\\"ec\","
+                        + "\"n\":\"a\\\"password\\\":\\\"x\"}"),
+                "Escapes should not hide keys or fake them");
+        Assertions.assertEquals("{\"pass\\u00e9\":\"v\",\"\\u12\":1,\"x\\n\":2}",
+                JsonBodyMasker.mask("{\"pass\\u00e9\":\"v\",\"\\u12\":1,\"x\\n\":2}"),
+                "Non-ASCII, malformed, and control escapes are copied");
+        Assertions.assertEquals("{\"" + "k".repeat(80) + "\":\"v\"}",
+                JsonBodyMasker.mask("{\"" + "k".repeat(80) + "\":\"v\"}"), "Long keys");
+    }
+
+    /**
+     * Malformed input is copied best-effort.
+     *
+     * <pre>
+     * Theme: Streaming JSON masking
+     * Test view: Malformed input is copied best-effort
+     * Test conditions: Unterminated strings and containers, stray brackets, plain text
+     * Test result: No exception; sensitive values are still masked
+     * </pre>
+     */
+    @Test
+    void toleratesMalformedInput() {
+        Assertions.assertEquals("{\"password\":\"****\"",
+                JsonBodyMasker.mask("{\"password\":\"unterminated"), "Unterminated value");
+        Assertions.assertEquals("{\"secret\": \"****\"", JsonBodyMasker.mask("{\"secret\": [1,"),
+                "Unterminated container");
+        Assertions.assertEquals("{\"token\":", JsonBodyMasker.mask("{\"token\":"), "No value");
+        Assertions.assertEquals("{\"k\":\"a", JsonBodyMasker.mask("{\"k\":\"a"), "Open string");
+        Assertions.assertEquals("]}not json", JsonBodyMasker.mask("]}not json"), "Plain text");
+        Assertions.assertEquals("{\"a\\", JsonBodyMasker.mask("{\"a\\"), "Dangling escape");
+        Assertions.assertEquals("{\"a\\u00", JsonBodyMasker.mask("{\"a\\u00"), "Short unicode");
+    }
+
+    /**
+     * Output stops at the byte budget on a character boundary.
+     *
+     * <pre>
+     * Theme: Streaming JSON masking
+     * Test view: Output stops at the byte budget on a character boundary
+     * Test conditions: Bodies above, exactly at, and splitting a multibyte character at the budget
+     * Test result: Output is cut to the budget without splitting characters
+     * </pre>
+     */
+    @Test
+    void stopsAtByteBudget() {
+        final byte[] large = ("{\"a\":\"" + "x".repeat(5000) + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        final JsonBodyMasker cut = new JsonBodyMasker(large, 4096).run();
+        Assertions.assertTrue(cut.isTruncated(), "Large body should be truncated");
+        Assertions.assertEquals(4096, cut.toString(StandardCharsets.UTF_8).length(), "Budget");
+
+        final JsonBodyMasker exact =
+                new JsonBodyMasker("{\"a\":1}".getBytes(StandardCharsets.UTF_8), 7).run();
+        Assertions.assertFalse(exact.isTruncated(), "Exact fit is not truncated");
+
+        final byte[] accented = ("{\"a\":\"" + "\u00e9".repeat(10) + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        Assertions.assertEquals("{\"a\":\"\u00e9\u00e9",
+                new JsonBodyMasker(accented, 11).run().toString(StandardCharsets.UTF_8),
+                "Partial multibyte tail should be dropped");
+        Assertions.assertEquals(0, JsonBodyMasker.utf8Boundary(new byte[] {(byte) 0xF0}, 1),
+                "Lone lead byte is dropped");
+    }
+
+    /**
+     * Body capture uses the masker for JSON in any charset.
+     *
+     * <pre>
+     * Theme: Streaming JSON masking
+     * Test view: Body capture uses the masker for JSON in any charset
+     * Test conditions: UTF-16 and ISO-8859-1 JSON bodies; JSON prefix of a longer body
+     * Test result: Values are masked; truncation reflects the original body length
+     * </pre>
+     */
+    @Test
+    void bodyCaptureMasksJson() {
+        final AccessLogSupport.BodyCapture utf16 = AccessLogBodyCaptureSupport.captureBody(
+                "{\"token\":\"t\"}".getBytes(StandardCharsets.UTF_16), 28L,
+                CT_JSON + ";charset=UTF-16", true);
+        Assertions.assertEquals("{\"token\":\"****\"}", utf16.body(), "UTF-16 is transcoded");
+
+        final AccessLogSupport.BodyCapture latin = AccessLogBodyCaptureSupport.captureBody(
+                "{\"n\":\"\u00e9\"}".getBytes(StandardCharsets.ISO_8859_1), 100L,
+                CT_JSON + ";charset=ISO-8859-1", true);
+        Assertions.assertEquals("{\"n\":\"\u00e9\"}", latin.body(), "Latin-1 is decoded");
+        Assertions.assertTrue(latin.truncated(), "Prefix of a longer body is truncated");
+    }
+}
@@ -1,10 +1,25 @@
 package com.example.demo.logging;
 
+import java.lang.management.ManagementFactory;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 
 /** Tests for {@link LogSanitizer} query masking behavior. */
 class LogSanitizerQueryTest {
+    /** Analytics-style query without sensitive keys. */
+    private static final String ANALYTICS_QUERY = "utm_source=newsletter&utm_medium=email"
+            + "&utm_campaign=spring_sale&gclid=abc123&fbclid=xyz&page=2&sort=desc&q=hello+world"
+            + "&ref%5Fid=42";
+
+    /** Calls run before measuring allocation. */
+    private static final int WARMUP_CALLS = 20_000;
+
+    /** Calls measured for allocation. */
+    private static final int MEASURED_CALLS = 20_000;
+
+    /** Allocation tolerated for accounting noise. */
+    private static final long ALLOCATION_SLACK_BYTES = 4096L;
     /**
      * Sensitive query parameters are masked.
      *
@@ -151,4 +166,68 @@ class LogSanitizerQueryTest {
         Assertions.assertEquals("~=value", LogSanitizer.sanitizeQuery("~=value"),
                 "Symbol keys should remain unchanged");
     }
+
+    /**
+     * Masking keeps separators, repeated keys, and empty segments.
+     *
+     * <pre>
+     * Theme: Query masking
+     * Test view: Masking keeps separators, repeated keys, and empty segments
+     * Test conditions: Repeated sensitive keys, empty values, empty segments, '=' in values,
+     *                  and a malformed escape next to a valid one
+     * Test result: Only values of sensitive keys change
+     * </pre>
+     */
+    @Test
+    void sanitizeQueryKeepsStructure() {
+        Assertions.assertEquals("&token=****&&a=b=c&token=****&x=",
+                LogSanitizer.sanitizeQuery("&token=1&&a=b=c&token=&x="),
+                "Structure should be preserved");
+        Assertions.assertEquals("%zz.%70assword=****",
+                LogSanitizer.sanitizeQuery("%zz.%70assword=1"),
+                "Valid escapes should be decoded next to malformed ones");
+        Assertions.assertEquals("pass%word=****", LogSanitizer.sanitizeQuery("pass%word=1"),
+                "Malformed escapes are kept as literal separators");
+    }
+
+    /**
+     * Queries without sensitive keys are returned as-is without allocation.
+     *
+     * <pre>
+     * Theme: Query masking
+     * Test view: Queries without sensitive keys are returned as-is without allocation
+     * Test conditions: Long analytics-style query with a percent-encoded key
+     * Test result: Same String instance is returned; allocation stays within accounting noise
+     * </pre>
+     */
+    @Test
+    void sanitizeQueryReturnsSameInstanceWithoutAllocating() {
+        Assertions.assertSame(ANALYTICS_QUERY, LogSanitizer.sanitizeQuery(ANALYTICS_QUERY),
+                "Unchanged query should be the same instance");
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(),
+                "Thread allocation accounting is required");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        sanitize(WARMUP_CALLS);
+        final long before = threads.getCurrentThreadAllocatedBytes();
+        sanitize(MEASURED_CALLS);
+        final long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        Assertions.assertTrue(allocated < ALLOCATION_SLACK_BYTES,
+                "Sanitizing allocated " + allocated + " bytes");
+    }
+
+    /**
+     * Sanitizes the analytics query repeatedly, checking that it is returned as-is.
+     *
+     * @param count number of calls
+     */
+    private static void sanitize(final int count) {
+        for (int index = 0; index < count; index++) {
+            Assertions.assertSame(ANALYTICS_QUERY, LogSanitizer.sanitizeQuery(ANALYTICS_QUERY),
+                    "Unchanged query should be the same instance");
+        }
+    }
 }
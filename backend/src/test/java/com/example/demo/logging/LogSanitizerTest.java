@@ -145,4 +145,58 @@ class LogSanitizerTest {
                 "Null content type should not trigger masking");
     }
 
+    /**
+     * One configured dictionary drives every masker.
+     *
+     * <pre>
+     * Theme: Body masking
+     * Test view: One configured dictionary drives every masker
+     * Test conditions: Configurer installs a custom term; context close; blank configuration
+     * Test result: JSON, form, query, and header masking follow the custom term; closing the
+     *              context and blank configuration restore the defaults
+     * </pre>
+     */
+    @Test
+    void configuredKeysApplyToEveryMasker() {
+        final LogSanitizerConfigurer configurer = new LogSanitizerConfigurer();
+        try {
+            configurer.setKeys("tenant_id");
+            Assertions.assertEquals("{\"tenantId\":\"****\",\"password\":\"p\"}",
+                    LogSanitizer.sanitizeBody("{\"tenantId\":\"t\",\"password\":\"p\"}",
+                            JSON_CONTENT), "JSON");
+            Assertions.assertEquals("TENANT-ID=****&token=x",
+                    LogSanitizer.sanitizeBody("TENANT-ID=t&token=x", FORM_CONTENT), "Form");
+            Assertions.assertEquals("tenant_id=****", LogSanitizer.sanitizeQuery("tenant_id=t"),
+                    "Query");
+            Assertions.assertEquals("****", LogSanitizer.maskHeaderValue("X-Tenant-Id", "t"),
+                    "Header");
+            Assertions.assertEquals("a", LogSanitizer.maskHeaderValue("Authorization", "a"),
+                    "Replaced defaults");
+            configurer.destroy();
+            Assertions.assertEquals("t", LogSanitizer.maskHeaderValue("X-Tenant-Id", "t"),
+                    "Context close restores defaults");
+            configurer.setKeys("tenant_id");
+        } finally {
+            LogSanitizer.setSensitiveKeys(" ");
+        }
+        Assertions.assertEquals("****", LogSanitizer.maskHeaderValue("Authorization", "a"),
+                "Blank configuration restores defaults");
+    }
+
+    /**
+     * Form keys match on word boundaries.
+     *
+     * <pre>
+     * Theme: Body masking
+     * Test view: Form keys match on word boundaries
+     * Test conditions: Form body with prefixed, encoded, and look-alike keys
+     * Test result: Only keys containing a whole sensitive word are masked
+     * </pre>
+     */
+    @Test
+    void sanitizeBodyMasksFormKeysOnWordBoundaries() {
+        Assertions.assertEquals("user_password=****&author=x&client%5Fsecret=****",
+                LogSanitizer.sanitizeBody("user_password=p&author=x&client%5Fsecret=s",
+                        FORM_CONTENT), "Form keys should match whole words");
+    }
 }
@@ -0,0 +1,148 @@
+package com.example.demo.logging;
+
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link SensitiveKeyDictionary}. */
+class SensitiveKeyDictionaryTest {
+    /** Dictionary compiled from the default key terms. */
+    private static final SensitiveKeyDictionary DEFAULTS =
+            SensitiveKeyDictionary.compile(LogSanitizer.DEFAULT_SENSITIVE_KEYS);
+
+    /** Iterations run before measuring. */
+    private static final int WARMUP_LOOKUPS = 50_000;
+
+    /** Iterations measured. */
+    private static final int MEASURED_LOOKUPS = 100_000;
+
+    /** Allocation tolerated for accounting noise. */
+    private static final long ALLOCATION_SLACK_BYTES = 4096L;
+
+    /**
+     * Terms match as whole words in any key style.
+     *
+     * <pre>
+     * Theme: Sensitive key matching
+     * Test view: Terms match as whole words in any key style
+     * Test conditions: snake, kebab, camel, upper, and digit-suffixed keys
+     * Test result: Keys that contain a term on word boundaries are sensitive
+     * </pre>
+     */
+    @Test
+    void matchesTermsOnWordBoundaries() {
+        for (final String key : new String[] {"password", "PASSWORD", "userPassword",
+            "client_secret", "X-Api-Key", "api_key", "Set-Cookie", "x-auth-token",
+            "ACCESS-TOKEN", "accesstoken", "token2", "Proxy-Authorization", "jwt.token"}) {
+            Assertions.assertTrue(DEFAULTS.matches(key), key + " should be sensitive");
+        }
+    }
+
+    /**
+     * Terms inside longer words do not match.
+     *
+     * <pre>
+     * Theme: Sensitive key matching
+     * Test view: Terms inside longer words do not match
+     * Test conditions: Keys where a term is a prefix, suffix, or infix of a word; empty input
+     * Test result: Keys are not sensitive
+     * </pre>
+     */
+    @Test
+    void ignoresTermsInsideWords() {
+        for (final String key : new String[] {"author", "WWW-Authenticate", "passwords",
+            "tokenizer", "Cookies", "classn", "X-Other", "", "--", "field1"}) {
+            Assertions.assertFalse(DEFAULTS.matches(key), key + " should not be sensitive");
+        }
+        Assertions.assertFalse(DEFAULTS.matches(null), "Null key");
+        Assertions.assertTrue(DEFAULTS.matches("x.password.y", 2, 10), "Range match");
+        Assertions.assertFalse(DEFAULTS.matches("passwordy", 0, 9), "Range boundary");
+    }
+
+    /**
+     * Custom dictionaries report overlapping and suffix terms.
+     *
+     * <pre>
+     * Theme: Sensitive key matching
+     * Test view: Custom dictionaries report overlapping and suffix terms
+     * Test conditions: Terms sharing prefixes and suffixes; blank entries; empty dictionary
+     * Test result: Each term matches on its own boundaries; empty dictionary matches nothing
+     * </pre>
+     */
+    @Test
+    void compilesCustomDictionaries() {
+        final SensitiveKeyDictionary custom =
+                SensitiveKeyDictionary.compile(" tenant_id , ,pin,spin,tenantIdHash,ab,b2");
+        Assertions.assertTrue(custom.matches("tenantId"), "Normalized term");
+        Assertions.assertTrue(custom.matches("x-spin"), "Longer term");
+        Assertions.assertTrue(custom.matches("x_pin"), "Suffix term via failure link");
+        Assertions.assertTrue(custom.matches("tenant-id-hash"), "Term sharing a prefix");
+        Assertions.assertTrue(custom.matches("aB2"), "Digit boundary");
+        Assertions.assertFalse(custom.matches("spinx"), "Term followed by letters");
+        Assertions.assertFalse(custom.matches("xspin"), "Term preceded by letters");
+        Assertions.assertFalse(SensitiveKeyDictionary.compile(null).matches("pin"), "Empty");
+    }
+
+    /**
+     * Terms longer than the supported length are rejected.
+     *
+     * <pre>
+     * Theme: Sensitive key matching
+     * Test view: Terms longer than the supported length are rejected
+     * Test conditions: Term with MAX_TERM_LENGTH and MAX_TERM_LENGTH + 1 characters
+     * Test result: The longest supported term matches; a longer one throws
+     * </pre>
+     */
+    @Test
+    void rejectsTooLongTerms() {
+        final String longest = "k".repeat(SensitiveKeyDictionary.MAX_TERM_LENGTH);
+        Assertions.assertTrue(SensitiveKeyDictionary.compile(longest).matches("x_" + longest),
+                "Longest supported term");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> SensitiveKeyDictionary.compile(longest + "k"), "Too long term");
+    }
+
+    /**
+     * Matching does not allocate.
+     *
+     * <pre>
+     * Theme: Sensitive key matching
+     * Test view: Matching does not allocate
+     * Test conditions: Repeated matches of sensitive and plain keys after warm-up
+     * Test result: Allocated bytes per match stay near zero
+     * </pre>
+     */
+    @Test
+    void matchingDoesNotAllocate() {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(),
+                "Thread allocation accounting is required");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        int hits = lookups(WARMUP_LOOKUPS);
+        final long before = threads.getCurrentThreadAllocatedBytes();
+        hits += lookups(MEASURED_LOOKUPS);
+        final long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        Assertions.assertEquals(WARMUP_LOOKUPS + MEASURED_LOOKUPS, hits, "Half of keys match");
+        Assertions.assertTrue(allocated < ALLOCATION_SLACK_BYTES,
+                "Matching allocated " + allocated + " bytes");
+    }
+
+    /**
+     * Matches a sensitive and a plain key per iteration.
+     *
+     * @param count number of iterations
+     * @return number of matches
+     */
+    private static int lookups(final int count) {
+        int hits = 0;
+        for (int index = 0; index < count; index++) {
+            hits += DEFAULTS.matches("userPassword") ? 1 : 0;
+            hits += DEFAULTS.matches("Content-Type") ? 1 : 0;
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.demo.logging;
+
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link TrustedProxyMatcher}. */
+class TrustedProxyMatcherTest {
+    /** Lookups performed before allocation is measured. */
+    private static final int WARMUP_LOOKUPS = 50_000;
+
+    /** Lookups measured for the allocation figure. */
+    private static final int MEASURED_LOOKUPS = 100_000;
+
+    /** Allocation slack for the whole measured loop, covering accounting noise. */
+    private static final long ALLOCATION_SLACK_BYTES = 4096L;
+
+    /**
+     * IPv4 addresses and ranges are matched by prefix.
+     *
+     * <pre>
+     * Theme: Trusted proxy matching
+     * Test view: IPv4 addresses and ranges are matched by prefix
+     * Test conditions: Exact address, /8 and /31 ranges, /0, and out-of-range addresses
+     * Test result: Only addresses inside a configured range match
+     * </pre>
+     */
+    @Test
+    void matchesIpv4Ranges() {
+        final TrustedProxyMatcher matcher =
+                TrustedProxyMatcher.parse("127.0.0.1, 10.0.0.0/8,192.168.1.2/31");
+
+        Assertions.assertTrue(matcher.matches("127.0.0.1"), "Exact address");
+        Assertions.assertTrue(matcher.matches(" 10.255.0.1 "), "Inside /8, trimmed");
+        Assertions.assertTrue(matcher.matches("192.168.1.3"), "Inside /31");
+        Assertions.assertFalse(matcher.matches("192.168.1.4"), "Outside /31");
+        Assertions.assertFalse(matcher.matches("127.0.0.2"), "Neighbour of exact address");
+        Assertions.assertFalse(matcher.matches("11.0.0.1"), "Outside /8");
+        Assertions.assertTrue(TrustedProxyMatcher.parse("0.0.0.0/0").matches("8.8.8.8"),
+                "/0 trusts every IPv4 address");
+    }
+
+    /**
+     * IPv6 literals in any textual form are matched.
+     *
+     * <pre>
+     * Theme: Trusted proxy matching
+     * Test view: IPv6 literals in any textual form are matched
+     * Test conditions: Compressed, expanded, uppercase, bracketed, zoned, and mapped forms
+     * Test result: Equivalent forms match the same range
+     * </pre>
+     */
+    @Test
+    void matchesIpv6Forms() {
+        final TrustedProxyMatcher matcher =
+                TrustedProxyMatcher.parse("::1,fd00::/8,2001:db8::/32,10.0.0.0/8");
+
+        Assertions.assertTrue(matcher.matches("0:0:0:0:0:0:0:1"), "Expanded loopback");
+        Assertions.assertTrue(matcher.matches("[::1]"), "Bracketed loopback");
+        Assertions.assertTrue(matcher.matches("FD12:3456::1"), "Uppercase inside /8");
+        Assertions.assertFalse(matcher.matches("fe80::1%eth0"), "Zoned outside range");
+        Assertions.assertTrue(matcher.matches("2001:db8:1:2:3:4:5:6"), "Full form inside /32");
+        Assertions.assertTrue(matcher.matches("2001:db8::"), "Trailing gap inside /32");
+        Assertions.assertFalse(matcher.matches("2001:db9::1"), "Outside /32");
+        Assertions.assertTrue(matcher.matches("::ffff:10.1.2.3"), "IPv4-mapped inside /8");
+        Assertions.assertTrue(matcher.matches("::ffff:a01:203"), "IPv4-mapped in hex");
+        Assertions.assertFalse(matcher.matches("::ffff:11.1.2.3"), "IPv4-mapped outside /8");
+        Assertions.assertTrue(TrustedProxyMatcher.parse("fe80::/10").matches("fe80::1%eth0"),
+                "Zone suffix is ignored");
+    }
+
+    /**
+     * Non-literal remote addresses are never trusted.
+     *
+     * <pre>
+     * Theme: Trusted proxy matching
+     * Test view: Non-literal remote addresses are never trusted
+     * Test conditions: Host names and malformed IPv4/IPv6 text against a /0 allowlist
+     * Test result: matches returns false without name resolution
+     * </pre>
+     */
+    @Test
+    void rejectsNonLiteralRemotes() {
+        final TrustedProxyMatcher matcher = TrustedProxyMatcher.parse("0.0.0.0/0,::/0");
+
+        for (final String remote : new String[] {null, "", "localhost", "1.2.3", "1.2.3.4.5",
+                "256.0.0.1", "1..2.3", "1.2.3.4x", "1::2::3", ":1", "1:", "1:2:3:4:5:6:7",
+                "1:2:3:4:5:6:7:8:9", "12345::", "g::1", "::1.2.3.4:1", "1:2:3:4:5:6:7::8"}) {
+            Assertions.assertFalse(matcher.matches(remote), "Should reject " + remote);
+        }
+        Assertions.assertTrue(matcher.matches("::"), "Unspecified address is a literal");
+        Assertions.assertTrue(matcher.matches("1:2:3:4:5:6:1.2.3.4"), "Embedded IPv4 tail");
+    }
+
+    /**
+     * Invalid configuration fails fast.
+     *
+     * <pre>
+     * Theme: Trusted proxy configuration
+     * Test view: Invalid configuration fails fast
+     * Test conditions: Host names, bad prefixes, and malformed literals
+     * Test result: IllegalArgumentException is thrown; blank input yields an empty matcher
+     * </pre>
+     */
+    @Test
+    void rejectsInvalidConfiguration() {
+        for (final String entry : new String[] {"proxy.internal", "10.0.0.0/33", "::/129",
+                "10.0.0.0/", "10.0.0.0/x", "1::2::3"}) {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> TrustedProxyMatcher.parse(entry), "Should reject " + entry);
+        }
+        Assertions.assertTrue(TrustedProxyMatcher.parse(" , ").isEmpty(), "Blank entries");
+        Assertions.assertFalse(TrustedProxyMatcher.parse("::/0").isEmpty(), "Root prefix");
+        Assertions.assertFalse(TrustedProxyMatcher.parse("0.0.0.0/0").isEmpty(), "IPv4 root");
+    }
+
+    /**
+     * Large allowlists grow the trie.
+     *
+     * <pre>
+     * Theme: Trusted proxy configuration
+     * Test view: Large allowlists grow the trie
+     * Test conditions: Allowlist with many distinct host addresses
+     * Test result: Every configured address matches
+     * </pre>
+     */
+    @Test
+    void matchesLargeAllowlists() {
+        final StringBuilder configured = new StringBuilder();
+        for (int host = 1; host <= 200; host++) {
+            configured.append("172.16.").append(host).append('.').append(host).append(',');
+        }
+        final TrustedProxyMatcher matcher = TrustedProxyMatcher.parse(configured.toString());
+
+        for (int host = 1; host <= 200; host++) {
+            Assertions.assertTrue(matcher.matches("172.16." + host + "." + host),
+                    "Configured host " + host);
+        }
+        Assertions.assertFalse(matcher.matches("172.16.1.2"), "Unconfigured host");
+    }
+
+    /**
+     * Lookups do not allocate.
+     *
+     * <pre>
+     * Theme: Trusted proxy matching
+     * Test view: Lookups do not allocate
+     * Test conditions: Steady-state IPv4 and IPv6 lookups after warm-up
+     * Test result: Thread allocation stays within accounting noise
+     * </pre>
+     */
+    @Test
+    void lookupsDoNotAllocate() {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(),
+                "Thread allocation accounting is required");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        final TrustedProxyMatcher matcher = TrustedProxyMatcher.parse("10.0.0.0/8,fd00::/8");
+
+        int hits = lookups(matcher, WARMUP_LOOKUPS);
+        final long before = threads.getCurrentThreadAllocatedBytes();
+        hits += lookups(matcher, MEASURED_LOOKUPS);
+        final long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        Assertions.assertEquals(WARMUP_LOOKUPS + MEASURED_LOOKUPS, hits, "Every lookup hits");
+        Assertions.assertTrue(allocated < ALLOCATION_SLACK_BYTES,
+                "Lookups allocated " + allocated + " bytes");
+    }
+
+    /**
+     * Runs alternating IPv4 and IPv6 lookups.
+     *
+     * @param matcher matcher under test
+     * @param count number of lookups
+     * @return number of hits
+     */
+    private static int lookups(final TrustedProxyMatcher matcher, final int count) {
+        int hits = 0;
+        for (int index = 0; index < count; index++) {
+            if (matcher.matches((index & 1) == 0 ? "10.1.2.3" : "fd00::1")) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
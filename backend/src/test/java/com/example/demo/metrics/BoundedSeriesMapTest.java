@@ -0,0 +1,44 @@
+package com.example.demo.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link BoundedSeriesMap}. */
+class BoundedSeriesMapTest {
+    /** Overflow key used by tests. */
+    private static final String OVERFLOW = "overflow";
+
+    /**
+     * Series are created once and new keys overflow at the bound.
+     *
+     * <pre>
+     * Theme: Series bound
+     * Test view: Series are created once and new keys overflow at the bound
+     * Test conditions: MAX_SERIES distinct keys, a repeated key, then two more keys
+     * Test result: Existing keys keep their series; both extra keys share one overflow series
+     * </pre>
+     */
+    @Test
+    void createsOnceAndOverflowsAtBound() {
+        final AtomicInteger created = new AtomicInteger();
+        final BoundedSeriesMap<String, StringBuilder> series = new BoundedSeriesMap<>(OVERFLOW,
+                key -> {
+                    created.incrementAndGet();
+                    return new StringBuilder(key);
+                });
+        for (int index = 0; index < BoundedSeriesMap.MAX_SERIES; index++) {
+            series.getOrCreate("key-" + index);
+        }
+        final StringBuilder first = series.getOrCreate("key-0");
+        final StringBuilder extra = series.getOrCreate("extra-1");
+
+        Assertions.assertEquals("key-0", first.toString(), "Existing key keeps its series");
+        Assertions.assertEquals(OVERFLOW, extra.toString(), "New key gets the overflow series");
+        Assertions.assertSame(extra, series.getOrCreate("extra-2"), "Overflow series is shared");
+        Assertions.assertEquals(BoundedSeriesMap.MAX_SERIES + 1, series.size(), "Bounded size");
+        Assertions.assertEquals(BoundedSeriesMap.MAX_SERIES + 1, created.get(),
+                "Each series is created once");
+        Assertions.assertEquals(series.size(), series.values().size(), "Values view");
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.metrics;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/** Verifies the error endpoint reports counted error responses. */
+@SpringBootTest
+class ErrorTelemetryControllerTest {
+    /** Spring web application context used to configure MockMvc. */
+    private final WebApplicationContext context;
+
+    /** MockMvc instance used for endpoint assertions. */
+    private MockMvc mockMvc;
+
+    /**
+     * Creates the test instance with Spring's web context.
+     *
+     * @param context web application context
+     */
+    public ErrorTelemetryControllerTest(final WebApplicationContext context) {
+        this.context = context;
+    }
+
+    /** Builds MockMvc before each test. */
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    /**
+     * Ensures a not-found response shows up under the unmatched route.
+     *
+     * @throws Exception when the request fails
+     */
+    @Test
+    void reportsNotFoundErrors() throws Exception {
+        mockMvc.perform(get("/api/telemetry-missing")).andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/errors")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.code == 'NOT_FOUND' && @.status == 404"
+                        + " && @.route == 'unmatched' && @.window >= 1)]").isNotEmpty());
+    }
+}
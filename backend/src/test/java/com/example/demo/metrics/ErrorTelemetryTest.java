@@ -0,0 +1,167 @@
+package com.example.demo.metrics;
+
+import com.example.demo.trace.RequestContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+/** Tests for {@link ErrorTelemetry}. */
+class ErrorTelemetryTest {
+    /** Route used by tests. */
+    private static final String ROUTE = "/api/hello";
+
+    /** Error code used by tests. */
+    private static final String CODE = "NOT_FOUND";
+
+    /** Test clock in milliseconds. */
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+    /**
+     * Errors are counted per code, status, and route.
+     *
+     * <pre>
+     * Theme: Error telemetry
+     * Test view: Errors are counted per code, status, and route
+     * Test conditions: Errors in two series; one request with and one without a route pattern
+     * Test result: One series per key with its own total, ordered by route then code
+     * </pre>
+     */
+    @Test
+    void countsPerSeries() {
+        final ErrorTelemetry telemetry = new ErrorTelemetry(clock::get);
+        final MockHttpServletRequest matched = new MockHttpServletRequest("GET", "/api/hello");
+        matched.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ROUTE);
+        telemetry.record(CODE, 404, matched);
+        telemetry.record(CODE, 404, matched);
+        telemetry.record("BAD_REQUEST", 400, matched);
+        telemetry.record(CODE, 404, new MockHttpServletRequest("GET", "/wp-login.php"));
+
+        final List<ErrorSeries> series = telemetry.snapshot();
+
+        Assertions.assertEquals(3, series.size(), "One series per key");
+        Assertions.assertEquals("BAD_REQUEST", series.get(0).code(), "Ordered by code");
+        Assertions.assertEquals(2L, series.get(1).total(), "Matched NOT_FOUND total");
+        Assertions.assertEquals(RequestContext.UNMATCHED_ROUTE, series.get(2).route(),
+                "Raw paths are not series keys");
+    }
+
+    /**
+     * The window counts only recent errors.
+     *
+     * <pre>
+     * Theme: Error telemetry
+     * Test view: The window counts only recent errors
+     * Test conditions: Errors spread over more than one window, reusing bucket slots
+     * Test result: Window and rate cover the last 60 seconds; total covers everything
+     * </pre>
+     */
+    @Test
+    void slidesWindow() {
+        final ErrorTelemetry telemetry = new ErrorTelemetry(clock::get);
+        telemetry.record(CODE, 404, ROUTE);
+        clock.addAndGet(30_000L);
+        telemetry.record(CODE, 404, ROUTE);
+        telemetry.record(CODE, 404, ROUTE);
+        Assertions.assertEquals(3L, telemetry.snapshot().get(0).window(), "All within window");
+
+        clock.addAndGet(30_000L);
+        telemetry.record(CODE, 404, ROUTE);
+        final ErrorSeries series = telemetry.snapshot().get(0);
+
+        Assertions.assertEquals(3L, series.window(), "First error left the window");
+        Assertions.assertEquals(4L, series.total(), "Total keeps every error");
+        Assertions.assertEquals(3.0 / ErrorTelemetry.WINDOW_SECONDS, series.perSecond(), 1e-9,
+                "Rate over the window");
+
+        clock.addAndGet(60_000L);
+        Assertions.assertEquals(0L, telemetry.snapshot().get(0).window(), "Window drained");
+    }
+
+    /**
+     * Late writers never replace a newer bucket.
+     *
+     * <pre>
+     * Theme: Error telemetry
+     * Test view: Late writers never replace a newer bucket
+     * Test conditions: A write stamped one window earlier than the current bucket in its slot
+     * Test result: It counts toward the total but not the window
+     * </pre>
+     */
+    @Test
+    void ignoresStaleSeconds() {
+        final ErrorTelemetry telemetry = new ErrorTelemetry(clock::get);
+        telemetry.record(CODE, 404, ROUTE);
+        clock.addAndGet(-ErrorTelemetry.WINDOW_SECONDS * 1000L);
+        telemetry.record(CODE, 404, ROUTE);
+        clock.addAndGet(ErrorTelemetry.WINDOW_SECONDS * 1000L);
+
+        final ErrorSeries series = telemetry.snapshot().get(0);
+
+        Assertions.assertEquals(1L, series.window(), "Newer bucket kept");
+        Assertions.assertEquals(2L, series.total(), "Stale write still counted in total");
+    }
+
+    /**
+     * New series beyond the limit share the overflow series.
+     *
+     * <pre>
+     * Theme: Error telemetry
+     * Test view: New series beyond the limit share the overflow series
+     * Test conditions: MAX_SERIES distinct routes plus two more
+     * Test result: Series count is bounded and the extras are counted under overflow
+     * </pre>
+     */
+    @Test
+    void boundsSeries() {
+        final ErrorTelemetry telemetry = new ErrorTelemetry(clock::get);
+        for (int index = 0; index < BoundedSeriesMap.MAX_SERIES + 2; index++) {
+            telemetry.record(CODE, 404, "/r/" + index);
+        }
+
+        final List<ErrorSeries> series = telemetry.snapshot();
+
+        Assertions.assertEquals(BoundedSeriesMap.MAX_SERIES + 1, series.size(), "Bounded");
+        Assertions.assertEquals(2L, series.stream().filter(s -> "overflow".equals(s.route()))
+                .findFirst().orElseThrow().total(), "Overflow counts the extras");
+    }
+
+    /**
+     * Concurrent writers are counted without losses.
+     *
+     * <pre>
+     * Theme: Error telemetry
+     * Test view: Concurrent writers are counted without losses
+     * Test conditions: 4 threads record 10000 errors each in one series
+     * Test result: Total and window equal the number of errors
+     * </pre>
+     *
+     * @throws InterruptedException when interrupted
+     */
+    @Test
+    void countsConcurrentWriters() throws InterruptedException {
+        final ErrorTelemetry telemetry = new ErrorTelemetry(clock::get);
+        final int threads = 4;
+        final int perThread = 10_000;
+        final List<Thread> workers = new ArrayList<>();
+        for (int worker = 0; worker < threads; worker++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int index = 0; index < perThread; index++) {
+                    telemetry.record(CODE, 404, ROUTE);
+                }
+            }));
+        }
+        for (final Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        final ErrorSeries series = telemetry.snapshot().get(0);
+
+        Assertions.assertEquals((long) threads * perThread, series.total(), "Total");
+        Assertions.assertEquals((long) threads * perThread, series.window(), "Window");
+    }
+}
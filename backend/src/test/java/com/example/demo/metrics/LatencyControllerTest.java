@@ -0,0 +1,54 @@
+package com.example.demo.metrics;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.demo.logging.AccessLogFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/** Verifies the latency endpoint reports recorded requests. */
+@SpringBootTest
+class LatencyControllerTest {
+    /** Spring web application context used to configure MockMvc. */
+    private final WebApplicationContext context;
+
+    /** MockMvc instance used for endpoint assertions. */
+    private MockMvc mockMvc;
+
+    /**
+     * Creates the test instance with Spring's web context.
+     *
+     * @param context web application context
+     */
+    public LatencyControllerTest(final WebApplicationContext context) {
+        this.context = context;
+    }
+
+    /** Builds MockMvc with the access-log filter before each test. */
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(context.getBean(AccessLogFilter.class)).build();
+    }
+
+    /**
+     * Ensures a served request shows up under its route pattern and status.
+     *
+     * @throws Exception when the request fails
+     */
+    @Test
+    void reportsServedRouteLatency() throws Exception {
+        mockMvc.perform(get("/api/hello")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/latency")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.route == '/api/hello' && @.status == 200)]"
+                        + ".interval.count").value(1))
+                .andExpect(jsonPath("$[?(@.route == '/actuator/latency')]").isEmpty());
+    }
+}
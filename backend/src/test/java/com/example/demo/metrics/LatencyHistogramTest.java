@@ -0,0 +1,127 @@
+package com.example.demo.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link LatencyHistogram}. */
+class LatencyHistogramTest {
+    /**
+     * Bucket indexes are contiguous and bound every value.
+     *
+     * <pre>
+     * Theme: Histogram buckets
+     * Test view: Bucket indexes are contiguous and bound every value
+     * Test conditions: Values around power-of-two boundaries up to the trackable maximum
+     * Test result: Each value is at most its bucket's highest equivalent value within 1/32
+     * </pre>
+     */
+    @Test
+    void bucketsBoundValuesWithinRelativeError() {
+        Assertions.assertEquals(63, LatencyHistogram.indexOf(63L), "Small values map directly");
+        Assertions.assertEquals(64, LatencyHistogram.indexOf(64L), "Buckets are contiguous");
+        Assertions.assertEquals(63L, LatencyHistogram.highestEquivalentValue(63),
+                "Small buckets are exact");
+        Assertions.assertEquals(65L, LatencyHistogram.highestEquivalentValue(64),
+                "Second magnitude buckets are two wide");
+        for (long value = 1L; value < LatencyHistogram.MAX_TRACKABLE_NANOS; value = value * 3
+                + 1) {
+            final long highest =
+                    LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(value));
+            Assertions.assertTrue(highest >= value && highest - value <= value / 32,
+                    "Bucket of " + value + " should bound it within 1/32");
+        }
+    }
+
+    /**
+     * Percentiles follow the recorded distribution and max is exact.
+     *
+     * <pre>
+     * Theme: Histogram percentiles
+     * Test view: Percentiles follow the recorded distribution and max is exact
+     * Test conditions: Values 1..1000 microseconds recorded once each
+     * Test result: p50/p90/p99/p999 are within 1/32 of the exact ranks; max is exact
+     * </pre>
+     */
+    @Test
+    void summaryReportsPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1L; micros <= 1000L; micros++) {
+            histogram.record(micros * 1000L);
+        }
+
+        final LatencySummary summary = histogram.summary();
+
+        Assertions.assertEquals(1000L, summary.count(), "All values should be counted");
+        assertNear(500_000L, summary.p50(), "p50");
+        assertNear(900_000L, summary.p90(), "p90");
+        assertNear(990_000L, summary.p99(), "p99");
+        assertNear(999_000L, summary.p999(), "p999");
+        Assertions.assertEquals(1_000_000L, summary.max(), "Max should be exact");
+    }
+
+    /**
+     * Out-of-range values are clamped and empty histograms report zeros.
+     *
+     * <pre>
+     * Theme: Histogram bounds
+     * Test view: Out-of-range values are clamped and empty histograms report zeros
+     * Test conditions: Empty histogram, then a negative and an oversized value
+     * Test result: Zero summary, then max is clamped to MAX_TRACKABLE_NANOS
+     * </pre>
+     */
+    @Test
+    void clampsOutOfRangeValues() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Assertions.assertEquals(new LatencySummary(0L, 0L, 0L, 0L, 0L, 0L), histogram.summary(),
+                "Empty histogram should report zeros");
+
+        histogram.record(-5L);
+        histogram.record(Long.MAX_VALUE);
+
+        final LatencySummary summary = histogram.summary();
+        Assertions.assertEquals(2L, summary.count(), "Both values should be counted");
+        Assertions.assertEquals(0L, summary.p50(), "Negative value should clamp to zero");
+        Assertions.assertEquals(LatencyHistogram.MAX_TRACKABLE_NANOS, summary.max(),
+                "Oversized value should clamp to the trackable maximum");
+    }
+
+    /**
+     * Histograms can be merged and reset.
+     *
+     * <pre>
+     * Theme: Histogram merge
+     * Test view: Histograms can be merged and reset
+     * Test conditions: Two histograms with different maxima are added, then reset
+     * Test result: Counts and max combine; reset clears both
+     * </pre>
+     */
+    @Test
+    void addAndResetCombineAndClear() {
+        final LatencyHistogram first = new LatencyHistogram();
+        final LatencyHistogram second = new LatencyHistogram();
+        first.record(10L);
+        second.record(20L);
+        second.record(5L);
+
+        first.add(second);
+        first.add(new LatencyHistogram());
+        Assertions.assertEquals(3L, first.summary().count(), "Counts should combine");
+        Assertions.assertEquals(20L, first.summary().max(), "Max should combine");
+
+        first.reset();
+        Assertions.assertEquals(0L, first.summary().count(), "Reset should clear counts");
+        Assertions.assertEquals(0L, first.summary().max(), "Reset should clear max");
+    }
+
+    /**
+     * Asserts that a percentile lies within the histogram's relative error.
+     *
+     * @param expected exact value
+     * @param actual reported value
+     * @param label percentile label
+     */
+    private static void assertNear(final long expected, final long actual, final String label) {
+        Assertions.assertTrue(Math.abs(actual - expected) <= expected / 32,
+                label + " was " + actual + ", expected about " + expected);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link LatencyRecorder}. */
+class LatencyRecorderTest {
+    /** Route used by tests. */
+    private static final String ROUTE = "/api/hello";
+
+    /**
+     * Snapshots separate intervals and keep cumulative totals.
+     *
+     * <pre>
+     * Theme: Interval snapshots
+     * Test view: Snapshots separate intervals and keep cumulative totals
+     * Test conditions: Two snapshots with recordings before each, in two status series
+     * Test result: Interval counts reset per snapshot; totals accumulate; series are ordered
+     * </pre>
+     */
+    @Test
+    void snapshotsRotateIntervals() {
+        final LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record("GET", ROUTE, 500, 3_000L);
+        recorder.record("GET", ROUTE, 200, 1_000L);
+        recorder.record("GET", ROUTE, 200, 2_000L);
+
+        final List<LatencySeries> first = recorder.snapshot();
+        Assertions.assertEquals(2, first.size(), "One series per status");
+        Assertions.assertEquals(200, first.get(0).status(), "Series should be ordered by status");
+        Assertions.assertEquals(2L, first.get(0).interval().count(), "Interval count");
+
+        recorder.record("GET", ROUTE, 200, 4_000L);
+        final LatencySeries second = recorder.snapshot().get(0);
+        Assertions.assertEquals(1L, second.interval().count(), "Interval should restart");
+        Assertions.assertEquals(3L, second.total().count(), "Total should accumulate");
+        Assertions.assertEquals(4_000L, second.total().max(), "Total max should be kept");
+    }
+
+    /**
+     * Series beyond the cap share the overflow series.
+     *
+     * <pre>
+     * Theme: Series cardinality
+     * Test view: Series beyond the cap share the overflow series
+     * Test conditions: MAX_SERIES distinct routes, then two more routes
+     * Test result: MAX_SERIES + 1 series exist and the overflow series holds two requests
+     * </pre>
+     */
+    @Test
+    void capsSeriesCardinality() {
+        final LatencyRecorder recorder = new LatencyRecorder();
+        for (int index = 0; index < BoundedSeriesMap.MAX_SERIES; index++) {
+            recorder.record("GET", "/r" + index, 200, 1L);
+        }
+        recorder.record("GET", "/extra1", 200, 1L);
+        recorder.record("GET", "/extra2", 200, 1L);
+        recorder.record("GET", "/r0", 200, 1L);
+
+        final List<LatencySeries> series = recorder.snapshot();
+        Assertions.assertEquals(BoundedSeriesMap.MAX_SERIES + 1, series.size(),
+                "Series should be capped plus one overflow series");
+        final LatencySeries overflow = series.stream()
+                .filter(entry -> "overflow".equals(entry.route())).findFirst().orElseThrow();
+        Assertions.assertEquals(2L, overflow.interval().count(),
+                "Overflow series should absorb extra routes");
+    }
+
+    /**
+     * Concurrent recording loses no values across snapshots.
+     *
+     * <pre>
+     * Theme: Lock-free recording
+     * Test view: Concurrent recording loses no values across snapshots
+     * Test conditions: Four writer threads record while the test thread snapshots repeatedly
+     * Test result: Final cumulative count equals the number of recorded values
+     * </pre>
+     *
+     * @throws InterruptedException when interrupted while waiting
+     */
+    @Test
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    void concurrentRecordingLosesNothing() throws InterruptedException {
+        final LatencyRecorder recorder = new LatencyRecorder();
+        final int writers = 4;
+        final int perWriter = 50_000;
+        final CountDownLatch done = new CountDownLatch(writers);
+        final List<Thread> threads = new ArrayList<>();
+        for (int writer = 0; writer < writers; writer++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int index = 0; index < perWriter; index++) {
+                    recorder.record("GET", ROUTE, 200, index);
+                }
+                done.countDown();
+            }));
+        }
+        long interim = 0L;
+        while (!done.await(1, TimeUnit.MILLISECONDS)) {
+            interim = recorder.snapshot().stream().mapToLong(entry -> entry.total().count())
+                    .max().orElse(0L);
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        final List<LatencySeries> series = recorder.snapshot();
+        Assertions.assertTrue(interim <= series.get(0).total().count(),
+                "Totals should never shrink between snapshots");
+        Assertions.assertEquals((long) writers * perWriter, series.get(0).total().count(),
+                "Every recorded value should be counted exactly once");
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.demo.trace;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.slf4j.helpers.BasicMDCAdapter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+/** Tests for {@link RequestContext}. */
+class RequestContextTest {
+    /** Route pattern used by tests. */
+    private static final String ROUTE = "/api/hello";
+
+    /** Clears MDC after each test. */
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    /**
+     * Scopes nest and restore the enclosing binding.
+     *
+     * <pre>
+     * Theme: Request context
+     * Test view: Scopes nest and restore the enclosing binding
+     * Test conditions: An outer and an inner context opened and closed in order
+     * Test result: current() and the MDC trace id follow the innermost open scope; nothing is
+     *              bound after the outer scope closes
+     * </pre>
+     */
+    @Test
+    void scopesNestAndRestore() {
+        final RequestContext outer = context("outer");
+        final RequestContext inner = context("inner");
+        try (RequestContext.Scope outerScope = outer.open()) {
+            Assertions.assertSame(outer, RequestContext.current(), "Outer is bound");
+            try (RequestContext.Scope innerScope = inner.open()) {
+                Assertions.assertSame(inner, RequestContext.current(), "Inner is bound");
+                Assertions.assertEquals("inner", MDC.get(TraceIdResolver.TRACE_ID_MDC_KEY),
+                        "MDC follows the inner context");
+            }
+            Assertions.assertSame(outer, RequestContext.current(), "Outer is restored");
+            Assertions.assertEquals("outer", RequestContext.currentTraceId(),
+                    "Trace id is restored");
+        }
+        Assertions.assertNull(RequestContext.current(), "Nothing is bound");
+        Assertions.assertNull(MDC.get(TraceIdResolver.TRACE_ID_MDC_KEY), "MDC key is removed");
+    }
+
+    /**
+     * A scope owns only the trace id MDC entry.
+     *
+     * <pre>
+     * Theme: Request context
+     * Test view: A scope owns only the trace id MDC entry
+     * Test conditions: MDC holds another key, with and without a trace id, before a scope opens
+     * Test result: The prior trace id comes back, or is removed, and the other key is untouched
+     * </pre>
+     */
+    @Test
+    void restoresPriorMdcTraceId() {
+        MDC.put(TraceIdResolver.TRACE_ID_MDC_KEY, "prior");
+        MDC.put("userId", "u-1");
+        Assertions.assertEquals("prior", RequestContext.currentTraceId(),
+                "MDC is read without a context");
+        try (RequestContext.Scope scope = context("scoped").open()) {
+            Assertions.assertEquals("scoped", RequestContext.currentTraceId(),
+                    "Context wins over MDC");
+        }
+        Assertions.assertEquals("prior", MDC.get(TraceIdResolver.TRACE_ID_MDC_KEY),
+                "Prior trace id is restored");
+        Assertions.assertEquals("u-1", MDC.get("userId"), "Other keys are untouched");
+
+        MDC.remove(TraceIdResolver.TRACE_ID_MDC_KEY);
+        context("scoped").open().close();
+        Assertions.assertNull(MDC.get(TraceIdResolver.TRACE_ID_MDC_KEY), "No prior trace id");
+        Assertions.assertEquals("u-1", MDC.get("userId"), "Other keys are still untouched");
+    }
+
+    /**
+     * A scope opened on an empty MDC leaves it empty.
+     *
+     * <pre>
+     * Theme: Request context
+     * Test view: A scope opened on an empty MDC leaves it empty
+     * Test conditions: Empty MDC; code inside the scope adds a key and never removes it
+     * Test result: MDC is empty after the scope closes
+     * </pre>
+     */
+    @Test
+    void clearsMdcOpenedOnEmpty() {
+        final RequestContext.Scope scope = context("request").open();
+        MDC.put("userId", "u-1");
+        scope.close();
+
+        Assertions.assertNull(MDC.get("userId"), "Key added in the scope is cleared");
+        Assertions.assertNull(MDC.get(TraceIdResolver.TRACE_ID_MDC_KEY), "Trace id is cleared");
+    }
+
+    /**
+     * Trace-id scopes bind MDC only.
+     *
+     * <pre>
+     * Theme: Request context
+     * Test view: Trace-id scopes bind MDC only
+     * Test conditions: Trace-id scope opened without and then inside a request scope
+     * Test result: The trace id reaches MDC; the bound context is left unchanged
+     * </pre>
+     */
+    @Test
+    void openTraceIdBindsMdcOnly() {
+        try (RequestContext.Scope scope = RequestContext.openTraceId("logging")) {
+            Assertions.assertNull(RequestContext.current(), "No context is bound");
+            Assertions.assertEquals("logging", RequestContext.currentTraceId(), "MDC trace id");
+        }
+        final RequestContext outer = context("outer");
+        try (RequestContext.Scope outerScope = outer.open()) {
+            try (RequestContext.Scope scope = RequestContext.openTraceId("logging")) {
+                Assertions.assertSame(outer, RequestContext.current(), "Context is kept");
+                Assertions.assertEquals("logging", MDC.get(TraceIdResolver.TRACE_ID_MDC_KEY),
+                        "MDC follows the trace-id scope");
+            }
+            Assertions.assertSame(outer, RequestContext.current(), "Context is still bound");
+            Assertions.assertEquals("outer", MDC.get(TraceIdResolver.TRACE_ID_MDC_KEY),
+                    "MDC trace id is restored");
+        }
+        Assertions.assertNull(MDC.get(TraceIdResolver.TRACE_ID_MDC_KEY), "MDC is empty");
+    }
+
+    /**
+     * Emptiness is detected for logback and other MDC adapters.
+     *
+     * <pre>
+     * Theme: Request context
+     * Test view: Emptiness is detected for logback and other MDC adapters
+     * Test conditions: Basic adapter without and with an entry; logback after a key was
+     *                  removed again
+     * Test result: Empty only when no entry is present
+     * </pre>
+     */
+    @Test
+    void detectsEmptyMdc() {
+        final BasicMDCAdapter basic = new BasicMDCAdapter();
+        Assertions.assertTrue(RequestContext.isEmpty(basic), "No map");
+        basic.put("key", "value");
+        Assertions.assertFalse(RequestContext.isEmpty(basic), "One entry");
+        basic.clear();
+
+        MDC.put("key", "value");
+        Assertions.assertFalse(RequestContext.isEmpty(MDC.getMDCAdapter()), "Logback entry");
+        MDC.remove("key");
+        Assertions.assertTrue(RequestContext.isEmpty(MDC.getMDCAdapter()), "Emptied map");
+    }
+
+    /**
+     * Client IP and route are read from the live request.
+     *
+     * <pre>
+     * Theme: Request context
+     * Test view: Client IP and route are read from the live request
+     * Test conditions: Route attribute absent, then set by handler mapping
+     * Test result: clientIp() uses the resolver; route() is UNMATCHED_ROUTE, then the pattern
+     * </pre>
+     */
+    @Test
+    void readsClientIpAndRoute() {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("198.51.100.4");
+        final RequestContext context =
+                new RequestContext("t", request, HttpServletRequest::getRemoteAddr);
+        Assertions.assertEquals("198.51.100.4", context.clientIp(), "Resolver is applied");
+        Assertions.assertEquals(RequestContext.UNMATCHED_ROUTE, context.route(),
+                "No route before matching");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ROUTE);
+        Assertions.assertEquals(ROUTE, context.route(), "Matched route is exposed");
+    }
+
+    /**
+     * Creates a context with a fixed client IP.
+     *
+     * @param traceId trace id
+     * @return context
+     */
+    private static RequestContext context(final String traceId) {
+        return new RequestContext(traceId, new MockHttpServletRequest(), request -> "10.0.0.1");
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.demo.trace;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/** Tests for {@link TraceIdResolver} and the built-in generators. */
+class TraceIdResolverTest {
+    /** Trace id carried by the traceparent header used in tests. */
+    private static final String PARENT_TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    /** Traceparent header used by tests. */
+    private static final String TRACEPARENT = "00-" + PARENT_TRACE_ID + "-00f067aa0ba902b7-01";
+
+    /** Pattern of a W3C trace id. */
+    private static final String TRACE_ID_PATTERN = "[0-9a-f]{32}";
+
+    /** Restores MDC and the default generator after each test. */
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+        TraceIdResolver.setGenerator(null);
+    }
+
+    /**
+     * Resolution prefers MDC, then X-Request-Id, then traceparent.
+     *
+     * <pre>
+     * Theme: Trace id resolution
+     * Test view: Resolution prefers MDC, then X-Request-Id, then traceparent
+     * Test conditions: Requests carrying different combinations of sources
+     * Test result: The highest-priority source wins; resolveIncoming ignores MDC
+     * </pre>
+     */
+    @Test
+    void resolvesInPriorityOrder() {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(TraceParent.HEADER, TRACEPARENT);
+        Assertions.assertEquals(PARENT_TRACE_ID, TraceIdResolver.resolve(request),
+                "traceparent should be used when nothing else is present");
+
+        request.addHeader(TraceIdResolver.TRACE_ID_HEADER, "req-1");
+        Assertions.assertEquals("req-1", TraceIdResolver.resolve(request),
+                "X-Request-Id should win over traceparent");
+
+        MDC.put(TraceIdResolver.TRACE_ID_MDC_KEY, "mdc-1");
+        Assertions.assertEquals("mdc-1", TraceIdResolver.resolve(request), "MDC should win");
+        Assertions.assertEquals("req-1", TraceIdResolver.resolveIncoming(request, null),
+                "Incoming resolution should ignore MDC");
+    }
+
+    /**
+     * Missing ids are generated with the configured generator.
+     *
+     * <pre>
+     * Theme: Trace id generation
+     * Test view: Missing ids are generated with the configured generator
+     * Test conditions: Default, custom, configured, and reset generators with a bare request
+     * Test result: Default ids are W3C hex; custom generator is used; closing the configurer's
+     *              context and null restore RANDOM
+     * </pre>
+     */
+    @Test
+    void generatesWithConfiguredGenerator() {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        Assertions.assertTrue(TraceIdResolver.resolve(request).matches(TRACE_ID_PATTERN),
+                "Default id should be 32 hex characters");
+
+        TraceIdResolver.setGenerator(() -> "custom");
+        Assertions.assertEquals("custom", TraceIdResolver.resolve(request), "Custom generator");
+
+        final TraceIdConfigurer configurer = new TraceIdConfigurer();
+        configurer.setIdFormat(TraceIdFormat.TIME_ORDERED);
+        Assertions.assertSame(TraceIdFormat.TIME_ORDERED, TraceIdResolver.getGenerator(),
+                "Configurer should install the format");
+        configurer.destroy();
+        Assertions.assertSame(TraceIdFormat.RANDOM, TraceIdResolver.getGenerator(),
+                "Context close should restore RANDOM");
+        TraceIdResolver.setGenerator(() -> "custom");
+        TraceIdResolver.setGenerator(null);
+        Assertions.assertSame(TraceIdFormat.RANDOM, TraceIdResolver.getGenerator(),
+                "Null should restore RANDOM");
+    }
+
+    /**
+     * Built-in formats produce valid, distinct, and ordered ids.
+     *
+     * <pre>
+     * Theme: Trace id generation
+     * Test view: Built-in formats produce valid, distinct, and ordered ids
+     * Test conditions: Ids from both formats, span ids, and the all-zero edge case
+     * Test result: Ids match the W3C shape; time-ordered prefixes do not decrease; zero is bumped
+     * </pre>
+     *
+     * @throws InterruptedException when interrupted while waiting for the clock
+     */
+    @Test
+    void formatsProduceValidIds() throws InterruptedException {
+        final String first = TraceIdFormat.RANDOM.nextTraceId();
+        Assertions.assertTrue(first.matches(TRACE_ID_PATTERN), "Random id shape");
+        Assertions.assertNotEquals(first, TraceIdFormat.RANDOM.nextTraceId(), "Random ids differ");
+
+        final String early = TraceIdFormat.TIME_ORDERED.nextTraceId();
+        Thread.sleep(2L);
+        final String late = TraceIdFormat.TIME_ORDERED.nextTraceId();
+        Assertions.assertTrue(late.matches(TRACE_ID_PATTERN), "Time-ordered id shape");
+        Assertions.assertTrue(early.substring(0, 12).compareTo(late.substring(0, 12)) < 0,
+                "Time-ordered ids should sort by creation time");
+
+        Assertions.assertTrue(TraceIdResolver.nextSpanId().matches("[0-9a-f]{16}"),
+                "Span id shape");
+        Assertions.assertEquals("0".repeat(31) + "1", TraceIds.toHex(0L, 0L),
+                "All-zero trace id should be bumped");
+        Assertions.assertEquals("0".repeat(15) + "1", TraceIds.toHex(0L),
+                "All-zero span id should be bumped");
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.trace;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for {@link TraceParent}. */
+class TraceParentTest {
+    /** Trace id used by tests. */
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    /** Parent id used by tests. */
+    private static final String PARENT_ID = "00f067aa0ba902b7";
+
+    /** Valid version-00 header. */
+    private static final String HEADER = "00-" + TRACE_ID + "-" + PARENT_ID + "-01";
+
+    /**
+     * Valid headers are parsed and rendered back.
+     *
+     * <pre>
+     * Theme: W3C traceparent
+     * Test view: Valid headers are parsed and rendered back
+     * Test conditions: Version-00 header and a future-version header with an extra field
+     * Test result: Fields are extracted; child keeps trace id and flags
+     * </pre>
+     */
+    @Test
+    void parsesValidHeaders() {
+        final TraceParent parsed = TraceParent.parse(HEADER);
+
+        Assertions.assertEquals(new TraceParent(TRACE_ID, PARENT_ID, "01"), parsed,
+                "Fields should be extracted");
+        Assertions.assertEquals(HEADER, parsed.toHeader(), "Header should round-trip");
+        Assertions.assertEquals("00-" + TRACE_ID + "-1111111111111111-01",
+                parsed.child("1111111111111111").toHeader(), "Child keeps trace and flags");
+        Assertions.assertNotNull(TraceParent.parse("01" + HEADER.substring(2) + "-extra"),
+                "Future versions may append fields");
+        Assertions.assertNotNull(TraceParent.parse("01" + HEADER.substring(2)),
+                "Future versions may have no extra fields");
+    }
+
+    /**
+     * Malformed headers are rejected.
+     *
+     * <pre>
+     * Theme: W3C traceparent
+     * Test view: Malformed headers are rejected
+     * Test conditions: Null, short, ff version, bad separators, uppercase, zero ids, bad flags
+     * Test result: parse returns null
+     * </pre>
+     */
+    @Test
+    void rejectsMalformedHeaders() {
+        Assertions.assertNull(TraceParent.parse(null), "Null header");
+        Assertions.assertNull(TraceParent.parse("00-abc"), "Short header");
+        Assertions.assertNull(TraceParent.parse("ff" + HEADER.substring(2)), "Version ff");
+        Assertions.assertNull(TraceParent.parse("zz" + HEADER.substring(2)), "Bad version");
+        Assertions.assertNull(TraceParent.parse(HEADER + "-extra"), "Version 00 is exact");
+        Assertions.assertNull(TraceParent.parse("01" + HEADER.substring(2) + "x"),
+                "Future version extra data needs a dash");
+        Assertions.assertNull(TraceParent.parse(HEADER.replace('-', '_')), "Bad separators");
+        Assertions.assertNull(TraceParent.parse("00_" + HEADER.substring(3)), "First dash");
+        Assertions.assertNull(TraceParent.parse(HEADER.substring(0, 35) + "_"
+                + HEADER.substring(36)), "Second dash");
+        Assertions.assertNull(TraceParent.parse(HEADER.toUpperCase(java.util.Locale.ROOT)),
+                "Uppercase hex");
+        Assertions.assertNull(TraceParent.parse("00-" + "0".repeat(32) + "-" + PARENT_ID + "-01"),
+                "Zero trace id");
+        Assertions.assertNull(TraceParent.parse("00-" + TRACE_ID + "-" + "0".repeat(16) + "-01"),
+                "Zero parent id");
+        Assertions.assertNull(TraceParent.parse("00-" + TRACE_ID + "-" + PARENT_ID + "-0x"),
+                "Bad flags");
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.web;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/** Tests for {@link CacheableResponse}. */
+class CacheableResponseTest {
+    /**
+     * ETags are strong and depend only on the version.
+     *
+     * <pre>
+     * Theme: Conditional GET
+     * Test view: ETags are strong and depend only on the version
+     * Test conditions: Same version twice, another version, non-ASCII version
+     * Test result: Equal versions share a quoted 32-digit tag; other versions differ
+     * </pre>
+     */
+    @Test
+    void derivesStrongETagFromVersion() {
+        final String tag = CacheableResponse.strongETag("v1");
+
+        Assertions.assertTrue(tag.matches("\"[0-9a-f]{32}\""), "Quoted strong tag");
+        Assertions.assertEquals(tag, CacheableResponse.strongETag("v1"), "Stable per version");
+        Assertions.assertNotEquals(tag, CacheableResponse.strongETag("v2"), "Per version");
+        Assertions.assertNotEquals(tag, CacheableResponse.strongETag("v\u00e9"), "UTF-8");
+    }
+
+    /**
+     * Responses reuse the body and carry ETag and Cache-Control.
+     *
+     * <pre>
+     * Theme: Conditional GET
+     * Test view: Responses reuse the body and carry ETag and Cache-Control
+     * Test conditions: One cacheable response rendered twice
+     * Test result: 200 with the same body instance and both headers
+     * </pre>
+     */
+    @Test
+    void buildsTaggedResponses() {
+        final Object body = new Object();
+        final CacheableResponse<Object> cacheable =
+                CacheableResponse.of(body, "v1", CacheControl.noCache());
+
+        final ResponseEntity<Object> first = cacheable.toResponseEntity();
+        final ResponseEntity<Object> second = cacheable.toResponseEntity();
+
+        Assertions.assertEquals(HttpStatus.OK, first.getStatusCode(), "Status");
+        Assertions.assertSame(first.getBody(), second.getBody(), "Body reused");
+        Assertions.assertEquals(cacheable.getETag(), first.getHeaders().getETag(), "ETag");
+        Assertions.assertEquals("no-cache", first.getHeaders().getCacheControl(), "Cache");
+    }
+
+    /**
+     * max-age settings map to Cache-Control policies.
+     *
+     * <pre>
+     * Theme: Conditional GET
+     * Test view: max-age settings map to Cache-Control policies
+     * Test conditions: 0, 30, and -1 seconds
+     * Test result: no-cache, max-age=30, and a rejected negative value
+     * </pre>
+     */
+    @Test
+    void mapsMaxAge() {
+        Assertions.assertEquals("no-cache",
+                CacheableResponse.cacheControl(0).getHeaderValue(), "Zero revalidates");
+        Assertions.assertEquals("max-age=30",
+                CacheableResponse.cacheControl(30).getHeaderValue(), "Positive max-age");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> CacheableResponse.cacheControl(-1), "Negative rejected");
+    }
+}
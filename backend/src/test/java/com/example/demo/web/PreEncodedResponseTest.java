@@ -0,0 +1,234 @@
+package com.example.demo.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/** Tests for {@link PreEncodedResponse}. */
+class PreEncodedResponseTest {
+    /** Compressible JSON body. */
+    private static final String BODY = "{\"message\":\"" + "hello ".repeat(40) + "\"}";
+
+    /**
+     * Bodies are serialized once and written with their exact length.
+     *
+     * <pre>
+     * Theme: Pre-encoded responses
+     * Test view: Bodies are serialized once and written with their exact length
+     * Test conditions: A map body with gzip enabled but not worth it, written twice
+     * Test result: JSON bytes with Content-Length, ETag, Cache-Control, and no Vary
+     * </pre>
+     *
+     * @throws IOException when writing fails
+     */
+    @Test
+    void writesJsonWithContentLength() throws IOException {
+        final PreEncodedResponse encoded = PreEncodedResponse.json(Map.of("message", "hi"), "v1",
+                CacheControl.noCache(), true);
+
+        final MockHttpServletResponse first = write(encoded, request());
+        final MockHttpServletResponse second = write(encoded, request());
+
+        Assertions.assertFalse(encoded.hasGzip(), "Tiny body is not compressed");
+        Assertions.assertEquals(200, first.getStatus(), "Status");
+        Assertions.assertEquals("{\"message\":\"hi\"}", first.getContentAsString(), "Body");
+        Assertions.assertEquals(first.getContentAsByteArray().length, first.getContentLength(),
+                "Content-Length");
+        Assertions.assertEquals("application/json", first.getContentType(), "Content-Type");
+        Assertions.assertEquals(CacheableResponse.strongETag("v1"), first.getHeader("ETag"),
+                "Same ETag as the entity variant");
+        Assertions.assertEquals("no-cache", first.getHeader("Cache-Control"), "Cache-Control");
+        Assertions.assertNull(first.getHeader("Vary"), "No Vary without a gzip variant");
+        Assertions.assertArrayEquals(first.getContentAsByteArray(),
+                second.getContentAsByteArray(), "Same bytes each time");
+    }
+
+    /**
+     * gzip is served only to clients that accept it.
+     *
+     * <pre>
+     * Theme: Pre-encoded responses
+     * Test view: gzip is served only to clients that accept it
+     * Test conditions: Compressible body; requests with and without Accept-Encoding: gzip
+     * Test result: Decompressible gzip bytes with their own ETag, JSON otherwise, Vary on both
+     * </pre>
+     *
+     * @throws IOException when writing fails
+     */
+    @Test
+    void servesGzipWhenAccepted() throws IOException {
+        final PreEncodedResponse encoded = PreEncodedResponse.of(
+                BODY.getBytes(StandardCharsets.UTF_8), "v1", CacheControl.noCache(), true);
+        final MockHttpServletRequest gzipRequest = request();
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.5");
+
+        final MockHttpServletResponse gzipped = write(encoded, gzipRequest);
+        final MockHttpServletResponse plain = write(encoded, request());
+
+        Assertions.assertTrue(encoded.hasGzip(), "Compressible body has a gzip variant");
+        Assertions.assertEquals("gzip", gzipped.getHeader(HttpHeaders.CONTENT_ENCODING), "Coding");
+        Assertions.assertEquals(gzipped.getContentAsByteArray().length,
+                gzipped.getContentLength(), "Compressed Content-Length");
+        Assertions.assertEquals(BODY, gunzip(gzipped.getContentAsByteArray()), "Round trip");
+        Assertions.assertNotEquals(plain.getHeader("ETag"), gzipped.getHeader("ETag"),
+                "Variants have distinct ETags");
+        Assertions.assertEquals(BODY, plain.getContentAsString(), "Identity body");
+        Assertions.assertNull(plain.getHeader(HttpHeaders.CONTENT_ENCODING), "No coding");
+        Assertions.assertEquals("Accept-Encoding", plain.getHeader("Vary"), "Vary");
+        Assertions.assertEquals("Accept-Encoding", gzipped.getHeader("Vary"), "Vary");
+    }
+
+    /**
+     * Disabled gzip keeps only the JSON variant.
+     *
+     * <pre>
+     * Theme: Pre-encoded responses
+     * Test view: Disabled gzip keeps only the JSON variant
+     * Test conditions: Compressible body with gzip disabled, client accepting gzip
+     * Test result: JSON body without Content-Encoding
+     * </pre>
+     *
+     * @throws IOException when writing fails
+     */
+    @Test
+    void skipsGzipWhenDisabled() throws IOException {
+        final PreEncodedResponse encoded = PreEncodedResponse.of(
+                BODY.getBytes(StandardCharsets.UTF_8), "v1", CacheControl.noCache(), false);
+        final MockHttpServletRequest gzipRequest = request();
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        final MockHttpServletResponse response = write(encoded, gzipRequest);
+
+        Assertions.assertFalse(encoded.hasGzip(), "No gzip variant");
+        Assertions.assertEquals(BODY, response.getContentAsString(), "Identity body");
+    }
+
+    /**
+     * A matching If-None-Match is answered with an empty 304.
+     *
+     * <pre>
+     * Theme: Pre-encoded responses
+     * Test view: A matching If-None-Match is answered with an empty 304
+     * Test conditions: Current tag in a list, weak form of the tag, wildcard, stale tag
+     * Test result: 304 with ETag and no body for matches; 200 for the stale tag
+     * </pre>
+     *
+     * @throws IOException when writing fails
+     */
+    @Test
+    void answersMatchingIfNoneMatch() throws IOException {
+        final PreEncodedResponse encoded = PreEncodedResponse.json(Map.of("message", "hi"), "v1",
+                CacheControl.maxAge(Duration.ofSeconds(30)), false);
+        final String eTag = encoded.getETag();
+
+        for (final String header : new String[] {"\"old\", " + eTag, "W/" + eTag, "*"}) {
+            final MockHttpServletRequest conditional = request();
+            conditional.addHeader(HttpHeaders.IF_NONE_MATCH, header);
+            final MockHttpServletResponse response = write(encoded, conditional);
+            Assertions.assertEquals(304, response.getStatus(), header);
+            Assertions.assertEquals(eTag, response.getHeader("ETag"), header);
+            Assertions.assertEquals("max-age=30", response.getHeader("Cache-Control"), header);
+            Assertions.assertEquals(0, response.getContentAsByteArray().length, header);
+        }
+        final MockHttpServletRequest stale = request();
+        stale.addHeader(HttpHeaders.IF_NONE_MATCH, "\"old\", W/\"older\"");
+        Assertions.assertEquals(200, write(encoded, stale).getStatus(), "Stale tag");
+    }
+
+    /**
+     * Accept-Encoding parsing honours q=0 and explicit entries over the wildcard.
+     *
+     * <pre>
+     * Theme: Pre-encoded responses
+     * Test view: Accept-Encoding parsing honours q=0 and explicit entries over the wildcard
+     * Test conditions: Headers with gzip, x-gzip, wildcard, zero and non-zero q values
+     * Test result: gzip only when an acceptable entry allows it
+     * </pre>
+     */
+    @Test
+    void parsesAcceptEncoding() {
+        Assertions.assertFalse(PreEncodedResponse.acceptsGzip(null), "Missing header");
+        Assertions.assertFalse(PreEncodedResponse.acceptsGzip("identity"), "Other coding");
+        Assertions.assertTrue(PreEncodedResponse.acceptsGzip("GZIP"), "Case-insensitive");
+        Assertions.assertTrue(PreEncodedResponse.acceptsGzip("x-gzip"), "Legacy alias");
+        Assertions.assertTrue(PreEncodedResponse.acceptsGzip("br, *"), "Wildcard");
+        Assertions.assertFalse(PreEncodedResponse.acceptsGzip("*;q=0"), "Refused wildcard");
+        Assertions.assertFalse(PreEncodedResponse.acceptsGzip("gzip;q=0, *"), "Explicit wins");
+        Assertions.assertFalse(PreEncodedResponse.acceptsGzip("gzip; Q=0.000"), "Zero forms");
+        Assertions.assertFalse(PreEncodedResponse.acceptsGzip("gzip;q=0."), "Trailing dot");
+        Assertions.assertTrue(PreEncodedResponse.acceptsGzip("gzip;q=0.001"), "Small q");
+        Assertions.assertTrue(PreEncodedResponse.acceptsGzip("gzip;q=1"), "Full q");
+        Assertions.assertTrue(PreEncodedResponse.acceptsGzip("gzip;q=00.5"), "Odd but non-zero");
+        Assertions.assertTrue(PreEncodedResponse.acceptsGzip("gzip;level=0;q"), "Not a qvalue");
+        Assertions.assertTrue(PreEncodedResponse.acceptsGzip("gzip;x=0"), "Other parameter");
+        Assertions.assertTrue(PreEncodedResponse.acceptsGzip("gzip;qs=0"), "Not q=");
+    }
+
+    /**
+     * Compression output is a valid gzip member.
+     *
+     * <pre>
+     * Theme: Pre-encoded responses
+     * Test view: Compression output is a valid gzip member
+     * Test conditions: Empty input and input larger than one deflate chunk
+     * Test result: Both decompress to the input
+     * </pre>
+     *
+     * @throws IOException when decompression fails
+     */
+    @Test
+    void producesValidGzip() throws IOException {
+        final String large = "0123456789abcdef".repeat(200) + "\u00e9";
+
+        Assertions.assertEquals("", gunzip(PreEncodedResponse.gzip(new byte[0])), "Empty");
+        Assertions.assertEquals(large,
+                gunzip(PreEncodedResponse.gzip(large.getBytes(StandardCharsets.UTF_8))), "Large");
+    }
+
+    /**
+     * Builds a GET request.
+     *
+     * @return request
+     */
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/hello");
+    }
+
+    /**
+     * Writes a response for a request.
+     *
+     * @param encoded response under test
+     * @param request request
+     * @return written response
+     * @throws IOException when writing fails
+     */
+    private static MockHttpServletResponse write(final PreEncodedResponse encoded,
+            final MockHttpServletRequest request) throws IOException {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        encoded.write(request, response);
+        return response;
+    }
+
+    /**
+     * Decompresses gzip bytes.
+     *
+     * @param bytes gzip bytes
+     * @return UTF-8 text
+     * @throws IOException when the bytes are not valid gzip
+     */
+    private static String gunzip(final byte[] bytes) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -21,10 +21,66 @@ export interface paths {
         patch?: never;
         trace?: never;
     };
+    "/api/batch": {
+        parameters: {
+            query?: never;
+            header?: never;
+            path?: never;
+            cookie?: never;
+        };
+        get?: never;
+        put?: never;
+        /**
+         * Execute several GET requests in one round-trip
+         * @description Runs each sub-request through the same access logging and error handling as a direct request, in parallel, and returns the results in request order. Paths must start with /api/ and must not target /api/batch. The number of sub-requests is limited by app.http.batch.max-requests.
+         */
+        post: operations["executeBatch"];
+        delete?: never;
+        options?: never;
+        head?: never;
+        patch?: never;
+        trace?: never;
+    };
 }
 export type webhooks = Record<string, never>;
 export interface components {
     schemas: {
+        BatchRequest: {
+            requests: components["schemas"]["BatchSubRequest"][];
+        };
+        BatchSubRequest: {
+            /**
+             * @description Client-chosen id echoed in the matching result
+             * @example hello
+             */
+            id: string;
+            /**
+             * @description GET path with optional query string
+             * @example /api/hello
+             */
+            path: string;
+            /** @description Headers added to those inherited from the batch request */
+            headers?: {
+                [key: string]: string;
+            };
+        };
+        BatchResponse: {
+            responses: components["schemas"]["BatchSubResponse"][];
+        };
+        BatchSubResponse: {
+            /** @example hello */
+            id: string;
+            /**
+             * Format: int32
+             * @example 200
+             */
+            status: number;
+            headers?: {
+                [key: string]: string;
+            };
+            /** @description Parsed JSON body, text for other content types, absent when empty */
+            body?: unknown;
+        };
         HelloResponse: {
             /** @example Hello from Spring Boot */
             message: string;
@@ -96,4 +152,37 @@ export interface operations {
             };
         };
     };
+    executeBatch: {
+        parameters: {
+            query?: never;
+            header?: never;
+            path?: never;
+            cookie?: never;
+        };
+        requestBody: {
+            content: {
+                "application/json": components["schemas"]["BatchRequest"];
+            };
+        };
+        responses: {
+            /** @description One result per sub-request, in request order */
+            200: {
+                headers: {
+                    [name: string]: unknown;
+                };
+                content: {
+                    "application/json": components["schemas"]["BatchResponse"];
+                };
+            };
+            /** @description Error response */
+            default: {
+                headers: {
+                    [name: string]: unknown;
+                };
+                content: {
+                    "application/json": components["schemas"]["ErrorResponse"];
+                };
+            };
+        };
+    };
 }
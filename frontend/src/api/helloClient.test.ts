@@ -1,4 +1,4 @@
-import { ApiError, fetchHello } from './helloClient';
+import { ApiError, batchGet, fetchHello, fetchHelloBatched } from './helloClient';
 
 /** Tests for the hello API client. */
 describe('fetchHello', () => {
@@ -251,3 +251,207 @@ describe('fetchHello', () => {
     jest.useRealTimers();
   });
 });
+
+/** Tests for the batching helpers. */
+describe('batchGet', () => {
+  /** Keeps the original fetch implementation. */
+  const originalFetch = global.fetch;
+
+  /** Restores fetch and clears mocks after each test. */
+  afterEach(() => {
+    global.fetch = originalFetch;
+    jest.clearAllMocks();
+  });
+
+  /**
+   * Builds an ok fetch response.
+   *
+   * @param payload JSON payload
+   * @returns response stub
+   */
+  const okResponse = (payload: unknown) => ({
+    ok: true,
+    json: async () => payload,
+  });
+
+  /**
+   * Calls in the same tick share one batch request.
+   *
+   * <pre>
+   * Theme: Batching
+   * Test view: Calls in the same tick share one batch request
+   * Test conditions: Two hello calls and one other path queued together
+   * Test result: One POST with two sub-requests; each caller gets its own body
+   * </pre>
+   */
+  it('coalesces calls made in the same tick', async () => {
+    const fetchMock = jest.fn().mockResolvedValue(
+      okResponse({
+        responses: [
+          { id: '1', status: 200, body: { items: [] } },
+          { id: '0', status: 200, body: { message: 'Hello from Spring Boot' } },
+        ],
+      }),
+    );
+    global.fetch = fetchMock as typeof fetch;
+
+    const results = await Promise.all([
+      fetchHelloBatched(),
+      batchGet<{ items: string[] }>('/api/items?page=1'),
+      fetchHelloBatched(),
+    ]);
+
+    expect(results).toEqual([
+      { message: 'Hello from Spring Boot' },
+      { items: [] },
+      { message: 'Hello from Spring Boot' },
+    ]);
+    expect(fetchMock).toHaveBeenCalledTimes(1);
+    expect(fetchMock).toHaveBeenCalledWith(
+      '/api/batch',
+      expect.objectContaining({ method: 'POST', signal: expect.any(AbortSignal) }),
+    );
+    expect(JSON.parse(fetchMock.mock.calls[0][1].body)).toEqual({
+      requests: [
+        { id: '0', path: '/api/hello' },
+        { id: '1', path: '/api/items?page=1' },
+      ],
+    });
+  });
+
+  /**
+   * A single call skips the batch endpoint.
+   *
+   * <pre>
+   * Theme: Batching
+   * Test view: A single call skips the batch endpoint
+   * Test conditions: One call queued in a tick
+   * Test result: Direct GET to the path
+   * </pre>
+   */
+  it('sends a lone call directly', async () => {
+    const fetchMock = jest.fn().mockResolvedValue(okResponse({ message: 'hi' }));
+    global.fetch = fetchMock as typeof fetch;
+
+    await expect(fetchHelloBatched()).resolves.toEqual({ message: 'hi' });
+    expect(fetchMock).toHaveBeenCalledWith(
+      '/api/hello',
+      expect.objectContaining({ signal: expect.any(AbortSignal) }),
+    );
+  });
+
+  /**
+   * Failed sub-requests reject like direct requests.
+   *
+   * <pre>
+   * Theme: Batching
+   * Test view: Failed sub-requests reject like direct requests
+   * Test conditions: Error payload, non-error payload with a lower-case trace header,
+   *                  and a missing result
+   * Test result: ApiError with payload fields, HTTP_ERROR with the header trace id,
+   *              and HTTP_ERROR for the missing result
+   * </pre>
+   */
+  it('maps failed sub-requests to ApiError', async () => {
+    const fetchMock = jest.fn().mockResolvedValue(
+      okResponse({
+        responses: [
+          {
+            id: '0',
+            status: 404,
+            headers: { 'X-Request-Id': 'trace-1' },
+            body: {
+              code: 'NOT_FOUND',
+              message: 'Not found',
+              traceId: 'trace-1',
+              timestamp: '2026-02-01T12:34:56Z',
+              path: '/api/missing',
+            },
+          },
+          { id: '1', status: 503, headers: { 'x-request-id': 'trace-2' }, body: 'busy' },
+          { id: '2', status: 500 },
+        ],
+      }),
+    );
+    global.fetch = fetchMock as typeof fetch;
+
+    const results = await Promise.allSettled([
+      batchGet('/api/missing'),
+      batchGet('/api/busy'),
+      batchGet('/api/bare'),
+      batchGet('/api/lost'),
+    ]);
+
+    const errors = results.map((result) => (result as PromiseRejectedResult).reason as ApiError);
+    expect(errors.map((error) => error.code)).toEqual([
+      'NOT_FOUND',
+      'HTTP_ERROR',
+      'HTTP_ERROR',
+      'HTTP_ERROR',
+    ]);
+    expect(errors[0].status).toBe(404);
+    expect(errors[1].traceId).toBe('trace-2');
+    expect(errors[1].message).toBe('Request failed: 503');
+    expect(errors[2].traceId).toBeUndefined();
+    expect(errors[3].message).toBe('Request failed: missing batch result');
+  });
+
+  /**
+   * A failed batch rejects every queued call.
+   *
+   * <pre>
+   * Theme: Batching
+   * Test view: A failed batch rejects every queued call
+   * Test conditions: Batch POST rejects with a network failure
+   * Test result: Both calls reject with the network error
+   * </pre>
+   */
+  it('rejects every call when the batch fails', async () => {
+    global.fetch = jest.fn().mockRejectedValue(new TypeError('network down')) as typeof fetch;
+
+    const results = await Promise.allSettled([batchGet('/api/a'), batchGet('/api/b')]);
+
+    expect(results.map((result) => (result as PromiseRejectedResult).reason.code)).toEqual([
+      'NETWORK_ERROR',
+      'NETWORK_ERROR',
+    ]);
+  });
+
+  /**
+   * Large bursts are split to respect the backend limit.
+   *
+   * <pre>
+   * Theme: Batching
+   * Test view: Large bursts are split to respect the backend limit
+   * Test conditions: 21 distinct paths in one tick
+   * Test result: One batch of 20 and one direct request
+   * </pre>
+   */
+  it('splits bursts larger than the batch limit', async () => {
+    const fetchMock = jest.fn().mockImplementation((url: string, init: RequestInit) => {
+      if (url !== '/api/batch') {
+        return Promise.resolve(okResponse({ path: url }));
+      }
+      const { requests } = JSON.parse(init.body as string) as {
+        requests: Array<{ id: string; path: string }>;
+      };
+      return Promise.resolve(
+        okResponse({
+          responses: requests.map((request) => ({
+            id: request.id,
+            status: 200,
+            body: { path: request.path },
+          })),
+        }),
+      );
+    });
+    global.fetch = fetchMock as typeof fetch;
+
+    const paths = Array.from({ length: 21 }, (_, index) => `/api/items/${index}`);
+    const results = await Promise.all(paths.map((path) => batchGet(path)));
+
+    expect(results).toEqual(paths.map((path) => ({ path })));
+    expect(fetchMock).toHaveBeenCalledTimes(2);
+    expect(fetchMock.mock.calls[1][0]).toBe('/api/items/20');
+  });
+});
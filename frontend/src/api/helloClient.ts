@@ -4,11 +4,39 @@ import type { components } from './generated';
 type ErrorResponse = components['schemas']['ErrorResponse'];
 /** Success payload returned by the backend. */
 type HelloResponse = components['schemas']['HelloResponse'];
+/** Combined payload returned by the batch endpoint. */
+type BatchResponse = components['schemas']['BatchResponse'];
+/** One sub-request result inside a batch payload. */
+type BatchSubResponse = components['schemas']['BatchSubResponse'];
 
 /** Default request timeout in milliseconds. */
 const DEFAULT_TIMEOUT_MS = 8000;
 /** Trace header used for request correlation. */
 const TRACE_ID_HEADER = 'X-Request-Id';
+/** Batch endpoint path. */
+const BATCH_PATH = '/api/batch';
+/** Maximum sub-requests per batch; matches the backend app.http.batch.max-requests default. */
+const MAX_BATCH_SIZE = 20;
+
+/**
+ * GET call waiting for the next batch flush.
+ * <pre>
+ * Data contract:
+ * - path is the API path with an optional query string.
+ * - resolve and reject settle every caller that asked for the same path in the same tick.
+ * </pre>
+ */
+type PendingCall = {
+  /** API path with an optional query string. */
+  path: string;
+  /** Settles the callers with the sub-response body. */
+  resolve: Array<(payload: unknown) => void>;
+  /** Settles the callers with an ApiError. */
+  reject: Array<(error: ApiError) => void>;
+};
+
+/** Calls queued in the current tick, keyed by path. */
+let pendingCalls = new Map<string, PendingCall>();
 
 /**
  * API error raised by the client helpers.
@@ -147,28 +175,31 @@ async function parseJsonSafely(response: Response): Promise<unknown> {
 }
 
 /**
- * Loads the hello message from the backend.
+ * Sends a request and returns its parsed JSON payload.
  * <pre>
  * Algorithm:
  * 1) Create an AbortController with timeout-based cancellation.
- * 2) Call /api/hello and parse JSON on success.
+ * 2) Call the path and parse JSON on success.
  * 3) Convert non-2xx responses into ApiError with trace metadata.
  * 4) Map abort and unknown failures to typed network errors.
  * 5) Always clear the timeout in the finally block.
  * </pre>
  *
- * @param options request options
- * @returns hello response payload
+ * @param path request path
+ * @param init fetch options without the signal
+ * @param timeoutMs timeout in milliseconds
+ * @returns parsed response payload
  */
-export async function fetchHello(
-  options: { timeoutMs?: number } = {},
-): Promise<HelloResponse> {
-  const timeoutMs = options.timeoutMs ?? DEFAULT_TIMEOUT_MS;
+async function requestJson<T>(
+  path: string,
+  init: RequestInit,
+  timeoutMs: number,
+): Promise<T> {
   const controller = new AbortController();
   const timeoutId = globalThis.setTimeout(() => controller.abort(), timeoutMs);
 
   try {
-    const response = await fetch('/api/hello', { signal: controller.signal });
+    const response = await fetch(path, { ...init, signal: controller.signal });
     if (!response.ok) {
       const traceId = response.headers.get(TRACE_ID_HEADER);
       const contentType = response.headers.get('content-type') ?? '';
@@ -178,7 +209,7 @@ export async function fetchHello(
           : null;
       throw buildErrorFromResponse(response.status, payload, traceId);
     }
-    return (await response.json()) as HelloResponse;
+    return (await response.json()) as T;
   } catch (error) {
     if (isAbortError(error)) {
       throw new ApiError('Network timeout. Please try again.', {
@@ -196,3 +227,164 @@ export async function fetchHello(
     globalThis.clearTimeout(timeoutId);
   }
 }
+
+/**
+ * Loads the hello message from the backend.
+ * <pre>
+ * Algorithm:
+ * 1) Call /api/hello with the shared timeout and error mapping.
+ * 2) Return the parsed HelloResponse.
+ * </pre>
+ *
+ * @param options request options
+ * @returns hello response payload
+ */
+export async function fetchHello(
+  options: { timeoutMs?: number } = {},
+): Promise<HelloResponse> {
+  return requestJson<HelloResponse>(
+    '/api/hello',
+    {},
+    options.timeoutMs ?? DEFAULT_TIMEOUT_MS,
+  );
+}
+
+/**
+ * Finds a header in a batch sub-response regardless of case.
+ * <pre>
+ * Algorithm:
+ * 1) Compare each header name case-insensitively with the requested name.
+ * 2) Return the first matching value, or null.
+ * </pre>
+ *
+ * @param result batch sub-response
+ * @param name header name
+ * @returns header value or null
+ */
+function subResponseHeader(result: BatchSubResponse, name: string): string | null {
+  const lowerName = name.toLowerCase();
+  const entry = Object.entries(result.headers ?? {}).find(
+    ([key]) => key.toLowerCase() === lowerName,
+  );
+  return entry ? entry[1] : null;
+}
+
+/**
+ * Settles the callers of one pending call from its batch sub-response.
+ * <pre>
+ * Algorithm:
+ * 1) Resolve with the body for 2xx statuses.
+ * 2) Otherwise reject with the same ApiError a direct request would produce.
+ * 3) Reject with HTTP_ERROR when the batch has no result for the call.
+ * </pre>
+ *
+ * @param call pending call
+ * @param result matching sub-response, if any
+ */
+function settle(call: PendingCall, result: BatchSubResponse | undefined): void {
+  if (!result) {
+    const error = new ApiError('Request failed: missing batch result', { code: 'HTTP_ERROR' });
+    call.reject.forEach((reject) => reject(error));
+  } else if (result.status >= 200 && result.status < 300) {
+    call.resolve.forEach((resolve) => resolve(result.body));
+  } else {
+    const error = buildErrorFromResponse(
+      result.status,
+      result.body ?? null,
+      subResponseHeader(result, TRACE_ID_HEADER),
+    );
+    call.reject.forEach((reject) => reject(error));
+  }
+}
+
+/**
+ * Sends one group of pending calls.
+ * <pre>
+ * Algorithm:
+ * 1) Send a single call directly, since a batch would not save a round-trip.
+ * 2) Otherwise POST the calls to /api/batch with their index as id.
+ * 3) Settle each call from its sub-response; a failed batch rejects every call.
+ * </pre>
+ *
+ * @param calls pending calls, at most MAX_BATCH_SIZE
+ */
+async function sendBatch(calls: PendingCall[]): Promise<void> {
+  try {
+    if (calls.length === 1) {
+      const payload = await requestJson<unknown>(calls[0].path, {}, DEFAULT_TIMEOUT_MS);
+      calls[0].resolve.forEach((resolve) => resolve(payload));
+    } else {
+      const batch = await requestJson<BatchResponse>(
+        BATCH_PATH,
+        {
+          method: 'POST',
+          headers: { 'Content-Type': 'application/json' },
+          body: JSON.stringify({
+            requests: calls.map((call, index) => ({ id: String(index), path: call.path })),
+          }),
+        },
+        DEFAULT_TIMEOUT_MS,
+      );
+      calls.forEach((call, index) =>
+        settle(call, batch.responses.find((result) => result.id === String(index))),
+      );
+    }
+  } catch (error) {
+    calls.forEach((call) => call.reject.forEach((reject) => reject(error as ApiError)));
+  }
+}
+
+/**
+ * Sends every call queued in the current tick.
+ * <pre>
+ * Algorithm:
+ * 1) Take the queued calls and start a new queue.
+ * 2) Split them into groups of at most MAX_BATCH_SIZE.
+ * 3) Send the groups in parallel.
+ * </pre>
+ */
+function flushPendingCalls(): void {
+  const calls = [...pendingCalls.values()];
+  pendingCalls = new Map();
+  for (let start = 0; start < calls.length; start += MAX_BATCH_SIZE) {
+    void sendBatch(calls.slice(start, start + MAX_BATCH_SIZE));
+  }
+}
+
+/**
+ * Issues a GET through the batch endpoint, coalescing calls made in the same tick.
+ * <pre>
+ * Algorithm:
+ * 1) Queue the call; calls for the same path in the same tick share one sub-request.
+ * 2) Schedule a flush in a microtask when the queue was empty.
+ * 3) Settle with the sub-response body, or with the ApiError a direct call would raise.
+ * </pre>
+ *
+ * @param path API path with an optional query string
+ * @returns parsed response payload
+ */
+export function batchGet<T>(path: string): Promise<T> {
+  return new Promise<T>((resolve, reject) => {
+    if (pendingCalls.size === 0) {
+      queueMicrotask(flushPendingCalls);
+    }
+    const call = pendingCalls.get(path) ?? { path, resolve: [], reject: [] };
+    call.resolve.push((payload) => resolve(payload as T));
+    call.reject.push(reject);
+    pendingCalls.set(path, call);
+  });
+}
+
+/**
+ * Loads the hello message through the batch endpoint.
+ * <pre>
+ * Algorithm:
+ * 1) Queue GET /api/hello with batchGet().
+ * 2) Return the HelloResponse once the batch settles.
+ * </pre>
+ *
+ * @returns hello response payload
+ */
+export function fetchHelloBatched(): Promise<HelloResponse> {
+  return batchGet<HelloResponse>('/api/hello');
+}